@@ -0,0 +1,214 @@
+/*******************************************************************************
+ * Copyright 2014 André Rouél
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package net.sf.uadetector.benchmarks;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+
+import net.sf.qualitycheck.Check;
+
+/**
+ * Describes the kinds of user agent strings that will be fed into the benchmarks.
+ * <p>
+ * All corpora are created with a fixed seed, so that two runs of a benchmark see exactly the same sequence of input.
+ * 
+ * @author André Rouél
+ */
+public enum Corpus {
+
+	/**
+	 * Real-world user agent strings drawn with a Zipf distribution, so that a few strings account for most of the
+	 * samples like in a typical access log
+	 */
+	SKEWED {
+		@Override
+		String[] create(@Nonnull final List<String> userAgents, @Nonnegative final int size, @Nonnull final Random random) {
+			final double[] cumulative = new double[userAgents.size()];
+			double sum = 0;
+			for (int rank = 0; rank < cumulative.length; rank++) {
+				sum += 1.0 / (rank + 1);
+				cumulative[rank] = sum;
+			}
+			final String[] samples = new String[size];
+			for (int i = 0; i < size; i++) {
+				final double value = random.nextDouble() * sum;
+				int rank = 0;
+				while (cumulative[rank] < value) {
+					rank++;
+				}
+				samples[i] = userAgents.get(rank);
+			}
+			return samples;
+		}
+	},
+
+	/**
+	 * Real-world user agent strings drawn with equal probability
+	 */
+	UNIFORM {
+		@Override
+		String[] create(@Nonnull final List<String> userAgents, @Nonnegative final int size, @Nonnull final Random random) {
+			final String[] samples = new String[size];
+			for (int i = 0; i < size; i++) {
+				samples[i] = userAgents.get(random.nextInt(userAgents.size()));
+			}
+			return samples;
+		}
+	},
+
+	/**
+	 * Synthetic strings that are expensive to analyze: floods of tokens which nearly match many patterns, overlong
+	 * strings, random characters and endless version numbers
+	 */
+	ADVERSARIAL {
+		@Override
+		String[] create(@Nonnull final List<String> userAgents, @Nonnegative final int size, @Nonnull final Random random) {
+			final String[] samples = new String[size];
+			for (int i = 0; i < size; i++) {
+				switch (i % 5) {
+					case 0:
+						samples[i] = createNearMisses(random);
+						break;
+					case 1:
+						samples[i] = createOverlong(userAgents, random);
+						break;
+					case 2:
+						samples[i] = createRandom(random);
+						break;
+					case 3:
+						samples[i] = createVersionFlood(random);
+						break;
+					default:
+						samples[i] = userAgents.get(random.nextInt(userAgents.size())).toUpperCase();
+						break;
+				}
+			}
+			return samples;
+		}
+	};
+
+	/**
+	 * Character encoding of the resource with user agent strings
+	 */
+	private static final Charset CHARSET = Charset.forName("UTF-8");
+
+	/**
+	 * Tokens which are part of many patterns, but without the version numbers or delimiters the patterns usually
+	 * require
+	 */
+	private static final String[] NEAR_MISS_TOKENS = { "Mozilla", "AppleWebKit", "KHTML", "Gecko", "Chrome", "Safari", "Firefox",
+			"Opera", "MSIE", "Trident", "Android", "iPhone", "iPad", "Windows", "Linux", "Mac OS", "Mobile", "BlackBerry", "Nokia",
+			"Symbian", "Series60", "bot", "crawler", "spider", "Java", "curl", "Wget", "compatible", "Version", "Presto" };
+
+	/**
+	 * Path of the resource with real-world user agent strings
+	 */
+	private static final String RESOURCE = "user-agents.txt";
+
+	/**
+	 * Seed for all random decisions, to make runs comparable
+	 */
+	private static final long SEED = 20141101L;
+
+	private static String createNearMisses(@Nonnull final Random random) {
+		final StringBuilder builder = new StringBuilder(1024);
+		while (builder.length() < 1000) {
+			builder.append(NEAR_MISS_TOKENS[random.nextInt(NEAR_MISS_TOKENS.length)]);
+			builder.append(random.nextBoolean() ? ' ' : ';');
+		}
+		return builder.toString();
+	}
+
+	private static String createOverlong(@Nonnull final List<String> userAgents, @Nonnull final Random random) {
+		final StringBuilder builder = new StringBuilder(8192);
+		while (builder.length() < 8000) {
+			builder.append(userAgents.get(random.nextInt(userAgents.size())));
+			builder.append(' ');
+		}
+		return builder.toString();
+	}
+
+	private static String createRandom(@Nonnull final Random random) {
+		final char[] chars = new char[512];
+		for (int i = 0; i < chars.length; i++) {
+			chars[i] = (char) (' ' + random.nextInt('~' - ' ' + 1));
+		}
+		return new String(chars);
+	}
+
+	private static String createVersionFlood(@Nonnull final Random random) {
+		final StringBuilder builder = new StringBuilder("Mozilla/5.0 (Windows NT ");
+		while (builder.length() < 2000) {
+			builder.append(random.nextInt(100));
+			builder.append(random.nextInt(10) == 0 ? '_' : '.');
+		}
+		return builder.append(") Chrome/").toString();
+	}
+
+	/**
+	 * Reads the real-world user agent strings in the order of their assumed popularity.
+	 * 
+	 * @return list of user agent strings
+	 */
+	@Nonnull
+	static List<String> readUserAgents() {
+		final InputStream stream = Corpus.class.getResourceAsStream(RESOURCE);
+		Check.stateIsTrue(stream != null, "Resource '%s' not found.", RESOURCE);
+		final List<String> userAgents = new ArrayList<String>();
+		try {
+			final BufferedReader reader = new BufferedReader(new InputStreamReader(stream, CHARSET));
+			try {
+				String line;
+				while ((line = reader.readLine()) != null) {
+					if (!line.isEmpty() && !line.startsWith("#")) {
+						userAgents.add(line);
+					}
+				}
+			} finally {
+				reader.close();
+			}
+		} catch (final IOException e) {
+			throw new IllegalStateException("Resource '" + RESOURCE + "' can not be read.", e);
+		}
+		return Collections.unmodifiableList(userAgents);
+	}
+
+	/**
+	 * Creates the samples of this corpus.
+	 * 
+	 * @param size
+	 *            number of samples
+	 * @return array of user agent strings
+	 */
+	@Nonnull
+	public String[] create(@Nonnegative final int size) {
+		Check.notNegative(size, "size");
+		return create(readUserAgents(), size, new Random(SEED));
+	}
+
+	abstract String[] create(@Nonnull final List<String> userAgents, @Nonnegative final int size, @Nonnull final Random random);
+
+}
@@ -0,0 +1,126 @@
+/*******************************************************************************
+ * Copyright 2014 André Rouél
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package net.sf.uadetector.benchmarks;
+
+import java.util.regex.MatchResult;
+
+import net.sf.uadetector.OperatingSystemFamily;
+import net.sf.uadetector.UserAgent;
+import net.sf.uadetector.datastore.DataStore;
+import net.sf.uadetector.internal.data.Data;
+import net.sf.uadetector.internal.data.domain.Browser;
+import net.sf.uadetector.internal.data.domain.BrowserPattern;
+import net.sf.uadetector.internal.matcher.PatternMatch;
+import net.sf.uadetector.parser.CachingUserAgentStringParser;
+import net.sf.uadetector.parser.UserAgentStringParserImpl;
+import net.sf.uadetector.service.UADetectorServiceFactory;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Shared state of all benchmarks: the detection data of the resource module, the parsers and the samples of the
+ * selected corpus.
+ * <p>
+ * Besides the user agent strings the intermediate results of earlier stages are prepared, so that a stage can be
+ * measured in isolation.
+ * 
+ * @author André Rouél
+ */
+@State(Scope.Benchmark)
+public class DetectionState {
+
+	/**
+	 * Position within the samples and reusable objects of a single benchmark thread
+	 */
+	@State(Scope.Thread)
+	public static class Cursor {
+
+		final UserAgent.Builder builder = new UserAgent.Builder();
+
+		private int index;
+
+		/**
+		 * Returns the position of the next sample and moves forward. Starts again from the beginning when the end is
+		 * reached.
+		 * 
+		 * @param state
+		 *            shared benchmark state
+		 * @return index of the next sample
+		 */
+		int next(final DetectionState state) {
+			final int current = index;
+			index = current + 1 == state.samples.length ? 0 : current + 1;
+			return current;
+		}
+
+	}
+
+	private static String readBrowserVersion(final Data data, final String userAgent) {
+		final PatternMatch<BrowserPattern, Browser> match = data.getBrowserPatternMatcher().find(userAgent);
+		if (match != null) {
+			final MatchResult result = match.getMatchResult();
+			if (result.groupCount() > 0 && result.group(1) != null) {
+				return result.group(1);
+			}
+		}
+		return "";
+	}
+
+	/**
+	 * Kind of user agent strings to be analyzed
+	 */
+	@Param({ "SKEWED", "UNIFORM", "ADVERSARIAL" })
+	public Corpus corpus;
+
+	/**
+	 * Number of samples which will be analyzed in turn
+	 */
+	@Param({ "10000" })
+	public int size;
+
+	String[] browserVersions;
+
+	CachingUserAgentStringParser cachingParser;
+
+	Data data;
+
+	OperatingSystemFamily[] operatingSystemFamilies;
+
+	UserAgentStringParserImpl<DataStore> parser;
+
+	String[] samples;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		final DataStore store = UADetectorServiceFactory.RESOURCE_MODULE;
+		data = store.getData();
+		parser = new UserAgentStringParserImpl<DataStore>(store);
+		cachingParser = new CachingUserAgentStringParser(parser);
+		samples = corpus.create(size);
+
+		browserVersions = new String[samples.length];
+		operatingSystemFamilies = new OperatingSystemFamily[samples.length];
+		for (int i = 0; i < samples.length; i++) {
+			browserVersions[i] = readBrowserVersion(data, samples[i]);
+			operatingSystemFamilies[i] = parser.parse(samples[i]).getOperatingSystem().getFamily();
+		}
+	}
+
+}
@@ -0,0 +1,74 @@
+/*******************************************************************************
+ * Copyright 2014 André Rouél
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package net.sf.uadetector.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import net.sf.uadetector.ReadableUserAgent;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the whole detection of a user agent string, once with a single thread and once with as many threads as
+ * processors are available to reveal contention on shared state.
+ * 
+ * @author André Rouél
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class ParserBenchmark {
+
+	@Benchmark
+	@Threads(1)
+	public ReadableUserAgent parse(final DetectionState state, final DetectionState.Cursor cursor) {
+		return state.parser.parse(state.samples[cursor.next(state)]);
+	}
+
+	@Benchmark
+	@Threads(1)
+	public ReadableUserAgent parseCached(final DetectionState state, final DetectionState.Cursor cursor) {
+		return state.cachingParser.parse(state.samples[cursor.next(state)]);
+	}
+
+	@Benchmark
+	@Threads(Threads.MAX)
+	public ReadableUserAgent parseCachedConcurrently(final DetectionState state, final DetectionState.Cursor cursor) {
+		return state.cachingParser.parse(state.samples[cursor.next(state)]);
+	}
+
+	@Benchmark
+	@Threads(Threads.MAX)
+	public ReadableUserAgent parseConcurrently(final DetectionState state, final DetectionState.Cursor cursor) {
+		return state.parser.parse(state.samples[cursor.next(state)]);
+	}
+
+	@Benchmark
+	@Threads(1)
+	public ReadableUserAgent parseIntoBuilder(final DetectionState state, final DetectionState.Cursor cursor) {
+		return state.parser.parse(state.samples[cursor.next(state)], cursor.builder);
+	}
+
+}
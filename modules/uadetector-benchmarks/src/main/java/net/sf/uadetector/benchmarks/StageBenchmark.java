@@ -0,0 +1,87 @@
+/*******************************************************************************
+ * Copyright 2014 André Rouél
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package net.sf.uadetector.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import net.sf.uadetector.VersionNumber;
+import net.sf.uadetector.internal.data.domain.Browser;
+import net.sf.uadetector.internal.data.domain.BrowserPattern;
+import net.sf.uadetector.internal.data.domain.Device;
+import net.sf.uadetector.internal.data.domain.DevicePattern;
+import net.sf.uadetector.internal.data.domain.OperatingSystem;
+import net.sf.uadetector.internal.data.domain.OperatingSystemPattern;
+import net.sf.uadetector.internal.data.domain.Robot;
+import net.sf.uadetector.internal.matcher.PatternMatch;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures each stage of the detection on its own, in the order in which the parser runs them: robot lookup, browser
+ * matching, browser version parsing, operating system matching, operating system version parsing and device matching.
+ * 
+ * @author André Rouél
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class StageBenchmark {
+
+	@Benchmark
+	public Browser browser(final DetectionState state, final DetectionState.Cursor cursor) {
+		final PatternMatch<BrowserPattern, Browser> match = state.data.getBrowserPatternMatcher().find(
+				state.samples[cursor.next(state)]);
+		return match != null ? match.getValue() : null;
+	}
+
+	@Benchmark
+	public VersionNumber browserVersion(final DetectionState state, final DetectionState.Cursor cursor) {
+		return VersionNumber.parseVersion(state.browserVersions[cursor.next(state)]);
+	}
+
+	@Benchmark
+	public Device device(final DetectionState state, final DetectionState.Cursor cursor) {
+		final PatternMatch<DevicePattern, Device> match = state.data.getDevicePatternMatcher().find(state.samples[cursor.next(state)]);
+		return match != null ? match.getValue() : null;
+	}
+
+	@Benchmark
+	public OperatingSystem operatingSystem(final DetectionState state, final DetectionState.Cursor cursor) {
+		final PatternMatch<OperatingSystemPattern, OperatingSystem> match = state.data.getOperatingSystemPatternMatcher().find(
+				state.samples[cursor.next(state)]);
+		return match != null ? match.getValue() : null;
+	}
+
+	@Benchmark
+	public VersionNumber operatingSystemVersion(final DetectionState state, final DetectionState.Cursor cursor) {
+		final int index = cursor.next(state);
+		return VersionNumber.parseOperatingSystemVersion(state.operatingSystemFamilies[index], state.samples[index]);
+	}
+
+	@Benchmark
+	public Robot robot(final DetectionState state, final DetectionState.Cursor cursor) {
+		return state.data.findRobot(state.samples[cursor.next(state)]);
+	}
+
+}
@@ -0,0 +1,226 @@
+/*******************************************************************************
+ * Copyright 2014 André Rouél
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package net.sf.uadetector;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.ThreadSafe;
+
+import net.sf.qualitycheck.Check;
+
+/**
+ * This utility analyzes many user agent strings at once with a {@link UserAgentStringParser}, it implements the
+ * batch methods of that interface.
+ * <p>
+ * Identical user agent strings are analyzed only once. The distinct strings are divided into chunks, which are
+ * processed by tasks of the given {@link Executor} and by the calling thread. The calling thread keeps working until
+ * all chunks are taken, therefore a batch completes even if the executor is saturated, rejects tasks or never runs
+ * them.
+ * 
+ * @author André Rouél
+ */
+final class BatchParser {
+
+	/**
+	 * Processes the chunks of a batch, shared by all participating threads
+	 */
+	@ThreadSafe
+	private static final class Batch implements Runnable {
+
+		@Nonnegative
+		private final int chunkSize;
+
+		@Nonnegative
+		private final int chunks;
+
+		@Nonnull
+		private final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+
+		@Nonnull
+		private final AtomicInteger nextChunk = new AtomicInteger();
+
+		@Nonnull
+		private final UserAgentStringParser parser;
+
+		@Nonnull
+		private final CountDownLatch remaining;
+
+		@Nonnull
+		private final ReadableUserAgent[] results;
+
+		@Nonnull
+		private final List<String> userAgents;
+
+		public Batch(@Nonnull final UserAgentStringParser parser, @Nonnull final List<String> userAgents, @Nonnegative final int chunkSize) {
+			this.parser = parser;
+			this.userAgents = userAgents;
+			this.chunkSize = chunkSize;
+			chunks = (userAgents.size() + chunkSize - 1) / chunkSize;
+			remaining = new CountDownLatch(chunks);
+			results = new ReadableUserAgent[userAgents.size()];
+		}
+
+		/**
+		 * Waits until all chunks are processed and rethrows the first failure, if any.
+		 * 
+		 * @return results in the order of the distinct user agent strings
+		 */
+		@Nonnull
+		public ReadableUserAgent[] await() {
+			try {
+				remaining.await();
+			} catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Interrupted while waiting for the analysis of user agent strings.", e);
+			}
+			final Throwable t = failure.get();
+			if (t instanceof RuntimeException) {
+				throw (RuntimeException) t;
+			} else if (t instanceof Error) {
+				throw (Error) t;
+			} else if (t != null) {
+				throw new IllegalStateException(t);
+			}
+			return results;
+		}
+
+		@Nonnegative
+		public int getChunks() {
+			return chunks;
+		}
+
+		@Override
+		public void run() {
+			int chunk;
+			while ((chunk = nextChunk.getAndIncrement()) < chunks) {
+				try {
+					// after a failure the batch is lost, the remaining chunks are only counted down
+					if (failure.get() == null) {
+						final int to = Math.min(userAgents.size(), (chunk + 1) * chunkSize);
+						for (int i = chunk * chunkSize; i < to; i++) {
+							results[i] = parser.parse(userAgents.get(i));
+						}
+					}
+				} catch (final Throwable t) {
+					failure.compareAndSet(null, t);
+				} finally {
+					remaining.countDown();
+				}
+			}
+		}
+
+	}
+
+	/**
+	 * Minimum number of distinct user agent strings which will be analyzed in one piece, so that small batches are not
+	 * dominated by the overhead of scheduling
+	 */
+	static final int MIN_CHUNK_SIZE = 64;
+
+	/**
+	 * Number of chunks per available processor, to balance chunks of user agent strings which are more expensive than
+	 * others
+	 */
+	private static final int CHUNKS_PER_PROCESSOR = 4;
+
+	/**
+	 * Analyzes the given user agent strings and returns the results in the same order. Identical strings are analyzed
+	 * only once and lead to the same result instance.
+	 * 
+	 * @param parser
+	 *            parser which analyzes a single user agent string
+	 * @param userAgents
+	 *            user agent strings to analyze
+	 * @param executor
+	 *            executor which runs the analysis in addition to the calling thread
+	 * @return unmodifiable list of results in the order of the given user agent strings
+	 * @throws net.sf.qualitycheck.exception.IllegalNullArgumentException
+	 *             if one of the given arguments is {@code null}
+	 */
+	@Nonnull
+	static List<ReadableUserAgent> parse(@Nonnull final UserAgentStringParser parser, @Nonnull final Iterator<String> userAgents,
+			@Nonnull final Executor executor) {
+		Check.notNull(parser, "parser");
+		Check.notNull(userAgents, "userAgents");
+		Check.notNull(executor, "executor");
+
+		// remember for every user agent string the position of its first occurrence
+		final Map<String, Integer> positions = new HashMap<String, Integer>();
+		final List<String> distinct = new ArrayList<String>();
+		int[] indices = new int[16];
+		int count = 0;
+		while (userAgents.hasNext()) {
+			final String userAgent = userAgents.next();
+			Integer position = positions.get(userAgent);
+			if (position == null) {
+				position = distinct.size();
+				positions.put(userAgent, position);
+				distinct.add(userAgent);
+			}
+			if (count == indices.length) {
+				indices = Arrays.copyOf(indices, count * 2);
+			}
+			indices[count++] = position;
+		}
+
+		final ReadableUserAgent[] results = parseDistinct(parser, distinct, executor);
+		final List<ReadableUserAgent> ordered = new ArrayList<ReadableUserAgent>(count);
+		for (int i = 0; i < count; i++) {
+			ordered.add(results[indices[i]]);
+		}
+		return Collections.unmodifiableList(ordered);
+	}
+
+	@Nonnull
+	private static ReadableUserAgent[] parseDistinct(@Nonnull final UserAgentStringParser parser, @Nonnull final List<String> userAgents,
+			@Nonnull final Executor executor) {
+		final int tasks = Runtime.getRuntime().availableProcessors() * CHUNKS_PER_PROCESSOR;
+		final int chunkSize = Math.max(MIN_CHUNK_SIZE, (userAgents.size() + tasks - 1) / tasks);
+		final Batch batch = new Batch(parser, userAgents, chunkSize);
+
+		// the calling thread takes part, so one task less is needed
+		for (int i = 1; i < batch.getChunks(); i++) {
+			try {
+				executor.execute(batch);
+			} catch (final RejectedExecutionException e) {
+				break;
+			}
+		}
+		batch.run();
+		return batch.await();
+	}
+
+	/**
+	 * <strong>Attention:</strong> This class is not intended to create objects from it.
+	 */
+	private BatchParser() {
+		// This class is not intended to create objects from it.
+	}
+
+}
@@ -0,0 +1,57 @@
+/*******************************************************************************
+ * Copyright 2014 André Rouél
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package net.sf.uadetector;
+
+/**
+ * This enum represents the parts of an user agent which can be requested separately from a parser. Stages of the
+ * analysis, version extractions and object constructions on which none of the requested fields depends are skipped.
+ * 
+ * @author André Rouél
+ */
+public enum DetectionField {
+
+	/**
+	 * The user agent itself, which means the family, icon, name, producer, producer URL, type and URL of a browser or
+	 * robot
+	 */
+	BROWSER,
+
+	/**
+	 * The version number of a browser or robot
+	 */
+	BROWSER_VERSION,
+
+	/**
+	 * The category of the device on which an user agent is running
+	 */
+	DEVICE,
+
+	/**
+	 * The operating system on which an user agent is running, without its version number
+	 */
+	OS,
+
+	/**
+	 * The operating system on which an user agent is running including its version number (implies {@link #OS})
+	 */
+	OS_VERSION,
+
+	/**
+	 * The information whether an user agent is a robot, which is returned as its type {@link UserAgentType#ROBOT}
+	 */
+	ROBOT;
+
+}
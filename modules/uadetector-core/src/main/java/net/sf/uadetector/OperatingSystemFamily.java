@@ -15,12 +15,11 @@
  ******************************************************************************/
 package net.sf.uadetector;
 
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import javax.annotation.Nonnull;
 
-import net.sf.qualitycheck.Check;
+import net.sf.uadetector.internal.util.FamilyIndex;
 
 /**
  * This enum represents the more commonly used operating system families. It will never be complete, but can assist in
@@ -279,6 +278,31 @@ public enum OperatingSystemFamily {
 	 */
 	UNKNOWN("", Pattern.compile("^$"));
 
+	/**
+	 * Holds the index of all families by name and pattern, it will be created on first use.
+	 */
+	private static final class Index {
+
+		static final FamilyIndex<OperatingSystemFamily> INSTANCE = create();
+
+		@Nonnull
+		private static FamilyIndex<OperatingSystemFamily> create() {
+			final OperatingSystemFamily[] values = values();
+			final String[] names = new String[values.length];
+			final Pattern[] patterns = new Pattern[values.length];
+			for (int i = 0; i < values.length; i++) {
+				names[i] = values[i].getName();
+				patterns[i] = values[i].getPattern();
+			}
+			return new FamilyIndex<OperatingSystemFamily>(values, names, patterns, false, UNKNOWN);
+		}
+
+		private Index() {
+			// This class is not intended to create objects from it.
+		}
+
+	}
+
 	/**
 	 * This method try to find by the given family name a matching enum value. The family name must match against an
 	 * operating system entry in UAS data file.
@@ -290,19 +314,7 @@ public enum OperatingSystemFamily {
 	 *             if the given argument is {@code null}
 	 */
 	public static OperatingSystemFamily evaluate(@Nonnull final String family) {
-		Check.notNull(family, "family");
-
-		OperatingSystemFamily result = UNKNOWN;
-
-		// search by name
-		result = evaluateByName(family);
-
-		// search by pattern
-		if (result == UNKNOWN) {
-			result = evaluateByPattern(family);
-		}
-
-		return result;
+		return Index.INSTANCE.evaluate(family);
 	}
 
 	/**
@@ -316,17 +328,7 @@ public enum OperatingSystemFamily {
 	 *             if the given argument is {@code null}
 	 */
 	protected static OperatingSystemFamily evaluateByName(@Nonnull final String family) {
-		Check.notNull(family, "family");
-
-		OperatingSystemFamily result = UNKNOWN;
-		for (final OperatingSystemFamily value : values()) {
-			if (value.getName().equals(family)) {
-				result = value;
-				break;
-			}
-		}
-
-		return result;
+		return Index.INSTANCE.evaluateByName(family);
 	}
 
 	/**
@@ -340,18 +342,7 @@ public enum OperatingSystemFamily {
 	 *             if the given argument is {@code null}
 	 */
 	protected static OperatingSystemFamily evaluateByPattern(@Nonnull final String family) {
-		Check.notNull(family, "family");
-
-		OperatingSystemFamily result = UNKNOWN;
-		for (final OperatingSystemFamily value : values()) {
-			final Matcher m = value.getPattern().matcher(family);
-			if (m.matches()) {
-				result = value;
-				break;
-			}
-		}
-
-		return result;
+		return Index.INSTANCE.evaluateByPattern(family);
 	}
 
 	/**
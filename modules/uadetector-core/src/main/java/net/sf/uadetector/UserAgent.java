@@ -70,6 +70,34 @@ public final class UserAgent implements ReadableUserAgent, Serializable {
 					versionNumber);
 		}
 
+		/**
+		 * Takes over all information of the given user agent, only the user agent string of this builder is kept.
+		 * 
+		 * @param userAgent
+		 *            user agent whose information should be taken over
+		 * @return this builder
+		 * @throws net.sf.qualitycheck.exception.IllegalNullArgumentException
+		 *             if the given argument is {@code null}
+		 */
+		@Nonnull
+		public Builder copyFrom(@Nonnull final ReadableUserAgent userAgent) {
+			Check.notNull(userAgent, "userAgent");
+			final ReadableDeviceCategory category = userAgent.getDeviceCategory();
+			deviceCategory = category instanceof DeviceCategory ? (DeviceCategory) category : new DeviceCategory(category.getCategory(),
+					category.getIcon(), category.getInfoUrl(), category.getName());
+			family = userAgent.getFamily();
+			icon = userAgent.getIcon();
+			name = userAgent.getName();
+			operatingSystem = userAgent.getOperatingSystem();
+			producer = userAgent.getProducer();
+			producerUrl = userAgent.getProducerUrl();
+			type = userAgent.getType();
+			typeName = userAgent.getTypeName();
+			url = userAgent.getUrl();
+			versionNumber = userAgent.getVersionNumber();
+			return this;
+		}
+
 		@Override
 		public DeviceCategory getDeviceCategory() {
 			return deviceCategory;
@@ -129,6 +157,34 @@ public final class UserAgent implements ReadableUserAgent, Serializable {
 			return versionNumber;
 		}
 
+		/**
+		 * Resets all information of this builder to the information of {@link UserAgent#EMPTY} and sets the given user
+		 * agent string, so that the builder can be reused for another user agent string.
+		 * 
+		 * @param userAgentString
+		 *            user agent string
+		 * @return this builder
+		 * @throws net.sf.qualitycheck.exception.IllegalNullArgumentException
+		 *             if the given argument is {@code null}
+		 */
+		@Nonnull
+		public Builder reset(@Nonnull final String userAgentString) {
+			Check.notNull(userAgentString, "userAgentString");
+			deviceCategory = EMPTY.deviceCategory;
+			family = EMPTY.family;
+			icon = EMPTY.icon;
+			name = EMPTY.name;
+			operatingSystem = OperatingSystem.EMPTY;
+			producer = EMPTY.producer;
+			producerUrl = EMPTY.producerUrl;
+			type = EMPTY.type;
+			typeName = EMPTY.typeName;
+			url = EMPTY.url;
+			this.userAgentString = userAgentString;
+			versionNumber = VersionNumber.UNKNOWN;
+			return this;
+		}
+
 		@Nonnull
 		public Builder setDeviceCategory(@Nonnull final DeviceCategory deviceCategory) {
 			Check.notNull(deviceCategory, "deviceCategory");
@@ -15,12 +15,11 @@
  ******************************************************************************/
 package net.sf.uadetector;
 
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import javax.annotation.Nonnull;
 
-import net.sf.qualitycheck.Check;
+import net.sf.uadetector.internal.util.FamilyIndex;
 
 /**
  * This enum represents the more commonly used user agent families. It will never be complete, but can assist in
@@ -4410,6 +4409,31 @@ public enum UserAgentFamily {
 	 */
 	ZYBORG("ZyBorg", Pattern.compile("ZyBorg"));
 
+	/**
+	 * Holds the index of all families by name and pattern, it will be created on first use.
+	 */
+	private static final class Index {
+
+		static final FamilyIndex<UserAgentFamily> INSTANCE = create();
+
+		@Nonnull
+		private static FamilyIndex<UserAgentFamily> create() {
+			final UserAgentFamily[] values = values();
+			final String[] names = new String[values.length];
+			final Pattern[] patterns = new Pattern[values.length];
+			for (int i = 0; i < values.length; i++) {
+				names[i] = values[i].getName();
+				patterns[i] = values[i].getPattern();
+			}
+			return new FamilyIndex<UserAgentFamily>(values, names, patterns, true, UNKNOWN);
+		}
+
+		private Index() {
+			// This class is not intended to create objects from it.
+		}
+
+	}
+
 	/**
 	 * This method try to find by the given family name a matching enum value. The family name must match against an
 	 * user agent entry in UAS data file.
@@ -4422,19 +4446,7 @@ public enum UserAgentFamily {
 	 */
 	@Nonnull
 	public static UserAgentFamily evaluate(@Nonnull final String family) {
-		Check.notNull(family, "family");
-
-		UserAgentFamily result = UNKNOWN;
-
-		// search by name
-		result = evaluateByName(family);
-
-		// search by pattern
-		if (result == UNKNOWN) {
-			result = evaluateByPattern(family);
-		}
-
-		return result;
+		return Index.INSTANCE.evaluate(family);
 	}
 
 	/**
@@ -4449,17 +4461,7 @@ public enum UserAgentFamily {
 	 */
 	@Nonnull
 	protected static UserAgentFamily evaluateByName(@Nonnull final String family) {
-		Check.notNull(family, "family");
-
-		UserAgentFamily result = UNKNOWN;
-		for (final UserAgentFamily value : values()) {
-			if (value.getName().equalsIgnoreCase(family)) {
-				result = value;
-				break;
-			}
-		}
-
-		return result;
+		return Index.INSTANCE.evaluateByName(family);
 	}
 
 	/**
@@ -4474,18 +4476,7 @@ public enum UserAgentFamily {
 	 */
 	@Nonnull
 	protected static UserAgentFamily evaluateByPattern(@Nonnull final String family) {
-		Check.notNull(family, "family");
-
-		UserAgentFamily result = UNKNOWN;
-		for (final UserAgentFamily value : values()) {
-			final Matcher m = value.getPattern().matcher(family);
-			if (m.matches()) {
-				result = value;
-				break;
-			}
-		}
-
-		return result;
+		return Index.INSTANCE.evaluateByPattern(family);
 	}
 
 	/**
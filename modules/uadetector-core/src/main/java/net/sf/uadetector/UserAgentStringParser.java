@@ -15,8 +15,16 @@
  ******************************************************************************/
 package net.sf.uadetector;
 
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
 import javax.annotation.PreDestroy;
 
+import net.sf.qualitycheck.Check;
+
 /**
  * Basic interface for user agent string parsers.
  * 
@@ -50,6 +58,121 @@ public interface UserAgentStringParser {
 	 */
 	ReadableUserAgent parse(final String userAgent);
 
+	/**
+	 * Detects informations about a network client based on a user agent string and writes them into the given builder.
+	 * <p>
+	 * The builder will be reset before, so it can be reused for many user agent strings. The detected information is
+	 * identical to the result of {@link #parse(String)}. This default implementation copies the result of
+	 * {@link #parse(String)} into the builder, implementations can avoid the allocation of result objects.
+	 * 
+	 * @param userAgent
+	 *            user agent string
+	 * @param builder
+	 *            builder which receives the detected informations
+	 * @return the given builder
+	 * @throws net.sf.qualitycheck.exception.IllegalNullArgumentException
+	 *             if one of the given arguments is {@code null}
+	 */
+	default UserAgent.Builder parse(final String userAgent, final UserAgent.Builder builder) {
+		Check.notNull(builder, "builder");
+		return builder.reset(userAgent).copyFrom(parse(userAgent));
+	}
+
+	/**
+	 * Detects only the requested informations about a network client based on a user agent string.
+	 * <p>
+	 * Stages of the analysis on which none of the requested fields depends are skipped. The values of the requested
+	 * fields are identical to the result of {@link #parse(String)}, all other fields may keep their default values.
+	 * This default implementation analyzes the user agent string completely.
+	 * 
+	 * @param userAgent
+	 *            user agent string
+	 * @param fields
+	 *            fields which should be detected
+	 * @return the detected information of an user agent
+	 * @throws net.sf.qualitycheck.exception.IllegalNullArgumentException
+	 *             if the given fields are {@code null}
+	 */
+	default ReadableUserAgent parseOnly(final String userAgent, final Set<DetectionField> fields) {
+		Check.notNull(fields, "fields");
+		return parse(userAgent);
+	}
+
+	/**
+	 * Detects informations about many network clients at once, for example to analyze the user agent strings of an
+	 * access log.
+	 * <p>
+	 * Identical user agent strings are analyzed only once and the work is spread over the common
+	 * {@link ForkJoinPool}. Any {@link java.util.Collection} of user agent strings can be passed.
+	 * 
+	 * @param userAgents
+	 *            user agent strings
+	 * @return unmodifiable list of the detected information in the order of the given user agent strings
+	 * @throws net.sf.qualitycheck.exception.IllegalNullArgumentException
+	 *             if the given argument is {@code null}
+	 */
+	default List<ReadableUserAgent> parseAll(final Iterable<String> userAgents) {
+		return parseAll(userAgents, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Detects informations about many network clients at once, for example to analyze the user agent strings of an
+	 * access log.
+	 * <p>
+	 * Identical user agent strings are analyzed only once and the work is spread over the given executor. The calling
+	 * thread takes part in the analysis and returns when all user agent strings are analyzed.
+	 * 
+	 * @param userAgents
+	 *            user agent strings
+	 * @param executor
+	 *            executor which runs the analysis in addition to the calling thread
+	 * @return unmodifiable list of the detected information in the order of the given user agent strings
+	 * @throws net.sf.qualitycheck.exception.IllegalNullArgumentException
+	 *             if one of the given arguments is {@code null}
+	 */
+	default List<ReadableUserAgent> parseAll(final Iterable<String> userAgents, final Executor executor) {
+		Check.notNull(userAgents, "userAgents");
+		return BatchParser.parse(this, userAgents.iterator(), executor);
+	}
+
+	/**
+	 * Detects informations about many network clients at once, for example to analyze the user agent strings of an
+	 * access log.
+	 * <p>
+	 * The stream will be consumed completely before the analysis starts. Identical user agent strings are analyzed only
+	 * once and the work is spread over the common {@link ForkJoinPool}.
+	 * 
+	 * @param userAgents
+	 *            stream of user agent strings
+	 * @return unmodifiable list of the detected information in the order of the given user agent strings
+	 * @throws net.sf.qualitycheck.exception.IllegalNullArgumentException
+	 *             if the given argument is {@code null}
+	 */
+	default List<ReadableUserAgent> parseAll(final Stream<String> userAgents) {
+		return parseAll(userAgents, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Detects informations about many network clients at once, for example to analyze the user agent strings of an
+	 * access log.
+	 * <p>
+	 * The stream will be consumed completely before the analysis starts. Identical user agent strings are analyzed only
+	 * once and the work is spread over the given executor. The calling thread takes part in the analysis and returns
+	 * when all user agent strings are analyzed.
+	 * 
+	 * @param userAgents
+	 *            stream of user agent strings
+	 * @param executor
+	 *            executor which runs the analysis in addition to the calling thread
+	 * @return unmodifiable list of the detected information in the order of the given user agent strings
+	 * @throws net.sf.qualitycheck.exception.IllegalNullArgumentException
+	 *             if one of the given arguments is {@code null}
+	 */
+	default List<ReadableUserAgent> parseAll(final Stream<String> userAgents, final Executor executor) {
+		Check.notNull(userAgents, "userAgents");
+		return BatchParser.parse(this, userAgents.iterator(), executor);
+	}
+
 	/**
 	 * In environments where the JVM will never shut down while reinstalling UADetector, it is necessary to manually
 	 * shutdown running threads of <code>UserAgentStringParser</code>s with <b>updating functionality</b> like
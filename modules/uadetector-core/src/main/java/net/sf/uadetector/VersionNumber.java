@@ -15,12 +15,16 @@
  ******************************************************************************/
 package net.sf.uadetector;
 
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamException;
+import java.io.ObjectStreamField;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
-import java.util.regex.Pattern;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -49,20 +53,32 @@ public final class VersionNumber implements ReadableVersionNumber, Serializable
 	public static final String EMPTY_GROUP = "";
 
 	/**
-	 * Minimum number of numeric group a version number
+	 * Marks an empty group in the numeric representation of a version number
 	 */
-	private static final int MIN_GROUP_SIZE = 3;
+	private static final int EMPTY_NUMBER = -1;
 
 	/**
-	 * Regular expression to find only numerical values ​​in strings
+	 * Numeric representation of a version number without any group
 	 */
-	private static final Pattern NUMERIC = Pattern.compile("\\d+");
+	private static final int[] EMPTY_NUMBERS = { EMPTY_NUMBER, EMPTY_NUMBER, EMPTY_NUMBER };
+
+	/**
+	 * Minimum number of numeric group a version number
+	 */
+	private static final int MIN_GROUP_SIZE = 3;
 
 	/**
 	 * Separator between numeric groups of a version number
 	 */
 	private static final char SEPARATOR = '.';
 
+	/**
+	 * Serialized fields, which consist of the groups as list of strings and the extension independent of the numeric
+	 * representation
+	 */
+	private static final ObjectStreamField[] serialPersistentFields = { new ObjectStreamField("extension", String.class),
+			new ObjectStreamField("groups", List.class) };
+
 	/**
 	 * Serialization version
 	 */
@@ -73,6 +89,59 @@ public final class VersionNumber implements ReadableVersionNumber, Serializable
 	 */
 	public static final VersionNumber UNKNOWN = new VersionNumber(EMPTY_GROUP);
 
+	/**
+	 * Creates a version number of the dot separated numeric groups within the given range of a text. The caller must
+	 * ensure that the range consists only of digits and single dots between them.
+	 * 
+	 * @param text
+	 *            text which contains the numeric groups
+	 * @param start
+	 *            index of the first digit
+	 * @param end
+	 *            index after the last digit
+	 * @param extension
+	 *            extension of the version number
+	 * @return a new version number
+	 */
+	static VersionNumber create(@Nonnull final String text, final int start, final int end, @Nonnull final String extension) {
+		int count = 1;
+		for (int i = start; i < end; i++) {
+			if (text.charAt(i) == SEPARATOR) {
+				count++;
+			}
+		}
+		final int[] numbers = new int[Math.max(count, MIN_GROUP_SIZE)];
+		Arrays.fill(numbers, count, numbers.length, EMPTY_NUMBER);
+		int group = 0;
+		int groupStart = start;
+		long value = 0;
+		for (int i = start; i <= end; i++) {
+			if (i == end || text.charAt(i) == SEPARATOR) {
+				// leading zeros and very large numbers can not be restored from an int
+				if (i - groupStart > 1 && text.charAt(groupStart) == '0' || value > Integer.MAX_VALUE) {
+					return new VersionNumber(Arrays.asList(text.substring(start, end).split("\\.")), extension);
+				}
+				numbers[group++] = (int) value;
+				groupStart = i + 1;
+				value = 0;
+			} else if (value <= Integer.MAX_VALUE) {
+				value = value * 10 + text.charAt(i) - '0';
+			}
+		}
+		return new VersionNumber(numbers, extension);
+	}
+
+	/**
+	 * Creates a version number without any group, but with the given extension.
+	 * 
+	 * @param extension
+	 *            extension of the version number
+	 * @return a new version number
+	 */
+	static VersionNumber createWithoutGroups(@Nonnull final String extension) {
+		return new VersionNumber(EMPTY_NUMBERS, extension);
+	}
+
 	/**
 	 * Checks a string that only numerical values ​​are present. Negative numbers are not included.
 	 * 
@@ -81,7 +150,16 @@ public final class VersionNumber implements ReadableVersionNumber, Serializable
 	 * @return {@code true} if only numeric characters are present, otherwise {@code false}
 	 */
 	private static boolean isNumeric(final String text) {
-		return NUMERIC.matcher(text).matches();
+		if (text.isEmpty()) {
+			return false;
+		}
+		for (int i = 0; i < text.length(); i++) {
+			final char c = text.charAt(i);
+			if (c < '0' || c > '9') {
+				return false;
+			}
+		}
+		return true;
 	}
 
 	/**
@@ -147,6 +225,28 @@ public final class VersionNumber implements ReadableVersionNumber, Serializable
 		return result;
 	}
 
+	/**
+	 * Creates a version number of the given groups and extension while deserializing.
+	 * 
+	 * @param groups
+	 *            list of numbers of a version number
+	 * @param extension
+	 *            extension of a version number
+	 * @return restored version number
+	 * @throws InvalidObjectException
+	 *             if the given groups and extension do not form a valid version number
+	 */
+	private static VersionNumber restore(@Nullable final List<String> groups, @Nullable final String extension)
+			throws InvalidObjectException {
+		try {
+			return new VersionNumber(groups, extension);
+		} catch (final RuntimeException e) {
+			final InvalidObjectException exception = new InvalidObjectException("Invalid version number: " + e.getLocalizedMessage());
+			exception.initCause(e);
+			throw exception;
+		}
+	}
+
 	/**
 	 * Converts the given list of numbers in a version string. The groups of the version number will be separated by a
 	 * dot.
@@ -172,6 +272,36 @@ public final class VersionNumber implements ReadableVersionNumber, Serializable
 		return builder.toString();
 	}
 
+	/**
+	 * Converts the given groups into their numeric representation, if every group is empty or a number without leading
+	 * zeros which fits into an {@code int}. Only then the groups can be restored exactly from the numbers.
+	 * 
+	 * @param groups
+	 *            list of numbers of a version number
+	 * @return numeric representation or {@code null} if not possible
+	 */
+	@Nullable
+	private static int[] toNumbers(@Nonnull final List<String> groups) {
+		final int[] numbers = new int[groups.size()];
+		int i = 0;
+		for (final String group : groups) {
+			if (EMPTY_GROUP.equals(group)) {
+				numbers[i] = EMPTY_NUMBER;
+			} else {
+				if (group.length() > 1 && group.charAt(0) == '0' || group.length() > 10) {
+					return null;
+				}
+				final long value = Long.parseLong(group);
+				if (value > Integer.MAX_VALUE) {
+					return null;
+				}
+				numbers[i] = (int) value;
+			}
+			i++;
+		}
+		return numbers;
+	}
+
 	/**
 	 * Extension or suffix of the version number consisting of alphanumeric and special characters
 	 */
@@ -179,11 +309,40 @@ public final class VersionNumber implements ReadableVersionNumber, Serializable
 	private final String extension;
 
 	/**
-	 * Groups, segments or categories of the version number
+	 * Groups, segments or categories of the version number, if no numeric representation exists. The name and type of
+	 * this field and {@link #extension} match the serialized form, so that they will be set while deserializing.
 	 */
-	@Nonnull
+	@Nullable
 	private final List<String> groups;
 
+	/**
+	 * Numeric representation of the groups, where {@link #EMPTY_NUMBER} stands for an empty group, or {@code null} if
+	 * at least one group has leading zeros or is too large
+	 */
+	@Nullable
+	private final transient int[] numbers;
+
+	/**
+	 * Groups of the numeric representation, which will be created lazily
+	 */
+	@Nullable
+	private transient volatile List<String> numericGroups;
+
+	/**
+	 * Constructs a {@code VersionNumber} with the given numeric representation and extension. The array will not be
+	 * copied and must not be modified afterwards.
+	 * 
+	 * @param numbers
+	 *            numeric groups of the version number, at least {@value #MIN_GROUP_SIZE}
+	 * @param extension
+	 *            extension of a version number
+	 */
+	private VersionNumber(@Nonnull final int[] numbers, @Nonnull final String extension) {
+		this.numbers = numbers;
+		groups = null;
+		this.extension = extension;
+	}
+
 	/**
 	 * Constructs a {@code VersionNumber} with the given numeric groups, such as major, minor and bugfix number.
 	 * 
@@ -224,7 +383,8 @@ public final class VersionNumber implements ReadableVersionNumber, Serializable
 			i++;
 		}
 
-		this.groups = segments;
+		numbers = toNumbers(segments);
+		this.groups = numbers == null ? Collections.unmodifiableList(segments) : null;
 		this.extension = extension;
 	}
 
@@ -307,16 +467,21 @@ public final class VersionNumber implements ReadableVersionNumber, Serializable
 	 */
 	@Override
 	public int compareTo(@Nullable final ReadableVersionNumber other) {
+		if (other instanceof VersionNumber && numbers != null && ((VersionNumber) other).numbers != null) {
+			return compareTo((VersionNumber) other);
+		}
 		int result = 0;
 		if (other == null) {
 			result = -1;
 		} else {
+			final List<String> thisGroups = getGroups();
 			Check.notNull(other.getGroups(), "other.getGroups()");
-			final int length = groups.size() < other.getGroups().size() ? groups.size() : other.getGroups().size();
+			final int length = thisGroups.size() < other.getGroups().size() ? thisGroups.size() : other.getGroups().size();
 			final NaturalOrderComparator comparator = new NaturalOrderComparator();
-			result = comparator.compare(toVersionString(groups.subList(0, length)), toVersionString(other.getGroups().subList(0, length)));
+			result = comparator.compare(toVersionString(thisGroups.subList(0, length)),
+					toVersionString(other.getGroups().subList(0, length)));
 			if (result == 0) {
-				result = groups.size() > other.getGroups().size() ? 1 : groups.size() < other.getGroups().size() ? -1 : 0;
+				result = thisGroups.size() > other.getGroups().size() ? 1 : thisGroups.size() < other.getGroups().size() ? -1 : 0;
 			}
 			if (result == 0) {
 				result = extension.compareTo(other.getExtension());
@@ -328,6 +493,38 @@ public final class VersionNumber implements ReadableVersionNumber, Serializable
 		return result;
 	}
 
+	/**
+	 * Compares two version numbers which both have a numeric representation. The order is the same as of the natural
+	 * order comparison of their version strings, but without building them.
+	 * 
+	 * @param other
+	 *            version number with a numeric representation
+	 * @return a negative integer, zero, or a positive integer as this version number is less than, equal to, or greater
+	 *         than the specified version number.
+	 */
+	private int compareTo(@Nonnull final VersionNumber other) {
+		final int[] others = other.numbers;
+		final int length = numbers.length < others.length ? numbers.length : others.length;
+		for (int i = 0; i < length; i++) {
+			// the version string ends with the first empty group
+			if (numbers[i] == EMPTY_NUMBER || others[i] == EMPTY_NUMBER) {
+				if (numbers[i] != others[i]) {
+					return numbers[i] == EMPTY_NUMBER ? -1 : 1;
+				}
+				break;
+			}
+			if (numbers[i] != others[i]) {
+				return numbers[i] < others[i] ? -1 : 1;
+			}
+		}
+		if (numbers.length != others.length) {
+			return numbers.length > others.length ? 1 : -1;
+		}
+
+		// equal groups and extensions lead to equal version strings
+		return extension.compareTo(other.extension);
+	}
+
 	/**
 	 * Indicates whether some other object is "equal to" this version number.
 	 * 
@@ -345,7 +542,11 @@ public final class VersionNumber implements ReadableVersionNumber, Serializable
 			return false;
 		}
 		final VersionNumber other = (VersionNumber) obj;
-		if (!groups.equals(other.groups)) {
+		if (numbers != null && other.numbers != null) {
+			if (!Arrays.equals(numbers, other.numbers)) {
+				return false;
+			}
+		} else if (!getGroups().equals(other.getGroups())) {
 			return false;
 		}
 		if (!extension.equals(other.extension)) {
@@ -359,7 +560,7 @@ public final class VersionNumber implements ReadableVersionNumber, Serializable
 	 */
 	@Override
 	public String getBugfix() {
-		return groups.get(2);
+		return getGroups().get(2);
 	}
 
 	/**
@@ -382,7 +583,19 @@ public final class VersionNumber implements ReadableVersionNumber, Serializable
 	 */
 	@Override
 	public List<String> getGroups() {
-		return Collections.unmodifiableList(groups);
+		if (groups != null) {
+			return groups;
+		}
+		List<String> result = numericGroups;
+		if (result == null) {
+			final List<String> list = new ArrayList<String>(numbers.length);
+			for (final int number : numbers) {
+				list.add(number == EMPTY_NUMBER ? EMPTY_GROUP : Integer.toString(number));
+			}
+			result = Collections.unmodifiableList(list);
+			numericGroups = result;
+		}
+		return result;
 	}
 
 	/**
@@ -390,7 +603,7 @@ public final class VersionNumber implements ReadableVersionNumber, Serializable
 	 */
 	@Override
 	public String getMajor() {
-		return groups.get(0);
+		return getGroups().get(0);
 	}
 
 	/**
@@ -398,18 +611,28 @@ public final class VersionNumber implements ReadableVersionNumber, Serializable
 	 */
 	@Override
 	public String getMinor() {
-		return groups.get(1);
+		return getGroups().get(1);
 	}
 
 	@Override
 	public int hashCode() {
 		final int prime = 31;
 		int result = 1;
-		result = prime * result + groups.hashCode();
+		result = prime * result + (numbers != null ? Arrays.hashCode(numbers) : getGroups().hashCode());
 		result = prime * result + extension.hashCode();
 		return result;
 	}
 
+	/**
+	 * Replaces a deserialized version number, whose groups and extension have been read directly, by a validated
+	 * version number with its numeric representation.
+	 * 
+	 * @return restored version number
+	 */
+	private Object readResolve() throws ObjectStreamException {
+		return restore(groups, extension);
+	}
+
 	/**
 	 * Returns a string representation of the version number.
 	 * 
@@ -418,7 +641,7 @@ public final class VersionNumber implements ReadableVersionNumber, Serializable
 	@Nonnull
 	@Override
 	public String toString() {
-		return "VersionNumber [groups=" + groups + ", extension=" + extension + "]";
+		return "VersionNumber [groups=" + getGroups() + ", extension=" + extension + "]";
 	}
 
 	/**
@@ -429,7 +652,33 @@ public final class VersionNumber implements ReadableVersionNumber, Serializable
 	@Nonnull
 	@Override
 	public String toVersionString() {
-		return toVersionString(groups) + extension;
+		if (numbers == null) {
+			return toVersionString(groups) + extension;
+		}
+		final StringBuilder builder = new StringBuilder(6 + extension.length());
+		for (int i = 0; i < numbers.length && numbers[i] != EMPTY_NUMBER; i++) {
+			if (i > 0) {
+				builder.append(SEPARATOR);
+			}
+			builder.append(numbers[i]);
+		}
+		return builder.append(extension).toString();
+	}
+
+	/**
+	 * Writes the groups and the extension of this version number, so that the serialized form does not depend on the
+	 * numeric representation.
+	 * 
+	 * @param out
+	 *            stream to write to
+	 * @throws IOException
+	 *             if an I/O error occurs
+	 */
+	private void writeObject(final ObjectOutputStream out) throws IOException {
+		final ObjectOutputStream.PutField fields = out.putFields();
+		fields.put("extension", extension);
+		fields.put("groups", new ArrayList<String>(getGroups()));
+		out.writeFields();
 	}
 
 }
@@ -15,13 +15,14 @@
  ******************************************************************************/
 package net.sf.uadetector;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
+import java.util.EnumMap;
+import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
 
 import net.sf.qualitycheck.Check;
 
@@ -33,9 +34,130 @@ import net.sf.qualitycheck.Check;
 final class VersionParser {
 
 	/**
-	 * Index number of the group in a matching {@link Pattern} which contains the extension/suffix of a version string
+	 * Shared version number together with the text from which it was created
 	 */
-	private static final int EXTENSION_INDEX = 5;
+	@Immutable
+	private static final class InternedVersion {
+
+		@Nonnull
+		private final String text;
+
+		@Nonnull
+		private final VersionNumber version;
+
+		public InternedVersion(@Nonnull final String text, @Nonnull final VersionNumber version) {
+			this.text = text;
+			this.version = version;
+		}
+
+		/**
+		 * Checks whether this version number was created from the given range of a text.
+		 * 
+		 * @param text
+		 *            text with version information
+		 * @param start
+		 *            start of the range
+		 * @param end
+		 *            end of the range
+		 * @return {@code true} if the range equals the text of this version number, otherwise {@code false}
+		 */
+		public boolean matches(@Nonnull final String text, final int start, final int end) {
+			return this.text.length() == end - start && text.regionMatches(start, this.text, 0, end - start);
+		}
+
+	}
+
+	/**
+	 * Precompiled regular expression to identify the version number of an operating system.
+	 * <p>
+	 * Every match of the expression must start with its literal prefix, therefore the user agent string will be searched
+	 * for the prefix first, which is much cheaper than starting the regular expression engine at every position.
+	 */
+	@Immutable
+	private static final class OperatingSystemVersionPattern {
+
+		/**
+		 * Determines the literal text with which every match of the given regular expression starts.
+		 * 
+		 * @param regex
+		 *            regular expression
+		 * @return literal prefix, may be empty
+		 */
+		private static String findLiteralPrefix(@Nonnull final String regex) {
+			int end = 0;
+			while (end < regex.length() && "\\()[]{}.*+?|^$".indexOf(regex.charAt(end)) < 0) {
+				end++;
+			}
+			// a quantifier makes the preceding character optional or repeatable
+			if (end > 0 && end < regex.length() && "*+?{".indexOf(regex.charAt(end)) >= 0) {
+				end--;
+			}
+			return regex.substring(0, end);
+		}
+
+		/**
+		 * Literal text with which every match starts, or an empty string if the expression is case insensitive
+		 */
+		@Nonnull
+		private final String literalPrefix;
+
+		@Nonnull
+		private final Pattern pattern;
+
+		/**
+		 * Whether the numeric groups of the version are separated by underscores instead of dots
+		 */
+		private final boolean underscoreSeparated;
+
+		public OperatingSystemVersionPattern(@Nonnull final String regex, final int flags, final boolean underscoreSeparated) {
+			pattern = Pattern.compile(regex, flags);
+			literalPrefix = (flags & Pattern.CASE_INSENSITIVE) != 0 ? "" : findLiteralPrefix(regex);
+			this.underscoreSeparated = underscoreSeparated;
+		}
+
+		/**
+		 * Searches the version number in the given user agent string.
+		 * 
+		 * @param userAgent
+		 *            user agent string
+		 * @return found version number or {@code null}
+		 */
+		@Nullable
+		public VersionNumber find(@Nonnull final String userAgent) {
+			final int start = userAgent.indexOf(literalPrefix);
+			if (start < 0) {
+				return null;
+			}
+			final Matcher m = pattern.matcher(userAgent);
+			if (!m.find(start)) {
+				return null;
+			}
+			final String version = m.group(MAJOR_INDEX);
+			return parseFirstVersionNumber(underscoreSeparated ? version.replace('_', '.') : version);
+		}
+
+	}
+
+	/**
+	 * Maximum length of the text of a version number which will be shared, longer texts are rarely repeated
+	 */
+	private static final int INTERNED_MAXIMUM_LENGTH = 32;
+
+	/**
+	 * Number of slots for shared version numbers, must be a power of two
+	 */
+	private static final int INTERNED_SIZE = 1024;
+
+	/**
+	 * Shared instances of frequently parsed version numbers (like {@code 537.36} or {@code 10.0}), one per slot of the
+	 * hash of the text from which they were created. A slot will be overwritten if another text with the same hash is
+	 * parsed.
+	 * <p>
+	 * The table is read and written without any synchronization. An entry consists only of final fields, so a thread
+	 * sees either a completely initialized entry or an outdated one, which only results in creating a new version
+	 * number.
+	 */
+	private static final InternedVersion[] INTERNED = new InternedVersion[INTERNED_SIZE];
 
 	/**
 	 * Index number of the group in a matching {@link Pattern} which contains the first/major number of a version string
@@ -43,19 +165,115 @@ final class VersionParser {
 	private static final int MAJOR_INDEX = 1;
 
 	/**
-	 * Regular expression to analyze a version number separated by a dot
+	 * Precompiled regular expressions per operating system family, ordered by priority
+	 */
+	private static final Map<OperatingSystemFamily, OperatingSystemVersionPattern[]> OPERATING_SYSTEM_VERSION_PATTERNS = createOperatingSystemVersionPatterns();
+
+	/**
+	 * Compiles the regular expressions to identify the version number of an operating system once, grouped by the
+	 * family and ordered by their priority.
+	 * 
+	 * @return regular expressions per operating system family
+	 */
+	private static Map<OperatingSystemFamily, OperatingSystemVersionPattern[]> createOperatingSystemVersionPatterns() {
+		final Map<OperatingSystemFamily, OperatingSystemVersionPattern[]> patterns = new EnumMap<OperatingSystemFamily, OperatingSystemVersionPattern[]>(
+				OperatingSystemFamily.class);
+		patterns.put(OperatingSystemFamily.ANDROID, new OperatingSystemVersionPattern[] {
+				new OperatingSystemVersionPattern("Android\\s?((\\d+)((\\.\\d+)+)?(\\-(\\w|\\d)+)?);", 0, false),
+				new OperatingSystemVersionPattern("Android\\-((\\d+)((\\.\\d+)+)?(\\-(\\w|\\d)+)?);", 0, false) });
+		patterns.put(OperatingSystemFamily.BADA,
+				new OperatingSystemVersionPattern[] { new OperatingSystemVersionPattern("Bada/((\\d+)((\\.\\d+)+)?)", 0, false) });
+		patterns.put(OperatingSystemFamily.BSD, new OperatingSystemVersionPattern[] { new OperatingSystemVersionPattern(
+				"\\w+bsd\\s?((\\d+)((\\.\\d+)+)?((\\-|_)[\\w\\d\\-]+)?)", Pattern.CASE_INSENSITIVE, false) });
+		patterns.put(OperatingSystemFamily.IOS, new OperatingSystemVersionPattern[] {
+				new OperatingSystemVersionPattern("iPhone OS\\s?((\\d+)((\\_\\d+)+)?) like Mac OS X", 0, true),
+				new OperatingSystemVersionPattern("CPU OS\\s?((\\d+)((\\_\\d+)+)?) like Mac OS X", 0, true),
+				new OperatingSystemVersionPattern("iPhone OS\\s?((\\d+)((\\.\\d+)+)?);", 0, true) });
+		patterns.put(OperatingSystemFamily.JVM, new OperatingSystemVersionPattern[] {
+				new OperatingSystemVersionPattern("Java/((\\d+)((\\.\\d+)+)?((\\-|_)[\\w\\d\\-]+)?)", 0, false),
+				new OperatingSystemVersionPattern("Java((\\d+)((\\.\\d+)+)?((\\-|_)[\\w\\d\\-]+)?)", 0, false) });
+		patterns.put(OperatingSystemFamily.OS_X, new OperatingSystemVersionPattern[] {
+				new OperatingSystemVersionPattern("Mac OS X\\s?((\\d+)((\\.\\d+)+)?);", 0, true),
+				new OperatingSystemVersionPattern("Mac OS X\\s?((\\d+)((\\_\\d+)+)?);", 0, true),
+				new OperatingSystemVersionPattern("Mac OS X\\s?((\\d+)((\\_\\d+)+)?)\\)", 0, true) });
+		patterns.put(OperatingSystemFamily.SYMBIAN,
+				new OperatingSystemVersionPattern[] { new OperatingSystemVersionPattern("SymbianOS/((\\d+)((\\.\\d+)+)?s?)", 0, false) });
+		patterns.put(OperatingSystemFamily.WEBOS, new OperatingSystemVersionPattern[] {
+				new OperatingSystemVersionPattern("hpwOS/((\\d+)((\\.\\d+)+)?);", 0, false),
+				new OperatingSystemVersionPattern("webOS/((\\d+)((\\.\\d+)+)?);", 0, false) });
+		patterns.put(OperatingSystemFamily.WINDOWS, new OperatingSystemVersionPattern[] {
+				new OperatingSystemVersionPattern("Windows NT\\s?((\\d+)((\\.\\d+)+)?)", 0, false),
+				new OperatingSystemVersionPattern("Windows Phone OS ((\\d+)((\\.\\d+)+)?)", 0, false),
+				new OperatingSystemVersionPattern("Windows CE ((\\d+)((\\.\\d+)+)?)", 0, false),
+				new OperatingSystemVersionPattern("Windows 2000\\s?((\\d+)((\\.\\d+)+)?)", 0, false),
+				new OperatingSystemVersionPattern("Windows XP\\s?((\\d+)((\\.\\d+)+)?)", 0, false),
+				new OperatingSystemVersionPattern("Windows 7\\s?((\\d+)((\\.\\d+)+)?)", 0, false),
+				new OperatingSystemVersionPattern("Win 9x ((\\d+)((\\.\\d+)+)?)", 0, false),
+				new OperatingSystemVersionPattern("Windows ((\\d+)((\\.\\d+)+)?)", 0, false),
+				new OperatingSystemVersionPattern("WebTV/((\\d+)((\\.\\d+)+)?)", 0, false) });
+		return patterns;
+	}
+
+	/**
+	 * Searches the end of the extension of a version number, which consists of whitespace, word characters, dashes,
+	 * dots and square brackets.
+	 * 
+	 * @param text
+	 *            text with version information
+	 * @param start
+	 *            index after the numeric groups
+	 * @return index after the extension
 	 */
-	private static final Pattern VERSIONNUMBER = Pattern.compile("((\\d+)((\\.\\d+)+)?)");
+	private static int findExtensionEnd(@Nonnull final String text, final int start) {
+		int i = start;
+		while (i < text.length() && isExtensionCharacter(text.charAt(i))) {
+			i++;
+		}
+		return i;
+	}
 
 	/**
-	 * Regular expression to analyze a version number separated by a dot with suffix
+	 * Searches the end of dot separated numeric groups.
+	 * 
+	 * @param text
+	 *            text with version information
+	 * @param start
+	 *            index of the first digit
+	 * @return index after the last digit
 	 */
-	private static final Pattern VERSIONNUMBER_WITH_SUFFIX = Pattern.compile(VERSIONNUMBER.pattern() + "((\\s|\\-|\\.|\\[|\\]|\\w+)+)?");
+	private static int findNumberEnd(@Nonnull final String text, final int start) {
+		int i = start;
+		while (true) {
+			while (i < text.length() && isDigit(text.charAt(i))) {
+				i++;
+			}
+			if (i + 1 < text.length() && text.charAt(i) == '.' && isDigit(text.charAt(i + 1))) {
+				i++;
+			} else {
+				return i;
+			}
+		}
+	}
 
 	/**
-	 * Regular expression to analyze segments of a version string, consisting of prefix, numeric groups and suffix
+	 * Calculates the hash of the given range of a text in the same way as {@link String#hashCode()}, but without
+	 * creating a substring.
+	 * 
+	 * @param text
+	 *            text with version information
+	 * @param start
+	 *            start of the range
+	 * @param end
+	 *            end of the range
+	 * @return hash of the range
 	 */
-	private static final Pattern VERSIONSTRING = Pattern.compile("^" + VERSIONNUMBER_WITH_SUFFIX.pattern());
+	private static int hash(@Nonnull final String text, final int start, final int end) {
+		int h = 0;
+		for (int i = start; i < end; i++) {
+			h = 31 * h + text.charAt(i);
+		}
+		return h;
+	}
 
 	/**
 	 * This method try to determine the version number of the operating system <i>Android</i> more accurately.
@@ -65,18 +283,7 @@ final class VersionParser {
 	 * @return more accurately identified version number or {@code null}
 	 */
 	static VersionNumber identifyAndroidVersion(@Nonnull final String userAgent) {
-		VersionNumber version = VersionNumber.UNKNOWN;
-		final List<Pattern> patterns = new ArrayList<Pattern>();
-		patterns.add(Pattern.compile("Android\\s?((\\d+)((\\.\\d+)+)?(\\-(\\w|\\d)+)?);"));
-		patterns.add(Pattern.compile("Android\\-((\\d+)((\\.\\d+)+)?(\\-(\\w|\\d)+)?);"));
-		for (final Pattern pattern : patterns) {
-			final Matcher m = pattern.matcher(userAgent);
-			if (m.find()) {
-				version = parseFirstVersionNumber(m.group(MAJOR_INDEX));
-				break;
-			}
-		}
-		return version;
+		return identifyOperatingSystemVersion(OperatingSystemFamily.ANDROID, userAgent);
 	}
 
 	/**
@@ -87,13 +294,7 @@ final class VersionParser {
 	 * @return more accurately identified version number or {@code null}
 	 */
 	static VersionNumber identifyBadaVersion(final String userAgent) {
-		VersionNumber version = VersionNumber.UNKNOWN;
-		final Pattern pattern = Pattern.compile("Bada/((\\d+)((\\.\\d+)+)?)");
-		final Matcher m = pattern.matcher(userAgent);
-		if (m.find()) {
-			version = parseFirstVersionNumber(m.group(MAJOR_INDEX));
-		}
-		return version;
+		return identifyOperatingSystemVersion(OperatingSystemFamily.BADA, userAgent);
 	}
 
 	/**
@@ -104,13 +305,7 @@ final class VersionParser {
 	 * @return more accurately identified version number or {@code null}
 	 */
 	static VersionNumber identifyBSDVersion(final String userAgent) {
-		VersionNumber version = VersionNumber.UNKNOWN;
-		final Pattern pattern = Pattern.compile("\\w+bsd\\s?((\\d+)((\\.\\d+)+)?((\\-|_)[\\w\\d\\-]+)?)", Pattern.CASE_INSENSITIVE);
-		final Matcher m = pattern.matcher(userAgent);
-		if (m.find()) {
-			version = parseFirstVersionNumber(m.group(MAJOR_INDEX));
-		}
-		return version;
+		return identifyOperatingSystemVersion(OperatingSystemFamily.BSD, userAgent);
 	}
 
 	/**
@@ -121,19 +316,7 @@ final class VersionParser {
 	 * @return more accurately identified version number or {@code null}
 	 */
 	static VersionNumber identifyIOSVersion(final String userAgent) {
-		VersionNumber version = VersionNumber.UNKNOWN;
-		final List<Pattern> patterns = new ArrayList<Pattern>();
-		patterns.add(Pattern.compile("iPhone OS\\s?((\\d+)((\\_\\d+)+)?) like Mac OS X"));
-		patterns.add(Pattern.compile("CPU OS\\s?((\\d+)((\\_\\d+)+)?) like Mac OS X"));
-		patterns.add(Pattern.compile("iPhone OS\\s?((\\d+)((\\.\\d+)+)?);"));
-		for (final Pattern pattern : patterns) {
-			final Matcher m = pattern.matcher(userAgent);
-			if (m.find()) {
-				version = parseFirstVersionNumber(m.group(MAJOR_INDEX).replaceAll("_", "."));
-				break;
-			}
-		}
-		return version;
+		return identifyOperatingSystemVersion(OperatingSystemFamily.IOS, userAgent);
 	}
 
 	/**
@@ -144,18 +327,7 @@ final class VersionParser {
 	 * @return more accurately identified version number or {@code null}
 	 */
 	static VersionNumber identifyJavaVersion(final String userAgent) {
-		VersionNumber version = VersionNumber.UNKNOWN;
-		final List<Pattern> patterns = new ArrayList<Pattern>();
-		patterns.add(Pattern.compile("Java/((\\d+)((\\.\\d+)+)?((\\-|_)[\\w\\d\\-]+)?)"));
-		patterns.add(Pattern.compile("Java((\\d+)((\\.\\d+)+)?((\\-|_)[\\w\\d\\-]+)?)"));
-		for (final Pattern pattern : patterns) {
-			final Matcher m = pattern.matcher(userAgent);
-			if (m.find()) {
-				version = parseFirstVersionNumber(m.group(MAJOR_INDEX));
-				break;
-			}
-		}
-		return version;
+		return identifyOperatingSystemVersion(OperatingSystemFamily.JVM, userAgent);
 	}
 
 	/**
@@ -166,19 +338,61 @@ final class VersionParser {
 	 * @return more accurately identified version number or {@code null}
 	 */
 	static VersionNumber identifyOSXVersion(final String userAgent) {
-		VersionNumber version = VersionNumber.UNKNOWN;
-		final List<Pattern> patterns = new ArrayList<Pattern>();
-		patterns.add(Pattern.compile("Mac OS X\\s?((\\d+)((\\.\\d+)+)?);"));
-		patterns.add(Pattern.compile("Mac OS X\\s?((\\d+)((\\_\\d+)+)?);"));
-		patterns.add(Pattern.compile("Mac OS X\\s?((\\d+)((\\_\\d+)+)?)\\)"));
-		for (final Pattern pattern : patterns) {
-			final Matcher m = pattern.matcher(userAgent);
-			if (m.find()) {
-				version = parseFirstVersionNumber(m.group(MAJOR_INDEX).replaceAll("_", "."));
-				break;
+		return identifyOperatingSystemVersion(OperatingSystemFamily.OS_X, userAgent);
+	}
+
+	/**
+	 * Tries the precompiled regular expressions of the given operating system family in the order of their priority
+	 * and returns the version number of the first match.
+	 * 
+	 * @param family
+	 *            family of the operating system
+	 * @param userAgent
+	 *            user agent string
+	 * @return identified version number or {@link VersionNumber#UNKNOWN}
+	 */
+	private static VersionNumber identifyOperatingSystemVersion(@Nonnull final OperatingSystemFamily family, @Nonnull final String userAgent) {
+		final OperatingSystemVersionPattern[] patterns = OPERATING_SYSTEM_VERSION_PATTERNS.get(family);
+		if (patterns != null) {
+			for (final OperatingSystemVersionPattern pattern : patterns) {
+				final VersionNumber version = pattern.find(userAgent);
+				if (version != null) {
+					return version;
+				}
 			}
 		}
-		return version;
+		return VersionNumber.UNKNOWN;
+	}
+
+	/**
+	 * Searches the next digit in the given text.
+	 * 
+	 * @param text
+	 *            text with version information
+	 * @param from
+	 *            index to start the search from
+	 * @return index of the next digit or {@code -1} if there is none
+	 */
+	private static int indexOfDigit(@Nonnull final String text, final int from) {
+		for (int i = from; i < text.length(); i++) {
+			if (isDigit(text.charAt(i))) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private static boolean isDigit(final char c) {
+		return c >= '0' && c <= '9';
+	}
+
+	private static boolean isExtensionCharacter(final char c) {
+		return isWhitespace(c) || isDigit(c) || c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c == '_' || c == '-' || c == '.'
+				|| c == '[' || c == ']';
+	}
+
+	private static boolean isWhitespace(final char c) {
+		return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
 	}
 
 	/**
@@ -189,13 +403,7 @@ final class VersionParser {
 	 * @return more accurately identified version number or {@code null}
 	 */
 	static VersionNumber identifySymbianVersion(final String userAgent) {
-		VersionNumber version = VersionNumber.UNKNOWN;
-		final Pattern pattern = Pattern.compile("SymbianOS/((\\d+)((\\.\\d+)+)?s?)");
-		final Matcher m = pattern.matcher(userAgent);
-		if (m.find()) {
-			version = parseFirstVersionNumber(m.group(MAJOR_INDEX));
-		}
-		return version;
+		return identifyOperatingSystemVersion(OperatingSystemFamily.SYMBIAN, userAgent);
 	}
 
 	/**
@@ -206,18 +414,7 @@ final class VersionParser {
 	 * @return more accurately identified version number or {@code null}
 	 */
 	static VersionNumber identifyWebOSVersion(final String userAgent) {
-		VersionNumber version = VersionNumber.UNKNOWN;
-		final List<Pattern> patterns = new ArrayList<Pattern>();
-		patterns.add(Pattern.compile("hpwOS/((\\d+)((\\.\\d+)+)?);"));
-		patterns.add(Pattern.compile("webOS/((\\d+)((\\.\\d+)+)?);"));
-		for (final Pattern pattern : patterns) {
-			final Matcher m = pattern.matcher(userAgent);
-			if (m.find()) {
-				version = parseFirstVersionNumber(m.group(MAJOR_INDEX));
-				break;
-			}
-		}
-		return version;
+		return identifyOperatingSystemVersion(OperatingSystemFamily.WEBOS, userAgent);
 	}
 
 	/**
@@ -228,25 +425,7 @@ final class VersionParser {
 	 * @return more accurately identified version number or {@code null}
 	 */
 	static VersionNumber identifyWindowsVersion(final String userAgent) {
-		VersionNumber version = VersionNumber.UNKNOWN;
-		final List<Pattern> patterns = new ArrayList<Pattern>();
-		patterns.add(Pattern.compile("Windows NT\\s?((\\d+)((\\.\\d+)+)?)"));
-		patterns.add(Pattern.compile("Windows Phone OS ((\\d+)((\\.\\d+)+)?)"));
-		patterns.add(Pattern.compile("Windows CE ((\\d+)((\\.\\d+)+)?)"));
-		patterns.add(Pattern.compile("Windows 2000\\s?((\\d+)((\\.\\d+)+)?)"));
-		patterns.add(Pattern.compile("Windows XP\\s?((\\d+)((\\.\\d+)+)?)"));
-		patterns.add(Pattern.compile("Windows 7\\s?((\\d+)((\\.\\d+)+)?)"));
-		patterns.add(Pattern.compile("Win 9x ((\\d+)((\\.\\d+)+)?)"));
-		patterns.add(Pattern.compile("Windows ((\\d+)((\\.\\d+)+)?)"));
-		patterns.add(Pattern.compile("WebTV/((\\d+)((\\.\\d+)+)?)"));
-		for (final Pattern pattern : patterns) {
-			final Matcher m = pattern.matcher(userAgent);
-			if (m.find()) {
-				version = parseFirstVersionNumber(m.group(MAJOR_INDEX));
-				break;
-			}
-		}
-		return version;
+		return identifyOperatingSystemVersion(OperatingSystemFamily.WINDOWS, userAgent);
 	}
 
 	/**
@@ -260,17 +439,12 @@ final class VersionParser {
 	static VersionNumber parseFirstVersionNumber(@Nonnull final String text) {
 		Check.notNull(text, "text");
 
-		final Matcher matcher = VERSIONNUMBER_WITH_SUFFIX.matcher(text);
-		String[] split = null;
-		String ext = null;
-		if (matcher.find()) {
-			split = matcher.group(MAJOR_INDEX).split("\\.");
-			ext = matcher.group(EXTENSION_INDEX);
+		final int start = indexOfDigit(text, 0);
+		if (start < 0) {
+			return VersionNumber.UNKNOWN;
 		}
-
-		final String extension = ext == null ? VersionNumber.EMPTY_EXTENSION : trimRight(ext);
-
-		return split == null ? VersionNumber.UNKNOWN : new VersionNumber(Arrays.asList(split), extension);
+		final int end = findNumberEnd(text, start);
+		return toVersionNumber(text, start, end, trimRight(text, end, findExtensionEnd(text, end)));
 	}
 
 	/**
@@ -284,17 +458,18 @@ final class VersionParser {
 	public static VersionNumber parseLastVersionNumber(@Nonnull final String text) {
 		Check.notNull(text, "text");
 
-		final Matcher matcher = VERSIONNUMBER_WITH_SUFFIX.matcher(text);
-		String[] split = null;
-		String ext = null;
-		while (matcher.find()) {
-			split = matcher.group(MAJOR_INDEX).split("\\.");
-			ext = matcher.group(EXTENSION_INDEX);
+		int lastStart = -1;
+		int lastEnd = -1;
+		int lastExtensionEnd = -1;
+		int start;
+		int position = 0;
+		while ((start = indexOfDigit(text, position)) >= 0) {
+			lastStart = start;
+			lastEnd = findNumberEnd(text, start);
+			lastExtensionEnd = findExtensionEnd(text, lastEnd);
+			position = lastExtensionEnd;
 		}
-
-		final String extension = ext == null ? VersionNumber.EMPTY_EXTENSION : trimRight(ext);
-
-		return split == null ? VersionNumber.UNKNOWN : new VersionNumber(Arrays.asList(split), extension);
+		return lastStart < 0 ? VersionNumber.UNKNOWN : toVersionNumber(text, lastStart, lastEnd, trimRight(text, lastEnd, lastExtensionEnd));
 	}
 
 	/**
@@ -311,29 +486,7 @@ final class VersionParser {
 		Check.notNull(family, "family");
 		Check.notNull(userAgent, "userAgent");
 
-		final VersionNumber v;
-		if (OperatingSystemFamily.ANDROID == family) {
-			v = identifyAndroidVersion(userAgent);
-		} else if (OperatingSystemFamily.BADA == family) {
-			v = identifyBadaVersion(userAgent);
-		} else if (OperatingSystemFamily.BSD == family) {
-			v = identifyBSDVersion(userAgent);
-		} else if (OperatingSystemFamily.IOS == family) {
-			v = identifyIOSVersion(userAgent);
-		} else if (OperatingSystemFamily.JVM == family) {
-			v = identifyJavaVersion(userAgent);
-		} else if (OperatingSystemFamily.OS_X == family) {
-			v = identifyOSXVersion(userAgent);
-		} else if (OperatingSystemFamily.SYMBIAN == family) {
-			v = identifySymbianVersion(userAgent);
-		} else if (OperatingSystemFamily.WEBOS == family) {
-			v = identifyWebOSVersion(userAgent);
-		} else if (OperatingSystemFamily.WINDOWS == family) {
-			v = identifyWindowsVersion(userAgent);
-		} else {
-			v = VersionNumber.UNKNOWN;
-		}
-		return v;
+		return identifyOperatingSystemVersion(family, userAgent);
 	}
 
 	/**
@@ -346,27 +499,79 @@ final class VersionParser {
 	public static VersionNumber parseVersion(@Nonnull final String version) {
 		Check.notNull(version, "version");
 
-		VersionNumber result = new VersionNumber(new ArrayList<String>(0), version);
-		final Matcher matcher = VERSIONSTRING.matcher(version);
-		if (matcher.find()) {
-			final List<String> groups = Arrays.asList(matcher.group(MAJOR_INDEX).split("\\."));
-			final String extension = matcher.group(EXTENSION_INDEX) == null ? VersionNumber.EMPTY_EXTENSION : trimRight(matcher
-					.group(EXTENSION_INDEX));
-			result = new VersionNumber(groups, extension);
+		if (version.isEmpty()) {
+			return VersionNumber.UNKNOWN;
+		}
+		if (!isDigit(version.charAt(0))) {
+			return VersionNumber.createWithoutGroups(version);
+		}
+		final int end = findNumberEnd(version, 0);
+		return toVersionNumber(version, 0, end, trimRight(version, end, findExtensionEnd(version, end)));
+	}
+
+	/**
+	 * Determines the end of the given range without trailing whitespace.
+	 * 
+	 * @param text
+	 *            text with version information
+	 * @param start
+	 *            start of the range
+	 * @param end
+	 *            end of the range
+	 * @return end of the range without trailing whitespace
+	 */
+	private static int trimRight(@Nonnull final String text, final int start, final int end) {
+		int i = end;
+		while (i > start && isWhitespace(text.charAt(i - 1))) {
+			i--;
 		}
+		return i;
+	}
 
-		return result;
+	/**
+	 * Gets the extension of a version number in the given range of a text.
+	 * 
+	 * @param text
+	 *            text with version information
+	 * @param end
+	 *            index after the last digit
+	 * @param extensionEnd
+	 *            index after the extension
+	 * @return extension of the version number
+	 */
+	private static String toExtension(@Nonnull final String text, final int end, final int extensionEnd) {
+		return end == extensionEnd ? VersionNumber.EMPTY_EXTENSION : text.substring(end, extensionEnd);
 	}
 
 	/**
-	 * Trims the whitespace at the end of the given string.
+	 * Creates the version number of the numeric groups in the given range and the following extension. Short version
+	 * numbers will be shared, so that frequently parsed versions do not create new instances.
 	 * 
 	 * @param text
-	 *            string to trim
-	 * @return trimmed string
+	 *            text with version information
+	 * @param start
+	 *            index of the first digit
+	 * @param end
+	 *            index after the last digit
+	 * @param extensionEnd
+	 *            index after the extension
+	 * @return version number
 	 */
-	private static String trimRight(@Nonnull final String text) {
-		return text.replaceAll("\\s+$", "");
+	private static VersionNumber toVersionNumber(@Nonnull final String text, final int start, final int end, final int extensionEnd) {
+		if (extensionEnd - start > INTERNED_MAXIMUM_LENGTH) {
+			return VersionNumber.create(text, start, end, toExtension(text, end, extensionEnd));
+		}
+
+		final int h = hash(text, start, extensionEnd);
+		final int slot = (h ^ h >>> 16) & INTERNED_SIZE - 1;
+		final InternedVersion interned = INTERNED[slot];
+		if (interned != null && interned.matches(text, start, extensionEnd)) {
+			return interned.version;
+		}
+		final VersionNumber version = VersionNumber.create(text, start, end, toExtension(text, end, extensionEnd));
+		final String key = start == 0 && extensionEnd == text.length() ? text : text.substring(start, extensionEnd);
+		INTERNED[slot] = new InternedVersion(key, version);
+		return version;
 	}
 
 	/**
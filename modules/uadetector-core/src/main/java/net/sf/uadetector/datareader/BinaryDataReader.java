@@ -0,0 +1,164 @@
+/*******************************************************************************
+ * Copyright 2014 André Rouél
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package net.sf.uadetector.datareader;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.Charset;
+
+import javax.annotation.Nonnull;
+
+import net.sf.qualitycheck.Check;
+import net.sf.uadetector.exception.CanNotOpenStreamException;
+import net.sf.uadetector.internal.data.BinaryDataFormat;
+import net.sf.uadetector.internal.data.Data;
+import net.sf.uadetector.internal.jfr.FlightRecorderEvents;
+import net.sf.uadetector.internal.util.Closeables;
+import net.sf.uadetector.internal.util.UrlUtil;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reader for <em>UAS data</em> in the compact binary snapshot format written by
+ * {@link net.sf.uadetector.writer.BinaryDataWriter}.<br>
+ * <br>
+ * A snapshot contains the completely built {@code Data} including the indexes of the matching engines, therefore it
+ * can be read in considerably faster than the XML data. The character set will be ignored, because all strings are
+ * encoded within the format itself.
+ * 
+ * @author André Rouél
+ */
+public final class BinaryDataReader implements DataReader {
+
+	/**
+	 * Character set to transform a snapshot given as string back into its bytes
+	 */
+	private static final Charset BYTES_CHARSET = Charset.forName("ISO-8859-1");
+
+	private static final Logger LOG = LoggerFactory.getLogger(BinaryDataReader.class);
+
+	protected static Data readBinary(@Nonnull final InputStream inputStream) {
+		Check.notNull(inputStream, "inputStream");
+
+		final Object event = FlightRecorderEvents.beginDataRead();
+		Data data = Data.EMPTY;
+		try {
+			data = BinaryDataFormat.read(inputStream);
+		} catch (final IOException e) {
+			LOG.warn(e.getLocalizedMessage());
+		} catch (final Exception e) {
+			LOG.warn(e.getLocalizedMessage(), e);
+		} finally {
+			Closeables.closeAndConvert(inputStream, true);
+		}
+
+		FlightRecorderEvents.endDataRead(event, data);
+		return data;
+	}
+
+	private static Data readBinary(@Nonnull final InputStream inputStream, final long sourceChecksum) {
+		final Object event = FlightRecorderEvents.beginDataRead();
+		Data data = Data.EMPTY;
+		try {
+			data = BinaryDataFormat.read(inputStream, sourceChecksum);
+		} catch (final IOException e) {
+			LOG.debug(e.getLocalizedMessage());
+		} catch (final Exception e) {
+			LOG.warn(e.getLocalizedMessage(), e);
+		} finally {
+			Closeables.closeAndConvert(inputStream, true);
+		}
+
+		FlightRecorderEvents.endDataRead(event, data);
+		return data;
+	}
+
+	/**
+	 * Reads a binary snapshot of <em>UAS data</em> from the given string, where each character represents one byte
+	 * (ISO-8859-1).
+	 * 
+	 * @param data
+	 *            snapshot as string
+	 * @return read in User-Agent data as {@code Data} instance otherwise {@link Data#EMPTY}
+	 * 
+	 * @throws net.sf.qualitycheck.exception.IllegalNullArgumentException
+	 *             if any of the given argument is {@code null}
+	 */
+	@Override
+	public Data read(@Nonnull final String data) {
+		Check.notNull(data, "data");
+
+		return readBinary(new ByteArrayInputStream(data.getBytes(BYTES_CHARSET)));
+	}
+
+	/**
+	 * Reads a binary snapshot of <em>UAS data</em> based on the given URL.
+	 * 
+	 * @param url
+	 *            {@code URL} to the snapshot
+	 * @param charset
+	 *            will be ignored, because the snapshot encodes its strings itself
+	 * @return read in User-Agent data as {@code Data} instance otherwise {@link Data#EMPTY}
+	 * 
+	 * @throws net.sf.qualitycheck.exception.IllegalNullArgumentException
+	 *             if any of the given arguments is {@code null}
+	 */
+	@Override
+	public Data read(@Nonnull final URL url, @Nonnull final Charset charset) {
+		Check.notNull(url, "url");
+		Check.notNull(charset, "charset");
+
+		Data data = Data.EMPTY;
+		try {
+			data = readBinary(UrlUtil.open(url));
+		} catch (final CanNotOpenStreamException e) {
+			LOG.warn(e.getLocalizedMessage());
+		}
+
+		return data;
+	}
+
+	/**
+	 * Reads a binary snapshot of <em>UAS data</em> based on the given URL, if it has been created from the XML data with
+	 * the given checksum. An outdated snapshot will be ignored.
+	 * 
+	 * @param url
+	 *            {@code URL} to the snapshot
+	 * @param sourceChecksum
+	 *            checksum of the XML data from which the snapshot must have been created, see
+	 *            {@link BinaryDataFormat#checksum(InputStream)}
+	 * @return read in User-Agent data as {@code Data} instance otherwise {@link Data#EMPTY}
+	 * 
+	 * @throws net.sf.qualitycheck.exception.IllegalNullArgumentException
+	 *             if the given URL is {@code null}
+	 */
+	public Data read(@Nonnull final URL url, final long sourceChecksum) {
+		Check.notNull(url, "url");
+
+		Data data = Data.EMPTY;
+		try {
+			data = readBinary(UrlUtil.open(url), sourceChecksum);
+		} catch (final CanNotOpenStreamException e) {
+			LOG.warn(e.getLocalizedMessage());
+		}
+
+		return data;
+	}
+
+}
@@ -0,0 +1,209 @@
+/*******************************************************************************
+ * Copyright 2014 André Rouél
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package net.sf.uadetector.datareader;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.Charset;
+
+import javax.annotation.Nonnull;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import net.sf.qualitycheck.Check;
+import net.sf.uadetector.exception.CanNotOpenStreamException;
+import net.sf.uadetector.internal.data.Data;
+import net.sf.uadetector.internal.data.DataBuilder;
+import net.sf.uadetector.internal.data.XmlDataHandler;
+import net.sf.uadetector.internal.jfr.FlightRecorderEvents;
+import net.sf.uadetector.internal.util.Closeables;
+import net.sf.uadetector.internal.util.UrlUtil;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.xml.sax.SAXException;
+
+/**
+ * Fast reader for the XML data for UASparser from <a
+ * href="http://user-agent-string.info/">http://user-agent-string.info</a>, which pulls the document through a
+ * streaming API for XML (StAX) parser.<br>
+ * <br>
+ * In contrast to {@link XmlDataReader} this reader does not validate the document against its Document Type Definition
+ * (DTD), therefore unknown elements will be ignored instead of rejecting the whole document. It should be used only
+ * for trusted sources, like the <em>UAS data</em> delivered within a JAR or a cache file which has been written after
+ * a successful validation.<br>
+ * <br>
+ * This reader is safe when used concurrently by multiple threads.
+ * 
+ * @author André Rouél
+ */
+public final class StreamingXmlDataReader implements DataReader {
+
+	protected static final class XmlParser {
+
+		/**
+		 * Shared factory, which is safe for concurrent use after its configuration
+		 */
+		private static final XMLInputFactory FACTORY = createFactory();
+
+		private static final String MSG_NOT_PARSED_AS_EXPECTED = "The UAS data has not been parsed as expected.";
+
+		private static XMLInputFactory createFactory() {
+			final XMLInputFactory factory = XMLInputFactory.newInstance();
+			factory.setProperty(XMLInputFactory.IS_VALIDATING, Boolean.FALSE);
+			factory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+			factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+			factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, Boolean.FALSE);
+			return factory;
+		}
+
+		public static void parse(@Nonnull final InputStream stream, @Nonnull final DataBuilder builder) throws XMLStreamException,
+				SAXException {
+			final XmlDataHandler handler = new XmlDataHandler(builder);
+			final XMLStreamReader reader = FACTORY.createXMLStreamReader(stream);
+			try {
+				while (reader.hasNext()) {
+					final int event = reader.next();
+					if (event == XMLStreamConstants.START_ELEMENT) {
+						handler.startElement(null, null, reader.getLocalName(), null);
+					} else if (event == XMLStreamConstants.END_ELEMENT) {
+						handler.endElement(null, null, reader.getLocalName());
+					} else if (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA) {
+						// the characters are passed without copying them into a string
+						handler.characters(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+					}
+				}
+			} finally {
+				reader.close();
+			}
+			validate(handler);
+		}
+
+		protected static void validate(@Nonnull final XmlDataHandler handler) {
+			if (handler.hasError()) {
+				throw new IllegalStateException(MSG_NOT_PARSED_AS_EXPECTED);
+			}
+		}
+
+		private XmlParser() {
+			// This class is not intended to create objects from it.
+		}
+
+	}
+
+	/**
+	 * Default character set to read UAS data
+	 */
+	private static final Charset DEFAULT_CHARSET = Charset.forName("UTF-8");
+
+	/**
+	 * Corresponding default logger for this class
+	 */
+	private static final Logger LOG = LoggerFactory.getLogger(StreamingXmlDataReader.class);
+
+	/**
+	 * Reads the <em>UAS data</em> in XML format from the given stream.<br>
+	 * <br>
+	 * When during the reading errors occur which lead to a termination of the read operation, the information will be
+	 * written to a log. The termination of the read operation will not lead to a program termination and in this case
+	 * this method returns {@link Data#EMPTY}.
+	 * 
+	 * @param inputStream
+	 *            an input stream for reading <em>UAS data</em>
+	 * @param charset
+	 *            the character set in which the data should be read
+	 * @return read in <em>UAS data</em> as {@code Data} instance
+	 * @throws net.sf.qualitycheck.exception.IllegalNullArgumentException
+	 *             if any of the given arguments is {@code null}
+	 */
+	protected static Data readXml(@Nonnull final InputStream inputStream, @Nonnull final Charset charset) {
+		Check.notNull(inputStream, "inputStream");
+		Check.notNull(charset, "charset");
+
+		final Object event = FlightRecorderEvents.beginDataRead();
+		final DataBuilder builder = new DataBuilder();
+		boolean hasErrors = false;
+		try {
+			XmlParser.parse(inputStream, builder);
+		} catch (final XMLStreamException e) {
+			hasErrors = true;
+			LOG.warn(e.getLocalizedMessage());
+		} catch (final SAXException e) {
+			hasErrors = true;
+			LOG.warn(e.getLocalizedMessage());
+		} catch (final IllegalStateException e) {
+			hasErrors = true;
+			LOG.warn(e.getLocalizedMessage());
+		} catch (final Exception e) {
+			hasErrors = true;
+			LOG.warn(e.getLocalizedMessage(), e);
+		} finally {
+			Closeables.closeAndConvert(inputStream, true);
+		}
+
+		final Data data = hasErrors ? Data.EMPTY : builder.build();
+		FlightRecorderEvents.endDataRead(event, data);
+		return data;
+	}
+
+	/**
+	 * Reads the <em>UAS data</em> in XML format from the given string.
+	 * 
+	 * @param data
+	 *            <em>UAS data</em> as string
+	 * @return read in User-Agent data as {@code Data} instance otherwise {@link Data#EMPTY}
+	 * 
+	 * @throws net.sf.qualitycheck.exception.IllegalNullArgumentException
+	 *             if any of the given argument is {@code null}
+	 */
+	@Override
+	public Data read(@Nonnull final String data) {
+		Check.notNull(data, "data");
+
+		return readXml(new ByteArrayInputStream(data.getBytes(DEFAULT_CHARSET)), DEFAULT_CHARSET);
+	}
+
+	/**
+	 * Reads the <em>UAS data</em> in XML format based on the given URL.
+	 * 
+	 * @param url
+	 *            {@code URL} to User-Agent informations
+	 * @param charset
+	 *            the character set in which the data should be read
+	 * @return read in User-Agent data as {@code Data} instance otherwise {@link Data#EMPTY}
+	 * 
+	 * @throws net.sf.qualitycheck.exception.IllegalNullArgumentException
+	 *             if any of the given arguments is {@code null}
+	 */
+	@Override
+	public Data read(@Nonnull final URL url, @Nonnull final Charset charset) {
+		Check.notNull(url, "url");
+		Check.notNull(charset, "charset");
+
+		Data data = Data.EMPTY;
+		try {
+			data = readXml(UrlUtil.open(url), charset);
+		} catch (final CanNotOpenStreamException e) {
+			LOG.warn(e.getLocalizedMessage());
+		}
+
+		return data;
+	}
+
+}
@@ -31,6 +31,7 @@ import net.sf.uadetector.exception.CanNotOpenStreamException;
 import net.sf.uadetector.internal.data.Data;
 import net.sf.uadetector.internal.data.DataBuilder;
 import net.sf.uadetector.internal.data.XmlDataHandler;
+import net.sf.uadetector.internal.jfr.FlightRecorderEvents;
 import net.sf.uadetector.internal.util.Closeables;
 import net.sf.uadetector.internal.util.UrlUtil;
 
@@ -105,6 +106,7 @@ public final class XmlDataReader implements DataReader {
 		Check.notNull(inputStream, "inputStream");
 		Check.notNull(charset, "charset");
 
+		final Object event = FlightRecorderEvents.beginDataRead();
 		final DataBuilder builder = new DataBuilder();
 		boolean hasErrors = false;
 		try {
@@ -128,7 +130,9 @@ public final class XmlDataReader implements DataReader {
 			Closeables.closeAndConvert(inputStream, true);
 		}
 
-		return hasErrors ? Data.EMPTY : builder.build();
+		final Data data = hasErrors ? Data.EMPTY : builder.build();
+		FlightRecorderEvents.endDataRead(event, data);
+		return data;
 	}
 
 	/**
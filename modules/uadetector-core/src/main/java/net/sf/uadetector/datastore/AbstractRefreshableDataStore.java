@@ -17,6 +17,9 @@ package net.sf.uadetector.datastore;
 
 import java.net.URL;
 import java.nio.charset.Charset;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
 
 import javax.annotation.Nonnull;
 
@@ -25,6 +28,7 @@ import net.sf.qualitycheck.exception.IllegalStateOfArgumentException;
 import net.sf.uadetector.datareader.DataReader;
 import net.sf.uadetector.exception.CanNotOpenStreamException;
 import net.sf.uadetector.internal.data.Data;
+import net.sf.uadetector.internal.jfr.FlightRecorderEvents;
 import net.sf.uadetector.internal.util.UrlUtil;
 
 import org.slf4j.Logger;
@@ -48,6 +52,11 @@ public abstract class AbstractRefreshableDataStore implements RefreshableDataSto
 	 */
 	private static final Logger LOG = LoggerFactory.getLogger(AbstractRefreshableDataStore.class);
 
+	/**
+	 * Message for the log if an update listener fails
+	 */
+	private static final String MSG_LISTENER_FAILED = "An update listener failed during the replacement of UAS data.";
+
 	/**
 	 * Runtime check that the passed instance of {@link Data} is not empty (respectively {@link Data#EMPTY}).
 	 * 
@@ -69,9 +78,9 @@ public abstract class AbstractRefreshableDataStore implements RefreshableDataSto
 	private final Charset charset;
 
 	/**
-	 * Current <em>UAS data</em>
+	 * Current <em>UAS data</em>, which will be replaced atomically and is visible to all threads immediately
 	 */
-	private Data data;
+	private final AtomicReference<Data> data;
 
 	/**
 	 * The {@code URL} to get <em>UAS data</em>
@@ -84,6 +93,11 @@ public abstract class AbstractRefreshableDataStore implements RefreshableDataSto
 	 */
 	private final DataStore fallback;
 
+	/**
+	 * Listeners which will be informed before and after the <em>UAS data</em> will be replaced
+	 */
+	private final List<DataUpdateListener> listeners = new CopyOnWriteArrayList<DataUpdateListener>();
+
 	/**
 	 * The data reader to read in <em>UAS data</em>
 	 */
@@ -154,7 +168,13 @@ public abstract class AbstractRefreshableDataStore implements RefreshableDataSto
 		this.charset = charset;
 		this.fallback = fallback;
 
-		data = checkData(fallback.getData());
+		data = new AtomicReference<Data>(checkData(fallback.getData()));
+	}
+
+	@Override
+	public void addUpdateListener(@Nonnull final DataUpdateListener listener) {
+		Check.notNull(listener, "listener");
+		listeners.add(listener);
 	}
 
 	@Override
@@ -164,7 +184,7 @@ public abstract class AbstractRefreshableDataStore implements RefreshableDataSto
 
 	@Override
 	public Data getData() {
-		return data;
+		return data.get();
 	}
 
 	@Override
@@ -213,8 +233,17 @@ public abstract class AbstractRefreshableDataStore implements RefreshableDataSto
 		}
 	}
 
+	@Override
+	public void removeUpdateListener(@Nonnull final DataUpdateListener listener) {
+		Check.notNull(listener, "listener");
+		listeners.remove(listener);
+	}
+
 	/**
 	 * Sets new <em>UAS data</em> in the store.
+	 * <p>
+	 * The registered {@link DataUpdateListener}s will be informed before and after the new data will be published.
+	 * Threads which read the data of this store will never be blocked by the replacement.
 	 * 
 	 * @param data
 	 *            <em>UAS data</em> to override the current ({@code null} is not allowed)
@@ -225,8 +254,27 @@ public abstract class AbstractRefreshableDataStore implements RefreshableDataSto
 	 */
 	protected void setData(@Nonnull final Data data) {
 		Check.notNull(data, "data");
+		checkData(data);
+		final Object event = FlightRecorderEvents.beginDataSwap();
 
-		this.data = checkData(data);
+		for (final DataUpdateListener listener : listeners) {
+			try {
+				listener.beforeUpdate(this.data.get(), data);
+			} catch (final RuntimeException e) {
+				LOG.warn(MSG_LISTENER_FAILED, e);
+			}
+		}
+
+		final Data previous = this.data.getAndSet(data);
+
+		for (final DataUpdateListener listener : listeners) {
+			try {
+				listener.afterUpdate(previous, data);
+			} catch (final RuntimeException e) {
+				LOG.warn(MSG_LISTENER_FAILED, e);
+			}
+		}
+		FlightRecorderEvents.endDataSwap(event, previous, data);
 
 		// add some useful UAS data informations to the log
 		if (LOG.isDebugEnabled()) {
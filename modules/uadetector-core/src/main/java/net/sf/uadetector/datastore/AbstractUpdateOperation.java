@@ -20,6 +20,7 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.LineNumberReader;
 import java.net.URL;
+import java.net.URLConnection;
 import java.nio.charset.Charset;
 import java.util.concurrent.ExecutorService;
 import java.util.regex.Pattern;
@@ -28,6 +29,8 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
 import net.sf.qualitycheck.Check;
+import net.sf.uadetector.exception.CanNotOpenStreamException;
+import net.sf.uadetector.internal.jfr.FlightRecorderEvents;
 import net.sf.uadetector.internal.util.ExecutorServices;
 
 import org.slf4j.Logger;
@@ -86,6 +89,15 @@ public abstract class AbstractUpdateOperation implements UpdateOperation {
 	 */
 	private static final String MSG_UPDATE_AVAILABLE = "An update is available. Current version is '%s' and remote version is '%s'.";
 
+	/**
+	 * Message for the log when the version information has not been modified since the latest request.<br>
+	 * <br>
+	 * <b>Message sample</b>: The version information at '<em>http://data.udger.com/uas_version.txt</em>' has not been
+	 * modified.<br>
+	 * <b>First placeholder</b>: URL of the version information
+	 */
+	private static final String MSG_VERSION_NOT_MODIFIED = "The version information at '%s' has not been modified.";
+
 	/**
 	 * Pattern of a typical version of <i>UAS data</i>
 	 */
@@ -104,28 +116,6 @@ public abstract class AbstractUpdateOperation implements UpdateOperation {
 		return VERSION_PATTERN.matcher(newer).matches() && VERSION_PATTERN.matcher(older).matches() ? newer.compareTo(older) > 0 : false;
 	}
 
-	/**
-	 * Reads the current User-Agent data version from <a
-	 * href="http://data.udger.com">http://data.udger.com</a>.
-	 * 
-	 * @param url
-	 *            a URL which the version information can be loaded
-	 * @return a version string or {@code null}
-	 * @throws IOException
-	 *             if an I/O exception occurs
-	 */
-	@Nullable
-	private static String retrieveRemoteVersion(@Nonnull final URL url, @Nonnull final Charset charset) throws IOException {
-		final InputStream stream = url.openStream();
-		final InputStreamReader reader = new InputStreamReader(stream, charset);
-		final LineNumberReader lnr = new LineNumberReader(reader);
-		final String line = lnr.readLine();
-		lnr.close();
-		reader.close();
-		stream.close();
-		return line;
-	}
-
 	/**
 	 * {@link ExecutorService} to run the update operation of the UAS data in background
 	 */
@@ -141,9 +131,20 @@ public abstract class AbstractUpdateOperation implements UpdateOperation {
 	 */
 	private final RefreshableDataStore store;
 
+	/**
+	 * Validators of the latest responses to request remote resources conditionally
+	 */
+	private final ResponseValidatorCache validators;
+
 	public AbstractUpdateOperation(@Nonnull final RefreshableDataStore dataStore) {
+		this(dataStore, new ResponseValidatorCache());
+	}
+
+	AbstractUpdateOperation(@Nonnull final RefreshableDataStore dataStore, @Nonnull final ResponseValidatorCache validators) {
 		Check.notNull(dataStore, "dataStore");
+		Check.notNull(validators, "validators");
 		store = dataStore;
+		this.validators = validators;
 	}
 
 	/**
@@ -156,6 +157,16 @@ public abstract class AbstractUpdateOperation implements UpdateOperation {
 		return store.getData().getVersion();
 	}
 
+	/**
+	 * Gets the validators of the latest responses of remote resources.
+	 * 
+	 * @return validators of the latest responses
+	 */
+	@Nonnull
+	ResponseValidatorCache getResponseValidators() {
+		return validators;
+	}
+
 	/**
 	 * Gets the time of the last update check in milliseconds.
 	 * 
@@ -173,10 +184,12 @@ public abstract class AbstractUpdateOperation implements UpdateOperation {
 	 * @return {@code true} if an update exists, otherwise {@code false}
 	 */
 	protected boolean isUpdateAvailable() {
+		final Object event = FlightRecorderEvents.beginUpdateCheck();
 		boolean result = false;
 		String version = EMPTY_VERSION;
 		try {
-			version = retrieveRemoteVersion(store.getVersionUrl(), store.getCharset());
+			final String remoteVersion = retrieveRemoteVersion(store.getVersionUrl(), store.getCharset());
+			version = remoteVersion != null ? remoteVersion : EMPTY_VERSION;
 		} catch (final IOException e) {
 			LOG.info(MSG_NO_UPDATE_CHECK_POSSIBLE);
 			LOG.debug(String.format(MSG_NO_UPDATE_CHECK_POSSIBLE__DEBUG, e.getClass().getName(), e.getLocalizedMessage()));
@@ -188,9 +201,48 @@ public abstract class AbstractUpdateOperation implements UpdateOperation {
 			LOG.debug(String.format(MSG_NO_UPDATE_AVAILABLE, getCurrentVersion()));
 		}
 		lastUpdateCheck = System.currentTimeMillis();
+		FlightRecorderEvents.endUpdateCheck(event, getCurrentVersion(), version, result);
 		return result;
 	}
 
+	/**
+	 * Reads the current User-Agent data version from <a
+	 * href="http://data.udger.com">http://data.udger.com</a>.<br>
+	 * <br>
+	 * The version information will be requested conditionally. If it has not been modified since the latest request,
+	 * the previously read version will be returned without transferring it again.
+	 * 
+	 * @param url
+	 *            a URL which the version information can be loaded
+	 * @return a version string or {@code null}
+	 * @throws IOException
+	 *             if an I/O exception occurs
+	 */
+	@Nullable
+	private String retrieveRemoteVersion(@Nonnull final URL url, @Nonnull final Charset charset) throws IOException {
+		final ResponseValidators latest = validators.get(ResponseValidatorCache.VERSION);
+		final URLConnection connection;
+		try {
+			connection = latest.open(url);
+		} catch (final CanNotOpenStreamException e) {
+			throw new IOException(e.getLocalizedMessage(), e.getCause());
+		}
+		if (ResponseValidators.isNotModified(connection)) {
+			LOG.debug(String.format(MSG_VERSION_NOT_MODIFIED, url));
+			return latest.getContent();
+		}
+
+		final InputStream stream = connection.getInputStream();
+		final InputStreamReader reader = new InputStreamReader(stream, charset);
+		final LineNumberReader lnr = new LineNumberReader(reader);
+		final String line = lnr.readLine();
+		lnr.close();
+		reader.close();
+		stream.close();
+		validators.put(ResponseValidatorCache.VERSION, ResponseValidators.of(connection, line));
+		return line;
+	}
+
 	/**
 	 * Executes the update at some time in the future (as soon as possible) within a new thread.
 	 */
@@ -15,8 +15,12 @@
  ******************************************************************************/
 package net.sf.uadetector.datastore;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.URL;
 import java.nio.charset.Charset;
 
@@ -24,11 +28,16 @@ import javax.annotation.Nonnull;
 
 import net.sf.qualitycheck.Check;
 import net.sf.qualitycheck.exception.IllegalStateOfArgumentException;
+import net.sf.uadetector.datareader.BinaryDataReader;
 import net.sf.uadetector.datareader.DataReader;
+import net.sf.uadetector.datareader.StreamingXmlDataReader;
 import net.sf.uadetector.datareader.XmlDataReader;
+import net.sf.uadetector.internal.data.BinaryDataFormat;
 import net.sf.uadetector.internal.data.Data;
+import net.sf.uadetector.internal.util.Closeables;
 import net.sf.uadetector.internal.util.FileUtil;
 import net.sf.uadetector.internal.util.UrlUtil;
+import net.sf.uadetector.writer.BinaryDataWriter;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -37,6 +46,11 @@ import org.slf4j.LoggerFactory;
  * Implementation of a {@link DataStore} which is able to recover <em>UAS data</em> in XML format from a cache file. If
  * the cache file is empty, the data will be read from the given data URL.<br>
  * <br>
+ * Next to the cache file a binary snapshot of the read in data will be stored (see {@link #getSnapshotFile(File)}),
+ * which will be preferred when recovering the data as long as it has been created from the current content of the cache
+ * file. Therefore the snapshot stores a CRC32 checksum of the cache file, which must match the checksum of the cache
+ * file when reading.<br>
+ * <br>
  * You can also update the data of the store at any time if you trigger {@link CachingXmlDataStore#refresh()}.
  * 
  * @author André Rouél
@@ -82,6 +96,11 @@ public final class CachingXmlDataStore extends AbstractRefreshableDataStore {
 	 */
 	private static final String MSG_CACHE_FILE_IS_DAMAGED_AND_DELETED = "The cache file '%s' is damaged and has been deleted.";
 
+	/**
+	 * Message if the snapshot of the cache file can not be written
+	 */
+	private static final String MSG_SNAPSHOT_NOT_WRITTEN = "The snapshot '%s' of the cache file can not be written: %s";
+
 	/**
 	 * The prefix string to be used in generating the cache file's name; must be at least three characters long
 	 */
@@ -93,6 +112,17 @@ public final class CachingXmlDataStore extends AbstractRefreshableDataStore {
 	 */
 	private static final String SUFFIX = ".xml";
 
+	/**
+	 * The suffix which will be appended to the name of the cache file to name its binary snapshot
+	 */
+	private static final String SNAPSHOT_SUFFIX = ".bin";
+
+	/**
+	 * The suffix which will be appended to the name of the cache file to name the file with the validators of the
+	 * latest responses
+	 */
+	private static final String VALIDATORS_SUFFIX = ".validators";
+
 	/**
 	 * Constructs a new instance of {@code CachingXmlDataStore} with the given arguments. The given {@code cacheFile}
 	 * can be empty or filled with previously cached data in XML format. The file must be writable otherwise an
@@ -180,7 +210,9 @@ public final class CachingXmlDataStore extends AbstractRefreshableDataStore {
 		Check.notNull(versionUrl, "versionUrl");
 
 		final DataReader reader = new XmlDataReader();
-		final DataStore fallbackDataStore = readCacheFileAsFallback(reader, cacheFile, charset, fallback);
+
+		// the cache file will be only written after a successful validation, therefore it can be read without validation
+		final DataStore fallbackDataStore = readCacheFileAsFallback(new StreamingXmlDataReader(), cacheFile, charset, fallback);
 		return new CachingXmlDataStore(reader, dataUrl, versionUrl, charset, cacheFile, fallbackDataStore);
 	}
 
@@ -250,6 +282,40 @@ public final class CachingXmlDataStore extends AbstractRefreshableDataStore {
 		return file;
 	}
 
+	/**
+	 * Gets the file in which a binary snapshot of the <em>UAS data</em> of the given cache file will be stored. The
+	 * snapshot will be placed near the cache file and its name will be the name of the cache file with the suffix
+	 * ".bin".
+	 * 
+	 * @param cacheFile
+	 *            file with cached <em>UAS data</em> in XML format
+	 * @return file for the binary snapshot of the cache file
+	 * @throws net.sf.qualitycheck.exception.IllegalNullArgumentException
+	 *             if the given argument is {@code null}
+	 */
+	@Nonnull
+	public static File getSnapshotFile(@Nonnull final File cacheFile) {
+		Check.notNull(cacheFile, "cacheFile");
+		return new File(cacheFile.getPath() + SNAPSHOT_SUFFIX);
+	}
+
+	/**
+	 * Gets the file in which the validators of the latest responses of the remote resources will be stored, so that
+	 * unchanged <em>UAS data</em> will not be fetched again after a restart. The file will be placed near the cache
+	 * file and its name will be the name of the cache file with the suffix ".validators".
+	 * 
+	 * @param cacheFile
+	 *            file with cached <em>UAS data</em> in XML format
+	 * @return file for the validators of the latest responses
+	 * @throws net.sf.qualitycheck.exception.IllegalNullArgumentException
+	 *             if the given argument is {@code null}
+	 */
+	@Nonnull
+	public static File getValidatorsFile(@Nonnull final File cacheFile) {
+		Check.notNull(cacheFile, "cacheFile");
+		return new File(cacheFile.getPath() + VALIDATORS_SUFFIX);
+	}
+
 	/**
 	 * Checks if the given file is empty.
 	 * 
@@ -289,7 +355,7 @@ public final class CachingXmlDataStore extends AbstractRefreshableDataStore {
 		if (!isEmpty(cacheFile, charset)) {
 			final URL cacheFileUrl = UrlUtil.toUrl(cacheFile);
 			try {
-				fallbackDataStore = new CacheFileDataStore(reader.read(cacheFileUrl, charset), reader, cacheFileUrl, charset);
+				fallbackDataStore = new CacheFileDataStore(readCacheFile(reader, cacheFile, charset), reader, cacheFileUrl, charset);
 				LOG.debug(MSG_CACHE_FILE_IS_FILLED);
 			} catch (final RuntimeException e) {
 				fallbackDataStore = fallback;
@@ -302,6 +368,115 @@ public final class CachingXmlDataStore extends AbstractRefreshableDataStore {
 		return fallbackDataStore;
 	}
 
+	/**
+	 * Calculates the checksum of the given cache file, which will be stored in its binary snapshot.
+	 * 
+	 * @param cacheFile
+	 *            file with cached <em>UAS data</em> in XML format
+	 * @return checksum of the cache file
+	 * @throws net.sf.qualitycheck.exception.IllegalStateOfArgumentException
+	 *             if the cache file can not be read
+	 */
+	private static long checksum(@Nonnull final File cacheFile) {
+		try {
+			final InputStream inputStream = UrlUtil.open(UrlUtil.toUrl(cacheFile));
+			boolean threw = true;
+			try {
+				final long checksum = BinaryDataFormat.checksum(inputStream);
+				threw = false;
+				return checksum;
+			} finally {
+				Closeables.close(inputStream, threw);
+			}
+		} catch (final IOException e) {
+			throw new IllegalStateOfArgumentException("The given file could not be read.", e);
+		}
+	}
+
+	/**
+	 * Reads the <em>UAS data</em> of the given cache file from its binary snapshot if the snapshot has been created
+	 * from the current content of the cache file, otherwise the cache file will be read and a new snapshot will be
+	 * written.
+	 * 
+	 * @param reader
+	 *            data reader to read the cache file
+	 * @param cacheFile
+	 *            file with cached <em>UAS data</em> in XML format
+	 * @param charset
+	 *            the character set in which the data should be read
+	 * @return read in <em>UAS data</em>
+	 */
+	@Nonnull
+	private static Data readCacheFile(@Nonnull final DataReader reader, @Nonnull final File cacheFile, @Nonnull final Charset charset) {
+		final File snapshot = getSnapshotFile(cacheFile);
+		final long checksum = checksum(cacheFile);
+		if (snapshot.exists()) {
+			final Data data = new BinaryDataReader().read(UrlUtil.toUrl(snapshot), checksum);
+			if (!Data.EMPTY.equals(data)) {
+				return data;
+			}
+		}
+		final Data data = reader.read(UrlUtil.toUrl(cacheFile), charset);
+		if (!Data.EMPTY.equals(data)) {
+			writeSnapshot(cacheFile, checksum, data);
+		}
+		return data;
+	}
+
+	/**
+	 * Writes a binary snapshot of the given <em>UAS data</em>, which has been read from the given cache file, near the
+	 * cache file. If the snapshot can not be written a warning will be logged, because the cache file can still be
+	 * read.
+	 * 
+	 * @param cacheFile
+	 *            file with cached <em>UAS data</em> in XML format
+	 * @param data
+	 *            <em>UAS data</em> of the cache file
+	 */
+	static void writeSnapshot(@Nonnull final File cacheFile, @Nonnull final Data data) {
+		final long checksum;
+		try {
+			checksum = checksum(cacheFile);
+		} catch (final RuntimeException e) {
+			LOG.warn(String.format(MSG_SNAPSHOT_NOT_WRITTEN, getSnapshotFile(cacheFile).getPath(), e.getLocalizedMessage()));
+			return;
+		}
+		writeSnapshot(cacheFile, checksum, data);
+	}
+
+	/**
+	 * Writes a binary snapshot of the given <em>UAS data</em>, which has been read from the cache file with the given
+	 * checksum, near the cache file.
+	 * 
+	 * @param cacheFile
+	 *            file with cached <em>UAS data</em> in XML format
+	 * @param checksum
+	 *            checksum of the cache file from which the given <em>UAS data</em> has been read
+	 * @param data
+	 *            <em>UAS data</em> of the cache file
+	 */
+	private static void writeSnapshot(@Nonnull final File cacheFile, final long checksum, @Nonnull final Data data) {
+		final File snapshot = getSnapshotFile(cacheFile);
+		try {
+			final File tempFile = UpdateOperationWithCacheFileTask.createTemporaryFile(snapshot);
+			OutputStream outputStream = null;
+			boolean threw = true;
+			try {
+				outputStream = new BufferedOutputStream(new FileOutputStream(tempFile));
+				BinaryDataWriter.write(data, checksum, outputStream);
+				threw = false;
+			} finally {
+				Closeables.close(outputStream, threw);
+			}
+			UpdateOperationWithCacheFileTask.deleteFile(snapshot);
+			UpdateOperationWithCacheFileTask.renameFile(tempFile, snapshot);
+		} catch (final IOException e) {
+			LOG.warn(String.format(MSG_SNAPSHOT_NOT_WRITTEN, snapshot.getPath(), e.getLocalizedMessage()));
+		} catch (final RuntimeException e) {
+			LOG.warn(String.format(MSG_SNAPSHOT_NOT_WRITTEN, snapshot.getPath(), e.getLocalizedMessage()));
+		}
+	}
+
 	/**
 	 * Constructs an {@code CachingXmlDataStore} with the given arguments.
 	 * 
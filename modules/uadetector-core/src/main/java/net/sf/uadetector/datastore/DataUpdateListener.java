@@ -0,0 +1,58 @@
+/*******************************************************************************
+ * Copyright 2014 André Rouél
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package net.sf.uadetector.datastore;
+
+import javax.annotation.Nonnull;
+
+import net.sf.uadetector.internal.data.Data;
+
+/**
+ * A listener which will be informed when a {@link RefreshableDataStore} replaces its <em>UAS data</em>.
+ * <p>
+ * Caches, precomputed indexes or metrics which depend on a specific instance of {@link Data} can use this to react on
+ * a new version of <em>UAS data</em> (see {@link Data#getVersion()}) instead of checking it with every parsing.
+ * <p>
+ * The listener will be called within the thread which updates the data store, therefore an implementation should
+ * return quickly and must be thread-safe. Exceptions thrown by a listener will be logged and do not prevent the
+ * replacement.
+ * 
+ * @author André Rouél
+ */
+public interface DataUpdateListener {
+
+	/**
+	 * Will be called after the new <em>UAS data</em> has been published. From now on all calls of
+	 * {@link DataStore#getData()} return the new instance.
+	 * 
+	 * @param previous
+	 *            <em>UAS data</em> which has been replaced
+	 * @param current
+	 *            <em>UAS data</em> which is now in use
+	 */
+	void afterUpdate(@Nonnull Data previous, @Nonnull Data current);
+
+	/**
+	 * Will be called before the new <em>UAS data</em> will be published. All calls of {@link DataStore#getData()}
+	 * still return the current instance, so this is the right place to prepare something for the new data.
+	 * 
+	 * @param current
+	 *            <em>UAS data</em> which is still in use
+	 * @param next
+	 *            <em>UAS data</em> which will replace the current one
+	 */
+	void beforeUpdate(@Nonnull Data current, @Nonnull Data next);
+
+}
@@ -34,6 +34,17 @@ public interface RefreshableDataStore extends DataStore {
 	 */
 	String MSG_URL_NOT_READABLE = "The data can not be read from the specified URL: %s";
 
+	/**
+	 * Registers a listener which will be informed before and after the <em>UAS data</em> of this store will be
+	 * replaced.
+	 * 
+	 * @param listener
+	 *            listener to register
+	 * @throws net.sf.qualitycheck.exception.IllegalNullArgumentException
+	 *             if the given argument is {@code null}
+	 */
+	void addUpdateListener(@Nonnull DataUpdateListener listener);
+
 	/**
 	 * This method returns a data store which will be used during start up and can be used in emergency cases.
 	 * <p>
@@ -58,4 +69,14 @@ public interface RefreshableDataStore extends DataStore {
 	 */
 	void refresh();
 
+	/**
+	 * Removes a previously registered listener. Nothing happens if the given listener has not been registered.
+	 * 
+	 * @param listener
+	 *            listener to remove
+	 * @throws net.sf.qualitycheck.exception.IllegalNullArgumentException
+	 *             if the given argument is {@code null}
+	 */
+	void removeUpdateListener(@Nonnull DataUpdateListener listener);
+
 }
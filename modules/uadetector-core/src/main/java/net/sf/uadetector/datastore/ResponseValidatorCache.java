@@ -0,0 +1,186 @@
+/*******************************************************************************
+ * Copyright 2014 André Rouél
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package net.sf.uadetector.datastore;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+
+import net.sf.qualitycheck.Check;
+import net.sf.uadetector.internal.util.Closeables;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps the {@link ResponseValidators} of remote resources by a key. The validators can be stored in a file, so that
+ * they are still available after a restart.
+ * 
+ * @author André Rouél
+ */
+@ThreadSafe
+final class ResponseValidatorCache {
+
+	/**
+	 * Key of the validators of the <em>UAS data</em>
+	 */
+	public static final String DATA = "data";
+
+	/**
+	 * Key of the validators of the version information of the <em>UAS data</em>
+	 */
+	public static final String VERSION = "version";
+
+	/**
+	 * Corresponding default logger of this class
+	 */
+	private static final Logger LOG = LoggerFactory.getLogger(ResponseValidatorCache.class);
+
+	/**
+	 * Message for the log if the file with validators can not be read or written
+	 */
+	private static final String MSG_FILE_ISSUES = "The validators of responses can not be read from or written to '%s': %s";
+
+	private static final String SUFFIX_CONTENT = ".content";
+
+	private static final String SUFFIX_ENTITY_TAG = ".etag";
+
+	private static final String SUFFIX_LAST_MODIFIED = ".last-modified";
+
+	private static final String SUFFIX_URL = ".url";
+
+	private static void putIfNotNull(@Nonnull final Properties properties, @Nonnull final String key, @Nullable final String value) {
+		if (value != null) {
+			properties.setProperty(key, value);
+		}
+	}
+
+	@Nullable
+	private final File file;
+
+	@Nonnull
+	private final Map<String, ResponseValidators> validators = new HashMap<String, ResponseValidators>();
+
+	/**
+	 * Constructs a cache which keeps the validators only in memory.
+	 */
+	public ResponseValidatorCache() {
+		file = null;
+	}
+
+	/**
+	 * Constructs a cache which stores the validators in the given file. Previously stored validators will be read in.
+	 * 
+	 * @param file
+	 *            file to store the validators
+	 */
+	public ResponseValidatorCache(@Nonnull final File file) {
+		this.file = Check.notNull(file, "file");
+		if (file.exists()) {
+			read(file);
+		}
+	}
+
+	/**
+	 * Gets the validators which are stored under the given key.
+	 * 
+	 * @param key
+	 *            key of the resource
+	 * @return validators or {@link ResponseValidators#EMPTY} if there are none
+	 */
+	@Nonnull
+	public synchronized ResponseValidators get(@Nonnull final String key) {
+		Check.notNull(key, "key");
+		final ResponseValidators value = validators.get(key);
+		return value != null ? value : ResponseValidators.EMPTY;
+	}
+
+	/**
+	 * Stores the given validators under the given key.
+	 * 
+	 * @param key
+	 *            key of the resource
+	 * @param value
+	 *            validators of the latest response of the resource
+	 */
+	public synchronized void put(@Nonnull final String key, @Nonnull final ResponseValidators value) {
+		Check.notNull(key, "key");
+		Check.notNull(value, "value");
+		validators.put(key, value);
+		if (file != null) {
+			write(file);
+		}
+	}
+
+	private void read(@Nonnull final File file) {
+		final Properties properties = new Properties();
+		InputStream inputStream = null;
+		try {
+			inputStream = new BufferedInputStream(new FileInputStream(file));
+			properties.load(inputStream);
+		} catch (final IOException e) {
+			LOG.warn(String.format(MSG_FILE_ISSUES, file.getPath(), e.getLocalizedMessage()));
+		} catch (final IllegalArgumentException e) {
+			// the file contains a malformed escape sequence
+			LOG.warn(String.format(MSG_FILE_ISSUES, file.getPath(), e.getLocalizedMessage()));
+		} finally {
+			Closeables.closeAndConvert(inputStream, true);
+		}
+
+		for (final String name : properties.stringPropertyNames()) {
+			if (name.endsWith(SUFFIX_URL)) {
+				final String key = name.substring(0, name.length() - SUFFIX_URL.length());
+				validators.put(key, new ResponseValidators(properties.getProperty(name), properties.getProperty(key + SUFFIX_ENTITY_TAG),
+						properties.getProperty(key + SUFFIX_LAST_MODIFIED), properties.getProperty(key + SUFFIX_CONTENT)));
+			}
+		}
+	}
+
+	private void write(@Nonnull final File file) {
+		final Properties properties = new Properties();
+		for (final Map.Entry<String, ResponseValidators> entry : validators.entrySet()) {
+			final String key = entry.getKey();
+			final ResponseValidators value = entry.getValue();
+			putIfNotNull(properties, key + SUFFIX_URL, value.getUrl());
+			putIfNotNull(properties, key + SUFFIX_ENTITY_TAG, value.getEntityTag());
+			putIfNotNull(properties, key + SUFFIX_LAST_MODIFIED, value.getLastModified());
+			putIfNotNull(properties, key + SUFFIX_CONTENT, value.getContent());
+		}
+
+		OutputStream outputStream = null;
+		try {
+			outputStream = new BufferedOutputStream(new FileOutputStream(file));
+			properties.store(outputStream, "Validators of the latest responses of UAS data resources");
+		} catch (final IOException e) {
+			LOG.warn(String.format(MSG_FILE_ISSUES, file.getPath(), e.getLocalizedMessage()));
+		} finally {
+			Closeables.closeAndConvert(outputStream, true);
+		}
+	}
+
+}
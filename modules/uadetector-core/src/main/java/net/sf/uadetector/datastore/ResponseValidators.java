@@ -0,0 +1,246 @@
+/*******************************************************************************
+ * Copyright 2014 André Rouél
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package net.sf.uadetector.datastore;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+
+import net.sf.qualitycheck.Check;
+import net.sf.uadetector.exception.CanNotOpenStreamException;
+
+/**
+ * Validators of the latest response of a remote resource, which allow to fetch the resource again by a HTTP
+ * conditional request. The server answers such a request with <em>304 Not Modified</em> and without content if the
+ * resource has not been modified since then.
+ * <p>
+ * Small resources like the version information can keep their content, so that it is still available if the resource
+ * has not been modified.
+ * 
+ * @author André Rouél
+ */
+@Immutable
+final class ResponseValidators {
+
+	/**
+	 * Validators which does not belong to any resource, therefore a request will never be conditional
+	 */
+	public static final ResponseValidators EMPTY = new ResponseValidators(null, null, null, null);
+
+	/**
+	 * Name of the HTTP request header which contains the time of the last modification of the latest response
+	 */
+	private static final String IF_MODIFIED_SINCE = "If-Modified-Since";
+
+	/**
+	 * Name of the HTTP request header which contains the entity tag of the latest response
+	 */
+	private static final String IF_NONE_MATCH = "If-None-Match";
+
+	private static boolean equalsNullSafe(@Nullable final String a, @Nullable final String b) {
+		return a == null ? b == null : a.equals(b);
+	}
+
+	private static int hashCodeNullSafe(@Nullable final String value) {
+		return value == null ? 0 : value.hashCode();
+	}
+
+	/**
+	 * Checks whether the server answered a conditional request with <em>304 Not Modified</em>.
+	 * 
+	 * @param connection
+	 *            connection opened by {@link #open(URL)}
+	 * @return {@code true} if the resource has not been modified, otherwise {@code false}
+	 * @throws IOException
+	 *             if the response can not be read
+	 */
+	public static boolean isNotModified(@Nonnull final URLConnection connection) throws IOException {
+		Check.notNull(connection, "connection");
+		return connection instanceof HttpURLConnection
+				&& ((HttpURLConnection) connection).getResponseCode() == HttpURLConnection.HTTP_NOT_MODIFIED;
+	}
+
+	private static boolean isSuccessful(final int status) {
+		return status >= HttpURLConnection.HTTP_OK && status < HttpURLConnection.HTTP_MULT_CHOICE;
+	}
+
+	/**
+	 * Takes the validators of the response of the given connection.
+	 * 
+	 * @param connection
+	 *            connection whose response has been read
+	 * @param content
+	 *            content of the response which should be kept or {@code null}
+	 * @return validators of the response
+	 */
+	@Nonnull
+	public static ResponseValidators of(@Nonnull final URLConnection connection, @Nullable final String content) {
+		Check.notNull(connection, "connection");
+		return new ResponseValidators(connection.getURL().toExternalForm(), connection.getHeaderField("ETag"),
+				connection.getHeaderField("Last-Modified"), content);
+	}
+
+	@Nullable
+	private final String content;
+
+	@Nullable
+	private final String entityTag;
+
+	@Nullable
+	private final String lastModified;
+
+	@Nullable
+	private final String url;
+
+	public ResponseValidators(@Nullable final String url, @Nullable final String entityTag, @Nullable final String lastModified,
+			@Nullable final String content) {
+		this.url = url;
+		this.entityTag = entityTag;
+		this.lastModified = lastModified;
+		this.content = content;
+	}
+
+	@Override
+	public boolean equals(final Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (obj == null) {
+			return false;
+		}
+		if (getClass() != obj.getClass()) {
+			return false;
+		}
+		final ResponseValidators other = (ResponseValidators) obj;
+		return equalsNullSafe(url, other.url) && equalsNullSafe(entityTag, other.entityTag)
+				&& equalsNullSafe(lastModified, other.lastModified) && equalsNullSafe(content, other.content);
+	}
+
+	/**
+	 * Gets the kept content of the latest response.
+	 * 
+	 * @return content or {@code null} if no content has been kept
+	 */
+	@Nullable
+	public String getContent() {
+		return content;
+	}
+
+	/**
+	 * Gets the entity tag (header <em>ETag</em>) of the latest response.
+	 * 
+	 * @return entity tag or {@code null} if the server sent none
+	 */
+	@Nullable
+	public String getEntityTag() {
+		return entityTag;
+	}
+
+	/**
+	 * Gets the time of the last modification (header <em>Last-Modified</em>) of the latest response.
+	 * 
+	 * @return time of the last modification or {@code null} if the server sent none
+	 */
+	@Nullable
+	public String getLastModified() {
+		return lastModified;
+	}
+
+	/**
+	 * Gets the URL of the resource to which these validators belong.
+	 * 
+	 * @return URL in its external form or {@code null} if these validators belong to no resource
+	 */
+	@Nullable
+	public String getUrl() {
+		return url;
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + hashCodeNullSafe(url);
+		result = prime * result + hashCodeNullSafe(entityTag);
+		result = prime * result + hashCodeNullSafe(lastModified);
+		result = prime * result + hashCodeNullSafe(content);
+		return result;
+	}
+
+	/**
+	 * Opens a connection to the given URL and reads the status of the response. If these validators belong to the
+	 * same URL and the connection uses HTTP, the request will be sent conditionally.
+	 * 
+	 * @param url
+	 *            URL of the resource
+	 * @return connection whose content can be read, unless {@link #isNotModified(URLConnection)} is {@code true}
+	 * @throws CanNotOpenStreamException
+	 *             if no connection to the given {@code URL} can be established or the server responds with a status
+	 *             which is neither successful (2xx) nor <em>Not Modified</em> (304)
+	 */
+	@Nonnull
+	public URLConnection open(@Nonnull final URL url) {
+		Check.notNull(url, "url");
+
+		try {
+			final URLConnection connection = url.openConnection();
+			if (connection instanceof HttpURLConnection) {
+				if (url.toExternalForm().equals(this.url)) {
+					if (entityTag != null) {
+						connection.setRequestProperty(IF_NONE_MATCH, entityTag);
+					}
+					if (lastModified != null) {
+						connection.setRequestProperty(IF_MODIFIED_SINCE, lastModified);
+					}
+				}
+
+				// read the status line to detect connection problems and error responses as early as possible
+				final HttpURLConnection httpConnection = (HttpURLConnection) connection;
+				final int status = httpConnection.getResponseCode();
+				if (!isSuccessful(status) && status != HttpURLConnection.HTTP_NOT_MODIFIED) {
+					httpConnection.disconnect();
+					throw new CanNotOpenStreamException(url.toString(), new IOException("Server returned HTTP response code " + status));
+				}
+			} else {
+				connection.connect();
+			}
+			return connection;
+		} catch (final IOException e) {
+			throw new CanNotOpenStreamException(url.toString(), e);
+		}
+	}
+
+	@Override
+	public String toString() {
+		final StringBuilder builder = new StringBuilder();
+		builder.append("ResponseValidators [url=");
+		builder.append(url);
+		builder.append(", entityTag=");
+		builder.append(entityTag);
+		builder.append(", lastModified=");
+		builder.append(lastModified);
+		builder.append(", content=");
+		builder.append(content);
+		builder.append("]");
+		return builder.toString();
+	}
+
+}
@@ -15,10 +15,13 @@
  ******************************************************************************/
 package net.sf.uadetector.datastore;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.net.URL;
+import java.net.URLConnection;
 import java.nio.charset.Charset;
 
 import javax.annotation.Nonnull;
@@ -45,6 +48,11 @@ final class UpdateOperationWithCacheFileTask extends AbstractUpdateOperation {
 	 */
 	private static final String MSG_CACHE_FILE_ISSUES = "Issues occured during reading of or writing to the cache file: %s";
 
+	/**
+	 * Message for the log if the content of the passed URL has not been modified since it has been saved
+	 */
+	private static final String MSG_NOT_MODIFIED = "The UAS data at '%s' has not been modified since the cache file has been written.";
+
 	/**
 	 * Message for the log if the passed resources are the same and an update makes no sense
 	 */
@@ -117,55 +125,111 @@ final class UpdateOperationWithCacheFileTask extends AbstractUpdateOperation {
 	}
 
 	/**
-	 * Reads the content from the given {@link URL} and saves it to the passed file.
+	 * Reads the content from the given {@link URL} and saves it to the passed file.<br>
+	 * <br>
+	 * The content will be streamed into a temporary file and read in from there a single time. Only if it can be
+	 * transformed into an instance of {@code Data} the temporary file replaces the passed file.
 	 * 
 	 * @param file
 	 *            file in which the entire contents from the given URL can be saved
 	 * @param store
 	 *            a data store for <em>UAS data</em>
+	 * @return the read in <em>UAS data</em> which are now stored in the given file
 	 * @throws net.sf.qualitycheck.exception.IllegalNullArgumentException
 	 *             if any of the passed arguments is {@code null}
+	 * @throws IllegalStateException
+	 *             if the content can not be transformed into an instance of {@code Data}
 	 * @throws IOException
 	 *             if an I/O error occurs
 	 */
-	protected static void readAndSave(@Nonnull final File file, @Nonnull final DataStore store) throws IOException {
+	@Nonnull
+	protected static Data readAndSave(@Nonnull final File file, @Nonnull final DataStore store) throws IOException {
+		return readAndSave(file, store, new ResponseValidatorCache());
+	}
+
+	/**
+	 * Reads the content from the given {@link URL} and saves it to the passed file, but only if the content has been
+	 * modified since it has been saved the last time.<br>
+	 * <br>
+	 * If the passed file is filled and the given validators belong to the {@code URL}, the content will be requested
+	 * conditionally and if it has not been modified the passed file will be read in instead of transferring it again.
+	 * Otherwise it will be streamed into a temporary file and read in from there a single time. Only if it can be
+	 * transformed into an instance of {@code Data} the temporary file replaces the passed file and the validators of
+	 * the response will be kept.
+	 * 
+	 * @param file
+	 *            file in which the entire contents from the given URL can be saved
+	 * @param store
+	 *            a data store for <em>UAS data</em>
+	 * @param validators
+	 *            validators of the latest responses
+	 * @return the read in <em>UAS data</em> which are now stored in the given file
+	 * @throws net.sf.qualitycheck.exception.IllegalNullArgumentException
+	 *             if any of the passed arguments is {@code null}
+	 * @throws IllegalStateException
+	 *             if the content can not be transformed into an instance of {@code Data}
+	 * @throws IOException
+	 *             if an I/O error occurs
+	 */
+	@Nonnull
+	static Data readAndSave(@Nonnull final File file, @Nonnull final DataStore store, @Nonnull final ResponseValidatorCache validators)
+			throws IOException {
 		Check.notNull(file, "file");
 		Check.notNull(store, "store");
+		Check.notNull(validators, "validators");
 
 		final URL url = store.getDataUrl();
 		final Charset charset = store.getCharset();
 
 		final boolean isEqual = url.toExternalForm().equals(UrlUtil.toUrl(file).toExternalForm());
-		if (!isEqual) {
+		if (isEqual) {
+			LOG.debug(MSG_SAME_RESOURCES);
+			return store.getDataReader().read(url, charset);
+		}
 
-			// check if the data can be read in successfully
-			final String data = UrlUtil.read(url, charset);
-			if (Data.EMPTY.equals(store.getDataReader().read(data))) {
-				throw new IllegalStateException("The read in content can not be transformed to an instance of 'Data'.");
+		// the validators are only meaningful as long as the file contains the content of the latest response
+		final boolean filled = file.exists() && !isEmpty(file, charset);
+		URLConnection connection = (filled ? validators.get(ResponseValidatorCache.DATA) : ResponseValidators.EMPTY).open(url);
+		if (ResponseValidators.isNotModified(connection)) {
+			LOG.debug(String.format(MSG_NOT_MODIFIED, url));
+			final Data data = store.getDataReader().read(UrlUtil.toUrl(file), charset);
+			if (!Data.EMPTY.equals(data)) {
+				return data;
 			}
 
-			final File tempFile = createTemporaryFile(file);
-
-			FileOutputStream outputStream = null;
-			boolean threw = true;
-			try {
-				// write data to temporary file
-				outputStream = new FileOutputStream(tempFile);
-				outputStream.write(data.getBytes(charset));
+			// the file is not readable anymore, so the content must be fetched again
+			connection = ResponseValidators.EMPTY.open(url);
+		}
 
-				// delete the original file
-				deleteFile(file);
+		final File tempFile = createTemporaryFile(file);
 
-				threw = false;
-			} finally {
-				Closeables.close(outputStream, threw);
-			}
+		OutputStream outputStream = null;
+		boolean threw = true;
+		try {
+			// stream data to temporary file
+			outputStream = new BufferedOutputStream(new FileOutputStream(tempFile));
+			UrlUtil.copy(connection.getInputStream(), outputStream);
+			threw = false;
+		} finally {
+			Closeables.close(outputStream, threw);
+		}
 
-			// rename the new file to the original one
-			renameFile(tempFile, file);
-		} else {
-			LOG.debug(MSG_SAME_RESOURCES);
+		// check if the data can be read in successfully
+		final Data data = store.getDataReader().read(UrlUtil.toUrl(tempFile), charset);
+		if (Data.EMPTY.equals(data)) {
+			deleteFile(tempFile);
+			throw new IllegalStateException("The read in content can not be transformed to an instance of 'Data'.");
 		}
+
+		// delete the original file and its snapshot, which would be outdated
+		deleteFile(file);
+		deleteFile(CachingXmlDataStore.getSnapshotFile(file));
+
+		// rename the new file to the original one
+		renameFile(tempFile, file);
+		validators.put(ResponseValidatorCache.DATA, ResponseValidators.of(connection, null));
+
+		return data;
 	}
 
 	/**
@@ -199,9 +263,8 @@ final class UpdateOperationWithCacheFileTask extends AbstractUpdateOperation {
 	private final AbstractRefreshableDataStore store;
 
 	public UpdateOperationWithCacheFileTask(@Nonnull final AbstractRefreshableDataStore dataStore, @Nonnull final File cacheFile) {
-		super(dataStore);
+		super(dataStore, new ResponseValidatorCache(CachingXmlDataStore.getValidatorsFile(Check.notNull(cacheFile, "cacheFile"))));
 		Check.notNull(dataStore, "dataStore");
-		Check.notNull(cacheFile, "cacheFile");
 		store = dataStore;
 		this.cacheFile = cacheFile;
 	}
@@ -218,8 +281,9 @@ final class UpdateOperationWithCacheFileTask extends AbstractUpdateOperation {
 	private void readDataIfNewerAvailable() {
 		try {
 			if (isUpdateAvailable() || isCacheFileEmpty()) {
-				readAndSave(cacheFile, store);
-				store.setData(store.getDataReader().read(cacheFile.toURI().toURL(), store.getCharset()));
+				final Data data = readAndSave(cacheFile, store, getResponseValidators());
+				store.setData(data);
+				CachingXmlDataStore.writeSnapshot(cacheFile, data);
 			}
 		} catch (final CanNotOpenStreamException e) {
 			LOG.warn(String.format(RefreshableDataStore.MSG_URL_NOT_READABLE, e.getLocalizedMessage()));
@@ -237,11 +301,11 @@ final class UpdateOperationWithCacheFileTask extends AbstractUpdateOperation {
 		LOG.info("Reading fallback data...");
 		try {
 			if (isCacheFileEmpty()) {
-				readAndSave(cacheFile, store.getFallback());
-				final Data data = store.getDataReader().read(cacheFile.toURI().toURL(), store.getCharset());
+				final Data data = readAndSave(cacheFile, store.getFallback(), getResponseValidators());
 				if (isNewerData(store.getData(), data)) {
 					store.setData(data);
 				}
+				CachingXmlDataStore.writeSnapshot(cacheFile, data);
 			}
 		} catch (final CanNotOpenStreamException e) {
 			LOG.warn(String.format(RefreshableDataStore.MSG_URL_NOT_READABLE, e.getLocalizedMessage()));
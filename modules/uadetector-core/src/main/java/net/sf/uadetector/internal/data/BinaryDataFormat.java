@@ -0,0 +1,727 @@
+/*******************************************************************************
+ * Copyright 2014 André Rouél
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package net.sf.uadetector.internal.data;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+
+import net.sf.qualitycheck.Check;
+import net.sf.uadetector.ReadableDeviceCategory.Category;
+import net.sf.uadetector.UserAgentFamily;
+import net.sf.uadetector.internal.data.domain.Browser;
+import net.sf.uadetector.internal.data.domain.BrowserOperatingSystemMapping;
+import net.sf.uadetector.internal.data.domain.BrowserPattern;
+import net.sf.uadetector.internal.data.domain.BrowserType;
+import net.sf.uadetector.internal.data.domain.Device;
+import net.sf.uadetector.internal.data.domain.DevicePattern;
+import net.sf.uadetector.internal.data.domain.OperatingSystem;
+import net.sf.uadetector.internal.data.domain.OperatingSystemPattern;
+import net.sf.uadetector.internal.data.domain.OrderedPattern;
+import net.sf.uadetector.internal.data.domain.Robot;
+import net.sf.uadetector.internal.matcher.PatternMatcher;
+import net.sf.uadetector.internal.matcher.PrefilteredPatternMatcher;
+import net.sf.uadetector.internal.util.PatternPool;
+
+/**
+ * Compact binary snapshot of a completely built {@link Data} instance.
+ * <p>
+ * A snapshot starts with {@link #MAGIC}, the {@link #VERSION} of its format and the checksum of the XML data from which
+ * it has been created, followed by a table of all distinct strings. Afterwards every entry is written exactly once into a table and referenced by its index within this table,
+ * followed by the maps of {@code Data} in their order and the indexes of the matching engines. Reading a snapshot
+ * neither links entries nor extracts the literals of patterns again, only the regular expressions must be compiled.
+ * 
+ * @author André Rouél
+ */
+@ThreadSafe
+public final class BinaryDataFormat {
+
+	/**
+	 * Reads the parts of a snapshot in the order in which they have been written
+	 */
+	private static final class Input {
+
+		@Nonnull
+		private final DataInputStream in;
+
+		@Nonnull
+		private final String[] strings;
+
+		Input(@Nonnull final DataInputStream in) throws IOException {
+			this.in = in;
+			strings = new String[readSize()];
+			for (int i = 0; i < strings.length; i++) {
+				strings[i] = in.readUTF();
+			}
+		}
+
+		boolean readBoolean() throws IOException {
+			return in.readBoolean();
+		}
+
+		int readInt() throws IOException {
+			return in.readInt();
+		}
+
+		@Nonnull
+		String readNonNullString() throws IOException {
+			final String value = readString();
+			if (value == null) {
+				throw new IOException("Missing string.");
+			}
+			return value;
+		}
+
+		@Nonnull
+		Pattern readPattern() throws IOException {
+			final String regex = readNonNullString();
+			return PatternPool.compile(regex, in.readInt());
+		}
+
+		@Nullable
+		<T> T readReference(@Nonnull final List<T> table) throws IOException {
+			final int index = in.readInt();
+			if (index == NONE) {
+				return null;
+			}
+			if (index < 0 || index >= table.size()) {
+				throw new IOException("Invalid reference: " + index);
+			}
+			return table.get(index);
+		}
+
+		@Nonnull
+		<T extends OrderedPattern<T>> SortedSet<T> readReferences(@Nonnull final List<T> table) throws IOException {
+			final SortedSet<T> patterns = new TreeSet<T>(new OrderedPatternComparator<T>());
+			final int size = readSize();
+			for (int i = 0; i < size; i++) {
+				patterns.add(readReference(table));
+			}
+			return patterns;
+		}
+
+		int readSize() throws IOException {
+			final int size = in.readInt();
+			if (size < 0) {
+				throw new IOException("Invalid size: " + size);
+			}
+			return size;
+		}
+
+		@Nullable
+		String readString() throws IOException {
+			final int index = in.readInt();
+			if (index == NONE) {
+				return null;
+			}
+			if (index < 0 || index >= strings.length) {
+				throw new IOException("Invalid string reference: " + index);
+			}
+			return strings[index];
+		}
+
+		@Nonnull
+		DataInputStream stream() {
+			return in;
+		}
+
+	}
+
+	/**
+	 * Writes the body of a snapshot and collects all distinct strings which will be written before
+	 */
+	private static final class Output {
+
+		@Nonnull
+		private final ByteArrayOutputStream body = new ByteArrayOutputStream(1 << 20);
+
+		@Nonnull
+		private final DataOutputStream out = new DataOutputStream(body);
+
+		@Nonnull
+		private final Map<String, Integer> strings = new LinkedHashMap<String, Integer>();
+
+		void writeBoolean(final boolean value) throws IOException {
+			out.writeBoolean(value);
+		}
+
+		void writeInt(final int value) throws IOException {
+			out.writeInt(value);
+		}
+
+		void writePattern(@Nonnull final Pattern pattern) throws IOException {
+			writeString(pattern.pattern());
+			out.writeInt(pattern.flags());
+		}
+
+		<T> void writeReference(@Nonnull final Map<T, Integer> table, @Nullable final T value) throws IOException {
+			out.writeInt(value != null ? table.get(value).intValue() : NONE);
+		}
+
+		<T> void writeReferences(@Nonnull final Map<T, Integer> table, @Nonnull final Collection<T> values) throws IOException {
+			out.writeInt(values.size());
+			for (final T value : values) {
+				writeReference(table, value);
+			}
+		}
+
+		void writeString(@Nullable final String value) throws IOException {
+			if (value == null) {
+				out.writeInt(NONE);
+			} else {
+				Integer index = strings.get(value);
+				if (index == null) {
+					index = Integer.valueOf(strings.size());
+					strings.put(value, index);
+				}
+				out.writeInt(index.intValue());
+			}
+		}
+
+		@Nonnull
+		DataOutputStream stream() {
+			return out;
+		}
+
+		void writeTo(@Nonnull final OutputStream stream, final long source) throws IOException {
+			out.flush();
+			final DataOutputStream header = new DataOutputStream(stream);
+			header.writeInt(MAGIC);
+			header.writeInt(VERSION);
+			header.writeLong(source);
+			header.writeInt(strings.size());
+			for (final String value : strings.keySet()) {
+				header.writeUTF(value);
+			}
+			header.flush();
+			body.writeTo(stream);
+			stream.flush();
+		}
+
+	}
+
+	/**
+	 * Identifies a snapshot at its beginning (the characters {@code UADS} in US-ASCII)
+	 */
+	public static final int MAGIC = 0x55414453;
+
+	/**
+	 * Version of the format, which must be increased on every incompatible change
+	 */
+	public static final int VERSION = 2;
+
+	/**
+	 * Checksum of the source of a snapshot whose XML data is unknown
+	 */
+	public static final long UNKNOWN_SOURCE = 0L;
+
+	/**
+	 * Reference to a missing value
+	 */
+	private static final int NONE = -1;
+
+	private static <T> void collect(@Nonnull final Map<T, Integer> table, @Nullable final T value) {
+		if (value != null && !table.containsKey(value)) {
+			table.put(value, Integer.valueOf(table.size()));
+		}
+	}
+
+	private static <T> void collectAll(@Nonnull final Map<T, Integer> table, @Nonnull final Collection<T> values) {
+		for (final T value : values) {
+			collect(table, value);
+		}
+	}
+
+	private static <T extends OrderedPattern<T>> Map<T, Integer> collectPatterns(@Nonnull final Map<Integer, SortedSet<T>> patterns,
+			@Nonnull final Collection<T> patternsOfMap) {
+		final Map<T, Integer> table = new LinkedHashMap<T, Integer>();
+		for (final SortedSet<T> set : patterns.values()) {
+			collectAll(table, set);
+		}
+		collectAll(table, patternsOfMap);
+		return table;
+	}
+
+	/**
+	 * Calculates the checksum of XML data, which will be stored as source in a snapshot. The stream will be read
+	 * completely but not closed.
+	 * 
+	 * @param stream
+	 *            stream with XML data
+	 * @return checksum of the XML data
+	 * @throws IOException
+	 *             if the stream can not be read
+	 * @throws net.sf.qualitycheck.exception.IllegalNullArgumentException
+	 *             if the given argument is {@code null}
+	 */
+	public static long checksum(@Nonnull final InputStream stream) throws IOException {
+		Check.notNull(stream, "stream");
+
+		final CRC32 crc = new CRC32();
+		final byte[] buffer = new byte[1 << 13];
+		int read;
+		while ((read = stream.read(buffer)) >= 0) {
+			crc.update(buffer, 0, read);
+		}
+		return crc.getValue();
+	}
+
+	/**
+	 * Reads a snapshot from the given stream without checking its source. The stream will not be closed.
+	 * 
+	 * @param stream
+	 *            stream to read from
+	 * @return read in {@code Data}
+	 * @throws IOException
+	 *             if the stream can not be read or does not contain a valid snapshot of a supported format version
+	 * @throws net.sf.qualitycheck.exception.IllegalNullArgumentException
+	 *             if the given argument is {@code null}
+	 */
+	@Nonnull
+	public static Data read(@Nonnull final InputStream stream) throws IOException {
+		Check.notNull(stream, "stream");
+		return read(stream, false, UNKNOWN_SOURCE);
+	}
+
+	/**
+	 * Reads a snapshot from the given stream, if it has been created from the XML data with the given checksum. The
+	 * stream will not be closed.
+	 * 
+	 * @param stream
+	 *            stream to read from
+	 * @param source
+	 *            checksum of the XML data from which the snapshot must have been created
+	 * @return read in {@code Data}
+	 * @throws IOException
+	 *             if the stream can not be read, does not contain a valid snapshot of a supported format version or
+	 *             the snapshot has been created from other XML data
+	 * @throws net.sf.qualitycheck.exception.IllegalNullArgumentException
+	 *             if the given stream is {@code null}
+	 */
+	@Nonnull
+	public static Data read(@Nonnull final InputStream stream, final long source) throws IOException {
+		Check.notNull(stream, "stream");
+		return read(stream, true, source);
+	}
+
+	@Nonnull
+	private static Data read(@Nonnull final InputStream stream, final boolean verifySource, final long source) throws IOException {
+		final DataInputStream in = new DataInputStream(new BufferedInputStream(stream, 1 << 16));
+		if (in.readInt() != MAGIC) {
+			throw new IOException("The stream does not contain UAS data in binary format.");
+		}
+		final int version = in.readInt();
+		if (version != VERSION) {
+			throw new IOException("Unsupported version of the binary format: " + version);
+		}
+		if (in.readLong() != source && verifySource) {
+			throw new IOException("The binary UAS data have been created from other XML data.");
+		}
+		try {
+			return readBody(new Input(in));
+		} catch (final RuntimeException e) {
+			// an invalid value, e.g. an unknown enum constant or a malformed regular expression
+			throw new IOException("The binary UAS data are corrupt.", e);
+		}
+	}
+
+	@Nonnull
+	private static Data readBody(@Nonnull final Input in) throws IOException {
+		final String version = in.readNonNullString();
+
+		final List<BrowserType> types = new ArrayList<BrowserType>();
+		for (int i = 0, size = in.readSize(); i < size; i++) {
+			types.add(new BrowserType(in.readInt(), in.readNonNullString()));
+		}
+
+		final List<OperatingSystemPattern> osPatterns = new ArrayList<OperatingSystemPattern>();
+		for (int i = 0, size = in.readSize(); i < size; i++) {
+			final int id = in.readInt();
+			final int position = in.readInt();
+			osPatterns.add(new OperatingSystemPattern(id, in.readPattern(), position));
+		}
+
+		final List<OperatingSystem> operatingSystems = new ArrayList<OperatingSystem>();
+		for (int i = 0, size = in.readSize(); i < size; i++) {
+			final int id = in.readInt();
+			final String name = in.readNonNullString();
+			final String family = in.readNonNullString();
+			final String infoUrl = in.readNonNullString();
+			final String producer = in.readNonNullString();
+			final String producerUrl = in.readNonNullString();
+			final String url = in.readNonNullString();
+			final String icon = in.readNonNullString();
+			operatingSystems.add(new OperatingSystem(id, name, family, infoUrl, in.readReferences(osPatterns), producer, producerUrl,
+					url, icon));
+		}
+
+		final List<BrowserPattern> browserPatterns = new ArrayList<BrowserPattern>();
+		for (int i = 0, size = in.readSize(); i < size; i++) {
+			final int id = in.readInt();
+			final int position = in.readInt();
+			browserPatterns.add(new BrowserPattern(id, in.readPattern(), position));
+		}
+
+		final List<Browser> browsers = new ArrayList<Browser>();
+		for (int i = 0, size = in.readSize(); i < size; i++) {
+			final int id = in.readInt();
+			final UserAgentFamily family = UserAgentFamily.valueOf(in.readNonNullString());
+			final String familyName = in.readNonNullString();
+			final String icon = in.readNonNullString();
+			final String infoUrl = in.readNonNullString();
+			final String producer = in.readNonNullString();
+			final String producerUrl = in.readNonNullString();
+			final String url = in.readNonNullString();
+			final BrowserType type = in.readReference(types);
+			final OperatingSystem operatingSystem = in.readReference(operatingSystems);
+			browsers.add(new Browser(id, family, familyName, in.readReferences(browserPatterns), type, operatingSystem, icon, infoUrl,
+					producer, producerUrl, url));
+		}
+
+		final List<DevicePattern> devicePatterns = new ArrayList<DevicePattern>();
+		for (int i = 0, size = in.readSize(); i < size; i++) {
+			final int id = in.readInt();
+			final int position = in.readInt();
+			devicePatterns.add(new DevicePattern(id, in.readPattern(), position));
+		}
+
+		final List<Device> devices = new ArrayList<Device>();
+		for (int i = 0, size = in.readSize(); i < size; i++) {
+			final String name = in.readNonNullString();
+			final int id = in.readInt();
+			final String category = in.readString();
+			final String icon = in.readNonNullString();
+			final String infoUrl = in.readNonNullString();
+			devices.add(new Device(name, id, category != null ? Category.valueOf(category) : null, icon, infoUrl, in
+					.readReferences(devicePatterns)));
+		}
+
+		final Set<BrowserOperatingSystemMapping> mappings = new HashSet<BrowserOperatingSystemMapping>();
+		for (int i = 0, size = in.readSize(); i < size; i++) {
+			mappings.add(new BrowserOperatingSystemMapping(in.readInt(), in.readInt()));
+		}
+
+		final List<Robot> robots = new ArrayList<Robot>();
+		for (int i = 0, size = in.readSize(); i < size; i++) {
+			final int id = in.readInt();
+			final String name = in.readNonNullString();
+			final UserAgentFamily family = UserAgentFamily.valueOf(in.readNonNullString());
+			final String familyName = in.readNonNullString();
+			final String infoUrl = in.readNonNullString();
+			final String producer = in.readNonNullString();
+			final String producerUrl = in.readNonNullString();
+			final String userAgentString = in.readNonNullString();
+			final String icon = in.readNonNullString();
+			robots.add(new Robot(id, name, family, familyName, infoUrl, producer, producerUrl, userAgentString, icon));
+		}
+
+		final Set<Browser> browserSet = readSet(in, browsers);
+		final Set<OperatingSystem> operatingSystemSet = readSet(in, operatingSystems);
+		final Set<Device> deviceSet = readSet(in, devices);
+
+		final Map<Integer, BrowserType> browserTypes = new HashMap<Integer, BrowserType>();
+		for (int i = 0, size = in.readSize(); i < size; i++) {
+			browserTypes.put(Integer.valueOf(in.readInt()), in.readReference(types));
+		}
+		final Map<Integer, SortedSet<BrowserPattern>> browserPatternMap = readPatternSets(in, browserPatterns);
+		final Map<Integer, SortedSet<OperatingSystemPattern>> osPatternMap = readPatternSets(in, osPatterns);
+		final Map<Integer, SortedSet<DevicePattern>> devicePatternMap = readPatternSets(in, devicePatterns);
+
+		final SortedMap<BrowserPattern, Browser> patternToBrowserMap = readPatternMap(in, browserPatterns, browsers);
+		final SortedMap<OperatingSystemPattern, OperatingSystem> patternToOperatingSystemMap = readPatternMap(in, osPatterns,
+				operatingSystems);
+		final SortedMap<DevicePattern, Device> patternToDeviceMap = readPatternMap(in, devicePatterns, devices);
+
+		final PatternMatcher<BrowserPattern, Browser> browserMatcher = readMatcher(in, patternToBrowserMap);
+		final PatternMatcher<OperatingSystemPattern, OperatingSystem> operatingSystemMatcher = readMatcher(in,
+				patternToOperatingSystemMap);
+		final PatternMatcher<DevicePattern, Device> deviceMatcher = readMatcher(in, patternToDeviceMap);
+
+		return new Data(browserSet, browserPatternMap, browserTypes, patternToBrowserMap, mappings, operatingSystemSet, osPatternMap,
+				patternToOperatingSystemMap, robots, deviceSet, devicePatternMap, patternToDeviceMap, version, browserMatcher,
+				operatingSystemMatcher, deviceMatcher);
+	}
+
+	@Nullable
+	private static <P extends OrderedPattern<P>, V> PatternMatcher<P, V> readMatcher(@Nonnull final Input in,
+			@Nonnull final SortedMap<P, V> map) throws IOException {
+		return in.readBoolean() ? PrefilteredPatternMatcher.readIndexFrom(in.stream(), map) : null;
+	}
+
+	@Nonnull
+	private static <P extends OrderedPattern<P>, V> SortedMap<P, V> readPatternMap(@Nonnull final Input in,
+			@Nonnull final List<P> patterns, @Nonnull final List<V> values) throws IOException {
+		final SortedMap<P, V> map = new TreeMap<P, V>(new OrderedPatternComparator<P>());
+		for (int i = 0, size = in.readSize(); i < size; i++) {
+			final P pattern = in.readReference(patterns);
+			map.put(pattern, in.readReference(values));
+		}
+		return map;
+	}
+
+	@Nonnull
+	private static <T extends OrderedPattern<T>> Map<Integer, SortedSet<T>> readPatternSets(@Nonnull final Input in,
+			@Nonnull final List<T> patterns) throws IOException {
+		final Map<Integer, SortedSet<T>> map = new HashMap<Integer, SortedSet<T>>();
+		for (int i = 0, size = in.readSize(); i < size; i++) {
+			final Integer key = Integer.valueOf(in.readInt());
+			map.put(key, in.readReferences(patterns));
+		}
+		return map;
+	}
+
+	@Nonnull
+	private static <T> Set<T> readSet(@Nonnull final Input in, @Nonnull final List<T> table) throws IOException {
+		final Set<T> set = new HashSet<T>();
+		for (int i = 0, size = in.readSize(); i < size; i++) {
+			set.add(in.readReference(table));
+		}
+		return set;
+	}
+
+	/**
+	 * Writes a snapshot of the given {@code Data} with an unknown source into the given stream. The stream will not be
+	 * closed.
+	 * 
+	 * @param data
+	 *            UAS data to write
+	 * @param stream
+	 *            stream to write into
+	 * @throws IOException
+	 *             if the stream can not be written
+	 * @throws net.sf.qualitycheck.exception.IllegalNullArgumentException
+	 *             if one of the given arguments is {@code null}
+	 */
+	public static void write(@Nonnull final Data data, @Nonnull final OutputStream stream) throws IOException {
+		write(data, UNKNOWN_SOURCE, stream);
+	}
+
+	/**
+	 * Writes a snapshot of the given {@code Data} into the given stream. The stream will not be closed.
+	 * 
+	 * @param data
+	 *            UAS data to write
+	 * @param source
+	 *            checksum of the XML data from which the given {@code Data} has been read, see
+	 *            {@link #checksum(InputStream)}
+	 * @param stream
+	 *            stream to write into
+	 * @throws IOException
+	 *             if the stream can not be written
+	 * @throws net.sf.qualitycheck.exception.IllegalNullArgumentException
+	 *             if one of the given arguments is {@code null}
+	 */
+	public static void write(@Nonnull final Data data, final long source, @Nonnull final OutputStream stream) throws IOException {
+		Check.notNull(data, "data");
+		Check.notNull(stream, "stream");
+
+		// collect all entries, also those which are only reachable by references
+		final Map<OperatingSystem, Integer> operatingSystems = new LinkedHashMap<OperatingSystem, Integer>();
+		collectAll(operatingSystems, data.getOperatingSystems());
+		collectAll(operatingSystems, data.getPatternToOperatingSystemMap().values());
+		final Map<BrowserType, Integer> types = new LinkedHashMap<BrowserType, Integer>();
+		collectAll(types, data.getBrowserTypes().values());
+		final Map<Browser, Integer> browsers = new LinkedHashMap<Browser, Integer>();
+		collectAll(browsers, data.getBrowsers());
+		collectAll(browsers, data.getPatternToBrowserMap().values());
+		for (final Browser browser : browsers.keySet()) {
+			collect(types, browser.getType());
+			collect(operatingSystems, browser.getOperatingSystem());
+		}
+		final Map<Device, Integer> devices = new LinkedHashMap<Device, Integer>();
+		collectAll(devices, data.getDevices());
+		collectAll(devices, data.getPatternToDeviceMap().values());
+
+		final Map<OperatingSystemPattern, Integer> osPatterns = collectPatterns(data.getOperatingSystemPatterns(), data
+				.getPatternToOperatingSystemMap().keySet());
+		for (final OperatingSystem operatingSystem : operatingSystems.keySet()) {
+			collectAll(osPatterns, operatingSystem.getPatterns());
+		}
+		final Map<BrowserPattern, Integer> browserPatterns = collectPatterns(data.getBrowserPatterns(), data.getPatternToBrowserMap()
+				.keySet());
+		for (final Browser browser : browsers.keySet()) {
+			collectAll(browserPatterns, browser.getPatterns());
+		}
+		final Map<DevicePattern, Integer> devicePatterns = collectPatterns(data.getDevicePatterns(), data.getPatternToDeviceMap()
+				.keySet());
+		for (final Device device : devices.keySet()) {
+			collectAll(devicePatterns, device.getPatterns());
+		}
+
+		final Output out = new Output();
+		out.writeString(data.getVersion());
+
+		out.writeInt(types.size());
+		for (final BrowserType type : types.keySet()) {
+			out.writeInt(type.getId());
+			out.writeString(type.getName());
+		}
+
+		out.writeInt(osPatterns.size());
+		for (final OperatingSystemPattern pattern : osPatterns.keySet()) {
+			writePattern(out, pattern.getId(), pattern);
+		}
+		out.writeInt(operatingSystems.size());
+		for (final OperatingSystem operatingSystem : operatingSystems.keySet()) {
+			out.writeInt(operatingSystem.getId());
+			out.writeString(operatingSystem.getName());
+			out.writeString(operatingSystem.getFamily());
+			out.writeString(operatingSystem.getInfoUrl());
+			out.writeString(operatingSystem.getProducer());
+			out.writeString(operatingSystem.getProducerUrl());
+			out.writeString(operatingSystem.getUrl());
+			out.writeString(operatingSystem.getIcon());
+			out.writeReferences(osPatterns, operatingSystem.getPatterns());
+		}
+
+		out.writeInt(browserPatterns.size());
+		for (final BrowserPattern pattern : browserPatterns.keySet()) {
+			writePattern(out, pattern.getId(), pattern);
+		}
+		out.writeInt(browsers.size());
+		for (final Browser browser : browsers.keySet()) {
+			out.writeInt(browser.getId());
+			out.writeString(browser.getFamily().name());
+			out.writeString(browser.getFamilyName());
+			out.writeString(browser.getIcon());
+			out.writeString(browser.getInfoUrl());
+			out.writeString(browser.getProducer());
+			out.writeString(browser.getProducerUrl());
+			out.writeString(browser.getUrl());
+			out.writeReference(types, browser.getType());
+			out.writeReference(operatingSystems, browser.getOperatingSystem());
+			out.writeReferences(browserPatterns, browser.getPatterns());
+		}
+
+		out.writeInt(devicePatterns.size());
+		for (final DevicePattern pattern : devicePatterns.keySet()) {
+			writePattern(out, pattern.getId(), pattern);
+		}
+		out.writeInt(devices.size());
+		for (final Device device : devices.keySet()) {
+			out.writeString(device.getName());
+			out.writeInt(device.getId());
+			out.writeString(device.getCategory() != null ? device.getCategory().name() : null);
+			out.writeString(device.getIcon());
+			out.writeString(device.getInfoUrl());
+			out.writeReferences(devicePatterns, device.getPatterns());
+		}
+
+		out.writeInt(data.getBrowserToOperatingSystemMappings().size());
+		for (final BrowserOperatingSystemMapping mapping : data.getBrowserToOperatingSystemMappings()) {
+			out.writeInt(mapping.getBrowserId());
+			out.writeInt(mapping.getOperatingSystemId());
+		}
+
+		out.writeInt(data.getRobots().size());
+		for (final Robot robot : data.getRobots()) {
+			out.writeInt(robot.getId());
+			out.writeString(robot.getName());
+			out.writeString(robot.getFamily().name());
+			out.writeString(robot.getFamilyName());
+			out.writeString(robot.getInfoUrl());
+			out.writeString(robot.getProducer());
+			out.writeString(robot.getProducerUrl());
+			out.writeString(robot.getUserAgentString());
+			out.writeString(robot.getIcon());
+		}
+
+		out.writeReferences(browsers, data.getBrowsers());
+		out.writeReferences(operatingSystems, data.getOperatingSystems());
+		out.writeReferences(devices, data.getDevices());
+
+		out.writeInt(data.getBrowserTypes().size());
+		for (final Entry<Integer, BrowserType> entry : data.getBrowserTypes().entrySet()) {
+			out.writeInt(entry.getKey().intValue());
+			out.writeReference(types, entry.getValue());
+		}
+		writePatternSets(out, browserPatterns, data.getBrowserPatterns());
+		writePatternSets(out, osPatterns, data.getOperatingSystemPatterns());
+		writePatternSets(out, devicePatterns, data.getDevicePatterns());
+
+		writePatternMap(out, browserPatterns, browsers, data.getPatternToBrowserMap());
+		writePatternMap(out, osPatterns, operatingSystems, data.getPatternToOperatingSystemMap());
+		writePatternMap(out, devicePatterns, devices, data.getPatternToDeviceMap());
+
+		writeMatcher(out, data.getBrowserPatternMatcher());
+		writeMatcher(out, data.getOperatingSystemPatternMatcher());
+		writeMatcher(out, data.getDevicePatternMatcher());
+
+		out.writeTo(stream, source);
+	}
+
+	private static void writeMatcher(@Nonnull final Output out, @Nonnull final PatternMatcher<?, ?> matcher) throws IOException {
+		// other engines will be created again when reading
+		final boolean prefiltered = matcher instanceof PrefilteredPatternMatcher;
+		out.writeBoolean(prefiltered);
+		if (prefiltered) {
+			((PrefilteredPatternMatcher<?, ?>) matcher).writeIndexTo(out.stream());
+		}
+	}
+
+	private static <P, V> void writePatternMap(@Nonnull final Output out, @Nonnull final Map<P, Integer> patterns,
+			@Nonnull final Map<V, Integer> values, @Nonnull final SortedMap<P, V> map) throws IOException {
+		out.writeInt(map.size());
+		for (final Entry<P, V> entry : map.entrySet()) {
+			out.writeReference(patterns, entry.getKey());
+			out.writeReference(values, entry.getValue());
+		}
+	}
+
+	private static void writePattern(@Nonnull final Output out, final int id, @Nonnull final OrderedPattern<?> pattern)
+			throws IOException {
+		out.writeInt(id);
+		out.writeInt(pattern.getPosition());
+		out.writePattern(pattern.getPattern());
+	}
+
+	private static <T> void writePatternSets(@Nonnull final Output out, @Nonnull final Map<T, Integer> patterns,
+			@Nonnull final Map<Integer, SortedSet<T>> map) throws IOException {
+		out.writeInt(map.size());
+		for (final Entry<Integer, SortedSet<T>> entry : map.entrySet()) {
+			out.writeInt(entry.getKey().intValue());
+			out.writeReferences(patterns, entry.getValue());
+		}
+	}
+
+	private BinaryDataFormat() {
+		// This class is not intended to create objects from it.
+	}
+
+}
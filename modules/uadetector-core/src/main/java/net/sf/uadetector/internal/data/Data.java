@@ -18,6 +18,7 @@ package net.sf.uadetector.internal.data;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -30,9 +31,14 @@ import java.util.TreeMap;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.Immutable;
 
 import net.sf.qualitycheck.Check;
+import net.sf.uadetector.DeviceCategory;
+import net.sf.uadetector.ReadableDeviceCategory.Category;
+import net.sf.uadetector.UserAgent;
+import net.sf.uadetector.VersionNumber;
 import net.sf.uadetector.internal.data.domain.Browser;
 import net.sf.uadetector.internal.data.domain.BrowserOperatingSystemMapping;
 import net.sf.uadetector.internal.data.domain.BrowserPattern;
@@ -41,7 +47,12 @@ import net.sf.uadetector.internal.data.domain.Device;
 import net.sf.uadetector.internal.data.domain.DevicePattern;
 import net.sf.uadetector.internal.data.domain.OperatingSystem;
 import net.sf.uadetector.internal.data.domain.OperatingSystemPattern;
+import net.sf.uadetector.internal.data.domain.OrderedPattern;
 import net.sf.uadetector.internal.data.domain.Robot;
+import net.sf.uadetector.internal.matcher.PatternMatcher;
+import net.sf.uadetector.internal.matcher.PrefilteredPatternMatcher;
+import net.sf.uadetector.internal.util.ArraySortedMap;
+import net.sf.uadetector.internal.util.ArraySortedSet;
 
 /**
  * This class represents the detection information of <i>UADetector</i>.
@@ -64,15 +75,118 @@ public class Data implements Serializable {
 
 	private static final long serialVersionUID = 8522012551928801089L;
 
+	/**
+	 * Creates a device category for each category of the given devices. If more than one device has the same category,
+	 * the first one of the given set wins.
+	 * 
+	 * @param devices
+	 *            set of devices
+	 * @return an unmodifiable map of categories to device categories
+	 */
+	@Nonnull
+	private static Map<Category, DeviceCategory> buildDeviceCategories(@Nonnull final Set<Device> devices) {
+		final Map<Category, DeviceCategory> categories = new EnumMap<Category, DeviceCategory>(Category.class);
+		for (final Device device : devices) {
+			if (!categories.containsKey(device.getCategory())) {
+				categories.put(device.getCategory(),
+						new DeviceCategory(device.getCategory(), device.getIcon(), device.getInfoUrl(), device.getName()));
+			}
+		}
+		return Collections.unmodifiableMap(categories);
+	}
+
+	/**
+	 * Creates a compact copy of the given patterns grouped by an ID.
+	 * 
+	 * @param patterns
+	 *            sets of patterns by ID
+	 * @return an immutable sorted map of IDs to immutable sorted sets of patterns
+	 */
+	@Nonnull
+	private static <P extends OrderedPattern<P>> Map<Integer, SortedSet<P>> compactPatterns(
+			@Nonnull final Map<Integer, SortedSet<P>> patterns) {
+		final SortedMap<Integer, SortedSet<P>> compacted = new TreeMap<Integer, SortedSet<P>>();
+		for (final Entry<Integer, SortedSet<P>> entry : patterns.entrySet()) {
+			compacted.put(entry.getKey(), ArraySortedSet.copyOf(entry.getValue()));
+		}
+		return ArraySortedMap.copyOf(compacted);
+	}
+
+	/**
+	 * Creates an index of the given robots by their user agent string. If more than one robot has the same user agent
+	 * string, the first one in the list wins.
+	 * 
+	 * @param robots
+	 *            list of robots
+	 * @return an unmodifiable map of user agent strings to robots
+	 */
+	@Nonnull
+	private static Map<String, Robot> buildRobotIndex(@Nonnull final List<Robot> robots) {
+		final Map<String, Robot> index = new HashMap<String, Robot>(robots.size() * 4 / 3 + 1);
+		for (final Robot robot : robots) {
+			if (!index.containsKey(robot.getUserAgentString())) {
+				index.put(robot.getUserAgentString(), robot);
+			}
+		}
+		return Collections.unmodifiableMap(index);
+	}
+
+	/**
+	 * Creates the complete detection result of each robot of the given index. The result of a robot depends only on
+	 * its entry, so it can be shared by all user agent strings which match exactly.
+	 * 
+	 * @param robotIndex
+	 *            index of robots by their user agent string
+	 * @param deviceCategory
+	 *            device category of all robots
+	 * @return an unmodifiable map of user agent strings to detection results
+	 */
+	@Nonnull
+	private static Map<String, UserAgent> buildRobotUserAgents(@Nonnull final Map<String, Robot> robotIndex,
+			@Nonnull final DeviceCategory deviceCategory) {
+		final Map<String, UserAgent> userAgents = new HashMap<String, UserAgent>(robotIndex.size() * 4 / 3 + 1);
+		for (final Entry<String, Robot> entry : robotIndex.entrySet()) {
+			final Robot robot = entry.getValue();
+			final UserAgent.Builder builder = new UserAgent.Builder(entry.getKey());
+			robot.copyTo(builder);
+			builder.setVersionNumber(VersionNumber.parseLastVersionNumber(robot.getName()));
+			builder.setDeviceCategory(deviceCategory);
+			userAgents.put(entry.getKey(), builder.build());
+		}
+		return Collections.unmodifiableMap(userAgents);
+	}
+
+	/**
+	 * Browser patterns grouped by the ID of their browser, held like all other pattern tables and ID lookups of this
+	 * class in compact arrays
+	 */
 	@Nonnull
 	private final Map<Integer, SortedSet<BrowserPattern>> browserPatterns;
 
 	@Nonnull
 	private final Set<Browser> browsers;
 
+	/**
+	 * Matching engine to find the first browser pattern of {@link #patternToBrowserMap} in a user agent string
+	 */
+	@Nonnull
+	private final PatternMatcher<BrowserPattern, Browser> browserPatternMatcher;
+
+	/**
+	 * Matching engine to find the first device pattern of {@link #patternToDeviceMap} in a user agent string
+	 */
+	@Nonnull
+	private final PatternMatcher<DevicePattern, Device> devicePatternMatcher;
+
 	@Nonnull
 	private final Map<Integer, SortedSet<DevicePattern>> devicePatterns;
 
+	/**
+	 * Shared device categories of {@link #devices} by their category
+	 */
+	@Nonnull
+	private final Map<Category, DeviceCategory> deviceCategories;
+
 	@Nonnull
 	private final Set<Device> devices;
 
@@ -85,6 +199,13 @@ public class Data implements Serializable {
 	@Nonnull
 	private final Map<Integer, BrowserType> browserTypes;
 
+	/**
+	 * Matching engine to find the first operating system pattern of {@link #patternToOperatingSystemMap} in a user
+	 * agent string
+	 */
+	@Nonnull
+	private final PatternMatcher<OperatingSystemPattern, OperatingSystem> operatingSystemPatternMatcher;
+
 	@Nonnull
 	private final Map<Integer, SortedSet<OperatingSystemPattern>> operatingSystemPatterns;
 
@@ -100,6 +221,18 @@ public class Data implements Serializable {
 	@Nonnull
 	private final List<Robot> robots;
 
+	/**
+	 * Index of all robots by their user agent string
+	 */
+	@Nonnull
+	private final Map<String, Robot> robotsByUserAgentString;
+
+	/**
+	 * Prebuilt detection results of all robots by their user agent string
+	 */
+	@Nonnull
+	private final Map<String, UserAgent> robotUserAgentsByUserAgentString;
+
 	/**
 	 * Version information of the UAS data
 	 */
@@ -115,6 +248,27 @@ public class Data implements Serializable {
 			@Nonnull final List<Robot> robots, @Nonnull final Set<Device> devices,
 			@Nonnull final Map<Integer, SortedSet<DevicePattern>> devicePatterns,
 			@Nonnull final SortedMap<DevicePattern, Device> patternToDeviceMap, @Nonnull final String version) {
+		this(browsers, browserPatterns, browserTypes, patternToBrowserMap, browserToOperatingSystemMappings, operatingSystems,
+				operatingSystemPatterns, patternToOperatingSystemMap, robots, devices, devicePatterns, patternToDeviceMap, version, null,
+				null, null);
+	}
+
+	/**
+	 * Constructs a new instance which uses the given matching engines instead of creating them. A given engine must be
+	 * created for the same patterns in the same order as the corresponding map, otherwise the analysis will be wrong.
+	 */
+	Data(@Nonnull final Set<Browser> browsers, @Nonnull final Map<Integer, SortedSet<BrowserPattern>> browserPatterns,
+			@Nonnull final Map<Integer, BrowserType> browserTypes, @Nonnull final SortedMap<BrowserPattern, Browser> patternToBrowserMap,
+			@Nonnull final Set<BrowserOperatingSystemMapping> browserToOperatingSystemMappings,
+			@Nonnull final Set<OperatingSystem> operatingSystems,
+			@Nonnull final Map<Integer, SortedSet<OperatingSystemPattern>> operatingSystemPatterns,
+			@Nonnull final SortedMap<OperatingSystemPattern, OperatingSystem> patternToOperatingSystemMap,
+			@Nonnull final List<Robot> robots, @Nonnull final Set<Device> devices,
+			@Nonnull final Map<Integer, SortedSet<DevicePattern>> devicePatterns,
+			@Nonnull final SortedMap<DevicePattern, Device> patternToDeviceMap, @Nonnull final String version,
+			@Nullable final PatternMatcher<BrowserPattern, Browser> browserPatternMatcher,
+			@Nullable final PatternMatcher<OperatingSystemPattern, OperatingSystem> operatingSystemPatternMatcher,
+			@Nullable final PatternMatcher<DevicePattern, Device> devicePatternMatcher) {
 		Check.notNull(browsers, "browsers");
 		Check.notNull(browserPatterns, "browserPatterns");
 		Check.notNull(browserTypes, "browserTypes");
@@ -130,20 +284,27 @@ public class Data implements Serializable {
 		Check.notNull(version, "version");
 
 		this.browsers = Collections.unmodifiableSet(new HashSet<Browser>(browsers));
-		this.browserPatterns = Collections.unmodifiableMap(new HashMap<Integer, SortedSet<BrowserPattern>>(browserPatterns));
-		this.browserTypes = Collections.unmodifiableMap(new HashMap<Integer, BrowserType>(Check.notNull(browserTypes, "browserTypes")));
-		this.patternToBrowserMap = Collections.unmodifiableSortedMap(new TreeMap<BrowserPattern, Browser>(patternToBrowserMap));
+		this.browserPatterns = compactPatterns(browserPatterns);
+		this.browserTypes = ArraySortedMap.copyOf(browserTypes);
+		this.patternToBrowserMap = ArraySortedMap.copyOf(patternToBrowserMap);
+		this.browserPatternMatcher = browserPatternMatcher != null ? browserPatternMatcher
+				: new PrefilteredPatternMatcher<BrowserPattern, Browser>(this.patternToBrowserMap);
 		this.browserToOperatingSystemMappings = Collections.unmodifiableSet(new HashSet<BrowserOperatingSystemMapping>(
 				browserToOperatingSystemMappings));
 		this.operatingSystems = Collections.unmodifiableSet(new HashSet<OperatingSystem>(operatingSystems));
-		this.operatingSystemPatterns = Collections.unmodifiableMap(new HashMap<Integer, SortedSet<OperatingSystemPattern>>(
-				operatingSystemPatterns));
-		this.patternToOperatingSystemMap = Collections.unmodifiableSortedMap(new TreeMap<OperatingSystemPattern, OperatingSystem>(
-				patternToOperatingSystemMap));
+		this.operatingSystemPatterns = compactPatterns(operatingSystemPatterns);
+		this.patternToOperatingSystemMap = ArraySortedMap.copyOf(patternToOperatingSystemMap);
+		this.operatingSystemPatternMatcher = operatingSystemPatternMatcher != null ? operatingSystemPatternMatcher
+				: new PrefilteredPatternMatcher<OperatingSystemPattern, OperatingSystem>(this.patternToOperatingSystemMap);
 		this.robots = Collections.unmodifiableList(new ArrayList<Robot>(robots));
+		robotsByUserAgentString = buildRobotIndex(this.robots);
 		this.devices = Collections.unmodifiableSet(new HashSet<Device>(devices));
-		this.devicePatterns = Collections.unmodifiableMap(new HashMap<Integer, SortedSet<DevicePattern>>(devicePatterns));
-		this.patternToDeviceMap = Collections.unmodifiableSortedMap(new TreeMap<DevicePattern, Device>(patternToDeviceMap));
+		deviceCategories = buildDeviceCategories(this.devices);
+		robotUserAgentsByUserAgentString = buildRobotUserAgents(robotsByUserAgentString, getDeviceCategory(Category.OTHER));
+		this.devicePatterns = compactPatterns(devicePatterns);
+		this.patternToDeviceMap = ArraySortedMap.copyOf(patternToDeviceMap);
+		this.devicePatternMatcher = devicePatternMatcher != null ? devicePatternMatcher
+				: new PrefilteredPatternMatcher<DevicePattern, Device>(this.patternToDeviceMap);
 		this.version = Check.notNull(version, "version");
 	}
 
@@ -206,6 +367,17 @@ public class Data implements Serializable {
 		return browserPatterns;
 	}
 
+	/**
+	 * Gets the matching engine which finds the first browser pattern of {@link #getPatternToBrowserMap()} in a user
+	 * agent string.
+	 * 
+	 * @return matching engine for browser patterns
+	 */
+	@Nonnull
+	public PatternMatcher<BrowserPattern, Browser> getBrowserPatternMatcher() {
+		return browserPatternMatcher;
+	}
+
 	@Nonnull
 	public Set<Browser> getBrowsers() {
 		return browsers;
@@ -221,16 +393,51 @@ public class Data implements Serializable {
 		return browserTypes;
 	}
 
+	/**
+	 * Gets the matching engine which finds the first device pattern of {@link #getPatternToDeviceMap()} in a user agent
+	 * string.
+	 * 
+	 * @return matching engine for device patterns
+	 */
+	@Nonnull
+	public PatternMatcher<DevicePattern, Device> getDevicePatternMatcher() {
+		return devicePatternMatcher;
+	}
+
 	@Nonnull
 	public Map<Integer, SortedSet<DevicePattern>> getDevicePatterns() {
 		return devicePatterns;
 	}
 
+	/**
+	 * Gets the shared device category of the first device with the given category.
+	 * 
+	 * @param category
+	 *            category of a device
+	 * @return the device category or {@link DeviceCategory#EMPTY} if no device with the given category is available
+	 */
+	@Nonnull
+	public DeviceCategory getDeviceCategory(@Nonnull final Category category) {
+		final DeviceCategory deviceCategory = deviceCategories.get(category);
+		return deviceCategory != null ? deviceCategory : DeviceCategory.EMPTY;
+	}
+
 	@Nonnull
 	public Set<Device> getDevices() {
 		return devices;
 	}
 
+	/**
+	 * Gets the matching engine which finds the first operating system pattern of
+	 * {@link #getPatternToOperatingSystemMap()} in a user agent string.
+	 * 
+	 * @return matching engine for operating system patterns
+	 */
+	@Nonnull
+	public PatternMatcher<OperatingSystemPattern, OperatingSystem> getOperatingSystemPatternMatcher() {
+		return operatingSystemPatternMatcher;
+	}
+
 	@Nonnull
 	public Map<Integer, SortedSet<OperatingSystemPattern>> getOperatingSystemPatterns() {
 		return operatingSystemPatterns;
@@ -256,6 +463,32 @@ public class Data implements Serializable {
 		return patternToOperatingSystemMap;
 	}
 
+	/**
+	 * Finds a robot by its exact user agent string. If more than one robot with the same user agent string is
+	 * available, the first one of {@link #getRobots()} will be returned.
+	 * 
+	 * @param userAgentString
+	 *            user agent string
+	 * @return the matching robot or {@code null} if the given string is not a known robot
+	 */
+	@Nullable
+	public Robot findRobot(@Nonnull final String userAgentString) {
+		return robotsByUserAgentString.get(userAgentString);
+	}
+
+	/**
+	 * Finds the complete detection result of a robot by its exact user agent string. The result is built once when
+	 * creating this instance and is the same as a full analysis of the given string would return.
+	 * 
+	 * @param userAgentString
+	 *            user agent string
+	 * @return the detection result of the matching robot or {@code null} if the given string is not a known robot
+	 */
+	@Nullable
+	public UserAgent findRobotUserAgent(@Nonnull final String userAgentString) {
+		return robotUserAgentsByUserAgentString.get(userAgentString);
+	}
+
 	@Nonnull
 	public List<Robot> getRobots() {
 		return robots;
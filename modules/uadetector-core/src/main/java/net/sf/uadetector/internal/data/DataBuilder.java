@@ -41,6 +41,7 @@ import net.sf.uadetector.internal.data.domain.DevicePattern;
 import net.sf.uadetector.internal.data.domain.OperatingSystem;
 import net.sf.uadetector.internal.data.domain.OperatingSystemPattern;
 import net.sf.uadetector.internal.data.domain.Robot;
+import net.sf.uadetector.internal.jfr.FlightRecorderEvents;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -436,6 +437,7 @@ public class DataBuilder {
 
 	@Nonnull
 	public Data build() {
+		final Object event = FlightRecorderEvents.beginDataBuild();
 		addTypeToBrowser(browserBuilders, browserTypes);
 		addPatternToBrowser(browserBuilders, browserPatterns);
 		addPatternToOperatingSystem(operatingSystemBuilders, operatingSystemPatterns);
@@ -457,8 +459,10 @@ public class DataBuilder {
 		final SortedMap<OperatingSystemPattern, OperatingSystem> patternToOperatingSystemMap = buildPatternToOperatingSystemMap(osSet);
 		final SortedMap<DevicePattern, Device> patternToDeviceMap = buildPatternToDeviceMap(deviceSet);
 
-		return new Data(browserSet, browserPatterns, browserTypes, patternToBrowserMap, browserToOperatingSystemMap, osSet,
+		final Data data = new Data(browserSet, browserPatterns, browserTypes, patternToBrowserMap, browserToOperatingSystemMap, osSet,
 				operatingSystemPatterns, patternToOperatingSystemMap, robots, deviceSet, devicePatterns, patternToDeviceMap, version);
+		FlightRecorderEvents.endDataBuild(event, data);
+		return data;
 	}
 
 	@Nonnull
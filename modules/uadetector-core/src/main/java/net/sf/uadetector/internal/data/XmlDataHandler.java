@@ -18,6 +18,10 @@ package net.sf.uadetector.internal.data;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
 
 import javax.annotation.Nonnull;
 
@@ -31,6 +35,7 @@ import net.sf.uadetector.internal.data.domain.DevicePattern;
 import net.sf.uadetector.internal.data.domain.OperatingSystem;
 import net.sf.uadetector.internal.data.domain.OperatingSystemPattern;
 import net.sf.uadetector.internal.data.domain.Robot;
+import net.sf.uadetector.internal.util.StringDeduplicator;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -194,17 +199,24 @@ public final class XmlDataHandler extends DefaultHandler {
 		 */
 		VERSION("version");
 
-		public static Tag evaluate(@Nonnull final String tagName) {
-			Check.notNull(tagName, "tagName");
+		/**
+		 * All tags by their lower case name
+		 */
+		private static final Map<String, Tag> TAGS_BY_NAME = createTagsByName();
 
-			Tag result = null;
+		private static Map<String, Tag> createTagsByName() {
+			final Map<String, Tag> tags = new HashMap<String, Tag>();
 			for (final Tag tag : values()) {
-				if (tag.getTagName().equalsIgnoreCase(tagName)) {
-					result = tag;
-					break;
-				}
+				tags.put(tag.getTagName().toLowerCase(Locale.ENGLISH), tag);
 			}
-			return result;
+			return Collections.unmodifiableMap(tags);
+		}
+
+		public static Tag evaluate(@Nonnull final String tagName) {
+			Check.notNull(tagName, "tagName");
+
+			final Tag result = TAGS_BY_NAME.get(tagName);
+			return result != null ? result : TAGS_BY_NAME.get(tagName.toLowerCase(Locale.ENGLISH));
 		}
 
 		public static boolean isBrowserOsMappingTag(final String tagName) {
@@ -316,7 +328,12 @@ public final class XmlDataHandler extends DefaultHandler {
 
 	private BrowserType.Builder browserTypeBuilder = new BrowserType.Builder();
 
-	private StringBuilder buffer = new StringBuilder();
+	private final StringBuilder buffer = new StringBuilder();
+
+	/**
+	 * Dictionary to hold repeated values like producers, URLs or icons only once
+	 */
+	private final StringDeduplicator strings = new StringDeduplicator();
 
 	private Tag currentTag = null;
 
@@ -363,6 +380,15 @@ public final class XmlDataHandler extends DefaultHandler {
 		dataBuilder = builder;
 	}
 
+	/**
+	 * Gets the characters of the current tag as string. Equal strings will be returned as the same instance.
+	 * 
+	 * @return characters of the current tag
+	 */
+	private String getText() {
+		return strings.deduplicate(buffer.toString());
+	}
+
 	private void addToBrowserBuilder() {
 		if (isBrowser) {
 			if (currentTag == Tag.ID) {
@@ -370,17 +396,17 @@ public final class XmlDataHandler extends DefaultHandler {
 			} else if (currentTag == Tag.BROWSER_TYPE_ID) {
 				browserBuilder.setTypeId(buffer.toString());
 			} else if (currentTag == Tag.NAME) {
-				browserBuilder.setFamilyName(buffer.toString());
+				browserBuilder.setFamilyName(getText());
 			} else if (currentTag == Tag.URL) {
-				browserBuilder.setUrl(buffer.toString());
+				browserBuilder.setUrl(getText());
 			} else if (currentTag == Tag.COMPANY) {
-				browserBuilder.setProducer(buffer.toString());
+				browserBuilder.setProducer(getText());
 			} else if (currentTag == Tag.COMPANY_URL) {
-				browserBuilder.setProducerUrl(buffer.toString());
+				browserBuilder.setProducerUrl(getText());
 			} else if (currentTag == Tag.ICON) {
-				browserBuilder.setIcon(buffer.toString());
+				browserBuilder.setIcon(getText());
 			} else if (currentTag == Tag.BROWSER_INFO_URL) {
-				browserBuilder.setInfoUrl(buffer.toString());
+				browserBuilder.setInfoUrl(getText());
 			}
 		}
 	}
@@ -407,7 +433,7 @@ public final class XmlDataHandler extends DefaultHandler {
 		if (isBrowserType && currentTag == Tag.ID) {
 			browserTypeBuilder.setId(buffer.toString());
 		} else if (isBrowserType && currentTag == Tag.BROWSER_TYPE_ID) {
-			browserTypeBuilder.setName(buffer.toString());
+			browserTypeBuilder.setName(getText());
 		}
 	}
 
@@ -416,11 +442,11 @@ public final class XmlDataHandler extends DefaultHandler {
 			if (currentTag == Tag.ID) {
 				deviceBuilder.setId(buffer.toString());
 			} else if (currentTag == Tag.NAME) {
-				deviceBuilder.setName(buffer.toString());
+				deviceBuilder.setName(getText());
 			} else if (currentTag == Tag.ICON) {
-				deviceBuilder.setIcon(buffer.toString());
+				deviceBuilder.setIcon(getText());
 			} else if (currentTag == Tag.DEVICE_INFO_URL) {
-				deviceBuilder.setInfoUrl(buffer.toString());
+				deviceBuilder.setInfoUrl(getText());
 			}
 		}
 	}
@@ -440,19 +466,19 @@ public final class XmlDataHandler extends DefaultHandler {
 			if (currentTag == Tag.ID) {
 				operatingSystemBuilder.setId(buffer.toString());
 			} else if (currentTag == Tag.FAMILY) {
-				operatingSystemBuilder.setFamily(buffer.toString());
+				operatingSystemBuilder.setFamily(getText());
 			} else if (currentTag == Tag.NAME) {
-				operatingSystemBuilder.setName(buffer.toString());
+				operatingSystemBuilder.setName(getText());
 			} else if (currentTag == Tag.URL) {
-				operatingSystemBuilder.setUrl(buffer.toString());
+				operatingSystemBuilder.setUrl(getText());
 			} else if (currentTag == Tag.COMPANY) {
-				operatingSystemBuilder.setProducer(buffer.toString());
+				operatingSystemBuilder.setProducer(getText());
 			} else if (currentTag == Tag.COMPANY_URL) {
-				operatingSystemBuilder.setProducerUrl(buffer.toString());
+				operatingSystemBuilder.setProducerUrl(getText());
 			} else if (currentTag == Tag.ICON) {
-				operatingSystemBuilder.setIcon(buffer.toString());
+				operatingSystemBuilder.setIcon(getText());
 			} else if (currentTag == Tag.OPERATING_SYSTEM_INFO_URL) {
-				operatingSystemBuilder.setInfoUrl(buffer.toString());
+				operatingSystemBuilder.setInfoUrl(getText());
 			}
 		}
 	}
@@ -474,26 +500,26 @@ public final class XmlDataHandler extends DefaultHandler {
 			if (currentTag == Tag.ID) {
 				robotBuilder.setId(buffer.toString());
 			} else if (currentTag == Tag.USERAGENT) {
-				robotBuilder.setUserAgentString(buffer.toString());
+				robotBuilder.setUserAgentString(getText());
 			} else if (currentTag == Tag.FAMILY) {
-				robotBuilder.setFamilyName(buffer.toString());
+				robotBuilder.setFamilyName(getText());
 			} else if (currentTag == Tag.NAME) {
-				robotBuilder.setName(buffer.toString());
+				robotBuilder.setName(getText());
 			} else if (currentTag == Tag.COMPANY) {
-				robotBuilder.setProducer(buffer.toString());
+				robotBuilder.setProducer(getText());
 			} else if (currentTag == Tag.COMPANY_URL) {
-				robotBuilder.setProducerUrl(buffer.toString());
+				robotBuilder.setProducerUrl(getText());
 			} else if (currentTag == Tag.ICON) {
-				robotBuilder.setIcon(buffer.toString());
+				robotBuilder.setIcon(getText());
 			} else if (currentTag == Tag.ROBOT_INFO_URL) {
-				robotBuilder.setInfoUrl(buffer.toString());
+				robotBuilder.setInfoUrl(getText());
 			}
 		}
 	}
 
 	@Override
 	public void characters(final char ch[], final int start, final int length) throws SAXException {
-		buffer.append(new String(ch, start, length));
+		buffer.append(ch, start, length);
 	}
 
 	@Override
@@ -501,31 +527,32 @@ public final class XmlDataHandler extends DefaultHandler {
 
 		transferToSpecificBuilderAndReset();
 
-		if (Tag.isRobotTag(tagName)) {
+		final Tag tag = Tag.evaluate(tagName);
+		if (tag == Tag.ROBOT) {
 			saveAndResetRobotBuilder();
 			isRobot = false;
-		} else if (Tag.isBrowserTag(tagName)) {
+		} else if (tag == Tag.BROWSER) {
 			saveAndResetBrowserBuilder();
 			isBrowser = false;
-		} else if (Tag.isOperatingSystemTag(tagName)) {
+		} else if (tag == Tag.OPERATING_SYSTEM) {
 			saveAndResetOperatingSystemBuilder();
 			isOperatingSystem = false;
-		} else if (Tag.isBrowserTypeTag(tagName)) {
+		} else if (tag == Tag.BROWSER_TYPE) {
 			saveAndResetBrowserTypeBuilder();
 			isBrowserType = false;
-		} else if (Tag.isBrowserPatternTag(tagName)) {
+		} else if (tag == Tag.BROWSER_PATTERN) {
 			saveAndResetBrowserPatternBuilder();
 			isBrowserPattern = false;
-		} else if (Tag.isBrowserOsMappingTag(tagName)) {
+		} else if (tag == Tag.BROWSER_OS_MAPPING) {
 			saveAndResetBrowserOperatingSystemMapping();
 			isBrowserOsMapping = false;
-		} else if (Tag.isOperatingSystemPatternTag(tagName)) {
+		} else if (tag == Tag.OPERATING_SYSTEM_PATTERN) {
 			saveAndResetOperatingSystemPatternBuilder();
 			isOperatingSystemPattern = false;
-		} else if (Tag.isDeviceTag(tagName)) {
+		} else if (tag == Tag.DEVICE) {
 			saveAndResetDeviceBuilder();
 			isDevice = false;
-		} else if (Tag.isDevicePatternTag(tagName)) {
+		} else if (tag == Tag.DEVICE_PATTERN) {
 			saveAndResetDevicePatternBuilder();
 			isDevicePattern = false;
 		}
@@ -636,27 +663,31 @@ public final class XmlDataHandler extends DefaultHandler {
 	public void startElement(final String uri, final String localName, final String tagName, final Attributes attributes)
 			throws SAXException {
 
-		if (Tag.isRobotTag(tagName)) {
+		final Tag tag = Tag.evaluate(tagName);
+		if (tag == Tag.ROBOT) {
 			isRobot = true;
-		} else if (Tag.isBrowserTag(tagName)) {
+		} else if (tag == Tag.BROWSER) {
 			isBrowser = true;
-		} else if (Tag.isOperatingSystemTag(tagName)) {
+		} else if (tag == Tag.OPERATING_SYSTEM) {
 			isOperatingSystem = true;
-		} else if (Tag.isBrowserTypeTag(tagName)) {
+		} else if (tag == Tag.BROWSER_TYPE) {
 			isBrowserType = true;
-		} else if (Tag.isBrowserPatternTag(tagName)) {
+		} else if (tag == Tag.BROWSER_PATTERN) {
 			isBrowserPattern = true;
-		} else if (Tag.isBrowserOsMappingTag(tagName)) {
+		} else if (tag == Tag.BROWSER_OS_MAPPING) {
 			isBrowserOsMapping = true;
-		} else if (Tag.isOperatingSystemPatternTag(tagName)) {
+		} else if (tag == Tag.OPERATING_SYSTEM_PATTERN) {
 			isOperatingSystemPattern = true;
-		} else if (Tag.isDeviceTag(tagName)) {
+		} else if (tag == Tag.DEVICE) {
 			isDevice = true;
-		} else if (Tag.isDevicePatternTag(tagName)) {
+		} else if (tag == Tag.DEVICE_PATTERN) {
 			isDevicePattern = true;
 		}
 
-		currentTag = Tag.evaluate(tagName);
+		currentTag = tag;
+
+		// only the characters of the innermost element are of interest
+		buffer.setLength(0);
 	}
 
 	/**
@@ -696,7 +727,7 @@ public final class XmlDataHandler extends DefaultHandler {
 		// build browser pattern
 		addToDevicePatternBuilder();
 
-		buffer = new StringBuilder();
+		buffer.setLength(0);
 	}
 
 	@Override
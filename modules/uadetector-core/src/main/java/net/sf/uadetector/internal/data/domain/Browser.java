@@ -355,6 +355,19 @@ public final class Browser implements Identifiable, Serializable {
 	 * Copy values from itself to a <code>UserAgentInfo.Builder</code>.
 	 */
 	public void copyTo(@Nonnull final UserAgent.Builder builder) {
+		copyTo(builder, true);
+	}
+
+	/**
+	 * Copy values from itself to a <code>UserAgentInfo.Builder</code>, optionally without the operating system which
+	 * is assigned to this browser.
+	 * 
+	 * @param builder
+	 *            user agent builder
+	 * @param withOperatingSystem
+	 *            whether the assigned operating system should be copied too
+	 */
+	public void copyTo(@Nonnull final UserAgent.Builder builder, final boolean withOperatingSystem) {
 		builder.setFamily(family);
 		builder.setIcon(icon);
 		builder.setName(familyName);
@@ -362,7 +375,7 @@ public final class Browser implements Identifiable, Serializable {
 		builder.setProducerUrl(producerUrl);
 		builder.setTypeName(type.getName());
 		builder.setUrl(url);
-		if (operatingSystem != null) {
+		if (withOperatingSystem && operatingSystem != null) {
 			operatingSystem.copyTo(builder);
 		}
 	}
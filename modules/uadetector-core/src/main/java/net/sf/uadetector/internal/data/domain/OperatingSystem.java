@@ -269,6 +269,12 @@ public final class OperatingSystem implements Identifiable, Serializable {
 	@Nonnull
 	private final String name;
 
+	/**
+	 * Family of this operating system, resolved once by {@link #family}
+	 */
+	@Nonnull
+	private final OperatingSystemFamily operatingSystemFamily;
+
 	@Nonnull
 	private final SortedSet<OperatingSystemPattern> patterns;
 
@@ -278,6 +284,13 @@ public final class OperatingSystem implements Identifiable, Serializable {
 	@Nonnull
 	private final String producerUrl;
 
+	/**
+	 * Readable representation of this operating system with an unknown version number, it will be shared by all user
+	 * agents whose version of the operating system can not be determined
+	 */
+	@Nonnull
+	private final net.sf.uadetector.OperatingSystem readableOperatingSystem;
+
 	@Nonnull
 	private final String url;
 
@@ -294,6 +307,9 @@ public final class OperatingSystem implements Identifiable, Serializable {
 		this.url = Check.notNull(url, "url");
 		this.icon = Check.notNull(icon, "icon");
 		hash = buildHashCode(id, name, family, infoUrl, patterns, producer, producerUrl, url, icon);
+		operatingSystemFamily = OperatingSystemFamily.evaluate(family);
+		readableOperatingSystem = new net.sf.uadetector.OperatingSystem(operatingSystemFamily, family, icon, name, producer,
+				producerUrl, url, VersionNumber.UNKNOWN);
 	}
 
 	/**
@@ -303,9 +319,27 @@ public final class OperatingSystem implements Identifiable, Serializable {
 	 *            user agent builder
 	 */
 	public void copyTo(@Nonnull final UserAgent.Builder builder) {
-		final OperatingSystemFamily f = OperatingSystemFamily.evaluate(family);
-		final VersionNumber version = VersionNumber.parseOperatingSystemVersion(f, builder.getUserAgentString());
-		builder.setOperatingSystem(new net.sf.uadetector.OperatingSystem(f, family, icon, name, producer, producerUrl, url, version));
+		copyTo(builder, true);
+	}
+
+	/**
+	 * Copies the information of the current operating system entry to the given user agent builder. The extraction of
+	 * the version number can be skipped, if it is not needed.
+	 * 
+	 * @param builder
+	 *            user agent builder
+	 * @param withVersion
+	 *            whether the version number should be extracted from the user agent string
+	 */
+	public void copyTo(@Nonnull final UserAgent.Builder builder, final boolean withVersion) {
+		final VersionNumber version = withVersion ? VersionNumber.parseOperatingSystemVersion(operatingSystemFamily,
+				builder.getUserAgentString()) : VersionNumber.UNKNOWN;
+		if (VersionNumber.UNKNOWN.equals(version)) {
+			builder.setOperatingSystem(readableOperatingSystem);
+		} else {
+			builder.setOperatingSystem(new net.sf.uadetector.OperatingSystem(operatingSystemFamily, family, icon, name, producer,
+					producerUrl, url, version));
+		}
 	}
 
 	@Override
@@ -376,6 +410,16 @@ public final class OperatingSystem implements Identifiable, Serializable {
 		return name;
 	}
 
+	/**
+	 * Gets the family of this operating system which was resolved by its family name.
+	 * 
+	 * @return family of this operating system
+	 */
+	@Nonnull
+	public OperatingSystemFamily getOperatingSystemFamily() {
+		return operatingSystemFamily;
+	}
+
 	@Nonnull
 	public SortedSet<OperatingSystemPattern> getPatterns() {
 		return patterns;
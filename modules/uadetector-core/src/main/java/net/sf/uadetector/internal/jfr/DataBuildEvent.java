@@ -0,0 +1,42 @@
+/*******************************************************************************
+ * Copyright 2014 André Rouél
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package net.sf.uadetector.internal.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Event of building a {@code Data} instance by a {@code DataBuilder}.
+ * 
+ * @author André Rouél
+ */
+@Name("net.sf.uadetector.DataBuild")
+@Label("Data Build")
+@Category("UADetector")
+@Description("Building of UAS data and its matching engines")
+final class DataBuildEvent extends Event {
+
+	@Label("Patterns")
+	@Description("Number of browser, operating system and device patterns")
+	int patterns;
+
+	@Label("Version")
+	String version;
+
+}
@@ -0,0 +1,46 @@
+/*******************************************************************************
+ * Copyright 2014 André Rouél
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package net.sf.uadetector.internal.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Event of reading <em>UAS data</em> in XML format, including building the {@code Data} instance.
+ * 
+ * @author André Rouél
+ */
+@Name("net.sf.uadetector.DataRead")
+@Label("Data Read")
+@Category("UADetector")
+@Description("Reading of UAS data in XML format")
+final class DataReadEvent extends Event {
+
+	@Label("Failed")
+	@Description("Whether the data could not be read and is empty")
+	boolean failed;
+
+	@Label("Patterns")
+	@Description("Number of browser, operating system and device patterns")
+	int patterns;
+
+	@Label("Version")
+	String version;
+
+}
@@ -0,0 +1,41 @@
+/*******************************************************************************
+ * Copyright 2014 André Rouél
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package net.sf.uadetector.internal.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Event of replacing the <em>UAS data</em> of a data store, including informing its listeners.
+ * 
+ * @author André Rouél
+ */
+@Name("net.sf.uadetector.DataSwap")
+@Label("Data Swap")
+@Category("UADetector")
+@Description("Replacement of the UAS data of a data store")
+final class DataSwapEvent extends Event {
+
+	@Label("Previous Version")
+	String previousVersion;
+
+	@Label("Version")
+	String version;
+
+}
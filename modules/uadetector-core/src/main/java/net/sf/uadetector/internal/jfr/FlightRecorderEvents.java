@@ -0,0 +1,339 @@
+/*******************************************************************************
+ * Copyright 2014 André Rouél
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package net.sf.uadetector.internal.jfr;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+
+import net.sf.qualitycheck.Check;
+import net.sf.uadetector.internal.data.Data;
+
+/**
+ * Emits the events of <i>UADetector</i> to the Java Flight Recorder, so that a recording can attribute CPU time and
+ * allocations to the analysis of specific user agent strings, to reading and building of <em>UAS data</em> and to its
+ * updates.
+ * <p>
+ * Each event will be started with a {@code begin} method, which returns a handle or {@code null} if the event is not
+ * enabled in any running recording, and finished by passing this handle to the corresponding {@code end} method. No
+ * event object is created as long as its type is not enabled, so the analysis does not allocate anything for it. If
+ * the running JVM does not provide the Flight Recorder API or it cannot be used, all {@code begin} methods return
+ * {@code null} and the event classes will never be loaded.
+ * 
+ * @author André Rouél
+ */
+@ThreadSafe
+public final class FlightRecorderEvents {
+
+	/**
+	 * Creates, starts and commits the events. This class references the Flight Recorder API and must only be used if
+	 * it is available.
+	 */
+	private static final class Events {
+
+		/**
+		 * Type of {@link DataBuildEvent}
+		 */
+		private static final EventType DATA_BUILD = EventType.getEventType(DataBuildEvent.class);
+
+		/**
+		 * Type of {@link DataReadEvent}
+		 */
+		private static final EventType DATA_READ = EventType.getEventType(DataReadEvent.class);
+
+		/**
+		 * Type of {@link DataSwapEvent}
+		 */
+		private static final EventType DATA_SWAP = EventType.getEventType(DataSwapEvent.class);
+
+		/**
+		 * Type of {@link ParseEvent}, which will be checked on every analysis of a user agent string
+		 */
+		private static final EventType PARSE = EventType.getEventType(ParseEvent.class);
+
+		/**
+		 * Type of {@link UpdateCheckEvent}
+		 */
+		private static final EventType UPDATE_CHECK = EventType.getEventType(UpdateCheckEvent.class);
+
+		@Nonnull
+		private static Object begin(@Nonnull final Event event) {
+			event.begin();
+			return event;
+		}
+
+		@Nullable
+		static Object beginDataBuild() {
+			return DATA_BUILD.isEnabled() ? begin(new DataBuildEvent()) : null;
+		}
+
+		@Nullable
+		static Object beginDataRead() {
+			return DATA_READ.isEnabled() ? begin(new DataReadEvent()) : null;
+		}
+
+		@Nullable
+		static Object beginDataSwap() {
+			return DATA_SWAP.isEnabled() ? begin(new DataSwapEvent()) : null;
+		}
+
+		@Nullable
+		static Object beginParse() {
+			return PARSE.isEnabled() ? begin(new ParseEvent()) : null;
+		}
+
+		@Nullable
+		static Object beginUpdateCheck() {
+			return UPDATE_CHECK.isEnabled() ? begin(new UpdateCheckEvent()) : null;
+		}
+
+		static void endDataBuild(@Nonnull final Object handle, @Nonnull final Data data) {
+			final DataBuildEvent event = (DataBuildEvent) handle;
+			event.end();
+			if (event.shouldCommit()) {
+				event.patterns = countPatterns(data);
+				event.version = data.getVersion();
+				event.commit();
+			}
+		}
+
+		static void endDataRead(@Nonnull final Object handle, @Nonnull final Data data) {
+			final DataReadEvent event = (DataReadEvent) handle;
+			event.end();
+			if (event.shouldCommit()) {
+				event.failed = data == Data.EMPTY;
+				event.patterns = countPatterns(data);
+				event.version = data.getVersion();
+				event.commit();
+			}
+		}
+
+		static void endDataSwap(@Nonnull final Object handle, @Nonnull final Data previous, @Nonnull final Data current) {
+			final DataSwapEvent event = (DataSwapEvent) handle;
+			event.end();
+			if (event.shouldCommit()) {
+				event.previousVersion = previous.getVersion();
+				event.version = current.getVersion();
+				event.commit();
+			}
+		}
+
+		static void endParse(@Nonnull final Object handle, @Nullable final String userAgent, @Nonnull final String stage,
+				@Nonnegative final long patternsEvaluated) {
+			final ParseEvent event = (ParseEvent) handle;
+			event.end();
+			if (event.shouldCommit()) {
+				event.patternsEvaluated = patternsEvaluated;
+				event.stage = stage;
+				event.userAgent = userAgent;
+				event.commit();
+			}
+		}
+
+		static void endUpdateCheck(@Nonnull final Object handle, @Nonnull final String currentVersion,
+				@Nonnull final String remoteVersion, final boolean updateAvailable) {
+			final UpdateCheckEvent event = (UpdateCheckEvent) handle;
+			event.end();
+			if (event.shouldCommit()) {
+				event.currentVersion = currentVersion;
+				event.remoteVersion = remoteVersion;
+				event.updateAvailable = updateAvailable;
+				event.commit();
+			}
+		}
+
+		private Events() {
+			// This class is not intended to create objects from it.
+		}
+
+	}
+
+	/**
+	 * Indicates whether the running JVM provides a usable Flight Recorder API
+	 */
+	private static final boolean AVAILABLE = checkAvailability();
+
+	/**
+	 * Starts an event of building {@link Data}.
+	 * 
+	 * @return handle of the event or {@code null} if it is not enabled
+	 */
+	@Nullable
+	public static Object beginDataBuild() {
+		return AVAILABLE ? Events.beginDataBuild() : null;
+	}
+
+	/**
+	 * Starts an event of reading <em>UAS data</em>.
+	 * 
+	 * @return handle of the event or {@code null} if it is not enabled
+	 */
+	@Nullable
+	public static Object beginDataRead() {
+		return AVAILABLE ? Events.beginDataRead() : null;
+	}
+
+	/**
+	 * Starts an event of replacing the <em>UAS data</em> of a data store.
+	 * 
+	 * @return handle of the event or {@code null} if it is not enabled
+	 */
+	@Nullable
+	public static Object beginDataSwap() {
+		return AVAILABLE ? Events.beginDataSwap() : null;
+	}
+
+	/**
+	 * Starts an event of analyzing a user agent string.
+	 * 
+	 * @return handle of the event or {@code null} if it is not enabled
+	 */
+	@Nullable
+	public static Object beginParse() {
+		return AVAILABLE ? Events.beginParse() : null;
+	}
+
+	/**
+	 * Starts an event of checking for newer <em>UAS data</em>.
+	 * 
+	 * @return handle of the event or {@code null} if it is not enabled
+	 */
+	@Nullable
+	public static Object beginUpdateCheck() {
+		return AVAILABLE ? Events.beginUpdateCheck() : null;
+	}
+
+	private static boolean checkAvailability() {
+		try {
+			Class.forName("jdk.jfr.Event", false, FlightRecorderEvents.class.getClassLoader());
+
+			// looks up the event types, which fails if the Flight Recorder cannot be used in this environment
+			Class.forName(Events.class.getName(), true, FlightRecorderEvents.class.getClassLoader());
+			return true;
+		} catch (final ClassNotFoundException e) {
+			return false;
+		} catch (final LinkageError e) {
+			return false;
+		}
+	}
+
+	@Nonnegative
+	private static int countPatterns(@Nonnull final Data data) {
+		return data.getPatternToBrowserMap().size() + data.getPatternToOperatingSystemMap().size() + data.getPatternToDeviceMap().size();
+	}
+
+	/**
+	 * Finishes an event of building {@link Data}.
+	 * 
+	 * @param event
+	 *            handle of the event or {@code null} if it is not enabled
+	 * @param data
+	 *            built data
+	 */
+	public static void endDataBuild(@Nullable final Object event, @Nonnull final Data data) {
+		if (event != null) {
+			Events.endDataBuild(event, Check.notNull(data, "data"));
+		}
+	}
+
+	/**
+	 * Finishes an event of reading <em>UAS data</em>.
+	 * 
+	 * @param event
+	 *            handle of the event or {@code null} if it is not enabled
+	 * @param data
+	 *            read data or {@link Data#EMPTY} if it could not be read
+	 */
+	public static void endDataRead(@Nullable final Object event, @Nonnull final Data data) {
+		if (event != null) {
+			Events.endDataRead(event, Check.notNull(data, "data"));
+		}
+	}
+
+	/**
+	 * Finishes an event of replacing the <em>UAS data</em> of a data store.
+	 * 
+	 * @param event
+	 *            handle of the event or {@code null} if it is not enabled
+	 * @param previous
+	 *            replaced data
+	 * @param current
+	 *            new data
+	 */
+	public static void endDataSwap(@Nullable final Object event, @Nonnull final Data previous, @Nonnull final Data current) {
+		if (event != null) {
+			Events.endDataSwap(event, Check.notNull(previous, "previous"), Check.notNull(current, "current"));
+		}
+	}
+
+	/**
+	 * Finishes an event of analyzing a user agent string. The event will only be recorded if its duration exceeds the
+	 * configured threshold.
+	 * 
+	 * @param event
+	 *            handle of the event or {@code null} if it is not enabled
+	 * @param userAgent
+	 *            analyzed user agent string
+	 * @param stage
+	 *            stage of the analysis which took the most time
+	 * @param patternsEvaluated
+	 *            number of regular expressions which have been run
+	 */
+	public static void endParse(@Nullable final Object event, @Nullable final String userAgent, @Nonnull final String stage,
+			@Nonnegative final long patternsEvaluated) {
+		if (event != null) {
+			Events.endParse(event, userAgent, Check.notNull(stage, "stage"), patternsEvaluated);
+		}
+	}
+
+	/**
+	 * Finishes an event of checking for newer <em>UAS data</em>.
+	 * 
+	 * @param event
+	 *            handle of the event or {@code null} if it is not enabled
+	 * @param currentVersion
+	 *            version of the data in use
+	 * @param remoteVersion
+	 *            version which has been read remotely or an empty string if it could not be read
+	 * @param updateAvailable
+	 *            whether newer data is available
+	 */
+	public static void endUpdateCheck(@Nullable final Object event, @Nonnull final String currentVersion,
+			@Nonnull final String remoteVersion, final boolean updateAvailable) {
+		if (event != null) {
+			Events.endUpdateCheck(event, Check.notNull(currentVersion, "currentVersion"), Check.notNull(remoteVersion, "remoteVersion"),
+					updateAvailable);
+		}
+	}
+
+	/**
+	 * Indicates whether the running JVM provides a usable Flight Recorder API.
+	 * 
+	 * @return {@code true} if events can be recorded, otherwise {@code false}
+	 */
+	public static boolean isAvailable() {
+		return AVAILABLE;
+	}
+
+	private FlightRecorderEvents() {
+		// This class is not intended to create objects from it.
+	}
+
+}
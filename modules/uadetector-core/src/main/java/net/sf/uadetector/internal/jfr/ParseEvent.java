@@ -0,0 +1,48 @@
+/*******************************************************************************
+ * Copyright 2014 André Rouél
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package net.sf.uadetector.internal.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * Event of a slow analysis of a user agent string, which exceeds the configured threshold (by default one millisecond).
+ * 
+ * @author André Rouél
+ */
+@Name("net.sf.uadetector.Parse")
+@Label("Slow Parse")
+@Category("UADetector")
+@Description("Analysis of a user agent string which took longer than the threshold")
+@Threshold("1 ms")
+final class ParseEvent extends Event {
+
+	@Label("Patterns Evaluated")
+	@Description("Number of regular expressions which have been run")
+	long patternsEvaluated;
+
+	@Label("Slowest Stage")
+	@Description("Stage of the analysis which took the most time")
+	String stage;
+
+	@Label("User Agent")
+	String userAgent;
+
+}
@@ -0,0 +1,45 @@
+/*******************************************************************************
+ * Copyright 2014 André Rouél
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package net.sf.uadetector.internal.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Event of a check whether newer <em>UAS data</em> is available.
+ * 
+ * @author André Rouél
+ */
+@Name("net.sf.uadetector.UpdateCheck")
+@Label("Update Check")
+@Category("UADetector")
+@Description("Check for a newer version of UAS data")
+final class UpdateCheckEvent extends Event {
+
+	@Label("Current Version")
+	String currentVersion;
+
+	@Label("Remote Version")
+	@Description("Version which has been read remotely or an empty string if it could not be read")
+	String remoteVersion;
+
+	@Label("Update Available")
+	boolean updateAvailable;
+
+}
@@ -0,0 +1,457 @@
+/*******************************************************************************
+ * Copyright 2014 André Rouél
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package net.sf.uadetector.internal.matcher;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.regex.Pattern;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+
+import net.sf.qualitycheck.Check;
+
+/**
+ * Extracts literal fragments of a regular expression which must occur in every text the expression can be found in.
+ * <p>
+ * The result is a list of alternatives, each alternative is a list of literals which must occur all together. A text
+ * can only contain a match of the expression if all literals of at least one alternative occur in it. Several
+ * alternatives result from alternations like {@code Windows Phone|Windows Mobile} or {@code (iPad|iPhone)}.
+ * <p>
+ * The extraction is conservative: if a construct of the regular expression is not understood, no literals will be
+ * returned instead of possibly wrong ones. All literals are returned in lower case and contain only US-ASCII
+ * characters, so a text must be converted in the same way before it will be searched for them.
+ * 
+ * @author André Rouél
+ */
+final class LiteralExtractor {
+
+	/**
+	 * Already extracted literals by their pattern. Patterns are compared by identity and referenced weakly, because
+	 * compiled patterns are shared across versions of <em>UAS data</em> (see
+	 * {@link net.sf.uadetector.internal.util.PatternPool}), the literals of an unchanged pattern will be extracted only
+	 * once.
+	 */
+	private static final Map<Pattern, List<List<String>>> EXTRACTED = Collections
+			.synchronizedMap(new WeakHashMap<Pattern, List<List<String>>>());
+
+	/**
+	 * Flags which change the meaning of a pattern in a way that is not supported by this extractor
+	 */
+	private static final int UNSUPPORTED_FLAGS = Pattern.CANON_EQ | Pattern.COMMENTS | Pattern.LITERAL | Pattern.UNICODE_CASE;
+
+	/**
+	 * Maximum number of alternatives of an expression, a requirement will be ignored if it would exceed this limit
+	 */
+	static final int MAX_ALTERNATIVES = 16;
+
+	/**
+	 * Minimum length of a literal to be worth being a filter criterion
+	 */
+	static final int MIN_LITERAL_LENGTH = 2;
+
+	/**
+	 * Indicates that a construct can not be processed and the extraction must be aborted
+	 */
+	private static final class UnsupportedConstructException extends Exception {
+		private static final long serialVersionUID = 1L;
+	}
+
+	private static void addLiteral(@Nonnull final List<List<String>> alternatives, @Nonnull final StringBuilder run) {
+		if (run.length() >= MIN_LITERAL_LENGTH) {
+			final String literal = run.toString().toLowerCase(Locale.ENGLISH);
+			for (final List<String> literals : alternatives) {
+				if (!literals.contains(literal)) {
+					literals.add(literal);
+				}
+			}
+		}
+		run.setLength(0);
+	}
+
+	private static boolean appendLiteral(@Nonnull final List<List<String>> alternatives, @Nonnull final StringBuilder run, final char c) {
+		if (c > 127) {
+			addLiteral(alternatives, run);
+			return false;
+		}
+		run.append(c);
+		return true;
+	}
+
+	private static char charAt(@Nonnull final String regex, final int index) throws UnsupportedConstructException {
+		if (index >= regex.length()) {
+			throw new UnsupportedConstructException();
+		}
+		return regex.charAt(index);
+	}
+
+	/**
+	 * Combines two requirements which must be both fulfilled. If the combination would exceed
+	 * {@link #MAX_ALTERNATIVES}, the second requirement will be ignored.
+	 */
+	@Nonnull
+	private static List<List<String>> combine(@Nonnull final List<List<String>> first, @Nonnull final List<List<String>> second) {
+		if (isUnconstrained(second) || first.size() * second.size() > MAX_ALTERNATIVES) {
+			return first;
+		}
+		final List<List<String>> combined = new ArrayList<List<String>>(first.size() * second.size());
+		for (final List<String> a : first) {
+			for (final List<String> b : second) {
+				final List<String> literals = new ArrayList<String>(a);
+				for (final String literal : b) {
+					if (!literals.contains(literal)) {
+						literals.add(literal);
+					}
+				}
+				combined.add(literals);
+			}
+		}
+		return combined;
+	}
+
+	/**
+	 * Creates a requirement which is fulfilled by any text.
+	 */
+	@Nonnull
+	private static List<List<String>> createUnconstrained() {
+		final List<List<String>> alternatives = new ArrayList<List<String>>(1);
+		alternatives.add(new ArrayList<String>());
+		return alternatives;
+	}
+
+	/**
+	 * Extracts all literals of the given pattern which must occur in every text where the pattern can be found in.
+	 * 
+	 * @param pattern
+	 *            compiled regular expression
+	 * @return a list of alternatives of required literals in lower case or an empty list if at least for one
+	 *         alternative no literal could be extracted
+	 * @throws net.sf.qualitycheck.exception.IllegalNullArgumentException
+	 *             if the given argument is {@code null}
+	 */
+	@Nonnull
+	static List<List<String>> extract(@Nonnull final Pattern pattern) {
+		Check.notNull(pattern, "pattern");
+
+		List<List<String>> literals = EXTRACTED.get(pattern);
+		if (literals == null) {
+			literals = parse(pattern);
+			EXTRACTED.put(pattern, literals);
+		}
+		return literals;
+	}
+
+	private static List<List<String>> parse(@Nonnull final Pattern pattern) {
+		if ((pattern.flags() & UNSUPPORTED_FLAGS) != 0) {
+			return Collections.emptyList();
+		}
+		try {
+			final LiteralExtractor extractor = new LiteralExtractor(pattern.pattern());
+			final List<List<String>> alternatives = extractor.parseAlternation();
+			if (extractor.index < extractor.regex.length()) {
+				// an unbalanced closing parenthesis
+				throw new UnsupportedConstructException();
+			}
+			if (isUnconstrained(alternatives)) {
+				return Collections.emptyList();
+			}
+			final List<List<String>> result = new ArrayList<List<String>>(alternatives.size());
+			for (final List<String> literals : alternatives) {
+				result.add(Collections.unmodifiableList(literals));
+			}
+			return Collections.unmodifiableList(result);
+		} catch (final UnsupportedConstructException e) {
+			return Collections.emptyList();
+		}
+	}
+
+	private static boolean isAsciiLetterOrDigit(final char c) {
+		return c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c >= '0' && c <= '9';
+	}
+
+	/**
+	 * Checks if at least one alternative contains no literal, in this case any text fulfills the requirement.
+	 */
+	private static boolean isUnconstrained(@Nonnull final List<List<String>> alternatives) {
+		for (final List<String> literals : alternatives) {
+			if (literals.isEmpty()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Parses the minimum number of repetitions of a quantifier starting at the given index.
+	 */
+	private static int parseMinimumRepetitions(@Nonnull final String regex, @Nonnegative final int start)
+			throws UnsupportedConstructException {
+		final char c = regex.charAt(start);
+		if (c != '{') {
+			return c == '+' ? 1 : 0;
+		}
+		int i = start + 1;
+		int min = 0;
+		while (Character.isDigit(charAt(regex, i))) {
+			min = min * 10 + regex.charAt(i) - '0';
+			i++;
+		}
+		if (i == start + 1) {
+			throw new UnsupportedConstructException();
+		}
+		return min;
+	}
+
+	private static boolean isQuantifier(@Nonnull final String regex, @Nonnegative final int index) {
+		if (index >= regex.length()) {
+			return false;
+		}
+		final char c = regex.charAt(index);
+		return c == '*' || c == '?' || c == '+' || c == '{';
+	}
+
+	/**
+	 * Skips a character class (for example {@code [a-z]}) starting at the given index.
+	 * 
+	 * @return index after the character class
+	 */
+	private static int skipCharacterClass(@Nonnull final String regex, @Nonnegative final int start) throws UnsupportedConstructException {
+		int i = start + 1;
+		if (charAt(regex, i) == '^') {
+			i++;
+		}
+		if (charAt(regex, i) == ']') {
+			// a closing bracket at the beginning is a literal
+			i++;
+		}
+		int depth = 1;
+		while (depth > 0) {
+			final char c = charAt(regex, i);
+			if (c == '\\') {
+				i = isAsciiLetterOrDigit(charAt(regex, i + 1)) ? skipEscape(regex, i) : i + 2;
+			} else {
+				if (c == '[') {
+					depth++;
+				} else if (c == ']') {
+					depth--;
+				}
+				i++;
+			}
+		}
+		return i;
+	}
+
+	/**
+	 * Skips an escape sequence like {@code \d} or {@code \p{Alpha}} starting at the given index.
+	 * 
+	 * @return index after the escape sequence
+	 */
+	private static int skipEscape(@Nonnull final String regex, @Nonnegative final int start) throws UnsupportedConstructException {
+		final char c = charAt(regex, start + 1);
+		if (c == 'p' || c == 'P') {
+			if (charAt(regex, start + 2) == '{') {
+				final int end = regex.indexOf('}', start + 3);
+				if (end < 0) {
+					throw new UnsupportedConstructException();
+				}
+				return end + 1;
+			}
+			return start + 3;
+		}
+		if ("dDsSwWbBAzZGhHvVRXtnrfae".indexOf(c) < 0) {
+			// quotations, back references and encoded characters are not supported
+			throw new UnsupportedConstructException();
+		}
+		return start + 2;
+	}
+
+	/**
+	 * Skips a group (including nested groups) starting at the given index.
+	 * 
+	 * @return index after the group
+	 */
+	private static int skipGroup(@Nonnull final String regex, @Nonnegative final int start) throws UnsupportedConstructException {
+		int i = start;
+		int depth = 0;
+		do {
+			final char c = charAt(regex, i);
+			if (c == '\\') {
+				i = isAsciiLetterOrDigit(charAt(regex, i + 1)) ? skipEscape(regex, i) : i + 2;
+			} else if (c == '[') {
+				i = skipCharacterClass(regex, i);
+			} else {
+				if (c == '(') {
+					checkGroupType(regex, i);
+					depth++;
+				} else if (c == ')') {
+					depth--;
+				}
+				i++;
+			}
+		} while (depth > 0);
+		return i;
+	}
+
+	/**
+	 * Checks that the group starting at the given index does not set embedded flags, because they can change the
+	 * meaning of the whole expression.
+	 */
+	private static void checkGroupType(@Nonnull final String regex, @Nonnegative final int start) throws UnsupportedConstructException {
+		if (charAt(regex, start + 1) == '?' && ":=!<>".indexOf(charAt(regex, start + 2)) < 0) {
+			throw new UnsupportedConstructException();
+		}
+	}
+
+	/**
+	 * Skips a quantifier (including a reluctant or possessive suffix) starting at the given index.
+	 * 
+	 * @return index after the quantifier
+	 */
+	private static int skipQuantifier(@Nonnull final String regex, @Nonnegative final int start) throws UnsupportedConstructException {
+		int i = start;
+		if (regex.charAt(i) == '{') {
+			i = regex.indexOf('}', i);
+			if (i < 0) {
+				throw new UnsupportedConstructException();
+			}
+		}
+		i++;
+		if (i < regex.length() && (regex.charAt(i) == '?' || regex.charAt(i) == '+')) {
+			i++;
+		}
+		return i;
+	}
+
+	/**
+	 * Current position within the regular expression
+	 */
+	@Nonnegative
+	private int index;
+
+	@Nonnull
+	private final String regex;
+
+	private LiteralExtractor(@Nonnull final String regex) {
+		this.regex = regex;
+	}
+
+	/**
+	 * Parses alternatives separated by {@code |} until the end of the expression or an unmatched closing parenthesis
+	 * is reached.
+	 */
+	@Nonnull
+	private List<List<String>> parseAlternation() throws UnsupportedConstructException {
+		final List<List<String>> alternatives = new ArrayList<List<String>>();
+		while (true) {
+			alternatives.addAll(parseSequence());
+			if (index < regex.length() && regex.charAt(index) == '|') {
+				index++;
+			} else {
+				return isUnconstrained(alternatives) ? createUnconstrained() : alternatives;
+			}
+		}
+	}
+
+	/**
+	 * Parses a group starting at the current index and returns the requirements of its content.
+	 */
+	@Nonnull
+	private List<List<String>> parseGroup() throws UnsupportedConstructException {
+		checkGroupType(regex, index);
+		if (charAt(regex, index + 1) == '?') {
+			if (charAt(regex, index + 2) != ':') {
+				// look-around, atomic and named groups will be skipped
+				index = skipGroup(regex, index);
+				return createUnconstrained();
+			}
+			index += 3;
+		} else {
+			index++;
+		}
+		final List<List<String>> alternatives = parseAlternation();
+		if (charAt(regex, index) != ')') {
+			throw new UnsupportedConstructException();
+		}
+		index++;
+		return alternatives;
+	}
+
+	/**
+	 * Parses a sequence of atoms until the end of the expression, an alternation or the end of the group is reached.
+	 */
+	@Nonnull
+	private List<List<String>> parseSequence() throws UnsupportedConstructException {
+		List<List<String>> alternatives = createUnconstrained();
+		final StringBuilder run = new StringBuilder();
+
+		// indicates if the last atom was a literal character which is the last character of the current run
+		boolean literalAtom = false;
+		while (index < regex.length()) {
+			final char c = regex.charAt(index);
+			if (c == '|' || c == ')') {
+				break;
+			} else if (c == '\\') {
+				final char escaped = charAt(regex, index + 1);
+				if (isAsciiLetterOrDigit(escaped)) {
+					addLiteral(alternatives, run);
+					literalAtom = false;
+					index = skipEscape(regex, index);
+				} else {
+					literalAtom = appendLiteral(alternatives, run, escaped);
+					index += 2;
+				}
+			} else if (c == '[') {
+				addLiteral(alternatives, run);
+				literalAtom = false;
+				index = skipCharacterClass(regex, index);
+			} else if (c == '(') {
+				addLiteral(alternatives, run);
+				literalAtom = false;
+				final List<List<String>> group = parseGroup();
+				if (isQuantifier(regex, index)) {
+					if (parseMinimumRepetitions(regex, index) > 0) {
+						alternatives = combine(alternatives, group);
+					}
+					index = skipQuantifier(regex, index);
+				} else {
+					alternatives = combine(alternatives, group);
+				}
+			} else if (c == '.' || c == '^' || c == '$') {
+				addLiteral(alternatives, run);
+				literalAtom = false;
+				index++;
+			} else if (isQuantifier(regex, index)) {
+				if (literalAtom && parseMinimumRepetitions(regex, index) == 0) {
+					// the last character is optional
+					run.setLength(run.length() - 1);
+				}
+				addLiteral(alternatives, run);
+				literalAtom = false;
+				index = skipQuantifier(regex, index);
+			} else {
+				literalAtom = appendLiteral(alternatives, run, c);
+				index++;
+			}
+		}
+		addLiteral(alternatives, run);
+		return alternatives;
+	}
+
+}
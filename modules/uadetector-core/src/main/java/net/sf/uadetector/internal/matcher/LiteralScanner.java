@@ -0,0 +1,305 @@
+/*******************************************************************************
+ * Copyright 2014 André Rouél
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package net.sf.uadetector.internal.matcher;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.Immutable;
+
+import net.sf.qualitycheck.Check;
+
+/**
+ * Searches a text for a set of US-ASCII literals in a single pass using the algorithm of Aho and Corasick.
+ * <p>
+ * The search ignores the case of US-ASCII characters, therefore all literals must be passed in lower case.
+ * 
+ * @author André Rouél
+ */
+@Immutable
+final class LiteralScanner implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Marker for a state without output
+	 */
+	private static final int NONE = -1;
+
+	/**
+	 * The initial state of the automaton
+	 */
+	private static final int ROOT = 0;
+
+	/**
+	 * Restores an automaton which has been written by {@link #writeTo(DataOutput)}.
+	 * 
+	 * @param in
+	 *            input to read from
+	 * @return restored automaton
+	 * @throws IOException
+	 *             if the input can not be read
+	 */
+	@Nonnull
+	static LiteralScanner readFrom(@Nonnull final DataInput in) throws IOException {
+		final int literalCount = in.readInt();
+		final int size = in.readInt();
+		if (literalCount < 0 || size < 1) {
+			throw new IOException("Invalid size of literal scanner: " + size);
+		}
+		final int[] fail = new int[size];
+		final int[] outputLink = new int[size];
+		final int[] output = new int[size];
+		final char[][] transitionChars = new char[size][];
+		final int[][] transitionTargets = new int[size][];
+		for (int state = 0; state < size; state++) {
+			fail[state] = in.readInt();
+			outputLink[state] = in.readInt();
+			output[state] = in.readInt();
+			final int transitions = in.readInt();
+			transitionChars[state] = new char[transitions];
+			transitionTargets[state] = new int[transitions];
+			for (int i = 0; i < transitions; i++) {
+				transitionChars[state][i] = in.readChar();
+				transitionTargets[state][i] = in.readInt();
+			}
+		}
+		return new LiteralScanner(literalCount, fail, outputLink, output, transitionChars, transitionTargets);
+	}
+
+	/**
+	 * Failure transition of each state
+	 */
+	@Nonnull
+	private final int[] fail;
+
+	/**
+	 * Nearest state (following the failure transitions) which has an output or {@link #NONE}
+	 */
+	@Nonnull
+	private final int[] outputLink;
+
+	/**
+	 * Index of the literal which ends in a state or {@link #NONE}
+	 */
+	@Nonnull
+	private final int[] output;
+
+	/**
+	 * Sorted characters of the transitions of each state
+	 */
+	@Nonnull
+	private final char[][] transitionChars;
+
+	/**
+	 * Target states of the transitions of each state
+	 */
+	@Nonnull
+	private final int[][] transitionTargets;
+
+	@Nonnegative
+	private final int literalCount;
+
+	/**
+	 * Builds an automaton to search for the given literals. The index of a literal in the list is the index which will
+	 * be reported when it is found.
+	 * 
+	 * @param literals
+	 *            list of literals in lower case
+	 * @throws net.sf.qualitycheck.exception.IllegalNullArgumentException
+	 *             if the given argument is {@code null}
+	 */
+	LiteralScanner(@Nonnull final List<String> literals) {
+		Check.notNull(literals, "literals");
+		literalCount = literals.size();
+
+		// build the trie
+		final List<Map<Character, Integer>> trie = new ArrayList<Map<Character, Integer>>();
+		final List<Integer> outputs = new ArrayList<Integer>();
+		trie.add(new TreeMap<Character, Integer>());
+		outputs.add(NONE);
+		for (int index = 0; index < literals.size(); index++) {
+			final String literal = literals.get(index);
+			int state = ROOT;
+			for (int i = 0; i < literal.length(); i++) {
+				final Character c = Character.valueOf(literal.charAt(i));
+				Integer next = trie.get(state).get(c);
+				if (next == null) {
+					next = trie.size();
+					trie.add(new TreeMap<Character, Integer>());
+					outputs.add(NONE);
+					trie.get(state).put(c, next);
+				}
+				state = next;
+			}
+			if (outputs.get(state) == NONE) {
+				outputs.set(state, index);
+			}
+		}
+
+		// freeze the transitions
+		final int size = trie.size();
+		transitionChars = new char[size][];
+		transitionTargets = new int[size][];
+		output = new int[size];
+		for (int state = 0; state < size; state++) {
+			final Map<Character, Integer> transitions = trie.get(state);
+			transitionChars[state] = new char[transitions.size()];
+			transitionTargets[state] = new int[transitions.size()];
+			int i = 0;
+			for (final Map.Entry<Character, Integer> transition : transitions.entrySet()) {
+				transitionChars[state][i] = transition.getKey().charValue();
+				transitionTargets[state][i] = transition.getValue().intValue();
+				i++;
+			}
+			output[state] = outputs.get(state).intValue();
+		}
+
+		// compute failure transitions in breadth-first order
+		fail = new int[size];
+		outputLink = new int[size];
+		Arrays.fill(outputLink, NONE);
+		final Queue<Integer> queue = new LinkedList<Integer>();
+		for (final int child : transitionTargets[ROOT]) {
+			fail[child] = ROOT;
+			queue.add(child);
+		}
+		while (!queue.isEmpty()) {
+			final int state = queue.remove().intValue();
+			for (int i = 0; i < transitionChars[state].length; i++) {
+				final int child = transitionTargets[state][i];
+				final int target = next(fail[state], transitionChars[state][i]);
+				fail[child] = target;
+				outputLink[child] = output[target] != NONE ? target : outputLink[target];
+				queue.add(child);
+			}
+		}
+	}
+
+	private LiteralScanner(@Nonnegative final int literalCount, @Nonnull final int[] fail, @Nonnull final int[] outputLink,
+			@Nonnull final int[] output, @Nonnull final char[][] transitionChars, @Nonnull final int[][] transitionTargets) {
+		this.literalCount = literalCount;
+		this.fail = fail;
+		this.outputLink = outputLink;
+		this.output = output;
+		this.transitionChars = transitionChars;
+		this.transitionTargets = transitionTargets;
+	}
+
+	/**
+	 * Gets the number of literals this scanner searches for.
+	 * 
+	 * @return number of literals
+	 */
+	@Nonnegative
+	int getLiteralCount() {
+		return literalCount;
+	}
+
+	private int next(final int current, final char c) {
+		int state = current;
+		while (true) {
+			final int i = Arrays.binarySearch(transitionChars[state], c);
+			if (i >= 0) {
+				return transitionTargets[state][i];
+			}
+			if (state == ROOT) {
+				return ROOT;
+			}
+			state = fail[state];
+		}
+	}
+
+	/**
+	 * Searches the given text for all literals of this scanner.
+	 * 
+	 * @param text
+	 *            text to search in
+	 * @return a set which contains the indices of all found literals
+	 */
+	@Nonnull
+	BitSet scan(@Nonnull final CharSequence text) {
+		final BitSet found = new BitSet(literalCount);
+		scan(text, found);
+		return found;
+	}
+
+	/**
+	 * Searches the given text for all literals of this scanner and stores the indices of all found literals in the
+	 * given set, which will be cleared before.
+	 * 
+	 * @param text
+	 *            text to search in
+	 * @param found
+	 *            set to store the indices of all found literals
+	 */
+	void scan(@Nonnull final CharSequence text, @Nonnull final BitSet found) {
+		found.clear();
+		int state = ROOT;
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			if (c > 127) {
+				// no literal contains characters outside of US-ASCII
+				state = ROOT;
+				continue;
+			}
+			if (c >= 'A' && c <= 'Z') {
+				c = (char) (c + ('a' - 'A'));
+			}
+			state = next(state, c);
+			for (int s = output[state] != NONE ? state : outputLink[state]; s != NONE; s = outputLink[s]) {
+				found.set(output[s]);
+			}
+		}
+	}
+
+	/**
+	 * Writes the automaton to the given output, so that it can be restored by {@link #readFrom(DataInput)} without
+	 * building it again.
+	 * 
+	 * @param out
+	 *            output to write to
+	 * @throws IOException
+	 *             if the output can not be written
+	 */
+	void writeTo(@Nonnull final DataOutput out) throws IOException {
+		out.writeInt(literalCount);
+		out.writeInt(fail.length);
+		for (int state = 0; state < fail.length; state++) {
+			out.writeInt(fail[state]);
+			out.writeInt(outputLink[state]);
+			out.writeInt(output[state]);
+			out.writeInt(transitionChars[state].length);
+			for (int i = 0; i < transitionChars[state].length; i++) {
+				out.writeChar(transitionChars[state][i]);
+				out.writeInt(transitionTargets[state][i]);
+			}
+		}
+	}
+
+}
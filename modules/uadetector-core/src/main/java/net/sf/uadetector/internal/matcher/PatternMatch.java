@@ -0,0 +1,78 @@
+/*******************************************************************************
+ * Copyright 2014 André Rouél
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package net.sf.uadetector.internal.matcher;
+
+import java.util.regex.MatchResult;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.NotThreadSafe;
+
+import net.sf.qualitycheck.Check;
+import net.sf.uadetector.internal.data.domain.OrderedPattern;
+
+/**
+ * The result of a successful search of a {@link PatternMatcher}. It contains the matching pattern, the value which is
+ * associated with it and the state of the match, which can be used to read the capturing groups.
+ * <p>
+ * A {@code PatternMatcher} may reuse its {@code Matcher} instances per thread, therefore the match result is only valid
+ * until the next search of the same matcher in the same thread.
+ * 
+ * @param <P>
+ *            type of the ordered pattern
+ * @param <V>
+ *            type of the value which is associated with a pattern
+ * 
+ * @author André Rouél
+ */
+@NotThreadSafe
+public final class PatternMatch<P extends OrderedPattern<P>, V> {
+
+	@Nonnull
+	private final MatchResult matchResult;
+
+	@Nonnull
+	private final P pattern;
+
+	@Nonnull
+	private final V value;
+
+	public PatternMatch(@Nonnull final P pattern, @Nonnull final V value, @Nonnull final MatchResult matchResult) {
+		this.pattern = Check.notNull(pattern, "pattern");
+		this.value = Check.notNull(value, "value");
+		this.matchResult = Check.notNull(matchResult, "matchResult");
+	}
+
+	/**
+	 * Gets the result of the match operation to read the capturing groups.
+	 * 
+	 * @return result of the match operation
+	 */
+	@Nonnull
+	public MatchResult getMatchResult() {
+		return matchResult;
+	}
+
+	@Nonnull
+	public P getPattern() {
+		return pattern;
+	}
+
+	@Nonnull
+	public V getValue() {
+		return value;
+	}
+
+}
@@ -0,0 +1,73 @@
+/*******************************************************************************
+ * Copyright 2014 André Rouél
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package net.sf.uadetector.internal.matcher;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import net.sf.uadetector.internal.data.domain.OrderedPattern;
+
+/**
+ * A {@code PatternMatcher} finds the first pattern of an ordered set of patterns which can be found in a given text.
+ * <p>
+ * All implementations must return the same result as iterating over the patterns in their natural order and returning
+ * the first one whose {@link java.util.regex.Matcher#find()} succeeds. How the search is carried out internally (for
+ * example by sorting out patterns before running them) is up to the implementation.
+ * 
+ * @param <P>
+ *            type of the ordered pattern
+ * @param <V>
+ *            type of the value which is associated with a pattern
+ * 
+ * @author André Rouél
+ */
+public interface PatternMatcher<P extends OrderedPattern<P>, V> {
+
+	/**
+	 * Searches the first pattern (in the order of the patterns) which can be found in the given text.
+	 * 
+	 * @param text
+	 *            text to search in, typically a user agent string
+	 * @return the first match or {@code null} if no pattern can be found
+	 */
+	@Nullable
+	PatternMatch<P, V> find(@Nonnull final String text);
+
+	/**
+	 * Searches the first pattern (in the order of the patterns) which can be found in the given text and adds the
+	 * number of regular expressions, which have been run during the search, to the given counter.
+	 * 
+	 * @param text
+	 *            text to search in, typically a user agent string
+	 * @param evaluated
+	 *            counter of evaluated regular expressions or {@code null} if they should not be counted
+	 * @return the first match or {@code null} if no pattern can be found
+	 */
+	@Nullable
+	PatternMatch<P, V> find(@Nonnull final String text, @Nullable final LongAdder evaluated);
+
+	/**
+	 * Gets the number of patterns of this matcher.
+	 * 
+	 * @return number of patterns
+	 */
+	@Nonnegative
+	int size();
+
+}
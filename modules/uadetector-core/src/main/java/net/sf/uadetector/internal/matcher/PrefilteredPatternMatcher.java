@@ -0,0 +1,421 @@
+/*******************************************************************************
+ * Copyright 2014 André Rouél
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package net.sf.uadetector.internal.matcher;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.SortedMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+
+import net.sf.qualitycheck.Check;
+import net.sf.uadetector.internal.data.domain.OrderedPattern;
+
+/**
+ * A {@code PatternMatcher} which sorts out patterns that cannot match before running them.
+ * <p>
+ * When the matcher is created, the literals which must occur in a text to be found by a pattern will be extracted
+ * from each regular expression. All literals of all patterns are compiled into one automaton, so that a text can be
+ * searched for all of them in a single pass. Only the patterns whose literals were all found for at least one of their
+ * alternatives (and the patterns without any extractable literal) will be run afterwards, still in the order of the
+ * patterns.
+ * <p>
+ * To avoid allocations during a search, each thread reuses its own {@code Matcher} instances and working memory.
+ * Therefore the match result of a returned {@link PatternMatch} is only valid until the next search in the same thread.
+ * 
+ * @param <P>
+ *            type of the ordered pattern
+ * @param <V>
+ *            type of the value which is associated with a pattern
+ * 
+ * @author André Rouél
+ */
+@ThreadSafe
+public final class PrefilteredPatternMatcher<P extends OrderedPattern<P>, V> implements PatternMatcher<P, V>, Serializable {
+
+	/**
+	 * Working memory of a search, which is reused by all searches of one thread
+	 */
+	private static final class Scratch {
+
+		@Nonnull
+		final BitSet candidates;
+
+		@Nonnull
+		final BitSet found;
+
+		/**
+		 * Matcher of each pattern, created on first use
+		 */
+		@Nonnull
+		final Matcher[] matchers;
+
+		Scratch(final int patternCount, final int literalCount) {
+			candidates = new BitSet(patternCount);
+			found = new BitSet(literalCount);
+			matchers = new Matcher[patternCount];
+		}
+
+	}
+
+	private static final long serialVersionUID = 1L;
+
+	private static final int[] EMPTY_INDICES = new int[0];
+
+	private static boolean isAnyAlternativeFound(@Nonnull final int[][] alternatives, @Nonnull final BitSet found) {
+		for (final int[] literals : alternatives) {
+			if (isEveryLiteralFound(literals, found)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static boolean isEveryLiteralFound(@Nonnull final int[] literals, @Nonnull final BitSet found) {
+		for (final int literal : literals) {
+			if (!found.get(literal)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Restores a matcher for the given patterns whose index has been written by {@link #writeIndexTo(DataOutput)}, so
+	 * the literals of the patterns must not be extracted again.
+	 * 
+	 * @param in
+	 *            input to read the index from
+	 * @param patternToValueMap
+	 *            patterns and their associated values, which must be equal to the patterns of the written matcher
+	 * @return restored matcher
+	 * @throws IOException
+	 *             if the input can not be read or the index does not fit to the given patterns
+	 * @throws net.sf.qualitycheck.exception.IllegalNullArgumentException
+	 *             if one of the given arguments is {@code null}
+	 */
+	@Nonnull
+	public static <P extends OrderedPattern<P>, V> PrefilteredPatternMatcher<P, V> readIndexFrom(@Nonnull final DataInput in,
+			@Nonnull final SortedMap<P, V> patternToValueMap) throws IOException {
+		Check.notNull(in, "in");
+		Check.notNull(patternToValueMap, "patternToValueMap");
+
+		final int size = in.readInt();
+		if (size != patternToValueMap.size()) {
+			throw new IOException("The index of " + size + " patterns does not fit to " + patternToValueMap.size() + " patterns.");
+		}
+		final int[][][] requiredLiterals = new int[size][][];
+		for (int i = 0; i < size; i++) {
+			requiredLiterals[i] = new int[in.readInt()][];
+			for (int a = 0; a < requiredLiterals[i].length; a++) {
+				requiredLiterals[i][a] = readIndices(in);
+			}
+		}
+		final int[][] patternsByLiteral = new int[in.readInt()][];
+		for (int j = 0; j < patternsByLiteral.length; j++) {
+			patternsByLiteral[j] = readIndices(in);
+		}
+		final long[] words = new long[in.readInt()];
+		for (int i = 0; i < words.length; i++) {
+			words[i] = in.readLong();
+		}
+		final LiteralScanner scanner = LiteralScanner.readFrom(in);
+		if (scanner.getLiteralCount() != patternsByLiteral.length) {
+			throw new IOException("The index of the literals is inconsistent.");
+		}
+		return new PrefilteredPatternMatcher<P, V>(patternToValueMap, requiredLiterals, patternsByLiteral, BitSet.valueOf(words),
+				scanner);
+	}
+
+	@Nonnull
+	private static int[] readIndices(@Nonnull final DataInput in) throws IOException {
+		final int length = in.readInt();
+		if (length == 0) {
+			return EMPTY_INDICES;
+		}
+		final int[] indices = new int[length];
+		for (int i = 0; i < length; i++) {
+			indices[i] = in.readInt();
+		}
+		return indices;
+	}
+
+	@Nonnull
+	private static int[] toArray(@Nonnull final List<Integer> list) {
+		final int[] array = new int[list.size()];
+		for (int i = 0; i < array.length; i++) {
+			array[i] = list.get(i).intValue();
+		}
+		return array;
+	}
+
+	private static void writeIndices(@Nonnull final int[] indices, @Nonnull final DataOutput out) throws IOException {
+		out.writeInt(indices.length);
+		for (final int index : indices) {
+			out.writeInt(index);
+		}
+	}
+
+	/**
+	 * Indices of the patterns which must be checked when a literal was found, only the rarest literal of each
+	 * alternative of a pattern refers to it
+	 */
+	@Nonnull
+	private final int[][] patternsByLiteral;
+
+	@Nonnull
+	private final P[] patterns;
+
+	/**
+	 * Alternatives of indices of literals per pattern, all literals of at least one alternative must be found before a
+	 * pattern will be run
+	 */
+	@Nonnull
+	private final int[][][] requiredLiterals;
+
+	@Nonnull
+	private final LiteralScanner scanner;
+
+	/**
+	 * Working memory per thread, it will be created on first use (also after deserialization)
+	 */
+	@Nullable
+	private transient volatile ThreadLocal<Scratch> scratch;
+
+	/**
+	 * Indices of all patterns without extractable literals, these patterns must always be run
+	 */
+	@Nonnull
+	private final BitSet unfiltered;
+
+	@Nonnull
+	private final V[] values;
+
+	/**
+	 * Constructs a new {@code PrefilteredPatternMatcher} with the given patterns. The order of the map defines the order
+	 * in which the patterns will be tried.
+	 * 
+	 * @param patternToValueMap
+	 *            patterns and their associated values
+	 * @throws net.sf.qualitycheck.exception.IllegalNullArgumentException
+	 *             if the given argument is {@code null}
+	 */
+	@SuppressWarnings("unchecked")
+	public PrefilteredPatternMatcher(@Nonnull final SortedMap<P, V> patternToValueMap) {
+		Check.notNull(patternToValueMap, "patternToValueMap");
+
+		final int size = patternToValueMap.size();
+		patterns = (P[]) new OrderedPattern<?>[size];
+		values = (V[]) new Object[size];
+		requiredLiterals = new int[size][][];
+		unfiltered = new BitSet(size);
+
+		// extract the literals of all patterns
+		final List<String> literals = new ArrayList<String>();
+		final Map<String, Integer> literalIndices = new HashMap<String, Integer>();
+		final List<Integer> usage = new ArrayList<Integer>();
+		int i = 0;
+		for (final Entry<P, V> entry : patternToValueMap.entrySet()) {
+			patterns[i] = entry.getKey();
+			values[i] = entry.getValue();
+			final List<List<String>> extracted = LiteralExtractor.extract(entry.getKey().getPattern());
+			requiredLiterals[i] = new int[extracted.size()][];
+			for (int a = 0; a < extracted.size(); a++) {
+				final List<String> alternative = extracted.get(a);
+				requiredLiterals[i][a] = new int[alternative.size()];
+				for (int j = 0; j < alternative.size(); j++) {
+					Integer index = literalIndices.get(alternative.get(j));
+					if (index == null) {
+						index = literals.size();
+						literals.add(alternative.get(j));
+						literalIndices.put(alternative.get(j), index);
+						usage.add(0);
+					}
+					usage.set(index, usage.get(index) + 1);
+					requiredLiterals[i][a][j] = index;
+				}
+			}
+			if (extracted.isEmpty()) {
+				unfiltered.set(i);
+			}
+			i++;
+		}
+		scanner = new LiteralScanner(literals);
+
+		// assign each alternative of a pattern to its rarest literal, which is most likely the best filter criterion
+		final List<List<Integer>> assignments = new ArrayList<List<Integer>>(literals.size());
+		for (int j = 0; j < literals.size(); j++) {
+			assignments.add(new ArrayList<Integer>(1));
+		}
+		for (int p = 0; p < size; p++) {
+			for (final int[] alternative : requiredLiterals[p]) {
+				int rarest = -1;
+				for (final int literal : alternative) {
+					if (rarest < 0 || usage.get(literal) < usage.get(rarest) || usage.get(literal).equals(usage.get(rarest))
+							&& literals.get(literal).length() > literals.get(rarest).length()) {
+						rarest = literal;
+					}
+				}
+				final List<Integer> assigned = assignments.get(rarest);
+				if (assigned.isEmpty() || assigned.get(assigned.size() - 1).intValue() != p) {
+					assigned.add(p);
+				}
+			}
+		}
+		patternsByLiteral = new int[literals.size()][];
+		for (int j = 0; j < literals.size(); j++) {
+			patternsByLiteral[j] = assignments.get(j).isEmpty() ? EMPTY_INDICES : toArray(assignments.get(j));
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private PrefilteredPatternMatcher(@Nonnull final SortedMap<P, V> patternToValueMap, @Nonnull final int[][][] requiredLiterals,
+			@Nonnull final int[][] patternsByLiteral, @Nonnull final BitSet unfiltered, @Nonnull final LiteralScanner scanner) {
+		final int size = patternToValueMap.size();
+		patterns = (P[]) new OrderedPattern<?>[size];
+		values = (V[]) new Object[size];
+		int i = 0;
+		for (final Entry<P, V> entry : patternToValueMap.entrySet()) {
+			patterns[i] = entry.getKey();
+			values[i] = entry.getValue();
+			i++;
+		}
+		this.requiredLiterals = requiredLiterals;
+		this.patternsByLiteral = patternsByLiteral;
+		this.unfiltered = unfiltered;
+		this.scanner = scanner;
+	}
+
+	@Nullable
+	@Override
+	public PatternMatch<P, V> find(@Nonnull final String text) {
+		return find(text, null);
+	}
+
+	@Nullable
+	@Override
+	public PatternMatch<P, V> find(@Nonnull final String text, @Nullable final LongAdder evaluated) {
+		Check.notNull(text, "text");
+
+		final Scratch s = getScratch();
+		final BitSet found = s.found;
+		scanner.scan(text, found);
+		final BitSet candidates = s.candidates;
+		candidates.clear();
+		candidates.or(unfiltered);
+		for (int literal = found.nextSetBit(0); literal >= 0; literal = found.nextSetBit(literal + 1)) {
+			for (final int pattern : patternsByLiteral[literal]) {
+				candidates.set(pattern);
+			}
+		}
+
+		// the candidates will be visited in the order of the patterns
+		int runs = 0;
+		for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+			if (unfiltered.get(i) || isAnyAlternativeFound(requiredLiterals[i], found)) {
+				runs++;
+				Matcher matcher = s.matchers[i];
+				if (matcher == null) {
+					matcher = patterns[i].getPattern().matcher(text);
+					s.matchers[i] = matcher;
+				} else {
+					matcher.reset(text);
+				}
+				if (matcher.find()) {
+					if (evaluated != null) {
+						evaluated.add(runs);
+					}
+					return new PatternMatch<P, V>(patterns[i], values[i], matcher);
+				}
+			}
+		}
+		if (evaluated != null) {
+			evaluated.add(runs);
+		}
+		return null;
+	}
+
+	@Nonnull
+	private Scratch getScratch() {
+		ThreadLocal<Scratch> local = scratch;
+		if (local == null) {
+			synchronized (this) {
+				local = scratch;
+				if (local == null) {
+					local = new ThreadLocal<Scratch>();
+					scratch = local;
+				}
+			}
+		}
+		Scratch s = local.get();
+		if (s == null) {
+			s = new Scratch(patterns.length, scanner.getLiteralCount());
+			local.set(s);
+		}
+		return s;
+	}
+
+	@Override
+	public int size() {
+		return patterns.length;
+	}
+
+	/**
+	 * Writes the index of this matcher, which contains the extracted literals of all patterns, to the given output.
+	 * The patterns and values itself will not be written.
+	 * 
+	 * @param out
+	 *            output to write to
+	 * @throws IOException
+	 *             if the output can not be written
+	 * @throws net.sf.qualitycheck.exception.IllegalNullArgumentException
+	 *             if the given argument is {@code null}
+	 */
+	public void writeIndexTo(@Nonnull final DataOutput out) throws IOException {
+		Check.notNull(out, "out");
+
+		out.writeInt(patterns.length);
+		for (final int[][] alternatives : requiredLiterals) {
+			out.writeInt(alternatives.length);
+			for (final int[] literals : alternatives) {
+				writeIndices(literals, out);
+			}
+		}
+		out.writeInt(patternsByLiteral.length);
+		for (final int[] indices : patternsByLiteral) {
+			writeIndices(indices, out);
+		}
+		final long[] words = unfiltered.toLongArray();
+		out.writeInt(words.length);
+		for (final long word : words) {
+			out.writeLong(word);
+		}
+		scanner.writeTo(out);
+	}
+
+}
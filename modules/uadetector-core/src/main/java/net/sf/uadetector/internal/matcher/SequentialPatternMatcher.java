@@ -0,0 +1,106 @@
+/*******************************************************************************
+ * Copyright 2014 André Rouél
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package net.sf.uadetector.internal.matcher;
+
+import java.io.Serializable;
+import java.util.Map.Entry;
+import java.util.SortedMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+
+import net.sf.qualitycheck.Check;
+import net.sf.uadetector.internal.data.domain.OrderedPattern;
+
+/**
+ * A {@code PatternMatcher} which runs all patterns one after another until a pattern can be found in the text.
+ * 
+ * @param <P>
+ *            type of the ordered pattern
+ * @param <V>
+ *            type of the value which is associated with a pattern
+ * 
+ * @author André Rouél
+ */
+@Immutable
+public final class SequentialPatternMatcher<P extends OrderedPattern<P>, V> implements PatternMatcher<P, V>, Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	@Nonnull
+	private final P[] patterns;
+
+	@Nonnull
+	private final V[] values;
+
+	/**
+	 * Constructs a new {@code SequentialPatternMatcher} with the given patterns. The order of the map defines the order
+	 * in which the patterns will be tried.
+	 * 
+	 * @param patternToValueMap
+	 *            patterns and their associated values
+	 * @throws net.sf.qualitycheck.exception.IllegalNullArgumentException
+	 *             if the given argument is {@code null}
+	 */
+	@SuppressWarnings("unchecked")
+	public SequentialPatternMatcher(@Nonnull final SortedMap<P, V> patternToValueMap) {
+		Check.notNull(patternToValueMap, "patternToValueMap");
+
+		patterns = (P[]) new OrderedPattern<?>[patternToValueMap.size()];
+		values = (V[]) new Object[patternToValueMap.size()];
+		int i = 0;
+		for (final Entry<P, V> entry : patternToValueMap.entrySet()) {
+			patterns[i] = entry.getKey();
+			values[i] = entry.getValue();
+			i++;
+		}
+	}
+
+	@Nullable
+	@Override
+	public PatternMatch<P, V> find(@Nonnull final String text) {
+		return find(text, null);
+	}
+
+	@Nullable
+	@Override
+	public PatternMatch<P, V> find(@Nonnull final String text, @Nullable final LongAdder evaluated) {
+		Check.notNull(text, "text");
+
+		for (int i = 0; i < patterns.length; i++) {
+			final Matcher matcher = patterns[i].getPattern().matcher(text);
+			if (matcher.find()) {
+				if (evaluated != null) {
+					evaluated.add(i + 1);
+				}
+				return new PatternMatch<P, V>(patterns[i], values[i], matcher);
+			}
+		}
+		if (evaluated != null) {
+			evaluated.add(patterns.length);
+		}
+		return null;
+	}
+
+	@Override
+	public int size() {
+		return patterns.length;
+	}
+
+}
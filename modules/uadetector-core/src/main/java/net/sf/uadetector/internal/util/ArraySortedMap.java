@@ -0,0 +1,233 @@
+/*******************************************************************************
+ * Copyright 2014 André Rouél
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package net.sf.uadetector.internal.util;
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.Immutable;
+
+import net.sf.qualitycheck.Check;
+
+/**
+ * An <i>immutable</i> sorted map which holds its keys in natural order and their values within two parallel arrays.
+ * <p>
+ * In contrast to a {@link TreeMap} no node will be allocated per entry, a lookup is a binary search and all submaps,
+ * key sets and value collections are views on the same arrays, therefore it needs considerably less memory for the
+ * large and never modified tables of <em>UAS data</em>.
+ * 
+ * @param <K>
+ *            type of the keys
+ * @param <V>
+ *            type of the values
+ * 
+ * @author André Rouél
+ */
+@Immutable
+public final class ArraySortedMap<K extends Comparable<? super K>, V> extends AbstractMap<K, V> implements SortedMap<K, V>,
+		Serializable {
+
+	private static final long serialVersionUID = 4474457404546137862L;
+
+	/**
+	 * Creates a sorted map which contains all entries of the given map. If the given map is already an instance of this
+	 * class it will be returned as is.
+	 * 
+	 * @param map
+	 *            map of entries
+	 * @return an immutable sorted map with all entries of the given map
+	 */
+	@Nonnull
+	@SuppressWarnings("unchecked")
+	public static <K extends Comparable<? super K>, V> ArraySortedMap<K, V> copyOf(@Nonnull final Map<K, ? extends V> map) {
+		Check.notNull(map, "map");
+		if (map instanceof ArraySortedMap<?, ?>) {
+			return (ArraySortedMap<K, V>) map;
+		}
+		final Map<K, ? extends V> sorted = isNaturallySorted(map) ? map : new TreeMap<K, V>(map);
+		final Object[] keys = new Object[sorted.size()];
+		final Object[] values = new Object[sorted.size()];
+		int index = 0;
+		for (final Entry<K, ? extends V> entry : sorted.entrySet()) {
+			keys[index] = entry.getKey();
+			values[index] = entry.getValue();
+			index++;
+		}
+		return new ArraySortedMap<K, V>(keys, values, 0, keys.length);
+	}
+
+	private static boolean isNaturallySorted(@Nonnull final Map<?, ?> map) {
+		return map instanceof SortedMap<?, ?> && ((SortedMap<?, ?>) map).comparator() == null;
+	}
+
+	@Nonnull
+	private final Object[] keys;
+
+	@Nonnegative
+	private final int from;
+
+	@Nonnegative
+	private final int to;
+
+	@Nonnull
+	private final Object[] values;
+
+	private ArraySortedMap(@Nonnull final Object[] keys, @Nonnull final Object[] values, @Nonnegative final int from,
+			@Nonnegative final int to) {
+		this.keys = keys;
+		this.values = values;
+		this.from = from;
+		this.to = to;
+	}
+
+	/**
+	 * Returns {@code null}, because the keys are in natural order.
+	 */
+	@Override
+	public Comparator<? super K> comparator() {
+		return null;
+	}
+
+	@Override
+	public boolean containsKey(final Object key) {
+		return ArraySortedSet.indexOf(keys, from, to, key) >= 0;
+	}
+
+	@Override
+	public Set<Entry<K, V>> entrySet() {
+		return new AbstractSet<Entry<K, V>>() {
+
+			@Override
+			public Iterator<Entry<K, V>> iterator() {
+				return new Iterator<Entry<K, V>>() {
+
+					private int index = from;
+
+					@Override
+					public boolean hasNext() {
+						return index < to;
+					}
+
+					@Override
+					public Entry<K, V> next() {
+						if (index >= to) {
+							throw new NoSuchElementException();
+						}
+						final Entry<K, V> entry = new SimpleImmutableEntry<K, V>(getKey(index), getValue(index));
+						index++;
+						return entry;
+					}
+
+					@Override
+					public void remove() {
+						throw new UnsupportedOperationException();
+					}
+
+				};
+			}
+
+			@Override
+			public int size() {
+				return ArraySortedMap.this.size();
+			}
+
+		};
+	}
+
+	@Override
+	public K firstKey() {
+		if (isEmpty()) {
+			throw new NoSuchElementException();
+		}
+		return getKey(from);
+	}
+
+	@Override
+	public V get(final Object key) {
+		final int index = ArraySortedSet.indexOf(keys, from, to, key);
+		return index >= 0 ? getValue(index) : null;
+	}
+
+	@SuppressWarnings("unchecked")
+	private K getKey(@Nonnegative final int index) {
+		return (K) keys[index];
+	}
+
+	@SuppressWarnings("unchecked")
+	private V getValue(@Nonnegative final int index) {
+		return (V) values[index];
+	}
+
+	@Override
+	public SortedMap<K, V> headMap(final K toKey) {
+		return new ArraySortedMap<K, V>(keys, values, from, ArraySortedSet.indexOfCeiling(keys, from, to, toKey));
+	}
+
+	@Override
+	public Set<K> keySet() {
+		return new ArraySortedSet<K>(keys, from, to);
+	}
+
+	@Override
+	public K lastKey() {
+		if (isEmpty()) {
+			throw new NoSuchElementException();
+		}
+		return getKey(to - 1);
+	}
+
+	@Override
+	public int size() {
+		return to - from;
+	}
+
+	@Override
+	public SortedMap<K, V> subMap(final K fromKey, final K toKey) {
+		Check.notNull(fromKey, "fromKey");
+		Check.notNull(toKey, "toKey");
+		if (fromKey.compareTo(toKey) > 0) {
+			throw new IllegalArgumentException("fromKey must not be greater than toKey");
+		}
+		return new ArraySortedMap<K, V>(keys, values, ArraySortedSet.indexOfCeiling(keys, from, to, fromKey),
+				ArraySortedSet.indexOfCeiling(keys, from, to, toKey));
+	}
+
+	@Override
+	public SortedMap<K, V> tailMap(final K fromKey) {
+		return new ArraySortedMap<K, V>(keys, values, ArraySortedSet.indexOfCeiling(keys, from, to, fromKey), to);
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public Collection<V> values() {
+		return Collections.unmodifiableList((List<V>) (List<?>) Arrays.asList(values).subList(from, to));
+	}
+
+}
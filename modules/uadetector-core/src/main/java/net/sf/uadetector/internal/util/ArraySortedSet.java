@@ -0,0 +1,208 @@
+/*******************************************************************************
+ * Copyright 2014 André Rouél
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package net.sf.uadetector.internal.util;
+
+import java.io.Serializable;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+
+import net.sf.qualitycheck.Check;
+
+/**
+ * An <i>immutable</i> sorted set which holds its elements in natural order within an array.
+ * <p>
+ * In contrast to a {@link TreeSet} no node will be allocated per element, a lookup is a binary search and all subsets
+ * are views on the same array, therefore it needs considerably less memory for the large and never modified tables of
+ * <em>UAS data</em>.
+ * 
+ * @param <E>
+ *            type of the elements
+ * 
+ * @author André Rouél
+ */
+@Immutable
+public final class ArraySortedSet<E extends Comparable<? super E>> extends AbstractSet<E> implements SortedSet<E>, Serializable {
+
+	private static final long serialVersionUID = -1585394622478290306L;
+
+	/**
+	 * Creates a sorted set which contains all elements of the given collection. If the given collection is already an
+	 * instance of this class it will be returned as is.
+	 * 
+	 * @param elements
+	 *            collection of elements
+	 * @return an immutable sorted set with all elements of the given collection
+	 */
+	@Nonnull
+	@SuppressWarnings("unchecked")
+	public static <E extends Comparable<? super E>> ArraySortedSet<E> copyOf(@Nonnull final Collection<? extends E> elements) {
+		Check.notNull(elements, "elements");
+		if (elements instanceof ArraySortedSet<?>) {
+			return (ArraySortedSet<E>) elements;
+		}
+		final Object[] array = isNaturallySorted(elements) ? elements.toArray() : new TreeSet<E>(elements).toArray();
+		return new ArraySortedSet<E>(array, 0, array.length);
+	}
+
+	/**
+	 * Returns the index of the given element within the given sorted range or a negative value if it is not available.
+	 */
+	static int indexOf(@Nonnull final Object[] elements, @Nonnegative final int from, @Nonnegative final int to,
+			@Nullable final Object element) {
+		if (element == null) {
+			return -1;
+		}
+		try {
+			return Arrays.binarySearch(elements, from, to, element);
+		} catch (final ClassCastException e) {
+			return -1;
+		}
+	}
+
+	/**
+	 * Returns the index of the first element of the given sorted range which is not less than the given one.
+	 */
+	@Nonnegative
+	static int indexOfCeiling(@Nonnull final Object[] elements, @Nonnegative final int from, @Nonnegative final int to,
+			@Nonnull final Object element) {
+		Check.notNull(element, "element");
+		final int index = Arrays.binarySearch(elements, from, to, element);
+		return index >= 0 ? index : -(index + 1);
+	}
+
+	private static boolean isNaturallySorted(@Nonnull final Collection<?> elements) {
+		return elements instanceof SortedSet<?> && ((SortedSet<?>) elements).comparator() == null;
+	}
+
+	@Nonnull
+	private final Object[] elements;
+
+	@Nonnegative
+	private final int from;
+
+	@Nonnegative
+	private final int to;
+
+	ArraySortedSet(@Nonnull final Object[] elements, @Nonnegative final int from, @Nonnegative final int to) {
+		this.elements = elements;
+		this.from = from;
+		this.to = to;
+	}
+
+	/**
+	 * Returns {@code null}, because the elements are in natural order.
+	 */
+	@Override
+	public Comparator<? super E> comparator() {
+		return null;
+	}
+
+	@Override
+	public boolean contains(final Object element) {
+		return indexOf(elements, from, to, element) >= 0;
+	}
+
+	@Override
+	public E first() {
+		if (isEmpty()) {
+			throw new NoSuchElementException();
+		}
+		return get(from);
+	}
+
+	@SuppressWarnings("unchecked")
+	private E get(@Nonnegative final int index) {
+		return (E) elements[index];
+	}
+
+	@Override
+	public SortedSet<E> headSet(final E toElement) {
+		return new ArraySortedSet<E>(elements, from, indexOfCeiling(elements, from, to, toElement));
+	}
+
+	@Override
+	public Iterator<E> iterator() {
+		return new Iterator<E>() {
+
+			private int index = from;
+
+			@Override
+			public boolean hasNext() {
+				return index < to;
+			}
+
+			@Override
+			public E next() {
+				if (index >= to) {
+					throw new NoSuchElementException();
+				}
+				return get(index++);
+			}
+
+			@Override
+			public void remove() {
+				throw new UnsupportedOperationException();
+			}
+
+		};
+	}
+
+	@Override
+	public E last() {
+		if (isEmpty()) {
+			throw new NoSuchElementException();
+		}
+		return get(to - 1);
+	}
+
+	@Override
+	public int size() {
+		return to - from;
+	}
+
+	@Override
+	public SortedSet<E> subSet(final E fromElement, final E toElement) {
+		Check.notNull(fromElement, "fromElement");
+		Check.notNull(toElement, "toElement");
+		if (fromElement.compareTo(toElement) > 0) {
+			throw new IllegalArgumentException("fromElement must not be greater than toElement");
+		}
+		return new ArraySortedSet<E>(elements, indexOfCeiling(elements, from, to, fromElement), indexOfCeiling(elements, from, to,
+				toElement));
+	}
+
+	@Override
+	public SortedSet<E> tailSet(final E fromElement) {
+		return new ArraySortedSet<E>(elements, indexOfCeiling(elements, from, to, fromElement), to);
+	}
+
+	@Override
+	public Object[] toArray() {
+		return Arrays.copyOfRange(elements, from, to);
+	}
+
+}
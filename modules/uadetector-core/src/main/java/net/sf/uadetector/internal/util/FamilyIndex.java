@@ -0,0 +1,239 @@
+/*******************************************************************************
+ * Copyright 2014 André Rouél
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package net.sf.uadetector.internal.util;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+
+import net.sf.qualitycheck.Check;
+
+/**
+ * An index to look up the constants of a family enum (like {@code UserAgentFamily} or {@code OperatingSystemFamily}) by
+ * a family name.
+ * <p>
+ * A family name will be looked up by the name of a constant in a hash table first. If no constant has this name, the
+ * family name will be checked against the regular expressions of all constants at once using one combined pattern,
+ * the first constant whose expression matches the whole family name wins. Resolved family names will be remembered, so
+ * that the same family name has to be evaluated only once.
+ * 
+ * @param <E>
+ *            type of the family enum
+ * @author André Rouél
+ */
+@ThreadSafe
+public final class FamilyIndex<E extends Enum<E>> {
+
+	/**
+	 * Maximum number of remembered family names, further family names will be evaluated every time
+	 */
+	static final int MAX_MEMO_SIZE = 4096;
+
+	/**
+	 * Pattern to detect back references, which cannot be combined with other patterns because the group numbers change
+	 */
+	private static final Pattern BACK_REFERENCE = Pattern.compile("\\\\[1-9]");
+
+	/**
+	 * Combines the given patterns into one alternation, each pattern is enclosed by a capturing group.
+	 * 
+	 * @return the combined pattern or {@code null} if the patterns cannot be combined
+	 */
+	@Nullable
+	private static Pattern combine(@Nonnull final Pattern[] patterns, @Nonnull final int[] groups) {
+		final StringBuilder regex = new StringBuilder();
+		int group = 1;
+		for (int i = 0; i < patterns.length; i++) {
+			final Pattern pattern = patterns[i];
+			if (pattern.flags() != 0 && pattern.flags() != Pattern.CASE_INSENSITIVE || BACK_REFERENCE.matcher(pattern.pattern()).find()) {
+				return null;
+			}
+			if (i > 0) {
+				regex.append('|');
+			}
+			regex.append(pattern.flags() == 0 ? "(" : "((?i)").append(pattern.pattern()).append(')');
+			groups[i] = group;
+			group += 1 + pattern.matcher("").groupCount();
+		}
+		return Pattern.compile(regex.toString());
+	}
+
+	@Nonnull
+	private final E[] constants;
+
+	/**
+	 * Index of the capturing group of each constant within {@link #combinedPattern}
+	 */
+	@Nonnull
+	private final int[] groups;
+
+	/**
+	 * All patterns of the constants combined into one alternation or {@code null} if they cannot be combined
+	 */
+	@Nullable
+	private final Pattern combinedPattern;
+
+	private final boolean ignoreCase;
+
+	@Nonnull
+	private final ConcurrentMap<String, E> memo = new ConcurrentHashMap<String, E>();
+
+	@Nonnull
+	private final Map<String, E> names;
+
+	@Nonnull
+	private final Pattern[] patterns;
+
+	@Nonnull
+	private final E unknown;
+
+	/**
+	 * Constructs a new {@code FamilyIndex}.
+	 * 
+	 * @param constants
+	 *            constants of the family enum in order of evaluation
+	 * @param names
+	 *            name of each constant
+	 * @param patterns
+	 *            regular expression of each constant
+	 * @param ignoreCase
+	 *            whether names should be looked up case-insensitive
+	 * @param unknown
+	 *            constant to return if no constant matches
+	 * @throws net.sf.qualitycheck.exception.IllegalNullArgumentException
+	 *             if one of the given arguments is {@code null}
+	 * @throws net.sf.qualitycheck.exception.IllegalStateOfArgumentException
+	 *             if the number of names or patterns differs from the number of constants
+	 */
+	public FamilyIndex(@Nonnull final E[] constants, @Nonnull final String[] names, @Nonnull final Pattern[] patterns,
+			final boolean ignoreCase, @Nonnull final E unknown) {
+		Check.notNull(constants, "constants");
+		Check.notNull(names, "names");
+		Check.notNull(patterns, "patterns");
+		Check.notNull(unknown, "unknown");
+		Check.stateIsTrue(constants.length == names.length && constants.length == patterns.length,
+				"The number of names and patterns must match the number of constants.");
+
+		this.constants = constants.clone();
+		this.patterns = patterns.clone();
+		this.ignoreCase = ignoreCase;
+		this.unknown = unknown;
+
+		// the first constant with a name wins
+		final Map<String, E> index = new HashMap<String, E>(constants.length * 4 / 3 + 1);
+		for (int i = 0; i < constants.length; i++) {
+			final String key = toKey(names[i]);
+			if (!index.containsKey(key)) {
+				index.put(key, constants[i]);
+			}
+		}
+		this.names = index;
+
+		groups = new int[constants.length];
+		combinedPattern = combine(this.patterns, groups);
+	}
+
+	/**
+	 * Evaluates the given family name by name and, if no constant has this name, by pattern. The result will be
+	 * remembered.
+	 * 
+	 * @param family
+	 *            family name
+	 * @return the matching constant or the unknown constant
+	 * @throws net.sf.qualitycheck.exception.IllegalNullArgumentException
+	 *             if the given argument is {@code null}
+	 */
+	@Nonnull
+	public E evaluate(@Nonnull final String family) {
+		Check.notNull(family, "family");
+
+		E result = memo.get(family);
+		if (result == null) {
+			result = evaluateByName(family);
+			if (result == unknown) {
+				result = evaluateByPattern(family);
+			}
+			if (memo.size() < MAX_MEMO_SIZE) {
+				memo.put(family, result);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Looks up the constant with the given name.
+	 * 
+	 * @param family
+	 *            family name
+	 * @return the matching constant or the unknown constant
+	 * @throws net.sf.qualitycheck.exception.IllegalNullArgumentException
+	 *             if the given argument is {@code null}
+	 */
+	@Nonnull
+	public E evaluateByName(@Nonnull final String family) {
+		Check.notNull(family, "family");
+
+		final E result = names.get(toKey(family));
+		return result != null ? result : unknown;
+	}
+
+	/**
+	 * Looks up the first constant whose regular expression matches the whole given family name.
+	 * 
+	 * @param family
+	 *            family name
+	 * @return the matching constant or the unknown constant
+	 * @throws net.sf.qualitycheck.exception.IllegalNullArgumentException
+	 *             if the given argument is {@code null}
+	 */
+	@Nonnull
+	public E evaluateByPattern(@Nonnull final String family) {
+		Check.notNull(family, "family");
+
+		if (combinedPattern != null) {
+			final Matcher matcher = combinedPattern.matcher(family);
+			if (matcher.matches()) {
+				for (int i = 0; i < constants.length; i++) {
+					if (matcher.start(groups[i]) >= 0) {
+						return constants[i];
+					}
+				}
+			}
+			return unknown;
+		}
+
+		for (int i = 0; i < constants.length; i++) {
+			if (patterns[i].matcher(family).matches()) {
+				return constants[i];
+			}
+		}
+		return unknown;
+	}
+
+	@Nonnull
+	private String toKey(@Nonnull final String name) {
+		return ignoreCase ? name.toLowerCase(Locale.ENGLISH) : name;
+	}
+
+}
@@ -0,0 +1,185 @@
+/*******************************************************************************
+ * Copyright 2014 André Rouél
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package net.sf.uadetector.internal.util;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Pattern;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.Immutable;
+import javax.annotation.concurrent.ThreadSafe;
+
+import net.sf.qualitycheck.Check;
+
+/**
+ * A pool of compiled regular expressions which will be shared across all instances of <em>UAS data</em>.
+ * <p>
+ * Nearly all regular expressions stay unchanged between two versions of <em>UAS data</em>. Taking the compiled
+ * {@link Pattern} from this pool, a newer version of <em>UAS data</em> does not need to compile them again and shares
+ * them (and everything derived from them) with the older one, instead of holding a second copy during an update.
+ * <p>
+ * The pool references its patterns only weakly, so a pattern which is not used by any data anymore will be garbage
+ * collected and removed from the pool.
+ * 
+ * @author André Rouél
+ */
+@ThreadSafe
+public final class PatternPool {
+
+	/**
+	 * A weak reference to a pooled pattern which knows its key, to remove it from the pool after it has been collected
+	 */
+	private static final class Entry extends WeakReference<Pattern> {
+
+		@Nonnull
+		private final Key key;
+
+		Entry(@Nonnull final Key key, @Nonnull final Pattern pattern, @Nonnull final ReferenceQueue<Pattern> queue) {
+			super(pattern, queue);
+			this.key = key;
+		}
+
+	}
+
+	/**
+	 * Identifies a compiled pattern by its regular expression and flags
+	 */
+	@Immutable
+	private static final class Key {
+
+		@Nonnegative
+		private final int flags;
+
+		private final int hash;
+
+		@Nonnull
+		private final String regex;
+
+		Key(@Nonnull final String regex, @Nonnegative final int flags) {
+			this.regex = regex;
+			this.flags = flags;
+			hash = 31 * regex.hashCode() + flags;
+		}
+
+		@Override
+		public boolean equals(final Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+			final Key other = (Key) obj;
+			return flags == other.flags && regex.equals(other.regex);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+	}
+
+	/**
+	 * Pooled patterns by their regular expression and flags
+	 */
+	private static final ConcurrentMap<Key, Entry> PATTERNS = new ConcurrentHashMap<Key, Entry>();
+
+	/**
+	 * Queue of references to patterns which have been garbage collected
+	 */
+	private static final ReferenceQueue<Pattern> QUEUE = new ReferenceQueue<Pattern>();
+
+	/**
+	 * Gets the compiled pattern of the given regular expression and flags from the pool. If the pool does not contain it,
+	 * it will be compiled and added.
+	 * 
+	 * @param regex
+	 *            regular expression
+	 * @param flags
+	 *            match flags, see {@link Pattern#compile(String, int)}
+	 * @return a compiled pattern which can be shared
+	 * @throws net.sf.qualitycheck.exception.IllegalNullArgumentException
+	 *             if the given regular expression is {@code null}
+	 * @throws java.util.regex.PatternSyntaxException
+	 *             if the syntax of the expression is invalid
+	 */
+	@Nonnull
+	public static Pattern compile(@Nonnull final String regex, final int flags) {
+		Check.notNull(regex, "regex");
+		removeCollected();
+
+		final Key key = new Key(regex, flags);
+		final Entry entry = PATTERNS.get(key);
+		final Pattern pooled = entry != null ? entry.get() : null;
+		if (pooled != null) {
+			return pooled;
+		}
+
+		final Pattern pattern = Pattern.compile(regex, flags);
+		final Entry created = new Entry(key, pattern, QUEUE);
+		while (true) {
+			final Entry existing = PATTERNS.putIfAbsent(key, created);
+			if (existing == null) {
+				return pattern;
+			}
+
+			// another thread was faster or the existing pattern has been collected meanwhile
+			final Pattern other = existing.get();
+			if (other != null) {
+				return other;
+			}
+			if (PATTERNS.replace(key, existing, created)) {
+				return pattern;
+			}
+		}
+	}
+
+	/**
+	 * Removes the entries of all patterns which have been garbage collected.
+	 */
+	private static void removeCollected() {
+		Reference<? extends Pattern> reference;
+		while ((reference = QUEUE.poll()) != null) {
+			final Entry entry = (Entry) reference;
+			PATTERNS.remove(entry.key, entry);
+		}
+	}
+
+	/**
+	 * Gets the number of pooled patterns.
+	 * 
+	 * @return number of pooled patterns
+	 */
+	@Nonnegative
+	public static int size() {
+		removeCollected();
+		return PATTERNS.size();
+	}
+
+	/**
+	 * <strong>Attention:</strong> This class is not intended to create objects from it.
+	 */
+	private PatternPool() {
+		// This class is not intended to create objects from it.
+	}
+
+}
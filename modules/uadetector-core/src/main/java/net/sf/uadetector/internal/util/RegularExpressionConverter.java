@@ -277,6 +277,7 @@ public final class RegularExpressionConverter {
 	 * <br>
 	 * The leading and ending slash and the modifiers will be removed. The modifiers will be translated into equivalents
 	 * flags of <code>java.util.Pattern</code>. If there are modifiers that are not valid an exception will be thrown.
+	 * The compiled pattern will be taken from the {@link PatternPool}.
 	 * 
 	 * @param regex
 	 *            A PERL style regular expression
@@ -289,7 +290,8 @@ public final class RegularExpressionConverter {
 	/**
 	 * Converts a PERL style regular expression into Java style.<br>
 	 * <br>
-	 * The leading and ending slash and the modifiers will be removed.
+	 * The leading and ending slash and the modifiers will be removed. The compiled pattern will be taken from the
+	 * {@link PatternPool}.
 	 * 
 	 * @param regex
 	 *            A PERL style regular expression
@@ -312,7 +314,7 @@ public final class RegularExpressionConverter {
 		pattern = pattern.substring(0, lastIndex);
 
 		final int flags = Flag.convertToBitmask(Flag.parse(matcher.group(1)));
-		return Pattern.compile(pattern, flags);
+		return PatternPool.compile(pattern, flags);
 	}
 
 	/**
@@ -0,0 +1,260 @@
+/*******************************************************************************
+ * Copyright 2014 André Rouél
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package net.sf.uadetector.internal.util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+import net.sf.qualitycheck.Check;
+
+/**
+ * A bounded, thread-safe cache which evicts entries by a <i>segmented LRU</i> policy.
+ * <p>
+ * New entries will be added to a probationary segment. An entry which is requested again will be promoted to a
+ * protected segment, so that entries which are requested only once cannot push frequently requested entries out of the
+ * cache. When the protected segment is full, its least recently used entry will be demoted to the probationary
+ * segment, and when the cache is full, the least recently used entry of the probationary segment will be evicted.
+ * <p>
+ * To scale across many threads the cache is divided into stripes by the hash code of the keys, each stripe is guarded
+ * by its own lock and manages its own share of the maximum size.
+ * 
+ * @param <K>
+ *            type of the keys
+ * @param <V>
+ *            type of the values
+ * @author André Rouél
+ */
+@ThreadSafe
+public final class SegmentedLruCache<K, V> {
+
+	/**
+	 * A part of the cache which is guarded by its own lock
+	 */
+	private static final class Stripe<K, V> {
+
+		@Nonnegative
+		private final int capacity;
+
+		@GuardedBy("this")
+		private final LinkedHashMap<K, V> probation = new LinkedHashMap<K, V>(16, 0.75f, true);
+
+		@GuardedBy("this")
+		private final LinkedHashMap<K, V> protectedEntries = new LinkedHashMap<K, V>(16, 0.75f, true);
+
+		@Nonnegative
+		private final int protectedCapacity;
+
+		Stripe(@Nonnegative final int capacity) {
+			this.capacity = capacity;
+			protectedCapacity = capacity * PROTECTED_PERCENTAGE / 100;
+		}
+
+		synchronized void clear() {
+			probation.clear();
+			protectedEntries.clear();
+		}
+
+		private void evict() {
+			while (probation.size() + protectedEntries.size() > capacity) {
+				final Iterator<K> eldest = (probation.isEmpty() ? protectedEntries : probation).keySet().iterator();
+				eldest.next();
+				eldest.remove();
+			}
+		}
+
+		@Nullable
+		synchronized V get(@Nonnull final K key) {
+			final V value = protectedEntries.get(key);
+			if (value != null) {
+				return value;
+			}
+			final V candidate = probation.remove(key);
+			if (candidate != null) {
+				promote(key, candidate);
+			}
+			return candidate;
+		}
+
+		private void promote(@Nonnull final K key, @Nonnull final V value) {
+			if (protectedCapacity == 0) {
+				probation.put(key, value);
+				return;
+			}
+			protectedEntries.put(key, value);
+			if (protectedEntries.size() > protectedCapacity) {
+				// demote the least recently used protected entry
+				final Iterator<Map.Entry<K, V>> eldest = protectedEntries.entrySet().iterator();
+				final Map.Entry<K, V> entry = eldest.next();
+				eldest.remove();
+				probation.put(entry.getKey(), entry.getValue());
+			}
+		}
+
+		synchronized void put(@Nonnull final K key, @Nonnull final V value) {
+			if (capacity == 0) {
+				return;
+			}
+			if (protectedEntries.containsKey(key)) {
+				protectedEntries.put(key, value);
+			} else {
+				probation.put(key, value);
+				evict();
+			}
+		}
+
+		synchronized int size() {
+			return probation.size() + protectedEntries.size();
+		}
+
+	}
+
+	/**
+	 * Maximum number of stripes of a cache
+	 */
+	private static final int MAX_STRIPES = 16;
+
+	/**
+	 * Share of the capacity of a stripe (in percent) which is reserved for entries which were requested more than once
+	 */
+	private static final int PROTECTED_PERCENTAGE = 80;
+
+	/**
+	 * Minimum number of entries per stripe, small caches will be divided into less stripes
+	 */
+	private static final int MIN_STRIPE_CAPACITY = 64;
+
+	/**
+	 * Spreads the bits of the hash code of a key to select a stripe.
+	 */
+	private static int spread(final int hashCode) {
+		final int h = hashCode ^ hashCode >>> 16;
+		return h ^ h >>> 8;
+	}
+
+	@Nonnegative
+	private final int maximumSize;
+
+	/**
+	 * Bit mask to select a stripe by the hash code of a key
+	 */
+	private final int mask;
+
+	@Nonnull
+	private final Stripe<K, V>[] stripes;
+
+	/**
+	 * Constructs a new {@code SegmentedLruCache} which holds at most the given number of entries.
+	 * 
+	 * @param maximumSize
+	 *            maximum number of entries, if {@code 0} nothing will be cached
+	 * @throws net.sf.qualitycheck.exception.IllegalNegativeArgumentException
+	 *             if the given maximum size is negative
+	 */
+	@SuppressWarnings("unchecked")
+	public SegmentedLruCache(@Nonnegative final int maximumSize) {
+		Check.notNegative(maximumSize, "maximumSize");
+		this.maximumSize = maximumSize;
+
+		int count = 1;
+		while (count < MAX_STRIPES && count * 2 * MIN_STRIPE_CAPACITY <= maximumSize) {
+			count *= 2;
+		}
+		mask = count - 1;
+		stripes = new Stripe[count];
+		for (int i = 0; i < count; i++) {
+			// distribute the maximum size exactly over all stripes
+			stripes[i] = new Stripe<K, V>(maximumSize / count + (i < maximumSize % count ? 1 : 0));
+		}
+	}
+
+	/**
+	 * Removes all entries of this cache.
+	 */
+	public void clear() {
+		for (final Stripe<K, V> stripe : stripes) {
+			stripe.clear();
+		}
+	}
+
+	/**
+	 * Gets the value which is associated with the given key.
+	 * 
+	 * @param key
+	 *            key of an entry
+	 * @return the cached value or {@code null} if the key is not cached
+	 * @throws net.sf.qualitycheck.exception.IllegalNullArgumentException
+	 *             if the given argument is {@code null}
+	 */
+	@Nullable
+	public V get(@Nonnull final K key) {
+		Check.notNull(key, "key");
+		return stripeOf(key).get(key);
+	}
+
+	/**
+	 * Gets the maximum number of entries of this cache.
+	 * 
+	 * @return maximum number of entries
+	 */
+	@Nonnegative
+	public int getMaximumSize() {
+		return maximumSize;
+	}
+
+	/**
+	 * Associates the given value with the given key. If the cache is full, the least recently used entry of the
+	 * probationary segment will be evicted.
+	 * 
+	 * @param key
+	 *            key of an entry
+	 * @param value
+	 *            value of an entry
+	 * @throws net.sf.qualitycheck.exception.IllegalNullArgumentException
+	 *             if one of the given arguments is {@code null}
+	 */
+	public void put(@Nonnull final K key, @Nonnull final V value) {
+		Check.notNull(key, "key");
+		Check.notNull(value, "value");
+		stripeOf(key).put(key, value);
+	}
+
+	/**
+	 * Gets the current number of entries of this cache.
+	 * 
+	 * @return number of entries
+	 */
+	@Nonnegative
+	public int size() {
+		int size = 0;
+		for (final Stripe<K, V> stripe : stripes) {
+			size += stripe.size();
+		}
+		return size;
+	}
+
+	@Nonnull
+	private Stripe<K, V> stripeOf(@Nonnull final K key) {
+		return stripes[spread(key.hashCode()) & mask];
+	}
+
+}
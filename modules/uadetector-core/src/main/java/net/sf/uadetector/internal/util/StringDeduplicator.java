@@ -0,0 +1,69 @@
+/*******************************************************************************
+ * Copyright 2014 André Rouél
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package net.sf.uadetector.internal.util;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * A dictionary which returns always the same instance for equal strings, so that repeated values like producers, URLs
+ * or icons will be held only once in memory.
+ * <p>
+ * In contrast to {@link String#intern()} the dictionary is bound to the lifetime of its instance, therefore it should
+ * be used only while reading one set of <em>UAS data</em>.
+ * 
+ * @author André Rouél
+ */
+@NotThreadSafe
+public final class StringDeduplicator {
+
+	private final Map<String, String> strings = new HashMap<String, String>();
+
+	/**
+	 * Gets the instance of a string equal to the given one, which has been passed first.
+	 * 
+	 * @param value
+	 *            a string or {@code null}
+	 * @return the first passed instance of an equal string or {@code null} if {@code null} has been passed
+	 */
+	@Nullable
+	public String deduplicate(@Nullable final String value) {
+		if (value == null) {
+			return null;
+		}
+		final String existing = strings.get(value);
+		if (existing != null) {
+			return existing;
+		}
+		strings.put(value, value);
+		return value;
+	}
+
+	/**
+	 * Gets the number of distinct strings in this dictionary.
+	 * 
+	 * @return number of distinct strings
+	 */
+	@Nonnegative
+	public int size() {
+		return strings.size();
+	}
+
+}
@@ -20,6 +20,7 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.io.Reader;
 import java.net.MalformedURLException;
 import java.net.URL;
@@ -40,6 +41,11 @@ import net.sf.uadetector.exception.CanNotOpenStreamException;
  */
 public final class UrlUtil {
 
+	/**
+	 * Size of the buffer to copy the content of an {@code URL}
+	 */
+	private static final int BUFFER_SIZE = 8192;
+
 	/**
 	 * Creates an {@code URL} instance from the given {@code String} representation.<br>
 	 * <br>
@@ -65,6 +71,40 @@ public final class UrlUtil {
 		return ret;
 	}
 
+	/**
+	 * Copies the given stream, e.g. the content of an {@code URL}, byte by byte into the other stream without holding
+	 * the whole content in memory. The given input stream will be closed, the output stream not.
+	 * 
+	 * @param inputStream
+	 *            stream to read and close
+	 * @param outputStream
+	 *            stream to write the content into
+	 * @return number of copied bytes
+	 * @throws net.sf.qualitycheck.exception.IllegalNullArgumentException
+	 *             if any of the given arguments is {@code null}
+	 * @throws IOException
+	 *             if an I/O error occurs
+	 */
+	public static long copy(@Nonnull final InputStream inputStream, @Nonnull final OutputStream outputStream) throws IOException {
+		Check.notNull(inputStream, "inputStream");
+		Check.notNull(outputStream, "outputStream");
+
+		long count = 0;
+		boolean threw = true;
+		try {
+			final byte[] buffer = new byte[BUFFER_SIZE];
+			int read;
+			while ((read = inputStream.read(buffer)) != -1) {
+				outputStream.write(buffer, 0, read);
+				count += read;
+			}
+			threw = false;
+		} finally {
+			Closeables.close(inputStream, threw);
+		}
+		return count;
+	}
+
 	/**
 	 * Tries to open an {@link InputStream} to the given {@link URL}.
 	 * 
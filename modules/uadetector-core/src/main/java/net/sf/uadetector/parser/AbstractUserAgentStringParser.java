@@ -15,11 +15,15 @@
  ******************************************************************************/
 package net.sf.uadetector.parser;
 
-import java.util.Map.Entry;
-import java.util.regex.Matcher;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.regex.MatchResult;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
+import net.sf.qualitycheck.Check;
+import net.sf.uadetector.DetectionField;
 import net.sf.uadetector.DeviceCategory;
 import net.sf.uadetector.ReadableDeviceCategory.Category;
 import net.sf.uadetector.UserAgent;
@@ -35,9 +39,17 @@ import net.sf.uadetector.internal.data.domain.DevicePattern;
 import net.sf.uadetector.internal.data.domain.OperatingSystem;
 import net.sf.uadetector.internal.data.domain.OperatingSystemPattern;
 import net.sf.uadetector.internal.data.domain.Robot;
+import net.sf.uadetector.internal.jfr.FlightRecorderEvents;
+import net.sf.uadetector.internal.matcher.PatternMatch;
+import net.sf.uadetector.parser.ParserStatistics.Stage;
 
 public abstract class AbstractUserAgentStringParser implements UserAgentStringParser {
 
+	/**
+	 * All fields which can be detected by a parser
+	 */
+	private static final Set<DetectionField> ALL_FIELDS = EnumSet.allOf(DetectionField.class);
+
 	/**
 	 * The number of capturing groups if nothing matches
 	 */
@@ -46,139 +58,348 @@ public abstract class AbstractUserAgentStringParser implements UserAgentStringPa
 	/**
 	 * Examines the user agent string whether it is a browser.
 	 * 
-	 * @param userAgent
-	 *            String of an user agent
 	 * @param builder
 	 *            Builder for an user agent information
+	 * @param data
+	 *            UAS data which will be used for the analysis
+	 * @param fields
+	 *            requested fields
+	 * @param recorder
+	 *            receives the measurements of the analysis or {@code null} if nothing should be measured
+	 * @return the matching browser or {@code null} if no browser matches
 	 */
-	private static void examineAsBrowser(final UserAgent.Builder builder, final Data data) {
-		Matcher matcher;
-		VersionNumber version = VersionNumber.UNKNOWN;
-		for (final Entry<BrowserPattern, Browser> entry : data.getPatternToBrowserMap().entrySet()) {
-			matcher = entry.getKey().getPattern().matcher(builder.getUserAgentString());
-			if (matcher.find()) {
-
-				entry.getValue().copyTo(builder);
+	@Nullable
+	private static Browser examineAsBrowser(final UserAgent.Builder builder, final Data data, final Set<DetectionField> fields,
+			@Nullable final ParseRecorder recorder) {
+		final PatternMatch<BrowserPattern, Browser> match = findBrowser(builder, data, recorder, Stage.BROWSER);
+		if (match == null) {
+			return null;
+		}
 
-				// try to get the browser version from the first subgroup
-				if (matcher.groupCount() > ZERO_MATCHING_GROUPS) {
-					version = VersionNumber.parseVersion(matcher.group(1) != null ? matcher.group(1) : "");
-				}
-				builder.setVersionNumber(version);
+		final Browser browser = match.getValue();
+		if (fields.contains(DetectionField.BROWSER)) {
+			browser.copyTo(builder, false);
+		}
+		if (isOperatingSystemRequested(fields) && browser.getOperatingSystem() != null) {
+			browser.getOperatingSystem().copyTo(builder, fields.contains(DetectionField.OS_VERSION));
+		}
 
-				break;
+		if (fields.contains(DetectionField.BROWSER_VERSION)) {
+			// try to get the browser version from the first subgroup
+			VersionNumber version = VersionNumber.UNKNOWN;
+			final MatchResult result = match.getMatchResult();
+			if (result.groupCount() > ZERO_MATCHING_GROUPS) {
+				version = VersionNumber.parseVersion(result.group(1) != null ? result.group(1) : "");
 			}
+			builder.setVersionNumber(version);
 		}
+		return browser;
 	}
 
 	/**
 	 * Examines the user agent string whether it is a robot.
 	 * 
-	 * @param userAgent
-	 *            String of an user agent
 	 * @param builder
 	 *            Builder for an user agent information
+	 * @param data
+	 *            UAS data which will be used for the analysis
+	 * @param fields
+	 *            requested fields
 	 * @return {@code true} if it is a robot, otherwise {@code false}
 	 */
-	private static boolean examineAsRobot(final UserAgent.Builder builder, final Data data) {
-		boolean isRobot = false;
-		VersionNumber version;
-		for (final Robot robot : data.getRobots()) {
-			if (robot.getUserAgentString().equals(builder.getUserAgentString())) {
-				isRobot = true;
-				robot.copyTo(builder);
+	private static boolean examineAsRobot(final UserAgent.Builder builder, final Data data, final Set<DetectionField> fields) {
+		final Robot robot = data.findRobot(builder.getUserAgentString());
+		if (robot == null) {
+			return false;
+		}
 
-				// try to get the version from the last found group
-				version = VersionNumber.parseLastVersionNumber(robot.getName());
-				builder.setVersionNumber(version);
+		if (fields.contains(DetectionField.BROWSER)) {
+			robot.copyTo(builder);
+		} else if (fields.contains(DetectionField.ROBOT)) {
+			builder.setType(UserAgentType.ROBOT);
+		}
 
-				break;
-			}
+		if (fields.contains(DetectionField.BROWSER_VERSION)) {
+			// the version of a robot has been already extracted when loading the data
+			builder.setVersionNumber(data.findRobotUserAgent(builder.getUserAgentString()).getVersionNumber());
 		}
-		return isRobot;
+		return true;
 	}
 
 	/**
-	 * Examines the user agent string whether has a specific device category.
+	 * Classifies the device category of an user agent, which does not match any device pattern, by the type of the
+	 * given browser.
 	 * 
-	 * @param userAgent
-	 *            String of an user agent
 	 * @param builder
 	 *            Builder for an user agent information
+	 * @param data
+	 *            UAS data which will be used for the analysis
+	 * @param browser
+	 *            matching browser or {@code null} if no browser matches
 	 */
-	private static void examineDeviceCategory(final UserAgent.Builder builder, final Data data) {
-
-		// a robot will be classified as 'Other'
-		if (UserAgentType.ROBOT == builder.getType()) {
-			final DeviceCategory category = findDeviceCategoryByValue(Category.OTHER, data);
-			builder.setDeviceCategory(category);
-			return;
-		}
-
-		// classification depends on matching order
-		for (final Entry<DevicePattern, Device> entry : data.getPatternToDeviceMap().entrySet()) {
-			final Matcher matcher = entry.getKey().getPattern().matcher(builder.getUserAgentString());
-			if (matcher.find()) {
-				final Category category = Category.evaluate(entry.getValue().getName());
-				final DeviceCategory deviceCategory = findDeviceCategoryByValue(category, data);
-				builder.setDeviceCategory(deviceCategory);
-				return;
-			}
-		}
+	private static void classifyDeviceCategory(final UserAgent.Builder builder, final Data data, @Nullable final Browser browser) {
 
 		// an unknown user agent type should lead to an unknown device
-		if (UserAgentType.UNKNOWN == builder.getType()) {
+		final UserAgentType type = browser != null ? UserAgentType.evaluateByTypeName(browser.getType().getName())
+				: UserAgentType.UNKNOWN;
+		if (UserAgentType.UNKNOWN == type) {
 			builder.setDeviceCategory(DeviceCategory.EMPTY);
 			return;
 		}
 
 		// if no pattern is available but the type is Other, Library, Validator or UA Anonymizer
 		// than classify it as 'Other'
-		if (UserAgentType.OTHER == builder.getType() || UserAgentType.LIBRARY == builder.getType()
-				|| UserAgentType.VALIDATOR == builder.getType() || UserAgentType.USERAGENT_ANONYMIZER == builder.getType()) {
-			final DeviceCategory category = findDeviceCategoryByValue(Category.OTHER, data);
+		if (UserAgentType.OTHER == type || UserAgentType.LIBRARY == type || UserAgentType.VALIDATOR == type
+				|| UserAgentType.USERAGENT_ANONYMIZER == type) {
+			final DeviceCategory category = data.getDeviceCategory(Category.OTHER);
 			builder.setDeviceCategory(category);
 			return;
 		}
 
 		// if no pattern is available but the type is a mobile or WAP browser than classify it as 'Smartphone'
-		if (UserAgentType.MOBILE_BROWSER == builder.getType() || UserAgentType.WAP_BROWSER == builder.getType()) {
-			final DeviceCategory category = findDeviceCategoryByValue(Category.SMARTPHONE, data);
+		if (UserAgentType.MOBILE_BROWSER == type || UserAgentType.WAP_BROWSER == type) {
+			final DeviceCategory category = data.getDeviceCategory(Category.SMARTPHONE);
 			builder.setDeviceCategory(category);
 			return;
 		}
 
-		final DeviceCategory category = findDeviceCategoryByValue(Category.PERSONAL_COMPUTER, data);
+		final DeviceCategory category = data.getDeviceCategory(Category.PERSONAL_COMPUTER);
 		builder.setDeviceCategory(category);
 	}
 
+	/**
+	 * Examines the user agent string whether has a specific device category.
+	 * 
+	 * @param builder
+	 *            Builder for an user agent information
+	 * @param data
+	 *            UAS data which will be used for the analysis
+	 * @param recorder
+	 *            receives the measurements of the analysis or {@code null} if nothing should be measured
+	 * @return {@code true} if a device pattern matches, otherwise {@code false}
+	 */
+	private static boolean examineDeviceCategory(final UserAgent.Builder builder, final Data data,
+			@Nullable final ParseRecorder recorder) {
+
+		// classification depends on matching order
+		final PatternMatch<DevicePattern, Device> match = data.getDevicePatternMatcher().find(builder.getUserAgentString(),
+				recorder != null ? recorder.getEvaluated(Stage.DEVICE) : null);
+		if (match == null) {
+			return false;
+		}
+		if (recorder != null) {
+			recorder.countHit(Stage.DEVICE, match.getPattern());
+		}
+		builder.setDeviceCategory(data.getDeviceCategory(match.getValue().getCategory()));
+		return true;
+	}
+
 	/**
 	 * Examines the operating system of the user agent string, if not available.
 	 * 
-	 * @param userAgent
-	 *            String of an user agent
 	 * @param builder
 	 *            Builder for an user agent information
+	 * @param data
+	 *            UAS data which will be used for the analysis
+	 * @param withVersion
+	 *            whether the version number of the operating system should be extracted
+	 * @param recorder
+	 *            receives the measurements of the analysis or {@code null} if nothing should be measured
 	 */
-	private static void examineOperatingSystem(final UserAgent.Builder builder, final Data data) {
+	private static void examineOperatingSystem(final UserAgent.Builder builder, final Data data, final boolean withVersion,
+			@Nullable final ParseRecorder recorder) {
 		if (net.sf.uadetector.OperatingSystem.EMPTY.equals(builder.getOperatingSystem())) {
-			for (final Entry<OperatingSystemPattern, OperatingSystem> entry : data.getPatternToOperatingSystemMap().entrySet()) {
-				final Matcher matcher = entry.getKey().getPattern().matcher(builder.getUserAgentString());
-				if (matcher.find()) {
-					entry.getValue().copyTo(builder);
-					break;
+			final PatternMatch<OperatingSystemPattern, OperatingSystem> match = data.getOperatingSystemPatternMatcher().find(
+					builder.getUserAgentString(), recorder != null ? recorder.getEvaluated(Stage.OPERATING_SYSTEM) : null);
+			if (match != null) {
+				if (recorder != null) {
+					recorder.countHit(Stage.OPERATING_SYSTEM, match.getPattern());
 				}
+				match.getValue().copyTo(builder, withVersion);
 			}
 		}
 	}
 
-	private static DeviceCategory findDeviceCategoryByValue(@Nonnull final Category category, @Nonnull final Data data) {
-		for (final Device device : data.getDevices()) {
-			if (category == device.getCategory()) {
-				return new DeviceCategory(category, device.getIcon(), device.getInfoUrl(), device.getName());
+	/**
+	 * Searches the first matching browser pattern and records the search within the given stage.
+	 * 
+	 * @param builder
+	 *            Builder for an user agent information
+	 * @param data
+	 *            UAS data which will be used for the analysis
+	 * @param recorder
+	 *            receives the measurements of the analysis or {@code null} if nothing should be measured
+	 * @param stage
+	 *            stage which needs the browser
+	 * @return the first match or {@code null} if no browser pattern matches
+	 */
+	@Nullable
+	private static PatternMatch<BrowserPattern, Browser> findBrowser(final UserAgent.Builder builder, final Data data,
+			@Nullable final ParseRecorder recorder, final Stage stage) {
+		final PatternMatch<BrowserPattern, Browser> match = data.getBrowserPatternMatcher().find(builder.getUserAgentString(),
+				recorder != null ? recorder.getEvaluated(stage) : null);
+		if (recorder != null && match != null) {
+			recorder.countHit(stage, match.getPattern());
+		}
+		return match;
+	}
+
+	private static boolean isBrowserRequested(final Set<DetectionField> fields) {
+		return fields.contains(DetectionField.BROWSER) || fields.contains(DetectionField.BROWSER_VERSION)
+				|| isOperatingSystemRequested(fields);
+	}
+
+	private static boolean isOperatingSystemRequested(final Set<DetectionField> fields) {
+		return fields.contains(DetectionField.OS) || fields.contains(DetectionField.OS_VERSION);
+	}
+
+	/**
+	 * Detects only the requested informations about a network client based on a user agent string by using the given
+	 * <em>UAS data</em>.
+	 * 
+	 * @param userAgent
+	 *            user agent string
+	 * @param fields
+	 *            fields which should be detected
+	 * @param builder
+	 *            builder which receives the detected informations
+	 * @param data
+	 *            UAS data which will be used for the analysis
+	 * @return the given builder
+	 */
+	static UserAgent.Builder parseOnly(final String userAgent, final Set<DetectionField> fields, final UserAgent.Builder builder,
+			final Data data) {
+		return parseOnly(userAgent, fields, builder, data, (ParseRecorder) null);
+	}
+
+	/**
+	 * Detects only the requested informations about a network client based on a user agent string by using the given
+	 * <em>UAS data</em> and passes the measurements of the analysis to the given recorder.
+	 * 
+	 * @param userAgent
+	 *            user agent string
+	 * @param fields
+	 *            fields which should be detected
+	 * @param builder
+	 *            builder which receives the detected informations
+	 * @param data
+	 *            UAS data which will be used for the analysis
+	 * @param recorder
+	 *            receives the measurements of the analysis or {@code null} if nothing should be measured
+	 * @return the given builder
+	 */
+	static UserAgent.Builder parseOnly(final String userAgent, final Set<DetectionField> fields, final UserAgent.Builder builder,
+			final Data data, @Nullable final ParseRecorder recorder) {
+		builder.reset(userAgent);
+		long start = 0L;
+		if (recorder != null) {
+			recorder.countParse();
+			start = System.nanoTime();
+		}
+
+		// a robot must be always identified, because it will never be examined as browser or operating system
+		final boolean robot = examineAsRobot(builder, data, fields);
+		if (recorder != null) {
+			start = recorder.record(Stage.ROBOT, start);
+		}
+		if (robot) {
+			if (fields.contains(DetectionField.DEVICE)) {
+				// a robot will be classified as 'Other'
+				builder.setDeviceCategory(data.getDeviceCategory(Category.OTHER));
+			}
+			return builder;
+		}
+
+		final boolean browserRequested = isBrowserRequested(fields);
+		Browser browser = null;
+		if (browserRequested) {
+			browser = examineAsBrowser(builder, data, fields, recorder);
+			if (recorder != null) {
+				start = recorder.record(Stage.BROWSER, start);
+			}
+		}
+		if (isOperatingSystemRequested(fields)) {
+			examineOperatingSystem(builder, data, fields.contains(DetectionField.OS_VERSION), recorder);
+			if (recorder != null) {
+				start = recorder.record(Stage.OPERATING_SYSTEM, start);
 			}
 		}
-		return DeviceCategory.EMPTY;
+		if (fields.contains(DetectionField.DEVICE)) {
+			if (!examineDeviceCategory(builder, data, recorder)) {
+				if (!browserRequested) {
+					// the browser will be only needed to classify the device by its type
+					final PatternMatch<BrowserPattern, Browser> match = findBrowser(builder, data, recorder, Stage.DEVICE);
+					browser = match != null ? match.getValue() : null;
+				}
+				classifyDeviceCategory(builder, data, browser);
+			}
+			if (recorder != null) {
+				recorder.record(Stage.DEVICE, start);
+			}
+		}
+		return builder;
+	}
+
+	/**
+	 * Detects only the requested informations about a network client based on a user agent string by using the given
+	 * <em>UAS data</em>. If a flight recorder event has been started, the analysis will be measured to describe it
+	 * within the event.
+	 * 
+	 * @param userAgent
+	 *            user agent string
+	 * @param fields
+	 *            fields which should be detected
+	 * @param builder
+	 *            builder which receives the detected informations
+	 * @param data
+	 *            UAS data which will be used for the analysis
+	 * @param statistics
+	 *            statistics of the parser or {@code null} if they are disabled
+	 * @param event
+	 *            handle of a started flight recorder event or {@code null} if it is not enabled
+	 * @return the given builder
+	 */
+	private static UserAgent.Builder parseOnly(final String userAgent, final Set<DetectionField> fields,
+			final UserAgent.Builder builder, final Data data, @Nullable final ParserStatistics statistics, @Nullable final Object event) {
+		if (event == null) {
+			return parseOnly(userAgent, fields, builder, data, statistics);
+		}
+		final ParseTrace trace = new ParseTrace(statistics);
+		parseOnly(userAgent, fields, builder, data, trace);
+		trace.finish();
+		FlightRecorderEvents.endParse(event, userAgent, trace.getSlowestStage().name(), trace.getPatternsEvaluated());
+		return builder;
+	}
+
+	/**
+	 * Instrumentation of this parser or {@code null} if it is disabled
+	 */
+	@Nullable
+	private volatile ParserStatistics statistics;
+
+	/**
+	 * Stops recording statistics. Already collected statistics remain readable.
+	 */
+	public void disableStatistics() {
+		statistics = null;
+	}
+
+	/**
+	 * Starts recording statistics about the analysis of user agent strings by this parser. If the statistics are
+	 * already enabled, the current instance will be returned.
+	 * <p>
+	 * The statistics are disabled by default, a disabled parser does not measure anything.
+	 * 
+	 * @return statistics of this parser
+	 */
+	@Nonnull
+	public synchronized ParserStatistics enableStatistics() {
+		ParserStatistics current = statistics;
+		if (current == null) {
+			current = new ParserStatistics(getDataStore());
+			statistics = current;
+		}
+		return current;
 	}
 
 	/**
@@ -193,19 +414,81 @@ public abstract class AbstractUserAgentStringParser implements UserAgentStringPa
 		return getDataStore().getData().getVersion();
 	}
 
+	/**
+	 * Gets the statistics of this parser.
+	 * 
+	 * @return statistics or {@code null} if they are disabled
+	 */
+	@Nullable
+	public ParserStatistics getStatistics() {
+		return statistics;
+	}
+
 	@Override
 	public UserAgent parse(final String userAgent) {
-		final UserAgent.Builder builder = new UserAgent.Builder(userAgent);
+		return parseOnly(userAgent, ALL_FIELDS);
+	}
+
+	/**
+	 * Detects informations about a network client based on a user agent string and writes them into the given builder.
+	 * <p>
+	 * The builder will be reset before, so it can be reused for many user agent strings to avoid the allocation of
+	 * result objects. The builder implements {@link net.sf.uadetector.ReadableUserAgent}, the detected information is
+	 * identical to the result of {@link #parse(String)}.
+	 * 
+	 * @param userAgent
+	 *            user agent string
+	 * @param builder
+	 *            builder which receives the detected informations
+	 * @return the given builder
+	 * @throws net.sf.qualitycheck.exception.IllegalNullArgumentException
+	 *             if one of the given arguments is {@code null}
+	 */
+	@Override
+	public UserAgent.Builder parse(final String userAgent, final UserAgent.Builder builder) {
+		return parseOnly(userAgent, ALL_FIELDS, builder);
+	}
+
+	@Override
+	public UserAgent parseOnly(final String userAgent, final Set<DetectionField> fields) {
+		Check.notNull(fields, "fields");
 
 		// work during the analysis always with the same reference of data
 		final Data data = getDataStore().getData();
-
-		if (!examineAsRobot(builder, data)) {
-			examineAsBrowser(builder, data);
-			examineOperatingSystem(builder, data);
+		final ParserStatistics statistics = this.statistics;
+		final Object event = FlightRecorderEvents.beginParse();
+		if (statistics != null || event != null) {
+			return parseOnly(userAgent, fields, new UserAgent.Builder(), data, statistics, event).build();
 		}
-		examineDeviceCategory(builder, data);
-		return builder.build();
+
+		// the complete result of a robot has been already built when loading the data
+		final UserAgent robot = userAgent != null ? data.findRobotUserAgent(userAgent) : null;
+		return robot != null ? robot : parseOnly(userAgent, fields, new UserAgent.Builder(), data).build();
+	}
+
+	/**
+	 * Detects only the requested informations about a network client based on a user agent string and writes them
+	 * into the given builder.
+	 * <p>
+	 * The builder will be reset before, so it can be reused for many user agent strings. The values of the requested
+	 * fields are identical to the result of {@link #parse(String)}, all other fields may keep their default values.
+	 * 
+	 * @param userAgent
+	 *            user agent string
+	 * @param fields
+	 *            fields which should be detected
+	 * @param builder
+	 *            builder which receives the detected informations
+	 * @return the given builder
+	 * @throws net.sf.qualitycheck.exception.IllegalNullArgumentException
+	 *             if one of the given arguments is {@code null}
+	 */
+	public UserAgent.Builder parseOnly(final String userAgent, final Set<DetectionField> fields, final UserAgent.Builder builder) {
+		Check.notNull(fields, "fields");
+		Check.notNull(builder, "builder");
+
+		// work during the analysis always with the same reference of data
+		return parseOnly(userAgent, fields, builder, getDataStore().getData(), statistics, FlightRecorderEvents.beginParse());
 	}
 
 	@Override
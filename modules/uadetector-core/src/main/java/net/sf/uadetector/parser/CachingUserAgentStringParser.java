@@ -0,0 +1,212 @@
+/*******************************************************************************
+ * Copyright 2014 André Rouél
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package net.sf.uadetector.parser;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.PreDestroy;
+import javax.annotation.concurrent.Immutable;
+import javax.annotation.concurrent.ThreadSafe;
+
+import net.sf.qualitycheck.Check;
+import net.sf.uadetector.ReadableUserAgent;
+import net.sf.uadetector.UserAgent;
+import net.sf.uadetector.UserAgentStringParser;
+import net.sf.uadetector.internal.util.SegmentedLruCache;
+
+/**
+ * This parser decorates another {@code UserAgentStringParser} and caches the detected information of the most
+ * frequently parsed user agent strings.
+ * <p>
+ * The number of cached results is bounded, they will be evicted by a <i>segmented LRU</i> policy. The cache is bound
+ * to the version of the <em>UAS data</em> of the decorated parser, if a newer version is in use all cached results will
+ * be discarded automatically.
+ * 
+ * @author André Rouél
+ */
+@ThreadSafe
+public final class CachingUserAgentStringParser implements UserAgentStringParser {
+
+	/**
+	 * Cached results which were detected with a specific version of the <em>UAS data</em>
+	 */
+	@Immutable
+	private static final class VersionedCache {
+
+		@Nonnull
+		private final SegmentedLruCache<String, ReadableUserAgent> cache;
+
+		@Nonnull
+		private final String version;
+
+		VersionedCache(@Nonnull final String version, @Nonnegative final int maximumSize) {
+			this.version = version;
+			cache = new SegmentedLruCache<String, ReadableUserAgent>(maximumSize);
+		}
+
+	}
+
+	/**
+	 * Default maximum number of cached results
+	 */
+	public static final int DEFAULT_MAXIMUM_SIZE = 10000;
+
+	@Nonnull
+	private final AtomicReference<VersionedCache> current;
+
+	@Nonnegative
+	private final int maximumSize;
+
+	@Nonnull
+	private final UserAgentStringParser parser;
+
+	/**
+	 * Constructs a {@code CachingUserAgentStringParser} which caches at most {@link #DEFAULT_MAXIMUM_SIZE} results.
+	 * 
+	 * @param parser
+	 *            parser to be decorated
+	 * @throws net.sf.qualitycheck.exception.IllegalNullArgumentException
+	 *             if the given argument is {@code null}
+	 */
+	public CachingUserAgentStringParser(@Nonnull final UserAgentStringParser parser) {
+		this(parser, DEFAULT_MAXIMUM_SIZE);
+	}
+
+	/**
+	 * Constructs a {@code CachingUserAgentStringParser} which caches at most the given number of results.
+	 * 
+	 * @param parser
+	 *            parser to be decorated
+	 * @param maximumSize
+	 *            maximum number of cached results
+	 * @throws net.sf.qualitycheck.exception.IllegalNullArgumentException
+	 *             if the given parser is {@code null}
+	 * @throws net.sf.qualitycheck.exception.IllegalNegativeArgumentException
+	 *             if the given maximum size is negative
+	 */
+	public CachingUserAgentStringParser(@Nonnull final UserAgentStringParser parser, @Nonnegative final int maximumSize) {
+		Check.notNull(parser, "parser");
+		Check.notNegative(maximumSize, "maximumSize");
+
+		this.parser = parser;
+		this.maximumSize = maximumSize;
+		current = new AtomicReference<VersionedCache>(new VersionedCache(parser.getDataVersion(), maximumSize));
+	}
+
+	/**
+	 * Gets the number of currently cached results.
+	 * 
+	 * @return number of cached results
+	 */
+	@Nonnegative
+	public int getCacheSize() {
+		return current.get().cache.size();
+	}
+
+	@Override
+	public String getDataVersion() {
+		return parser.getDataVersion();
+	}
+
+	/**
+	 * Gets the maximum number of cached results.
+	 * 
+	 * @return maximum number of cached results
+	 */
+	@Nonnegative
+	public int getMaximumSize() {
+		return maximumSize;
+	}
+
+	/**
+	 * Gets the decorated parser.
+	 * 
+	 * @return decorated parser
+	 */
+	@Nonnull
+	public UserAgentStringParser getParser() {
+		return parser;
+	}
+
+	/**
+	 * Gets the cache for the given version of the <em>UAS data</em>, if the version changed the cached results will be
+	 * discarded.
+	 */
+	@Nonnull
+	private VersionedCache getCache(@Nonnull final String version) {
+		VersionedCache cache = current.get();
+		while (!cache.version.equals(version)) {
+			final VersionedCache newCache = new VersionedCache(version, maximumSize);
+			if (current.compareAndSet(cache, newCache)) {
+				return newCache;
+			}
+			cache = current.get();
+		}
+		return cache;
+	}
+
+	@Override
+	public ReadableUserAgent parse(final String userAgent) {
+		if (userAgent == null) {
+			return parser.parse(userAgent);
+		}
+
+		final String version = parser.getDataVersion();
+		final VersionedCache cache = getCache(version);
+		ReadableUserAgent result = cache.cache.get(userAgent);
+		if (result == null) {
+			result = parser.parse(userAgent);
+
+			// only cache the result if the data was not replaced in the meantime
+			if (version.equals(parser.getDataVersion()) && current.get() == cache) {
+				cache.cache.put(userAgent, result);
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public UserAgent.Builder parse(final String userAgent, final UserAgent.Builder builder) {
+		Check.notNull(builder, "builder");
+		if (userAgent == null) {
+			return parser.parse(userAgent, builder);
+		}
+
+		final String version = parser.getDataVersion();
+		final VersionedCache cache = getCache(version);
+		final ReadableUserAgent result = cache.cache.get(userAgent);
+		if (result != null) {
+			return builder.reset(userAgent).copyFrom(result);
+		}
+
+		parser.parse(userAgent, builder);
+
+		// only cache the result if the data was not replaced in the meantime
+		if (version.equals(parser.getDataVersion()) && current.get() == cache) {
+			cache.cache.put(userAgent, builder.build());
+		}
+		return builder;
+	}
+
+	@Override
+	@PreDestroy
+	public void shutdown() {
+		parser.shutdown();
+	}
+
+}
@@ -0,0 +1,200 @@
+/*******************************************************************************
+ * Copyright 2014 André Rouél
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package net.sf.uadetector.parser;
+
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.Immutable;
+
+import net.sf.qualitycheck.Check;
+import net.sf.uadetector.DetectionField;
+import net.sf.uadetector.UserAgent;
+import net.sf.uadetector.datastore.DataUpdateListener;
+import net.sf.uadetector.internal.data.Data;
+import net.sf.uadetector.internal.util.UrlUtil;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Warms up an instance of {@link Data} by parsing a corpus of user agent strings with it, before it will be used to
+ * answer requests.
+ * <p>
+ * The first parsings with newly loaded <em>UAS data</em> are much slower than the following ones, because pattern
+ * matchers, lazily built structures and the just-in-time compiled code of the parser are still cold. A warm-up moves
+ * these costs off the request path. The corpus should be representative, for example the most frequently requested
+ * user agent strings of an application.
+ * <p>
+ * Registered as {@link DataUpdateListener} at a {@link net.sf.uadetector.datastore.RefreshableDataStore}, new data
+ * will be warmed up within the update thread before it will be published. To warm up the data which is already in use,
+ * call {@link #warmUp(Data)} directly.
+ * 
+ * @author André Rouél
+ */
+@Immutable
+public final class DataWarmUp implements DataUpdateListener {
+
+	/**
+	 * All fields which can be detected by a parser
+	 */
+	private static final Set<DetectionField> ALL_FIELDS = EnumSet.allOf(DetectionField.class);
+
+	/**
+	 * Prefix of a line in a corpus which will be ignored
+	 */
+	private static final String COMMENT = "#";
+
+	/**
+	 * Corresponding default logger of this class
+	 */
+	private static final Logger LOG = LoggerFactory.getLogger(DataWarmUp.class);
+
+	/**
+	 * Message for the log when the warm-up has been finished<br>
+	 * <br>
+	 * <b>First placeholder</b>: version of the <em>UAS data</em><br>
+	 * <b>Second placeholder</b>: number of parsed user agent strings<br>
+	 * <b>Third placeholder</b>: duration in milliseconds
+	 */
+	private static final String MSG_WARMED_UP = "UAS data '%s' warmed up with %d user agent strings in %d ms.";
+
+	/**
+	 * A warm-up without any user agent strings, which does nothing
+	 */
+	public static final DataWarmUp NONE = new DataWarmUp(Collections.<String> emptyList());
+
+	/**
+	 * Reads a corpus of user agent strings from the given {@code URL}. Every line contains one user agent string,
+	 * empty lines and lines which start with {@code #} will be ignored.
+	 * 
+	 * @param url
+	 *            URL to a corpus
+	 * @param charset
+	 *            character set of the corpus
+	 * @return a warm-up which parses the read user agent strings
+	 * @throws net.sf.qualitycheck.exception.IllegalNullArgumentException
+	 *             if any of the given arguments is {@code null}
+	 * @throws net.sf.uadetector.exception.CanNotOpenStreamException
+	 *             if no stream to the given {@code URL} can be established
+	 * @throws IOException
+	 *             if the corpus can not be read
+	 */
+	@Nonnull
+	public static DataWarmUp read(@Nonnull final URL url, @Nonnull final Charset charset) throws IOException {
+		Check.notNull(url, "url");
+		Check.notNull(charset, "charset");
+
+		final List<String> userAgents = new ArrayList<String>();
+		for (final String line : UrlUtil.read(url, charset).split("\r?\n")) {
+			final String userAgent = line.trim();
+			if (!userAgent.isEmpty() && !userAgent.startsWith(COMMENT)) {
+				userAgents.add(userAgent);
+			}
+		}
+		return new DataWarmUp(userAgents);
+	}
+
+	/**
+	 * User agent strings which will be parsed during a warm-up
+	 */
+	@Nonnull
+	private final List<String> userAgents;
+
+	/**
+	 * Constructs a {@code DataWarmUp} which parses the given user agent strings. Elements which are {@code null} will
+	 * be ignored.
+	 * 
+	 * @param userAgents
+	 *            corpus of user agent strings
+	 * @throws net.sf.qualitycheck.exception.IllegalNullArgumentException
+	 *             if the given argument is {@code null}
+	 */
+	public DataWarmUp(@Nonnull final Collection<String> userAgents) {
+		Check.notNull(userAgents, "userAgents");
+		final List<String> copy = new ArrayList<String>(userAgents.size());
+		for (final String userAgent : userAgents) {
+			if (userAgent != null) {
+				copy.add(userAgent);
+			}
+		}
+		this.userAgents = Collections.unmodifiableList(copy);
+	}
+
+	/**
+	 * Does nothing, because the data has been already warmed up before.
+	 */
+	@Override
+	public void afterUpdate(@Nonnull final Data previous, @Nonnull final Data current) {
+		// nothing to do
+	}
+
+	/**
+	 * Warms up the data which will replace the current one.
+	 */
+	@Override
+	public void beforeUpdate(@Nonnull final Data current, @Nonnull final Data next) {
+		warmUp(next);
+	}
+
+	/**
+	 * Gets the user agent strings which will be parsed during a warm-up.
+	 * 
+	 * @return unmodifiable list of user agent strings
+	 */
+	@Nonnull
+	public List<String> getUserAgents() {
+		return userAgents;
+	}
+
+	/**
+	 * Parses all user agent strings of the corpus with the given <em>UAS data</em>, in the same way as an
+	 * {@link AbstractUserAgentStringParser} does it. The results will be discarded.
+	 * 
+	 * @param data
+	 *            <em>UAS data</em> to warm up
+	 * @throws net.sf.qualitycheck.exception.IllegalNullArgumentException
+	 *             if the given argument is {@code null}
+	 */
+	public void warmUp(@Nonnull final Data data) {
+		Check.notNull(data, "data");
+		if (userAgents.isEmpty()) {
+			return;
+		}
+
+		final long start = System.nanoTime();
+		final UserAgent.Builder builder = new UserAgent.Builder();
+		for (final String userAgent : userAgents) {
+			if (data.findRobotUserAgent(userAgent) == null) {
+				AbstractUserAgentStringParser.parseOnly(userAgent, ALL_FIELDS, builder, data).build();
+			}
+		}
+
+		if (LOG.isDebugEnabled()) {
+			final long millis = (System.nanoTime() - start) / 1000000L;
+			LOG.debug(String.format(MSG_WARMED_UP, data.getVersion(), userAgents.size(), millis));
+		}
+	}
+
+}
@@ -0,0 +1,59 @@
+/*******************************************************************************
+ * Copyright 2014 André Rouél
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package net.sf.uadetector.parser;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.Nonnull;
+
+import net.sf.uadetector.internal.data.domain.OrderedPattern;
+import net.sf.uadetector.parser.ParserStatistics.Stage;
+
+/**
+ * Receives the measurements of an {@link AbstractUserAgentStringParser} during the analysis of user agent strings.
+ * 
+ * @author André Rouél
+ */
+abstract class ParseRecorder {
+
+	/**
+	 * Counts a hit of the given pattern within the given stage.
+	 */
+	abstract void countHit(@Nonnull Stage stage, @Nonnull OrderedPattern<?> pattern);
+
+	/**
+	 * Counts the analysis of one user agent string.
+	 */
+	abstract void countParse();
+
+	/**
+	 * Gets the counter which receives the number of regular expressions run within the given stage.
+	 */
+	@Nonnull
+	abstract LongAdder getEvaluated(@Nonnull Stage stage);
+
+	/**
+	 * Records the run of the given stage which has been started at the given time.
+	 * 
+	 * @param stage
+	 *            finished stage
+	 * @param start
+	 *            value of {@link System#nanoTime()} at the start of the stage
+	 * @return the current value of {@link System#nanoTime()}, which can be used as start of the next stage
+	 */
+	abstract long record(@Nonnull Stage stage, long start);
+
+}
@@ -0,0 +1,124 @@
+/*******************************************************************************
+ * Copyright 2014 André Rouél
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package net.sf.uadetector.parser;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.NotThreadSafe;
+
+import net.sf.uadetector.internal.data.domain.OrderedPattern;
+import net.sf.uadetector.parser.ParserStatistics.Stage;
+
+/**
+ * Measures the analysis of a single user agent string to describe it within a flight recorder event. All measurements
+ * will be passed on to the statistics of the parser, if they are enabled.
+ * 
+ * @author André Rouél
+ */
+@NotThreadSafe
+final class ParseTrace extends ParseRecorder {
+
+	private static final Stage[] STAGES = Stage.values();
+
+	@Nonnull
+	private final LongAdder[] evaluated = new LongAdder[STAGES.length];
+
+	@Nonnull
+	private final long[] nanos = new long[STAGES.length];
+
+	@Nullable
+	private final ParserStatistics statistics;
+
+	ParseTrace(@Nullable final ParserStatistics statistics) {
+		this.statistics = statistics;
+		for (int i = 0; i < evaluated.length; i++) {
+			evaluated[i] = new LongAdder();
+		}
+	}
+
+	@Override
+	void countHit(@Nonnull final Stage stage, @Nonnull final OrderedPattern<?> pattern) {
+		if (statistics != null) {
+			statistics.countHit(stage, pattern);
+		}
+	}
+
+	@Override
+	void countParse() {
+		if (statistics != null) {
+			statistics.countParse();
+		}
+	}
+
+	/**
+	 * Passes the numbers of evaluated patterns on to the statistics of the parser. Must be called once after the
+	 * analysis.
+	 */
+	void finish() {
+		if (statistics != null) {
+			for (final Stage stage : STAGES) {
+				statistics.getEvaluated(stage).add(evaluated[stage.ordinal()].sum());
+			}
+		}
+	}
+
+	@Override
+	@Nonnull
+	LongAdder getEvaluated(@Nonnull final Stage stage) {
+		return evaluated[stage.ordinal()];
+	}
+
+	/**
+	 * Gets the number of regular expressions which have been run within all stages.
+	 * 
+	 * @return number of evaluated patterns
+	 */
+	@Nonnegative
+	long getPatternsEvaluated() {
+		long sum = 0L;
+		for (final LongAdder counter : evaluated) {
+			sum += counter.sum();
+		}
+		return sum;
+	}
+
+	/**
+	 * Gets the stage which took the most time.
+	 * 
+	 * @return slowest stage
+	 */
+	@Nonnull
+	Stage getSlowestStage() {
+		Stage slowest = Stage.ROBOT;
+		for (final Stage stage : STAGES) {
+			if (nanos[stage.ordinal()] > nanos[slowest.ordinal()]) {
+				slowest = stage;
+			}
+		}
+		return slowest;
+	}
+
+	@Override
+	long record(@Nonnull final Stage stage, final long start) {
+		final long now = statistics != null ? statistics.record(stage, start) : System.nanoTime();
+		nanos[stage.ordinal()] += now - start;
+		return now;
+	}
+
+}
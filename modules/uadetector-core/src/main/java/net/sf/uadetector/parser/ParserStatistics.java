@@ -0,0 +1,267 @@
+/*******************************************************************************
+ * Copyright 2014 André Rouél
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package net.sf.uadetector.parser;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.ThreadSafe;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import net.sf.qualitycheck.Check;
+import net.sf.uadetector.datastore.DataStore;
+import net.sf.uadetector.datastore.RefreshableDataStore;
+import net.sf.uadetector.internal.data.domain.OrderedPattern;
+
+/**
+ * Opt-in instrumentation of an {@link AbstractUserAgentStringParser}. It counts how often each pattern matches, how
+ * many regular expressions each stage of the analysis runs and how much time each stage takes.
+ * <p>
+ * All counters are {@link LongAdder}s, so that concurrently parsing threads do not contend for them. The statistics
+ * will be collected only after {@link AbstractUserAgentStringParser#enableStatistics()} has been called, a disabled
+ * parser does not measure anything. To watch the statistics with a JMX console, register them as MXBean:
+ * 
+ * <pre>
+ * ParserStatistics statistics = parser.enableStatistics();
+ * statistics.register(ManagementFactory.getPlatformMBeanServer(), &quot;default&quot;);
+ * </pre>
+ * 
+ * @author André Rouél
+ */
+@ThreadSafe
+public final class ParserStatistics extends ParseRecorder implements ParserStatisticsMXBean {
+
+	/**
+	 * Stages of the analysis of a user agent string
+	 */
+	public enum Stage {
+
+		/**
+		 * Lookup of a robot by the exact user agent string
+		 */
+		ROBOT,
+
+		/**
+		 * Search of the first matching browser pattern
+		 */
+		BROWSER,
+
+		/**
+		 * Search of the first matching operating system pattern
+		 */
+		OPERATING_SYSTEM,
+
+		/**
+		 * Search of the first matching device pattern and the classification by the type of the browser
+		 */
+		DEVICE
+
+	}
+
+	/**
+	 * Domain of the object names under which statistics will be registered
+	 */
+	public static final String DOMAIN = "net.sf.uadetector";
+
+	@Nonnull
+	private static LongAdder[] createCounters() {
+		final LongAdder[] counters = new LongAdder[Stage.values().length];
+		for (int i = 0; i < counters.length; i++) {
+			counters[i] = new LongAdder();
+		}
+		return counters;
+	}
+
+	@Nonnull
+	private static SortedMap<String, Long> sum(@Nonnull final ConcurrentMap<String, LongAdder> counters) {
+		final SortedMap<String, Long> sums = new TreeMap<String, Long>();
+		for (final Entry<String, LongAdder> entry : counters.entrySet()) {
+			sums.put(entry.getKey(), entry.getValue().sum());
+		}
+		return sums;
+	}
+
+	@Nonnull
+	private static SortedMap<String, Long> sum(@Nonnull final LongAdder[] counters) {
+		final SortedMap<String, Long> sums = new TreeMap<String, Long>();
+		for (final Stage stage : Stage.values()) {
+			sums.put(stage.name(), counters[stage.ordinal()].sum());
+		}
+		return sums;
+	}
+
+	@Nonnull
+	private final LongAdder[] calls = createCounters();
+
+	@Nonnull
+	private final DataStore dataStore;
+
+	@Nonnull
+	private final LongAdder[] evaluated = createCounters();
+
+	/**
+	 * Hits of patterns by their regular expression, for each stage which searches patterns
+	 */
+	@Nonnull
+	private final Map<Stage, ConcurrentMap<String, LongAdder>> hits = new EnumMap<Stage, ConcurrentMap<String, LongAdder>>(
+			Stage.class);
+
+	@Nonnull
+	private final LongAdder[] nanos = createCounters();
+
+	@Nonnull
+	private final LongAdder parses = new LongAdder();
+
+	/**
+	 * Constructs new statistics of a parser which analyzes with the <em>UAS data</em> of the given store.
+	 * 
+	 * @param dataStore
+	 *            data store of the parser
+	 * @throws net.sf.qualitycheck.exception.IllegalNullArgumentException
+	 *             if the given argument is {@code null}
+	 */
+	public ParserStatistics(@Nonnull final DataStore dataStore) {
+		this.dataStore = Check.notNull(dataStore, "dataStore");
+		hits.put(Stage.BROWSER, new ConcurrentHashMap<String, LongAdder>());
+		hits.put(Stage.OPERATING_SYSTEM, new ConcurrentHashMap<String, LongAdder>());
+		hits.put(Stage.DEVICE, new ConcurrentHashMap<String, LongAdder>());
+	}
+
+	@Override
+	void countHit(@Nonnull final Stage stage, @Nonnull final OrderedPattern<?> pattern) {
+		final ConcurrentMap<String, LongAdder> counters = hits.get(stage);
+		final String regex = pattern.getPattern().pattern();
+		LongAdder counter = counters.get(regex);
+		if (counter == null) {
+			final LongAdder created = new LongAdder();
+			counter = counters.putIfAbsent(regex, created);
+			if (counter == null) {
+				counter = created;
+			}
+		}
+		counter.increment();
+	}
+
+	@Override
+	void countParse() {
+		parses.increment();
+	}
+
+	@Override
+	public Map<String, Long> getBrowserPatternHits() {
+		return sum(hits.get(Stage.BROWSER));
+	}
+
+	@Override
+	public String getDataVersion() {
+		return dataStore.getData().getVersion();
+	}
+
+	@Override
+	public Map<String, Long> getDevicePatternHits() {
+		return sum(hits.get(Stage.DEVICE));
+	}
+
+	@Override
+	LongAdder getEvaluated(@Nonnull final Stage stage) {
+		return evaluated[stage.ordinal()];
+	}
+
+	@Override
+	public long getLastUpdateCheck() {
+		return dataStore instanceof RefreshableDataStore ? ((RefreshableDataStore) dataStore).getUpdateOperation().getLastUpdateCheck()
+				: 0L;
+	}
+
+	@Override
+	public Map<String, Long> getOperatingSystemPatternHits() {
+		return sum(hits.get(Stage.OPERATING_SYSTEM));
+	}
+
+	@Override
+	public long getParses() {
+		return parses.sum();
+	}
+
+	@Override
+	public Map<String, Long> getStageCalls() {
+		return sum(calls);
+	}
+
+	@Override
+	public Map<String, Long> getStageNanos() {
+		return sum(nanos);
+	}
+
+	@Override
+	public Map<String, Long> getStagePatternsEvaluated() {
+		return sum(evaluated);
+	}
+
+	@Override
+	long record(@Nonnull final Stage stage, final long start) {
+		final long now = System.nanoTime();
+		calls[stage.ordinal()].increment();
+		nanos[stage.ordinal()].add(now - start);
+		return now;
+	}
+
+	/**
+	 * Registers these statistics as MXBean under the object name
+	 * {@code net.sf.uadetector:type=ParserStatistics,name=<name>}.
+	 * 
+	 * @param server
+	 *            MBean server, typically {@link java.lang.management.ManagementFactory#getPlatformMBeanServer()}
+	 * @param name
+	 *            name which distinguishes the statistics of different parsers
+	 * @return the object name under which the statistics have been registered
+	 * @throws JMException
+	 *             if the statistics cannot be registered, for example if the name is already in use
+	 * @throws net.sf.qualitycheck.exception.IllegalNullArgumentException
+	 *             if one of the given arguments is {@code null}
+	 */
+	@Nonnull
+	public ObjectName register(@Nonnull final MBeanServer server, @Nonnull final String name) throws JMException {
+		Check.notNull(server, "server");
+		Check.notNull(name, "name");
+		final ObjectName objectName = new ObjectName(DOMAIN + ":type=ParserStatistics,name=" + ObjectName.quote(name));
+		server.registerMBean(this, objectName);
+		return objectName;
+	}
+
+	@Override
+	public void reset() {
+		parses.reset();
+		for (final Stage stage : Stage.values()) {
+			calls[stage.ordinal()].reset();
+			evaluated[stage.ordinal()].reset();
+			nanos[stage.ordinal()].reset();
+		}
+		for (final ConcurrentMap<String, LongAdder> counters : hits.values()) {
+			counters.clear();
+		}
+	}
+
+}
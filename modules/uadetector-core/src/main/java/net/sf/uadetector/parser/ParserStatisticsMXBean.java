@@ -0,0 +1,99 @@
+/*******************************************************************************
+ * Copyright 2014 André Rouél
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package net.sf.uadetector.parser;
+
+import java.util.Map;
+
+/**
+ * Management interface of {@link ParserStatistics}, which publishes the instrumentation of a parser via JMX.
+ * <p>
+ * All counters are sums since the statistics has been created or {@link #reset()}. Durations are measured in
+ * nanoseconds, the keys of the stage maps are the names of {@link ParserStatistics.Stage}.
+ * 
+ * @author André Rouél
+ */
+public interface ParserStatisticsMXBean {
+
+	/**
+	 * Gets how often each browser pattern has been found first in a user agent string.
+	 * 
+	 * @return hits by regular expression
+	 */
+	Map<String, Long> getBrowserPatternHits();
+
+	/**
+	 * Gets the version of the <em>UAS data</em> which is currently used by the parser.
+	 * 
+	 * @return version of the UAS data
+	 */
+	String getDataVersion();
+
+	/**
+	 * Gets how often each device pattern has been found first in a user agent string. If no device pattern matches,
+	 * the browser pattern which has been used to classify the device by its browser type is counted here.
+	 * 
+	 * @return hits by regular expression
+	 */
+	Map<String, Long> getDevicePatternHits();
+
+	/**
+	 * Gets the time of the last check for newer <em>UAS data</em>.
+	 * 
+	 * @return milliseconds since the epoch or {@code 0} if the data store has never been checked or cannot be updated
+	 */
+	long getLastUpdateCheck();
+
+	/**
+	 * Gets how often each operating system pattern has been found first in a user agent string.
+	 * 
+	 * @return hits by regular expression
+	 */
+	Map<String, Long> getOperatingSystemPatternHits();
+
+	/**
+	 * Gets the number of analyzed user agent strings.
+	 * 
+	 * @return number of parsings
+	 */
+	long getParses();
+
+	/**
+	 * Gets how often each stage of the analysis has been run.
+	 * 
+	 * @return runs by stage
+	 */
+	Map<String, Long> getStageCalls();
+
+	/**
+	 * Gets the time spent within each stage of the analysis.
+	 * 
+	 * @return nanoseconds by stage
+	 */
+	Map<String, Long> getStageNanos();
+
+	/**
+	 * Gets the number of regular expressions which have been run within each stage of the analysis.
+	 * 
+	 * @return evaluated patterns by stage
+	 */
+	Map<String, Long> getStagePatternsEvaluated();
+
+	/**
+	 * Resets all counters to zero.
+	 */
+	void reset();
+
+}
@@ -0,0 +1,93 @@
+/*******************************************************************************
+ * Copyright 2014 André Rouél
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package net.sf.uadetector.writer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.ThreadSafe;
+
+import net.sf.qualitycheck.Check;
+import net.sf.uadetector.internal.data.BinaryDataFormat;
+import net.sf.uadetector.internal.data.Data;
+
+/**
+ * This utility is intended to write an instance of {@code Data} as compact binary snapshot, which can be read in by
+ * {@link net.sf.uadetector.datareader.BinaryDataReader} much faster than the <code>uas.xml</code>.
+ * <p>
+ * A snapshot contains the completely built {@code Data} including the indexes of the matching engines. The format is
+ * versioned and not intended for long-term storage, it should always be created again from the XML data when a new
+ * version of this library will be used.
+ * 
+ * @author André Rouél
+ */
+@ThreadSafe
+public final class BinaryDataWriter {
+
+	/**
+	 * Writes a given {@code Data} instance as binary snapshot to the passed in {@code OutputStream}. The stream will
+	 * not be closed.
+	 * 
+	 * @param data
+	 *            {@code Data} to write
+	 * @param outputStream
+	 *            output stream to write
+	 * @throws IOException
+	 *             if the stream can not be written
+	 * @throws net.sf.qualitycheck.exception.IllegalNullArgumentException
+	 *             if any of the given arguments is {@code null}
+	 */
+	public static void write(@Nonnull final Data data, @Nonnull final OutputStream outputStream) throws IOException {
+		Check.notNull(data, "data");
+		Check.notNull(outputStream, "outputStream");
+
+		BinaryDataFormat.write(data, outputStream);
+	}
+
+	/**
+	 * Writes a given {@code Data} instance as binary snapshot to the passed in {@code OutputStream} and records the
+	 * checksum of the XML data from which it has been read, so that a reader can recognize an outdated snapshot. The
+	 * stream will not be closed.
+	 * 
+	 * @param data
+	 *            {@code Data} to write
+	 * @param sourceChecksum
+	 *            checksum of the XML data of the given {@code Data}, see
+	 *            {@link BinaryDataFormat#checksum(java.io.InputStream)}
+	 * @param outputStream
+	 *            output stream to write
+	 * @throws IOException
+	 *             if the stream can not be written
+	 * @throws net.sf.qualitycheck.exception.IllegalNullArgumentException
+	 *             if any of the given arguments is {@code null}
+	 */
+	public static void write(@Nonnull final Data data, final long sourceChecksum, @Nonnull final OutputStream outputStream)
+			throws IOException {
+		Check.notNull(data, "data");
+		Check.notNull(outputStream, "outputStream");
+
+		BinaryDataFormat.write(data, sourceChecksum, outputStream);
+	}
+
+	/**
+	 * <strong>Attention:</strong> This class is not intended to create objects from it.
+	 */
+	private BinaryDataWriter() {
+		// This class is not intended to create objects from it.
+	}
+
+}
@@ -0,0 +1,191 @@
+/*******************************************************************************
+ * Copyright 2014 André Rouél
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package net.sf.uadetector;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import net.sf.qualitycheck.exception.IllegalNullArgumentException;
+
+import org.junit.Test;
+
+public class BatchParserTest {
+
+	/**
+	 * Parser which counts how often every user agent string was parsed
+	 */
+	private static final class CountingParser implements UserAgentStringParser {
+
+		private final ConcurrentMap<String, AtomicInteger> counts = new ConcurrentHashMap<String, AtomicInteger>();
+
+		public int getCount(final String userAgent) {
+			final AtomicInteger count = counts.get(userAgent);
+			return count != null ? count.get() : 0;
+		}
+
+		@Override
+		public String getDataVersion() {
+			return "20140101-01";
+		}
+
+		@Override
+		public ReadableUserAgent parse(final String userAgent) {
+			if ("fail".equals(userAgent)) {
+				throw new IllegalArgumentException(userAgent);
+			}
+			counts.putIfAbsent(userAgent, new AtomicInteger());
+			counts.get(userAgent).incrementAndGet();
+			return new UserAgent.Builder().setName(userAgent).build();
+		}
+
+		@Override
+		public void shutdown() {
+			// nothing to shutdown
+		}
+
+	}
+
+	/**
+	 * Executor which accepts all tasks but never runs them
+	 */
+	private static final Executor IDLE = new Executor() {
+		@Override
+		public void execute(final Runnable command) {
+			// never run
+		}
+	};
+
+	/**
+	 * Executor which rejects all tasks
+	 */
+	private static final Executor REJECTING = new Executor() {
+		@Override
+		public void execute(final Runnable command) {
+			throw new RejectedExecutionException();
+		}
+	};
+
+	private static List<String> createUserAgents(final int distinct, final int repetitions) {
+		final List<String> userAgents = new ArrayList<String>(distinct * repetitions);
+		for (int r = 0; r < repetitions; r++) {
+			for (int i = 0; i < distinct; i++) {
+				userAgents.add("agent " + i);
+			}
+		}
+		return userAgents;
+	}
+
+	private static void assertInOrder(final List<String> userAgents, final List<ReadableUserAgent> results) {
+		assertThat(results).hasSize(userAgents.size());
+		for (int i = 0; i < userAgents.size(); i++) {
+			assertThat(results.get(i).getName()).isEqualTo(userAgents.get(i));
+		}
+	}
+
+	@Test
+	public void parse_duplicates() {
+		final CountingParser parser = new CountingParser();
+		final List<String> userAgents = Arrays.asList("a", "b", "a", "c", "b", "a");
+		final List<ReadableUserAgent> results = BatchParser.parse(parser, userAgents.iterator(), REJECTING);
+		assertInOrder(userAgents, results);
+		assertThat(parser.getCount("a")).isEqualTo(1);
+		assertThat(parser.getCount("b")).isEqualTo(1);
+		assertThat(parser.getCount("c")).isEqualTo(1);
+		assertThat(results.get(0)).isSameAs(results.get(2));
+		assertThat(results.get(0)).isSameAs(results.get(5));
+		assertThat(results.get(1)).isSameAs(results.get(4));
+	}
+
+	@Test
+	public void parse_empty() {
+		final List<ReadableUserAgent> results = BatchParser.parse(new CountingParser(), Collections.<String> emptyList().iterator(), IDLE);
+		assertThat(results).isEmpty();
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void parse_failure() {
+		final List<String> userAgents = createUserAgents(1000, 1);
+		userAgents.set(500, "fail");
+		BatchParser.parse(new CountingParser(), userAgents.iterator(), REJECTING);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void parse_failureInExecutor() {
+		final ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			final List<String> userAgents = createUserAgents(5000, 1);
+			userAgents.set(4000, "fail");
+			BatchParser.parse(new CountingParser(), userAgents.iterator(), executor);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void parse_idleExecutor() {
+		final CountingParser parser = new CountingParser();
+		final List<String> userAgents = createUserAgents(1000, 3);
+		assertInOrder(userAgents, BatchParser.parse(parser, userAgents.iterator(), IDLE));
+		assertThat(parser.getCount("agent 999")).isEqualTo(1);
+	}
+
+	@Test
+	public void parse_inParallel() {
+		final ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			final CountingParser parser = new CountingParser();
+			final List<String> userAgents = createUserAgents(5000, 4);
+			assertInOrder(userAgents, BatchParser.parse(parser, userAgents.iterator(), executor));
+			for (int i = 0; i < 5000; i++) {
+				assertThat(parser.getCount("agent " + i)).isEqualTo(1);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void parse_unmodifiable() {
+		BatchParser.parse(new CountingParser(), Arrays.asList("a").iterator(), IDLE).clear();
+	}
+
+	@Test(expected = IllegalNullArgumentException.class)
+	public void parse_withNullExecutor() {
+		BatchParser.parse(new CountingParser(), Arrays.asList("a").iterator(), null);
+	}
+
+	@Test(expected = IllegalNullArgumentException.class)
+	public void parse_withNullParser() {
+		BatchParser.parse(null, Arrays.asList("a").iterator(), IDLE);
+	}
+
+	@Test(expected = IllegalNullArgumentException.class)
+	public void parse_withNullUserAgents() {
+		BatchParser.parse(new CountingParser(), null, IDLE);
+	}
+
+}
@@ -16,6 +16,7 @@
 package net.sf.uadetector;
 
 import net.sf.qualitycheck.exception.IllegalNullArgumentException;
+import net.sf.uadetector.ReadableDeviceCategory.Category;
 
 import org.easymock.EasyMock;
 import static org.fest.assertions.Assertions.assertThat;
@@ -92,11 +93,52 @@ public class UserAgentBuilderTest {
 		assertThat(b.build()).isEqualTo(UserAgent.EMPTY);
 	}
 
+	@Test
+	public void copyFrom() {
+		final UserAgent ua = new UserAgent(new DeviceCategory(Category.TABLET, "icon", "info url", "name"), UserAgentFamily.CHROMIUM, "i1",
+				"n1", OperatingSystem.EMPTY, "p1", "pu1", UserAgentType.BROWSER, "t1", "u1", VersionParser.parseVersion("1.0.0"));
+
+		final UserAgent.Builder b = new UserAgent.Builder("ua1");
+		assertThat(b.copyFrom(ua)).isSameAs(b);
+		assertThat(b.getUserAgentString()).isEqualTo("ua1");
+		assertThat(b.build()).isEqualTo(ua);
+	}
+
+	@Test(expected = IllegalNullArgumentException.class)
+	public void copyFrom_null() {
+		new UserAgent.Builder().copyFrom(null);
+	}
+
 	@Test(expected = IllegalNullArgumentException.class)
 	public void construct_null() {
 		new UserAgent.Builder(null);
 	}
 
+	@Test
+	public void reset() {
+		final UserAgent.Builder b = new UserAgent.Builder("ua1");
+		b.setDeviceCategory(new DeviceCategory(Category.TABLET, "icon", "info url", "name"));
+		b.setFamily(UserAgentFamily.CHROMIUM);
+		b.setIcon("i1");
+		b.setName("n1");
+		b.setOperatingSystem(new OperatingSystem(OperatingSystemFamily.UNKNOWN, "family", "icon", "name", "producer", "producer url",
+				"url", new VersionNumber("1")));
+		b.setProducer("p1");
+		b.setProducerUrl("pu1");
+		b.setType(UserAgentType.BROWSER);
+		b.setUrl("u1");
+		b.setVersionNumber(VersionParser.parseVersion("1.0.0"));
+
+		assertThat(b.reset("ua2")).isSameAs(b);
+		assertThat(b.getUserAgentString()).isEqualTo("ua2");
+		assertThat(b.build()).isEqualTo(UserAgent.EMPTY);
+	}
+
+	@Test(expected = IllegalNullArgumentException.class)
+	public void reset_null() {
+		new UserAgent.Builder().reset(null);
+	}
+
 	@Test(expected = IllegalNullArgumentException.class)
 	public void setFamily_null() {
 		new UserAgent.Builder().setFamily(null);
@@ -15,6 +15,11 @@
  ******************************************************************************/
 package net.sf.uadetector;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -29,6 +34,58 @@ import org.junit.Test;
 
 public class VersionNumberTest {
 
+	/**
+	 * Serialized form of {@code 537.36} written by a version which stored the groups as list of strings
+	 */
+	private static final String FORMER_SERIALIZED_FORM_537_36 = "aced00057372001f6e65742e73662e75616465746563746f722e56657273696f6e4e756d6265720000000000000001020002"
+			+ "4c0009657874656e73696f6e7400124c6a6176612f6c616e672f537472696e673b4c000667726f7570737400104c6a617661"
+			+ "2f7574696c2f4c6973743b7870740000737200136a6176612e7574696c2e41727261794c6973747881d21d99c7619d030001"
+			+ "49000473697a65787000000003770400000003740003353337740002333674000078";
+
+	/**
+	 * Serialized form of {@code 10.01.2-beta} written by a version which stored the groups as list of strings
+	 */
+	private static final String FORMER_SERIALIZED_FORM_10_01_2_BETA = "aced00057372001f6e65742e73662e75616465746563746f722e56657273696f6e4e756d6265720000000000000001020002"
+			+ "4c0009657874656e73696f6e7400124c6a6176612f6c616e672f537472696e673b4c000667726f7570737400104c6a617661"
+			+ "2f7574696c2f4c6973743b78707400052d62657461737200136a6176612e7574696c2e41727261794c6973747881d21d99c7"
+			+ "619d03000149000473697a65787000000003770400000003740002313074000230317400013278";
+
+	private static VersionNumber deserialize(final byte[] bytes) throws Exception {
+		final ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes));
+		try {
+			return (VersionNumber) in.readObject();
+		} finally {
+			in.close();
+		}
+	}
+
+	private static byte[] parseHex(final String hex) {
+		final byte[] bytes = new byte[hex.length() / 2];
+		for (int i = 0; i < bytes.length; i++) {
+			bytes[i] = (byte) Integer.parseInt(hex.substring(i * 2, i * 2 + 2), 16);
+		}
+		return bytes;
+	}
+
+	private static String toHex(final byte[] bytes) {
+		final StringBuilder builder = new StringBuilder(bytes.length * 2);
+		for (final byte b : bytes) {
+			builder.append(String.format("%02x", b & 0xff));
+		}
+		return builder.toString();
+	}
+
+	private static byte[] serialize(final VersionNumber version) throws Exception {
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		final ObjectOutputStream out = new ObjectOutputStream(bytes);
+		try {
+			out.writeObject(version);
+		} finally {
+			out.close();
+		}
+		return bytes.toByteArray();
+	}
+
 	@Test
 	public void compareTo_differentBugfix() {
 		final VersionNumber version1 = new VersionNumber(Arrays.asList("0", "0", "1"));
@@ -356,6 +413,35 @@ public class VersionNumberTest {
 		assertThat(version.toVersionString()).isEqualTo("1");
 	}
 
+	@Test
+	public void construct_version_tooLargeForInt() {
+		final VersionNumber version = new VersionNumber("20100101999", "0");
+		assertThat(version.getMajor()).isEqualTo("20100101999");
+		assertThat(version.toVersionString()).isEqualTo("20100101999.0");
+		assertThat(version.compareTo(new VersionNumber("2147483647", "0")) > 0).isTrue();
+	}
+
+	@Test
+	public void deserialize_formerSerializedForm() throws Exception {
+		final VersionNumber version1 = deserialize(parseHex(FORMER_SERIALIZED_FORM_537_36));
+		assertThat(version1).isEqualTo(new VersionNumber("537", "36"));
+		assertThat(version1.getGroups()).isEqualTo(Arrays.asList("537", "36", ""));
+
+		final VersionNumber version2 = deserialize(parseHex(FORMER_SERIALIZED_FORM_10_01_2_BETA));
+		assertThat(version2).isEqualTo(new VersionNumber("10", "01", "2", "-beta"));
+		assertThat(version2.toVersionString()).isEqualTo("10.01.2-beta");
+
+		// the numeric representation is restored too
+		assertThat(version1.compareTo(new VersionNumber("537", "37"))).isLessThan(0);
+		assertThat(version1.hashCode()).isEqualTo(new VersionNumber("537", "36").hashCode());
+	}
+
+	@Test(expected = InvalidObjectException.class)
+	public void deserialize_formerSerializedForm_invalidGroup() throws Exception {
+		// the group 537 has been replaced by 5x7
+		deserialize(parseHex(FORMER_SERIALIZED_FORM_537_36.replace("740003353337", "740003357837")));
+	}
+
 	@Test
 	public void equals_differentBugfix() {
 		final VersionNumber version1 = new VersionNumber(Arrays.asList("0", "0", "1"));
@@ -427,6 +513,15 @@ public class VersionNumberTest {
 		assertThat(version.equals(version)).isTrue();
 	}
 
+	@Test
+	public void equals_sameGroupsOfParsedVersion() {
+		final VersionNumber constructed = new VersionNumber(Arrays.asList("1", "2", "3", "4"), "b");
+		final VersionNumber parsed = VersionNumber.parseVersion("1.2.3.4b");
+		assertThat(parsed).isEqualTo(constructed);
+		assertThat(parsed.hashCode()).isEqualTo(constructed.hashCode());
+		assertThat(parsed.compareTo(constructed)).isEqualTo(0);
+	}
+
 	@Test
 	public void getGroups() {
 		final VersionNumber version = new VersionNumber(Arrays.asList("1", "2", "0"));
@@ -482,6 +577,25 @@ public class VersionNumberTest {
 		assertThat(groups.get(2)).isEqualTo("1");
 	}
 
+	@Test
+	public void serialize() throws Exception {
+		final VersionNumber version1 = VersionNumber.parseVersion("537.36");
+		assertThat(deserialize(serialize(version1))).isEqualTo(version1);
+
+		final VersionNumber version2 = new VersionNumber(Arrays.asList("10", "01", "2"), "-beta");
+		assertThat(deserialize(serialize(version2))).isEqualTo(version2);
+	}
+
+	@Test
+	public void serialize_sameLayoutAsFormerVersions() throws Exception {
+		// older versions must still be able to read version numbers written by this version, so the class descriptor
+		// and the fields are unchanged. Only the flag SC_WRITE_METHOD (0x03 instead of 0x02) and the end of the
+		// optional data (0x78), which are skipped by former versions, are written additionally.
+		final String expected = FORMER_SERIALIZED_FORM_10_01_2_BETA.replaceFirst("0000000000000001020002", "0000000000000001030002")
+				+ "78";
+		assertThat(toHex(serialize(new VersionNumber(Arrays.asList("10", "01", "2"), "-beta")))).isEqualTo(expected);
+	}
+
 	@Test
 	public void testToString() {
 		// reduces only some noise in coverage report
@@ -191,6 +191,20 @@ public class VersionParserTest {
 		assertThat(VersionParser.identifyWindowsVersion(windowsPhone7).toVersionString()).isEqualTo("7.0");
 	}
 
+	@Test
+	public void identifyWindowsVersion_prefixWithoutVersionBeforeMatch() {
+		// the first occurrence of 'Windows NT' carries no version, the second one has to be found
+		final String userAgent = "Mozilla/4.0 (compatible; Windows NT; MSIE 6.0; Windows NT 5.1)";
+		assertThat(VersionParser.identifyWindowsVersion(userAgent).toVersionString()).isEqualTo("5.1");
+	}
+
+	@Test
+	public void identifyWindowsVersion_priorityBeforePosition() {
+		// a pattern with higher priority wins, even if a pattern with lower priority matches earlier
+		final String userAgent = "Mozilla/4.0 (Windows 98; Win 9x 4.90; Windows NT 5.0)";
+		assertThat(VersionParser.identifyWindowsVersion(userAgent).toVersionString()).isEqualTo("5.0");
+	}
+
 	@Test
 	public void parseFirstVersionNumber_emptyString() {
 		final String userAgent = "";
@@ -310,6 +324,12 @@ public class VersionParserTest {
 		assertThat(v).isEqualTo(VersionNumber.UNKNOWN);
 	}
 
+	@Test
+	public void parseVersion_interned() {
+		assertThat(VersionParser.parseVersion("537.36")).isSameAs(VersionParser.parseVersion("537.36"));
+		assertThat(VersionParser.parseFirstVersionNumber("AppleWebKit/537.36")).isSameAs(VersionParser.parseVersion("537.36"));
+	}
+
 	@Test
 	public void parseVersion_leadingZero() {
 		assertThat(VersionParser.parseVersion("3.5.07").toVersionString()).isEqualTo("3.5.07");
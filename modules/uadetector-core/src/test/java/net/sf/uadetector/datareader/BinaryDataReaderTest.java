@@ -0,0 +1,124 @@
+/*******************************************************************************
+ * Copyright 2014 André Rouél
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package net.sf.uadetector.datareader;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+import net.sf.qualitycheck.exception.IllegalNullArgumentException;
+import net.sf.uadetector.datastore.DataStore;
+import net.sf.uadetector.datastore.TestXmlDataStore;
+import net.sf.uadetector.internal.data.BinaryDataFormat;
+import net.sf.uadetector.internal.data.Data;
+import net.sf.uadetector.internal.util.UrlUtil;
+import net.sf.uadetector.writer.BinaryDataWriter;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.io.Files;
+
+public class BinaryDataReaderTest {
+
+	/**
+	 * The character set to read UAS data
+	 */
+	private static final Charset CHARSET = DataStore.DEFAULT_CHARSET;
+
+	private static byte[] writeSnapshot(final URL dataUrl) throws IOException {
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		BinaryDataWriter.write(new XmlDataReader().read(dataUrl, CHARSET), bytes);
+		return bytes.toByteArray();
+	}
+
+	@Rule
+	public final TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void read_string() throws IOException {
+		final String snapshot = new String(writeSnapshot(TestXmlDataStore.DATA_URL), "ISO-8859-1");
+		final Data data = new BinaryDataReader().read(snapshot);
+		assertThat(data).isEqualTo(new XmlDataReader().read(TestXmlDataStore.DATA_URL, CHARSET));
+	}
+
+	@Test(expected = IllegalNullArgumentException.class)
+	public void read_string_null() {
+		new BinaryDataReader().read((String) null);
+	}
+
+	@Test
+	public void read_truncatedSnapshot() throws IOException {
+		final byte[] bytes = writeSnapshot(TestXmlDataStore.DATA_URL);
+		final File file = folder.newFile("uas.bin");
+		Files.write(Arrays.copyOf(bytes, bytes.length - 100), file);
+		assertThat(new BinaryDataReader().read(UrlUtil.toUrl(file), CHARSET)).isSameAs(Data.EMPTY);
+	}
+
+	@Test
+	public void read_unreachableUrl() {
+		assertThat(new BinaryDataReader().read(UrlUtil.build("http://unreachable.local/"), CHARSET)).isSameAs(Data.EMPTY);
+	}
+
+	@Test
+	public void read_url() throws IOException {
+		final File file = folder.newFile("uas.bin");
+		Files.write(writeSnapshot(TestXmlDataStore.DATA_URL_NEWER), file);
+		final Data data = new BinaryDataReader().read(UrlUtil.toUrl(file), CHARSET);
+		assertThat(data).isEqualTo(new XmlDataReader().read(TestXmlDataStore.DATA_URL_NEWER, CHARSET));
+	}
+
+	@Test
+	public void read_url_sourceChecksum() throws IOException {
+		final Data data = new XmlDataReader().read(TestXmlDataStore.DATA_URL, CHARSET);
+		final long checksum = BinaryDataFormat.checksum(TestXmlDataStore.DATA_URL.openStream());
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		BinaryDataWriter.write(data, checksum, bytes);
+		final File file = folder.newFile("uas.bin");
+		Files.write(bytes.toByteArray(), file);
+
+		assertThat(new BinaryDataReader().read(UrlUtil.toUrl(file), checksum)).isEqualTo(data);
+		assertThat(new BinaryDataReader().read(UrlUtil.toUrl(file), checksum + 1)).isSameAs(Data.EMPTY);
+	}
+
+	@Test(expected = IllegalNullArgumentException.class)
+	public void read_url_sourceChecksum_null() {
+		new BinaryDataReader().read((URL) null, 0L);
+	}
+
+	@Test(expected = IllegalNullArgumentException.class)
+	public void read_url_charset_null() {
+		new BinaryDataReader().read(TestXmlDataStore.DATA_URL, null);
+	}
+
+	@Test(expected = IllegalNullArgumentException.class)
+	public void read_url_null() {
+		new BinaryDataReader().read((URL) null, CHARSET);
+	}
+
+	@Test
+	public void read_xml() {
+		// XML is not a binary snapshot
+		assertThat(new BinaryDataReader().read(TestXmlDataStore.DATA_URL, CHARSET)).isSameAs(Data.EMPTY);
+	}
+
+}
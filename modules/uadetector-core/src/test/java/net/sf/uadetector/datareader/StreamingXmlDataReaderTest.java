@@ -0,0 +1,152 @@
+/*******************************************************************************
+ * Copyright 2014 André Rouél
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package net.sf.uadetector.datareader;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.charset.Charset;
+
+import net.sf.qualitycheck.exception.IllegalNullArgumentException;
+import net.sf.uadetector.datareader.StreamingXmlDataReader.XmlParser;
+import net.sf.uadetector.datastore.DataStore;
+import net.sf.uadetector.datastore.TestXmlDataStore;
+import net.sf.uadetector.internal.data.Data;
+import net.sf.uadetector.internal.util.UrlUtil;
+
+import org.junit.Test;
+
+public class StreamingXmlDataReaderTest {
+
+	/**
+	 * The character set to read UAS data
+	 */
+	private static final Charset CHARSET = DataStore.DEFAULT_CHARSET;
+
+	/**
+	 * URL to retrieve the UAS data as XML (corrupted)
+	 */
+	private static final URL CORRUPTED_DATA_URL = StreamingXmlDataReaderTest.class.getClassLoader().getResource("uas_corrupted.xml");
+
+	/**
+	 * URL to retrieve the UAS data as XML
+	 */
+	private static final URL DATA_URL = StreamingXmlDataReaderTest.class.getClassLoader().getResource("uas_older.xml");
+
+	/**
+	 * URL to retrieve the UAS data as XML (dirty)
+	 */
+	private static final URL DIRTY_DATA_URL = StreamingXmlDataReaderTest.class.getClassLoader().getResource("uas_dirty.xml");
+
+	/**
+	 * URL to retrieve the newer UAS data as XML
+	 */
+	private static final URL NEWER_DATA_URL = StreamingXmlDataReaderTest.class.getClassLoader().getResource("uas_newer.xml");
+
+	@Test
+	public void giveMeCoverageForMyPrivateConstructor() throws Exception {
+		// reduces only some noise in coverage report
+		final Constructor<XmlParser> constructor = XmlParser.class.getDeclaredConstructor();
+		constructor.setAccessible(true);
+		constructor.newInstance();
+	}
+
+	@Test(expected = IllegalNullArgumentException.class)
+	public void read_charset_null() throws MalformedURLException {
+		new StreamingXmlDataReader().read(new URL("http://localhost/"), null);
+	}
+
+	@Test(expected = IllegalNullArgumentException.class)
+	public void read_data_isNull() {
+		new StreamingXmlDataReader().read(null);
+	}
+
+	@Test(expected = IllegalNullArgumentException.class)
+	public void read_url_null() {
+		new StreamingXmlDataReader().read((URL) null, CHARSET);
+	}
+
+	@Test
+	public void read_url_unreachable() throws MalformedURLException {
+		final Data data = new StreamingXmlDataReader().read(new URL("http://unreachable.local/"), CHARSET);
+		assertThat(data).isSameAs(Data.EMPTY);
+	}
+
+	@Test
+	public void readByString_parsingSuccessful() throws IOException {
+		final Data data = new StreamingXmlDataReader().read(UrlUtil.read(DATA_URL, CHARSET));
+		assertThat(data.getVersion()).isEqualTo(TestXmlDataStore.VERSION_OLDER);
+	}
+
+	@Test
+	public void readByString_unknownElementsIgnored() {
+		// unknown elements will be ignored, because the document will not be validated
+		final String xml = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+				+ "<!DOCTYPE uasdata SYSTEM \"http://data.udger.com/uasxmldata_old.dtd\">\n"
+				+ "<uasdata><description><version>20141101-01</version><dirty/></description><data><dirty/></data></uasdata>";
+		final Data data = new StreamingXmlDataReader().read(xml);
+		assertThat(data).isNotSameAs(Data.EMPTY);
+		assertThat(data.getVersion()).isEqualTo("20141101-01");
+		assertThat(new XmlDataReader().read(xml)).isSameAs(Data.EMPTY);
+	}
+
+	@Test
+	public void readByUrl_parsingOfCorruptedData() {
+		final Data data = new StreamingXmlDataReader().read(CORRUPTED_DATA_URL, CHARSET);
+		assertThat(data).isSameAs(Data.EMPTY);
+	}
+
+	@Test
+	public void readByUrl_parsingOfDirtyData() {
+		// the dirty data contains also invalid regular expressions
+		final Data data = new StreamingXmlDataReader().read(DIRTY_DATA_URL, CHARSET);
+		assertThat(data).isSameAs(Data.EMPTY);
+	}
+
+	@Test
+	public void readByUrl_sameAsValidatingReader() {
+		final DataReader validatingReader = new XmlDataReader();
+		final DataReader reader = new StreamingXmlDataReader();
+		assertThat(reader.read(DATA_URL, CHARSET)).isEqualTo(validatingReader.read(DATA_URL, CHARSET));
+		assertThat(reader.read(NEWER_DATA_URL, CHARSET)).isEqualTo(validatingReader.read(NEWER_DATA_URL, CHARSET));
+	}
+
+	@Test
+	public void readByUrl_versionParsing() {
+		final Data data = new StreamingXmlDataReader().read(DATA_URL, CHARSET);
+		assertThat(data.getVersion()).isEqualTo(TestXmlDataStore.VERSION_OLDER);
+	}
+
+	@Test(expected = IllegalNullArgumentException.class)
+	public void readXml_charset_null() {
+		StreamingXmlDataReader.readXml(new ByteArrayInputStream(new byte[0]), null);
+	}
+
+	@Test
+	public void readXml_emptyStream() {
+		assertThat(StreamingXmlDataReader.readXml(new ByteArrayInputStream(new byte[0]), CHARSET)).isSameAs(Data.EMPTY);
+	}
+
+	@Test(expected = IllegalNullArgumentException.class)
+	public void readXml_url_null() {
+		StreamingXmlDataReader.readXml(null, CHARSET);
+	}
+
+}
@@ -15,6 +15,10 @@
  ******************************************************************************/
 package net.sf.uadetector.datastore;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
 import net.sf.qualitycheck.exception.IllegalNullArgumentException;
 import net.sf.qualitycheck.exception.IllegalStateOfArgumentException;
 import net.sf.uadetector.internal.data.Data;
@@ -25,12 +29,98 @@ import org.junit.Test;
 
 public class AbstractRefreshableDataStoreTest {
 
+	/**
+	 * Records every notification as a string of the form {@code <method>:<version>-><version>}.
+	 */
+	private static final class RecordingListener implements DataUpdateListener {
+
+		private final List<String> events = new ArrayList<String>();
+
+		private final DataStore store;
+
+		public RecordingListener(final DataStore store) {
+			this.store = store;
+		}
+
+		@Override
+		public void afterUpdate(final Data previous, final Data current) {
+			assertThat(store.getData()).isSameAs(current);
+			events.add("after:" + previous.getVersion() + "->" + current.getVersion());
+		}
+
+		@Override
+		public void beforeUpdate(final Data current, final Data next) {
+			assertThat(store.getData()).isSameAs(current);
+			events.add("before:" + current.getVersion() + "->" + next.getVersion());
+		}
+
+		public List<String> getEvents() {
+			return events;
+		}
+
+	}
+
+	@Test(expected = IllegalNullArgumentException.class)
+	public void addUpdateListener_null() {
+		new TestXmlDataStore().addUpdateListener(null);
+	}
+
+	@Test(expected = IllegalNullArgumentException.class)
+	public void removeUpdateListener_null() {
+		new TestXmlDataStore().removeUpdateListener(null);
+	}
+
+	@Test
+	public void removeUpdateListener_successful() {
+		final TestXmlDataStore store = new TestXmlDataStore();
+		final RecordingListener listener = new RecordingListener(store);
+		store.addUpdateListener(listener);
+		store.removeUpdateListener(listener);
+		store.setData(new DataBlueprint().version("test-version").build());
+		assertThat(listener.getEvents()).isEmpty();
+	}
+
 	@Test(expected = IllegalNullArgumentException.class)
 	public void setData_null() {
 		final TestXmlDataStore store = new TestXmlDataStore();
 		store.setData(null);
 	}
 
+	@Test
+	public void setData_failingListener_doesNotPreventUpdate() {
+		final TestXmlDataStore store = new TestXmlDataStore();
+		store.addUpdateListener(new DataUpdateListener() {
+			@Override
+			public void afterUpdate(final Data previous, final Data current) {
+				throw new IllegalStateException();
+			}
+
+			@Override
+			public void beforeUpdate(final Data current, final Data next) {
+				throw new IllegalStateException();
+			}
+		});
+		final RecordingListener listener = new RecordingListener(store);
+		store.addUpdateListener(listener);
+
+		final Data data = new DataBlueprint().version("test-version").build();
+		store.setData(data);
+		assertThat(store.getData()).isSameAs(data);
+		assertThat(listener.getEvents()).hasSize(2);
+	}
+
+	@Test
+	public void setData_informsListeners() {
+		final TestXmlDataStore store = new TestXmlDataStore();
+		final RecordingListener listener = new RecordingListener(store);
+		store.addUpdateListener(listener);
+
+		store.setData(new DataBlueprint().version("test-version").build());
+		assertThat(listener.getEvents()).isEqualTo(
+				Arrays.asList("before:" + TestXmlDataStore.VERSION_OLDER + "->test-version", "after:" + TestXmlDataStore.VERSION_OLDER
+						+ "->test-version"));
+	}
+
 	@Test
 	public void setData_successful() {
 		final TestXmlDataStore store = new TestXmlDataStore();
@@ -39,10 +129,31 @@ public class AbstractRefreshableDataStoreTest {
 		assertThat(store.getData()).isSameAs(data2);
 	}
 
+	@Test
+	public void setData_visibleToOtherThreads() throws InterruptedException {
+		final TestXmlDataStore store = new TestXmlDataStore();
+		final Data data = new DataBlueprint().version("test-version").build();
+		final Thread updater = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				store.setData(data);
+			}
+		});
+		updater.start();
+		updater.join();
+		assertThat(store.getData()).isSameAs(data);
+	}
+
 	@Test(expected = IllegalStateOfArgumentException.class)
 	public void setData_withEmptyData() {
 		final TestXmlDataStore store = new TestXmlDataStore();
-		store.setData(Data.EMPTY);
+		final RecordingListener listener = new RecordingListener(store);
+		store.addUpdateListener(listener);
+		try {
+			store.setData(Data.EMPTY);
+		} finally {
+			assertThat(listener.getEvents()).isEmpty();
+		}
 	}
 
 	@Test(expected = IllegalNullArgumentException.class)
@@ -18,16 +18,23 @@ package net.sf.uadetector.datastore;
 import static org.fest.assertions.Assertions.assertThat;
 
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.URL;
 import java.nio.charset.Charset;
 
 import net.sf.qualitycheck.exception.IllegalNullArgumentException;
+import net.sf.uadetector.datareader.BinaryDataReader;
 import net.sf.uadetector.datareader.DataReader;
+import net.sf.uadetector.datareader.XmlDataReader;
+import net.sf.uadetector.internal.data.BinaryDataFormat;
 import net.sf.uadetector.internal.data.Data;
 import net.sf.uadetector.internal.data.DataBlueprint;
 import net.sf.uadetector.internal.util.UrlUtil;
 import net.sf.uadetector.parser.UpdatingUserAgentStringParserImpl;
+import net.sf.uadetector.writer.BinaryDataWriter;
 
 import org.junit.Before;
 import org.junit.Rule;
@@ -65,11 +72,35 @@ public class CachingXmlDataStoreTest {
 	 */
 	private static final URL VERSION_URL = CachingXmlDataStoreTest.class.getClassLoader().getResource("uas_older.version");
 
+	private static File createCacheFile(final TemporaryFolder folder) throws IOException {
+		final File cache = folder.newFile("uas_cache.xml");
+		Files.write(UrlUtil.read(DATA_URL, CHARSET).getBytes(CHARSET), cache);
+		return cache;
+	}
+
 	private static String readFile(final File file) throws IOException {
 		byte[] bytes = Files.toByteArray(file);
 		return new String(bytes, Charset.defaultCharset());
 	}
 
+	private static long checksum(final URL url) throws IOException {
+		final InputStream inputStream = url.openStream();
+		try {
+			return BinaryDataFormat.checksum(inputStream);
+		} finally {
+			inputStream.close();
+		}
+	}
+
+	private static void writeSnapshot(final File snapshot, final URL dataUrl, final long sourceChecksum) throws IOException {
+		final OutputStream outputStream = new FileOutputStream(snapshot);
+		try {
+			BinaryDataWriter.write(new XmlDataReader().read(dataUrl, CHARSET), sourceChecksum, outputStream);
+		} finally {
+			outputStream.close();
+		}
+	}
+
 	private DataStore fallback;
 
 	/**
@@ -160,6 +191,35 @@ public class CachingXmlDataStoreTest {
 		assertThat(store.getData().getVersion()).isEqualTo(version);
 	}
 
+	@Test
+	public void createCachingXmlDataStore_readOutdatedSnapshot() throws IOException {
+		final File cache = createCacheFile(folder);
+		final File snapshot = CachingXmlDataStore.getSnapshotFile(cache);
+		writeSnapshot(snapshot, TestXmlDataStore.DATA_URL_NEWER, checksum(TestXmlDataStore.DATA_URL_NEWER));
+		assertThat(snapshot.setLastModified(cache.lastModified() + 10000)).isTrue();
+
+		// the snapshot has been created from other XML data and will be replaced, even if it is newer than the cache file
+		final CachingXmlDataStore store = CachingXmlDataStore.createCachingXmlDataStore(cache, UNREACHABLE_URL, UNREACHABLE_URL,
+				CHARSET, fallback);
+		assertThat(store.getData().getVersion()).isEqualTo(TestXmlDataStore.VERSION_OLDER);
+		assertThat(new BinaryDataReader().read(UrlUtil.toUrl(snapshot), CHARSET).getVersion()).isEqualTo(
+				TestXmlDataStore.VERSION_OLDER);
+	}
+
+	@Test
+	public void createCachingXmlDataStore_readUpToDateSnapshot() throws IOException {
+		final File cache = createCacheFile(folder);
+		final File snapshot = CachingXmlDataStore.getSnapshotFile(cache);
+		writeSnapshot(snapshot, TestXmlDataStore.DATA_URL_NEWER, checksum(UrlUtil.toUrl(cache)));
+		assertThat(snapshot.setLastModified(cache.lastModified() - 10000)).isTrue();
+
+		// the snapshot belongs to the content of the cache file and will be preferred, even if it is older than the cache
+		// file, therefore the newer data must be available
+		final CachingXmlDataStore store = CachingXmlDataStore.createCachingXmlDataStore(cache, UNREACHABLE_URL, UNREACHABLE_URL,
+				CHARSET, fallback);
+		assertThat(store.getData().getVersion()).isEqualTo(TestXmlDataStore.VERSION_NEWER);
+	}
+
 	@Test
 	public void createCachingXmlDataStore_successful() throws IOException, InterruptedException {
 		// create temp file
@@ -196,6 +256,19 @@ public class CachingXmlDataStoreTest {
 		CachingXmlDataStore.createCachingXmlDataStore(folder.newFile("uas_test.xml"), DATA_URL, null, CHARSET, fallback);
 	}
 
+	@Test
+	public void createCachingXmlDataStore_writeSnapshot() throws IOException {
+		final File cache = createCacheFile(folder);
+		final File snapshot = CachingXmlDataStore.getSnapshotFile(cache);
+		assertThat(snapshot.exists()).isFalse();
+
+		final CachingXmlDataStore store = CachingXmlDataStore.createCachingXmlDataStore(cache, UNREACHABLE_URL, UNREACHABLE_URL,
+				CHARSET, fallback);
+		assertThat(snapshot.exists()).isTrue();
+		assertThat(new BinaryDataReader().read(UrlUtil.toUrl(snapshot), CHARSET)).isEqualTo(store.getData());
+		assertThat(store.getData()).isEqualTo(new XmlDataReader().read(DATA_URL, CHARSET));
+	}
+
 	@Test
 	public void findOrCreateCacheFile() {
 		CachingXmlDataStore.findOrCreateCacheFile().delete(); // delete if exists
@@ -209,4 +282,16 @@ public class CachingXmlDataStoreTest {
 		assertThat(temp.exists()).isFalse();
 	}
 
+	@Test
+	public void getSnapshotFile() {
+		final File snapshot = CachingXmlDataStore.getSnapshotFile(new File("/tmp/uas.xml"));
+		assertThat(snapshot.getName()).isEqualTo("uas.xml.bin");
+		assertThat(snapshot.getParentFile()).isEqualTo(new File("/tmp"));
+	}
+
+	@Test(expected = IllegalNullArgumentException.class)
+	public void getSnapshotFile_null() {
+		CachingXmlDataStore.getSnapshotFile(null);
+	}
+
 }
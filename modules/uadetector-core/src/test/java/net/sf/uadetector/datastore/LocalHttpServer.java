@@ -0,0 +1,162 @@
+/*******************************************************************************
+ * Copyright 2014 André Rouél
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package net.sf.uadetector.datastore;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import net.sf.uadetector.internal.util.UrlUtil;
+
+import com.google.common.io.ByteStreams;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * A local stand-in for a HTTP server which delivers <em>UAS data</em>. Every resource will be answered with an entity
+ * tag and a time of the last modification, so that it can be requested conditionally.
+ * 
+ * @author André Rouél
+ */
+public class LocalHttpServer {
+
+	/**
+	 * Time of the last modification of every resource
+	 */
+	public static final String LAST_MODIFIED = "Fri, 18 Oct 2013 10:00:00 GMT";
+
+	private final Map<String, AtomicInteger> conditionalRequests = new ConcurrentHashMap<String, AtomicInteger>();
+
+	private final Map<String, Integer> errors = new ConcurrentHashMap<String, Integer>();
+
+	private final Map<String, AtomicInteger> fullResponses = new ConcurrentHashMap<String, AtomicInteger>();
+
+	private final Map<String, URL> resources = new ConcurrentHashMap<String, URL>();
+
+	private final HttpServer server;
+
+	public LocalHttpServer() throws IOException {
+		server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		server.createContext("/", new HttpHandler() {
+			@Override
+			public void handle(final HttpExchange exchange) throws IOException {
+				respond(exchange);
+			}
+		});
+		server.start();
+	}
+
+	/**
+	 * Adds a resource which will be delivered under the given path.
+	 * 
+	 * @param path
+	 *            path of the resource (beginning with a slash)
+	 * @param content
+	 *            URL of the delivered content
+	 * @return URL of the resource on this server
+	 */
+	public URL add(final String path, final URL content) throws MalformedURLException {
+		resources.put(path, content);
+		conditionalRequests.put(path, new AtomicInteger());
+		fullResponses.put(path, new AtomicInteger());
+		return new URL("http", "localhost", server.getAddress().getPort(), path);
+	}
+
+	/**
+	 * Adds a resource which will always be answered with the given status and without content.
+	 * 
+	 * @param path
+	 *            path of the resource (beginning with a slash)
+	 * @param status
+	 *            HTTP status code of the response
+	 * @return URL of the resource on this server
+	 */
+	public URL addError(final String path, final int status) throws MalformedURLException {
+		errors.put(path, status);
+		return new URL("http", "localhost", server.getAddress().getPort(), path);
+	}
+
+	/**
+	 * Gets the number of requests of a resource which contained validators.
+	 */
+	public int getConditionalRequests(final String path) {
+		return conditionalRequests.get(path).get();
+	}
+
+	/**
+	 * Gets the number of responses of a resource which transferred the content.
+	 */
+	public int getFullResponses(final String path) {
+		return fullResponses.get(path).get();
+	}
+
+	private void respond(final HttpExchange exchange) throws IOException {
+		final String path = exchange.getRequestURI().getPath();
+		final Integer error = errors.get(path);
+		if (error != null) {
+			exchange.sendResponseHeaders(error, -1);
+			exchange.close();
+			return;
+		}
+
+		final URL content = resources.get(path);
+		if (content == null) {
+			exchange.sendResponseHeaders(404, -1);
+			exchange.close();
+			return;
+		}
+
+		final String entityTag = "\"" + content.toExternalForm().hashCode() + "\"";
+		final String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+		final String ifModifiedSince = exchange.getRequestHeaders().getFirst("If-Modified-Since");
+		if (ifNoneMatch != null || ifModifiedSince != null) {
+			conditionalRequests.get(path).incrementAndGet();
+		}
+
+		exchange.getResponseHeaders().set("ETag", entityTag);
+		exchange.getResponseHeaders().set("Last-Modified", LAST_MODIFIED);
+		if (entityTag.equals(ifNoneMatch) || ifNoneMatch == null && LAST_MODIFIED.equals(ifModifiedSince)) {
+			exchange.sendResponseHeaders(304, -1);
+			exchange.close();
+			return;
+		}
+
+		fullResponses.get(path).incrementAndGet();
+		final InputStream stream = UrlUtil.open(content);
+		try {
+			final byte[] bytes = ByteStreams.toByteArray(stream);
+			exchange.sendResponseHeaders(200, bytes.length);
+			final OutputStream body = exchange.getResponseBody();
+			body.write(bytes);
+			body.close();
+		} finally {
+			stream.close();
+			exchange.close();
+		}
+	}
+
+	public void stop() {
+		server.stop(0);
+	}
+
+}
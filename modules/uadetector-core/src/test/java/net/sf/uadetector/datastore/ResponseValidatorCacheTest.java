@@ -0,0 +1,93 @@
+/*******************************************************************************
+ * Copyright 2014 André Rouél
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package net.sf.uadetector.datastore;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+
+import net.sf.qualitycheck.exception.IllegalNullArgumentException;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.base.Charsets;
+import com.google.common.io.Files;
+
+public class ResponseValidatorCacheTest {
+
+	/**
+	 * Temporary folder to store validators in a file. Created files in this folder are guaranteed to be deleted when the
+	 * test method finishes (whether it passes or fails).
+	 */
+	@Rule
+	public final TemporaryFolder folder = new TemporaryFolder();
+
+	@Test(expected = IllegalNullArgumentException.class)
+	public void construct_file_null() {
+		new ResponseValidatorCache(null);
+	}
+
+	@Test
+	public void construct_unreadableFile() throws IOException {
+		final File file = folder.newFile("test.validators");
+		Files.write("data.url=\\u00", file, Charsets.ISO_8859_1);
+		assertThat(new ResponseValidatorCache(file).get(ResponseValidatorCache.DATA)).isSameAs(ResponseValidators.EMPTY);
+	}
+
+	@Test
+	public void get_unknownKey() {
+		assertThat(new ResponseValidatorCache().get("unknown")).isSameAs(ResponseValidators.EMPTY);
+	}
+
+	@Test
+	public void put_inMemory() {
+		final ResponseValidatorCache cache = new ResponseValidatorCache();
+		final ResponseValidators validators = new ResponseValidators("http://localhost/uas.xml", "\"1\"", null, null);
+		cache.put(ResponseValidatorCache.DATA, validators);
+		assertThat(cache.get(ResponseValidatorCache.DATA)).isEqualTo(validators);
+		assertThat(cache.get(ResponseValidatorCache.VERSION)).isSameAs(ResponseValidators.EMPTY);
+	}
+
+	@Test(expected = IllegalNullArgumentException.class)
+	public void put_key_null() {
+		new ResponseValidatorCache().put(null, ResponseValidators.EMPTY);
+	}
+
+	@Test
+	public void put_survivesRestart() {
+		final File file = new File(folder.getRoot(), "test.validators");
+		final ResponseValidators data = new ResponseValidators("http://localhost/uas.xml", "\"1\"", "Fri, 18 Oct 2013 10:00:00 GMT",
+				null);
+		final ResponseValidators version = new ResponseValidators("http://localhost/uas.version", null, null, "20131018-01");
+		final ResponseValidatorCache cache = new ResponseValidatorCache(file);
+		cache.put(ResponseValidatorCache.DATA, data);
+		cache.put(ResponseValidatorCache.VERSION, version);
+		assertThat(file.exists()).isTrue();
+
+		final ResponseValidatorCache restarted = new ResponseValidatorCache(file);
+		assertThat(restarted.get(ResponseValidatorCache.DATA)).isEqualTo(data);
+		assertThat(restarted.get(ResponseValidatorCache.VERSION)).isEqualTo(version);
+	}
+
+	@Test(expected = IllegalNullArgumentException.class)
+	public void put_value_null() {
+		new ResponseValidatorCache().put(ResponseValidatorCache.DATA, null);
+	}
+
+}
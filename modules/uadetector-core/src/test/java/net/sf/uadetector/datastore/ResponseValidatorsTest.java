@@ -0,0 +1,143 @@
+/*******************************************************************************
+ * Copyright 2014 André Rouél
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package net.sf.uadetector.datastore;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLConnection;
+
+import net.sf.qualitycheck.exception.IllegalNullArgumentException;
+import net.sf.uadetector.exception.CanNotOpenStreamException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ResponseValidatorsTest {
+
+	private static final String PATH = "/uas.version";
+
+	private LocalHttpServer server;
+
+	private URL url;
+
+	@After
+	public void after() {
+		server.stop();
+	}
+
+	@Before
+	public void before() throws IOException {
+		server = new LocalHttpServer();
+		url = server.add(PATH, TestXmlDataStore.VERSION_URL_NEWER);
+	}
+
+	@Test
+	public void equalsAndHashCode() {
+		final ResponseValidators a = new ResponseValidators("url", "etag", "last-modified", "content");
+		final ResponseValidators b = new ResponseValidators("url", "etag", "last-modified", "content");
+		assertThat(a).isEqualTo(b);
+		assertThat(a.hashCode()).isEqualTo(b.hashCode());
+		assertThat(a).isNotEqualTo(new ResponseValidators("url", "other", "last-modified", "content"));
+		assertThat(a).isNotEqualTo(ResponseValidators.EMPTY);
+		assertThat(ResponseValidators.EMPTY).isEqualTo(new ResponseValidators(null, null, null, null));
+	}
+
+	@Test
+	public void open_empty_requestsUnconditionally() throws IOException {
+		final URLConnection connection = ResponseValidators.EMPTY.open(url);
+		assertThat(ResponseValidators.isNotModified(connection)).isFalse();
+		connection.getInputStream().close();
+		assertThat(server.getConditionalRequests(PATH)).isEqualTo(0);
+		assertThat(server.getFullResponses(PATH)).isEqualTo(1);
+	}
+
+	@Test
+	public void open_file() throws IOException {
+		final URLConnection connection = new ResponseValidators(TestXmlDataStore.VERSION_URL.toExternalForm(), "\"1\"", null, "1")
+				.open(TestXmlDataStore.VERSION_URL);
+		assertThat(ResponseValidators.isNotModified(connection)).isFalse();
+		connection.getInputStream().close();
+	}
+
+	@Test
+	public void open_modified() throws IOException {
+		final ResponseValidators validators = new ResponseValidators(url.toExternalForm(), "\"outdated\"", null, "20131016-01");
+		final URLConnection connection = validators.open(url);
+		assertThat(ResponseValidators.isNotModified(connection)).isFalse();
+		connection.getInputStream().close();
+		assertThat(server.getConditionalRequests(PATH)).isEqualTo(1);
+		assertThat(server.getFullResponses(PATH)).isEqualTo(1);
+	}
+
+	@Test
+	public void open_notModified_byEntityTag() throws IOException {
+		final URLConnection first = ResponseValidators.EMPTY.open(url);
+		first.getInputStream().close();
+		final ResponseValidators validators = ResponseValidators.of(first, TestXmlDataStore.VERSION_NEWER);
+		assertThat(validators.getUrl()).isEqualTo(url.toExternalForm());
+		assertThat(validators.getEntityTag()).isNotNull();
+		assertThat(validators.getLastModified()).isEqualTo(LocalHttpServer.LAST_MODIFIED);
+		assertThat(validators.getContent()).isEqualTo(TestXmlDataStore.VERSION_NEWER);
+
+		assertThat(ResponseValidators.isNotModified(validators.open(url))).isTrue();
+		assertThat(server.getConditionalRequests(PATH)).isEqualTo(1);
+		assertThat(server.getFullResponses(PATH)).isEqualTo(1);
+	}
+
+	@Test
+	public void open_notModified_byLastModified() throws IOException {
+		final ResponseValidators validators = new ResponseValidators(url.toExternalForm(), null, LocalHttpServer.LAST_MODIFIED, null);
+		assertThat(ResponseValidators.isNotModified(validators.open(url))).isTrue();
+		assertThat(server.getFullResponses(PATH)).isEqualTo(0);
+	}
+
+	@Test
+	public void open_otherUrl_requestsUnconditionally() throws IOException {
+		final URL other = server.add("/uas.xml", TestXmlDataStore.DATA_URL_NEWER);
+		final ResponseValidators validators = new ResponseValidators(other.toExternalForm(), null, LocalHttpServer.LAST_MODIFIED, null);
+		final URLConnection connection = validators.open(url);
+		assertThat(ResponseValidators.isNotModified(connection)).isFalse();
+		connection.getInputStream().close();
+		assertThat(server.getConditionalRequests(PATH)).isEqualTo(0);
+	}
+
+	@Test(expected = CanNotOpenStreamException.class)
+	public void open_notFound() throws MalformedURLException {
+		ResponseValidators.EMPTY.open(new URL(url, "/missing.version"));
+	}
+
+	@Test(expected = CanNotOpenStreamException.class)
+	public void open_serverError() throws MalformedURLException {
+		final URL broken = server.addError("/broken.version", HttpURLConnection.HTTP_INTERNAL_ERROR);
+		new ResponseValidators(broken.toExternalForm(), "\"1\"", LocalHttpServer.LAST_MODIFIED, "1").open(broken);
+	}
+
+	@Test(expected = CanNotOpenStreamException.class)
+	public void open_unreachableUrl() throws MalformedURLException {
+		ResponseValidators.EMPTY.open(new URL("http://localhost:1/uas.version"));
+	}
+
+	@Test(expected = IllegalNullArgumentException.class)
+	public void open_url_null() {
+		ResponseValidators.EMPTY.open(null);
+	}
+
+}
@@ -33,6 +33,7 @@ import net.sf.uadetector.internal.util.UrlUtil;
 import org.easymock.EasyMock;
 import org.easymock.IMockBuilder;
 import static org.fest.assertions.Assertions.assertThat;
+import static org.fest.assertions.Fail.fail;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
@@ -175,6 +176,55 @@ public class UpdateOperationWithCacheFileTaskTest {
 		UpdateOperationWithCacheFileTask.readAndSave(cache, null);
 	}
 
+	@Test
+	public void readAndSave_returnsReadData() throws IOException {
+		final File cache = folder.newFile("test.cache");
+		final Data data = UpdateOperationWithCacheFileTask.readAndSave(cache, new TestXmlDataStore());
+		assertThat(data).isEqualTo(new XmlDataReader().read(TestXmlDataStore.DATA_URL_NEWER, DataStore.DEFAULT_CHARSET));
+		assertThat(data.getVersion()).isEqualTo(TestXmlDataStore.VERSION_NEWER);
+	}
+
+	@Test
+	public void readAndSave_unreadableContent() throws IOException {
+		final File cache = folder.newFile("test.cache");
+		Files.write("cached data".getBytes(Charsets.UTF_8), cache);
+		try {
+			UpdateOperationWithCacheFileTask.readAndSave(cache, new DataStore() {
+
+				@Override
+				public Charset getCharset() {
+					return DEFAULT_CHARSET;
+				}
+
+				@Override
+				public Data getData() {
+					return Data.EMPTY;
+				}
+
+				@Override
+				public DataReader getDataReader() {
+					return new XmlDataReader();
+				}
+
+				@Override
+				public URL getDataUrl() {
+					// not UAS data
+					return TestXmlDataStore.VERSION_URL;
+				}
+
+				@Override
+				public URL getVersionUrl() {
+					return TestXmlDataStore.VERSION_URL;
+				}
+			});
+			fail("An IllegalStateException must be thrown.");
+		} catch (final IllegalStateException e) {
+			// the cache file must not be touched and no temporary file must remain
+			assertThat(Files.toString(cache, Charsets.UTF_8)).isEqualTo("cached data");
+			assertThat(new File(folder.getRoot(), cache.getName() + ".temp").exists()).isFalse();
+		}
+	}
+
 	@Test
 	public void readAndSave_urlAndFileAreSameResource() throws MalformedURLException, IOException {
 		final File resource = folder.newFile(); // cache file does not exist
@@ -0,0 +1,160 @@
+/*******************************************************************************
+ * Copyright 2014 André Rouél
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package net.sf.uadetector.datastore;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+
+import net.sf.uadetector.datareader.XmlDataReader;
+import net.sf.uadetector.internal.data.Data;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.io.Files;
+
+public class UpdateOperationWithCacheFileTaskTest_conditionalRequests {
+
+	/**
+	 * A data store which starts with the older <em>UAS data</em> and can be updated by a local HTTP server.
+	 */
+	private static final class RemoteXmlDataStore extends AbstractRefreshableDataStore {
+
+		private final URL dataUrl;
+
+		private final URL versionUrl;
+
+		public RemoteXmlDataStore(final URL dataUrl, final URL versionUrl) {
+			super(new XmlDataReader(), TestXmlDataStore.DATA_URL, TestXmlDataStore.VERSION_URL, DEFAULT_CHARSET, new SimpleXmlDataStore(
+					TestXmlDataStore.DATA_URL, TestXmlDataStore.VERSION_URL));
+			this.dataUrl = dataUrl;
+			this.versionUrl = versionUrl;
+		}
+
+		@Override
+		public URL getDataUrl() {
+			return dataUrl;
+		}
+
+		@Override
+		public URL getVersionUrl() {
+			return versionUrl;
+		}
+
+	}
+
+	private static final String DATA_PATH = "/uas.xml";
+
+	private static final String VERSION_PATH = "/uas.version";
+
+	/**
+	 * Temporary folder to cache <em>UAS data</em> in a file. Created files in this folder are guaranteed to be deleted
+	 * when the test method finishes (whether it passes or fails).
+	 */
+	@Rule
+	public final TemporaryFolder folder = new TemporaryFolder();
+
+	private URL dataUrl;
+
+	private LocalHttpServer server;
+
+	private URL versionUrl;
+
+	@After
+	public void after() {
+		server.stop();
+	}
+
+	@Before
+	public void before() throws IOException {
+		server = new LocalHttpServer();
+		dataUrl = server.add(DATA_PATH, TestXmlDataStore.DATA_URL_NEWER);
+		versionUrl = server.add(VERSION_PATH, TestXmlDataStore.VERSION_URL_NEWER);
+	}
+
+	@Test
+	public void call_afterRestart_unchangedDataWillNotBeFetchedAgain() throws IOException {
+		final File cache = folder.newFile("test.cache");
+
+		// first start fetches version and data completely
+		final RemoteXmlDataStore store = new RemoteXmlDataStore(dataUrl, versionUrl);
+		new UpdateOperationWithCacheFileTask(store, cache).call();
+		assertThat(store.getData().getVersion()).isEqualTo(TestXmlDataStore.VERSION_NEWER);
+		assertThat(CachingXmlDataStore.getValidatorsFile(cache).exists()).isTrue();
+		assertThat(server.getFullResponses(VERSION_PATH)).isEqualTo(1);
+		assertThat(server.getFullResponses(DATA_PATH)).isEqualTo(1);
+
+		// after a restart both resources will be requested conditionally and the cache file will be read instead
+		final RemoteXmlDataStore restarted = new RemoteXmlDataStore(dataUrl, versionUrl);
+		assertThat(restarted.getData().getVersion()).isEqualTo(TestXmlDataStore.VERSION_OLDER);
+		new UpdateOperationWithCacheFileTask(restarted, cache).call();
+		assertThat(restarted.getData().getVersion()).isEqualTo(TestXmlDataStore.VERSION_NEWER);
+		assertThat(server.getConditionalRequests(VERSION_PATH)).isEqualTo(1);
+		assertThat(server.getConditionalRequests(DATA_PATH)).isEqualTo(1);
+		assertThat(server.getFullResponses(VERSION_PATH)).isEqualTo(1);
+		assertThat(server.getFullResponses(DATA_PATH)).isEqualTo(1);
+	}
+
+	@Test
+	public void call_repeatedly_versionWillBeRequestedConditionally() throws IOException {
+		final File cache = folder.newFile("test.cache");
+		final RemoteXmlDataStore store = new RemoteXmlDataStore(dataUrl, versionUrl);
+		final UpdateOperationWithCacheFileTask task = new UpdateOperationWithCacheFileTask(store, cache);
+		task.call();
+		task.call();
+		task.call();
+		assertThat(store.getData().getVersion()).isEqualTo(TestXmlDataStore.VERSION_NEWER);
+		assertThat(server.getConditionalRequests(VERSION_PATH)).isEqualTo(2);
+		assertThat(server.getFullResponses(VERSION_PATH)).isEqualTo(1);
+		assertThat(server.getFullResponses(DATA_PATH)).isEqualTo(1);
+	}
+
+	@Test
+	public void readAndSave_emptyFile_requestsUnconditionally() throws IOException {
+		final File cache = folder.newFile("test.cache");
+		final ResponseValidatorCache validators = new ResponseValidatorCache();
+		final RemoteXmlDataStore store = new RemoteXmlDataStore(dataUrl, versionUrl);
+		UpdateOperationWithCacheFileTask.readAndSave(cache, store, validators);
+
+		// the cache file has been emptied meanwhile, so the validators are meaningless
+		Files.write(new byte[0], cache);
+		final Data data = UpdateOperationWithCacheFileTask.readAndSave(cache, store, validators);
+		assertThat(data.getVersion()).isEqualTo(TestXmlDataStore.VERSION_NEWER);
+		assertThat(server.getConditionalRequests(DATA_PATH)).isEqualTo(0);
+		assertThat(server.getFullResponses(DATA_PATH)).isEqualTo(2);
+	}
+
+	@Test
+	public void readAndSave_notModified_readsFile() throws IOException {
+		final File cache = folder.newFile("test.cache");
+		final ResponseValidatorCache validators = new ResponseValidatorCache();
+		final RemoteXmlDataStore store = new RemoteXmlDataStore(dataUrl, versionUrl);
+		final Data fetched = UpdateOperationWithCacheFileTask.readAndSave(cache, store, validators);
+		assertThat(validators.get(ResponseValidatorCache.DATA).getUrl()).isEqualTo(dataUrl.toExternalForm());
+
+		final Data read = UpdateOperationWithCacheFileTask.readAndSave(cache, store, validators);
+		assertThat(read).isEqualTo(fetched);
+		assertThat(server.getConditionalRequests(DATA_PATH)).isEqualTo(1);
+		assertThat(server.getFullResponses(DATA_PATH)).isEqualTo(1);
+	}
+
+}
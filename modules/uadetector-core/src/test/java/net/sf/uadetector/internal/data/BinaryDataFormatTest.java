@@ -0,0 +1,156 @@
+/*******************************************************************************
+ * Copyright 2014 André Rouél
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package net.sf.uadetector.internal.data;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.util.Arrays;
+
+import net.sf.qualitycheck.exception.IllegalNullArgumentException;
+import net.sf.uadetector.datareader.XmlDataReader;
+import net.sf.uadetector.datastore.DataStore;
+import net.sf.uadetector.datastore.TestXmlDataStore;
+import net.sf.uadetector.internal.matcher.PatternMatch;
+import net.sf.uadetector.internal.matcher.PatternMatcher;
+
+import org.junit.Test;
+
+public class BinaryDataFormatTest {
+
+	private static final String[] USER_AGENTS = { "", "Mozilla/5.0 (Windows NT 6.1; rv:31.0) Gecko/20100101 Firefox/31.0",
+			"Mozilla/5.0 (Linux; U; Android 4.0.3; de-de; Galaxy S II Build/GRJ22) AppleWebKit/534.30 (KHTML, like Gecko) Version/4.0 Mobile Safari/534.30",
+			"Mozilla/5.0 (iPad; CPU OS 6_0 like Mac OS X) AppleWebKit/536.26 (KHTML, like Gecko) Version/6.0 Mobile/10A5355d Safari/8536.25",
+			"Opera/9.80 (Windows NT 6.1) Presto/2.12.388 Version/12.16", "Googlebot/2.1 (+http://www.google.com/bot.html)", "unknown" };
+
+	private static void assertSameMatches(final PatternMatcher<?, ?> expected, final PatternMatcher<?, ?> actual) {
+		assertThat(actual.size()).isEqualTo(expected.size());
+		for (final String userAgent : USER_AGENTS) {
+			final PatternMatch<?, ?> expectedMatch = expected.find(userAgent);
+			final PatternMatch<?, ?> actualMatch = actual.find(userAgent);
+			if (expectedMatch == null) {
+				assertThat(actualMatch).isNull();
+			} else {
+				assertThat(actualMatch.getPattern()).isEqualTo(expectedMatch.getPattern());
+				assertThat(actualMatch.getValue()).isEqualTo(expectedMatch.getValue());
+			}
+		}
+	}
+
+	private static Data readData(final URL url) {
+		return new XmlDataReader().read(url, DataStore.DEFAULT_CHARSET);
+	}
+
+	private static Data writeAndRead(final Data data) throws IOException {
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		BinaryDataFormat.write(data, bytes);
+		return BinaryDataFormat.read(new ByteArrayInputStream(bytes.toByteArray()));
+	}
+
+	@Test
+	public void checksum() throws IOException {
+		final long checksum = BinaryDataFormat.checksum(TestXmlDataStore.DATA_URL.openStream());
+		assertThat(BinaryDataFormat.checksum(TestXmlDataStore.DATA_URL.openStream())).isEqualTo(checksum);
+		assertThat(BinaryDataFormat.checksum(TestXmlDataStore.DATA_URL_NEWER.openStream())).isNotEqualTo(checksum);
+	}
+
+	@Test(expected = IllegalNullArgumentException.class)
+	public void checksum_null() throws IOException {
+		BinaryDataFormat.checksum(null);
+	}
+
+	@Test(expected = IOException.class)
+	public void read_otherMagic() throws IOException {
+		BinaryDataFormat.read(new ByteArrayInputStream("<?xml version=\"1.0\"?>".getBytes("UTF-8")));
+	}
+
+	@Test(expected = IOException.class)
+	public void read_otherVersion() throws IOException {
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		final DataOutputStream out = new DataOutputStream(bytes);
+		out.writeInt(BinaryDataFormat.MAGIC);
+		out.writeInt(BinaryDataFormat.VERSION + 1);
+		BinaryDataFormat.read(new ByteArrayInputStream(bytes.toByteArray()));
+	}
+
+	@Test(expected = IllegalNullArgumentException.class)
+	public void read_null() throws IOException {
+		BinaryDataFormat.read(null);
+	}
+
+	@Test(expected = IOException.class)
+	public void read_otherSource() throws IOException {
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		BinaryDataFormat.write(Data.EMPTY, 1L, bytes);
+		BinaryDataFormat.read(new ByteArrayInputStream(bytes.toByteArray()), 2L);
+	}
+
+	@Test
+	public void read_sameSource() throws IOException {
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		BinaryDataFormat.write(Data.EMPTY, 1L, bytes);
+		assertThat(BinaryDataFormat.read(new ByteArrayInputStream(bytes.toByteArray()), 1L)).isEqualTo(Data.EMPTY);
+
+		// the source is not checked if not requested
+		assertThat(BinaryDataFormat.read(new ByteArrayInputStream(bytes.toByteArray()))).isEqualTo(Data.EMPTY);
+	}
+
+	@Test(expected = IOException.class)
+	public void read_truncated() throws IOException {
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		BinaryDataFormat.write(readData(TestXmlDataStore.DATA_URL), bytes);
+		BinaryDataFormat.read(new ByteArrayInputStream(Arrays.copyOf(bytes.toByteArray(), bytes.size() / 2)));
+	}
+
+	@Test
+	public void write_emptyData() throws IOException {
+		assertThat(writeAndRead(Data.EMPTY)).isEqualTo(Data.EMPTY);
+	}
+
+	@Test(expected = IllegalNullArgumentException.class)
+	public void write_nullData() throws IOException {
+		BinaryDataFormat.write(null, new ByteArrayOutputStream());
+	}
+
+	@Test(expected = IllegalNullArgumentException.class)
+	public void write_nullStream() throws IOException {
+		BinaryDataFormat.write(Data.EMPTY, null);
+	}
+
+	@Test
+	public void write_read_newerData() throws IOException {
+		final Data data = readData(TestXmlDataStore.DATA_URL_NEWER);
+		final Data read = writeAndRead(data);
+		assertThat(read).isEqualTo(data);
+		assertThat(read.getVersion()).isEqualTo(TestXmlDataStore.VERSION_NEWER);
+	}
+
+	@Test
+	public void write_read_olderData() throws IOException {
+		final Data data = readData(TestXmlDataStore.DATA_URL);
+		final Data read = writeAndRead(data);
+		assertThat(read).isEqualTo(data);
+		assertThat(read.toStats()).isEqualTo(data.toStats());
+		assertSameMatches(data.getBrowserPatternMatcher(), read.getBrowserPatternMatcher());
+		assertSameMatches(data.getOperatingSystemPatternMatcher(), read.getOperatingSystemPatternMatcher());
+		assertSameMatches(data.getDevicePatternMatcher(), read.getDevicePatternMatcher());
+	}
+
+}
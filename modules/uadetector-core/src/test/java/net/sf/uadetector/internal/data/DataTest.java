@@ -30,8 +30,11 @@ import java.util.TreeSet;
 import java.util.regex.Pattern;
 
 import net.sf.qualitycheck.exception.IllegalNullArgumentException;
+import net.sf.uadetector.DeviceCategory;
 import net.sf.uadetector.ReadableDeviceCategory.Category;
+import net.sf.uadetector.UserAgent;
 import net.sf.uadetector.UserAgentFamily;
+import net.sf.uadetector.UserAgentType;
 import net.sf.uadetector.internal.data.domain.Browser;
 import net.sf.uadetector.internal.data.domain.BrowserOperatingSystemMapping;
 import net.sf.uadetector.internal.data.domain.BrowserPattern;
@@ -303,6 +306,105 @@ public class DataTest {
 		assertThat(a.hashCode() == a.hashCode()).isTrue();
 	}
 
+	@Test
+	public void findRobot() {
+		final Robot robot1 = new Robot(1, "n1", UserAgentFamily.BINGBOT, "fn1", "iu1", "p1", "pu1", "uas1", "icn1");
+		final Robot robot2 = new Robot(2, "n2", UserAgentFamily.YAHOOFEEDSEEKER, "fn2", "iu2", "p2", "pu2", "uas2", "icn2");
+		final Robot robot3 = new Robot(3, "n3", UserAgentFamily.GOOGLEBOT, "fn3", "iu3", "p3", "pu3", "uas1", "icn3");
+		final Data data = new DataBlueprint().robots(Lists.newArrayList(robot1, robot2, robot3)).build();
+
+		assertThat(data.findRobot("uas1")).isSameAs(robot1);
+		assertThat(data.findRobot("uas2")).isSameAs(robot2);
+		assertThat(data.findRobot("uas")).isNull();
+		assertThat(data.findRobot("UAS1")).isNull();
+		assertThat(Data.EMPTY.findRobot("uas1")).isNull();
+	}
+
+	@Test
+	public void findRobotUserAgent() {
+		final Robot robot1 = new Robot(1, "Bingbot 2.0", UserAgentFamily.BINGBOT, "fn1", "iu1", "p1", "pu1", "uas1", "icn1");
+		final Robot robot2 = new Robot(2, "n2", UserAgentFamily.GOOGLEBOT, "fn2", "iu2", "p2", "pu2", "uas1", "icn2");
+		final SortedSet<DevicePattern> patterns = new TreeSet<DevicePattern>();
+		final Device other = new Device("Other", 1, Category.OTHER, "other.png", "other-info", patterns);
+		final Data data = new DataBlueprint().robots(Lists.newArrayList(robot1, robot2)).devices(Sets.newHashSet(other)).build();
+
+		final UserAgent agent = data.findRobotUserAgent("uas1");
+		assertThat(agent.getFamily()).isEqualTo(UserAgentFamily.BINGBOT);
+		assertThat(agent.getName()).isEqualTo("Bingbot 2.0");
+		assertThat(agent.getType()).isEqualTo(UserAgentType.ROBOT);
+		assertThat(agent.getVersionNumber().toVersionString()).isEqualTo("2.0");
+		assertThat(agent.getDeviceCategory()).isSameAs(data.getDeviceCategory(Category.OTHER));
+		assertThat(data.findRobotUserAgent("uas1")).isSameAs(agent);
+		assertThat(data.findRobotUserAgent("uas2")).isNull();
+		assertThat(Data.EMPTY.findRobotUserAgent("uas1")).isNull();
+	}
+
+	@Test
+	public void getDeviceCategory() {
+		final SortedSet<DevicePattern> patterns = new TreeSet<DevicePattern>();
+		final Device tablet = new Device("Tablet", 1, Category.TABLET, "tablet.png", "tablet-info", patterns);
+		final Device other = new Device("Other", 2, Category.OTHER, "other.png", "other-info", patterns);
+		final Data data = new DataBlueprint().devices(Sets.newHashSet(tablet, other)).build();
+
+		final DeviceCategory category = data.getDeviceCategory(Category.TABLET);
+		assertThat(category.getCategory()).isEqualTo(Category.TABLET);
+		assertThat(category.getIcon()).isEqualTo("tablet.png");
+		assertThat(category.getInfoUrl()).isEqualTo("tablet-info");
+		assertThat(category.getName()).isEqualTo("Tablet");
+		assertThat(data.getDeviceCategory(Category.TABLET)).isSameAs(category);
+		assertThat(data.getDeviceCategory(Category.OTHER).getName()).isEqualTo("Other");
+		assertThat(data.getDeviceCategory(Category.SMARTPHONE)).isSameAs(DeviceCategory.EMPTY);
+		assertThat(Data.EMPTY.getDeviceCategory(Category.TABLET)).isSameAs(DeviceCategory.EMPTY);
+	}
+
+	@Test
+	public void getPatterns_ordered() {
+		final Map<Integer, SortedSet<BrowserPattern>> patterns = Maps.newHashMap();
+		final TreeSet<BrowserPattern> set = Sets.newTreeSet();
+		final BrowserPattern second = new BrowserPattern(2, Pattern.compile("2"), 2);
+		final BrowserPattern first = new BrowserPattern(1, Pattern.compile("1"), 1);
+		set.add(second);
+		set.add(first);
+		patterns.put(2, set);
+		patterns.put(1, Sets.newTreeSet(Sets.newHashSet(first)));
+		final Data data = new DataBlueprint().browserPatterns(patterns).build();
+
+		assertThat(data.getBrowserPatterns()).isEqualTo(patterns);
+		assertThat(new ArrayList<Integer>(data.getBrowserPatterns().keySet())).isEqualTo(Lists.newArrayList(1, 2));
+		assertThat(new ArrayList<BrowserPattern>(data.getBrowserPatterns().get(2))).isEqualTo(Lists.newArrayList(first, second));
+	}
+
+	@Test
+	public void getPatterns_independentOfSource() {
+		final Map<Integer, SortedSet<BrowserPattern>> patterns = Maps.newHashMap();
+		final TreeSet<BrowserPattern> set = Sets.newTreeSet(Sets.newHashSet(new BrowserPattern(1, Pattern.compile("1"), 1)));
+		patterns.put(1, set);
+		final Data data = new DataBlueprint().browserPatterns(patterns).build();
+
+		set.add(new BrowserPattern(2, Pattern.compile("2"), 2));
+		patterns.put(3, set);
+		assertThat(data.getBrowserPatterns().size()).isEqualTo(1);
+		assertThat(data.getBrowserPatterns().get(1).size()).isEqualTo(1);
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void getPatterns_unmodifiable() {
+		final Map<Integer, SortedSet<BrowserPattern>> patterns = Maps.newHashMap();
+		patterns.put(1, Sets.newTreeSet(Sets.newHashSet(new BrowserPattern(1, Pattern.compile("1"), 1))));
+		final Data data = new DataBlueprint().browserPatterns(patterns).build();
+		data.getBrowserPatterns().get(1).add(new BrowserPattern(2, Pattern.compile("2"), 2));
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void getBrowserTypes_unmodifiable() {
+		new DataBlueprint().build().getBrowserTypes().put(99, new BrowserType(99, "type"));
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void getPatternToBrowserMap_unmodifiable() {
+		new DataBlueprint().build().getPatternToBrowserMap().clear();
+	}
+
 	@Test(expected = IllegalNullArgumentException.class)
 	public void precondition_BROWSERPATTERNS() {
 		new DataBlueprint().browserPatterns(null).build();
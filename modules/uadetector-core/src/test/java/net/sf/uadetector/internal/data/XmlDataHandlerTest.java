@@ -16,8 +16,14 @@
 package net.sf.uadetector.internal.data;
 
 import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
 
 import net.sf.qualitycheck.exception.IllegalNullArgumentException;
+import net.sf.uadetector.datareader.XmlDataReader;
+import net.sf.uadetector.datastore.DataStore;
+import net.sf.uadetector.datastore.TestXmlDataStore;
+import net.sf.uadetector.internal.data.domain.Robot;
 
 import static org.fest.assertions.Assertions.assertThat;
 import org.junit.Test;
@@ -32,6 +38,30 @@ public class XmlDataHandlerTest {
 		new XmlDataHandler(null);
 	}
 
+	@Test
+	public void deduplicatesRepeatedStrings() {
+		final Data data = new XmlDataReader().read(TestXmlDataStore.DATA_URL, DataStore.DEFAULT_CHARSET);
+		final Map<String, String> producers = new HashMap<String, String>();
+		final Map<String, String> icons = new HashMap<String, String>();
+		int repeated = 0;
+		for (final Robot robot : data.getRobots()) {
+			final String producer = producers.get(robot.getProducer());
+			if (producer != null) {
+				assertThat(robot.getProducer()).isSameAs(producer);
+				repeated++;
+			} else {
+				producers.put(robot.getProducer(), robot.getProducer());
+			}
+			final String icon = icons.get(robot.getIcon());
+			if (icon != null) {
+				assertThat(robot.getIcon()).isSameAs(icon);
+			} else {
+				icons.put(robot.getIcon(), robot.getIcon());
+			}
+		}
+		assertThat(repeated > 0).isTrue();
+	}
+
 	/**
 	 * This test reduces only some coverage noise.
 	 */
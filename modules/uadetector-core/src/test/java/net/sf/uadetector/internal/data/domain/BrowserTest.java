@@ -144,6 +144,18 @@ public class BrowserTest {
 		assertThat(builder.getOperatingSystem()).isNotNull();
 	}
 
+	@Test
+	public void copyTo_skipOperatingSystem() {
+		final SortedSet<OperatingSystemPattern> patternSet = new TreeSet<OperatingSystemPattern>();
+		final OperatingSystem os = new OperatingSystem(1, "n1", "f1", "iu1", patternSet, "p1", "pu1", "u1", "i1");
+		final Browser b = new Blueprint().operatingSystem(os).build();
+		final Builder builder = new UserAgent.Builder();
+		b.copyTo(builder, false);
+		assertThat(builder.getFamily()).isEqualTo(b.getFamily());
+		assertThat(builder.getTypeName()).isEqualTo(b.getType().getName());
+		assertThat(builder.getOperatingSystem()).isSameAs(net.sf.uadetector.OperatingSystem.EMPTY);
+	}
+
 	@Test
 	public void copyTo_withoutOperatingSystem() {
 		final Browser b = new Blueprint().operatingSystem(null).build();
@@ -27,6 +27,7 @@ import net.sf.qualitycheck.exception.IllegalNegativeArgumentException;
 import net.sf.qualitycheck.exception.IllegalNullArgumentException;
 import net.sf.uadetector.OperatingSystemFamily;
 import net.sf.uadetector.UserAgent;
+import net.sf.uadetector.VersionNumber;
 
 import org.junit.Test;
 
@@ -140,6 +141,40 @@ public class OperatingSystemTest {
 		assertThat(builder.getOperatingSystem().getUrl()).isEqualTo(os.getUrl());
 	}
 
+	@Test
+	public void copyTo_sharesOperatingSystemWithoutVersion() {
+		final SortedSet<OperatingSystemPattern> osPatternSet = new TreeSet<OperatingSystemPattern>();
+		final OperatingSystem os = new OperatingSystem(1, "n1", "Linux", "iu1", osPatternSet, "p1", "pu1", "u1", "i1");
+		final UserAgent.Builder builder1 = new UserAgent.Builder("Mozilla/5.0 (X11; Linux x86_64)");
+		os.copyTo(builder1);
+		final UserAgent.Builder builder2 = new UserAgent.Builder("Mozilla/5.0 (X11; Linux i686)");
+		os.copyTo(builder2);
+		assertThat(builder1.getOperatingSystem()).isSameAs(builder2.getOperatingSystem());
+		assertThat(builder1.getOperatingSystem().getVersionNumber()).isEqualTo(VersionNumber.UNKNOWN);
+	}
+
+	@Test
+	public void copyTo_withVersion() {
+		final SortedSet<OperatingSystemPattern> osPatternSet = new TreeSet<OperatingSystemPattern>();
+		final OperatingSystem os = new OperatingSystem(1, "n1", "Android", "iu1", osPatternSet, "p1", "pu1", "u1", "i1");
+		final UserAgent.Builder builder = new UserAgent.Builder("Mozilla/5.0 (Linux; U; Android 4.0.3; de-de; Galaxy S II Build/GRJ22)");
+		os.copyTo(builder);
+		assertThat(builder.getOperatingSystem().getFamily()).isEqualTo(OperatingSystemFamily.ANDROID);
+		assertThat(builder.getOperatingSystem().getName()).isEqualTo("n1");
+		assertThat(builder.getOperatingSystem().getVersionNumber().toVersionString()).isEqualTo("4.0.3");
+	}
+
+	@Test
+	public void copyTo_withoutVersion() {
+		final SortedSet<OperatingSystemPattern> osPatternSet = new TreeSet<OperatingSystemPattern>();
+		final OperatingSystem os = new OperatingSystem(1, "n1", "Android", "iu1", osPatternSet, "p1", "pu1", "u1", "i1");
+		final UserAgent.Builder builder = new UserAgent.Builder("Mozilla/5.0 (Linux; U; Android 4.0.3; de-de; Galaxy S II Build/GRJ22)");
+		os.copyTo(builder, false);
+		assertThat(builder.getOperatingSystem().getFamily()).isEqualTo(OperatingSystemFamily.ANDROID);
+		assertThat(builder.getOperatingSystem().getName()).isEqualTo("n1");
+		assertThat(builder.getOperatingSystem().getVersionNumber()).isEqualTo(VersionNumber.UNKNOWN);
+	}
+
 	@Test
 	public void equals_different_FAMILY() {
 		final OperatingSystem a = new Blueprint().family("family-1").build();
@@ -247,6 +282,13 @@ public class OperatingSystemTest {
 		assertThat(a.hashCode() == a.hashCode()).isTrue();
 	}
 
+	@Test
+	public void getOperatingSystemFamily() {
+		assertThat(new Blueprint().family("Windows").build().getOperatingSystemFamily()).isEqualTo(OperatingSystemFamily.WINDOWS);
+		assertThat(new Blueprint().family("unknown family").build().getOperatingSystemFamily()).isEqualTo(
+				OperatingSystemFamily.UNKNOWN);
+	}
+
 	@Test(expected = IllegalNullArgumentException.class)
 	public void precondition_FAMILY() {
 		new Blueprint().family(null).build();
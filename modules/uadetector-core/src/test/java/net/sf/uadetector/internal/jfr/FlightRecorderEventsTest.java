@@ -0,0 +1,226 @@
+/*******************************************************************************
+ * Copyright 2014 André Rouél
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package net.sf.uadetector.internal.jfr;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import net.sf.uadetector.datareader.BinaryDataReader;
+import net.sf.uadetector.datareader.StreamingXmlDataReader;
+import net.sf.uadetector.datastore.DataStore;
+import net.sf.uadetector.datastore.TestXmlDataStore;
+import net.sf.uadetector.internal.data.BinaryDataFormat;
+import net.sf.uadetector.internal.data.Data;
+import net.sf.uadetector.parser.UserAgentStringParserImpl;
+import net.sf.uadetector.writer.BinaryDataWriter;
+
+import org.junit.Assume;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class FlightRecorderEventsTest {
+
+	private static final String FIREFOX = "Mozilla/5.0 (Windows NT 6.1; WOW64; rv:23.0) Gecko/20100101 Firefox/23.0";
+
+	private static final Charset CHARSET = Charset.forName("UTF-8");
+
+	private static List<RecordedEvent> eventsByName(final List<RecordedEvent> events, final String name) {
+		final List<RecordedEvent> result = new ArrayList<RecordedEvent>();
+		for (final RecordedEvent event : events) {
+			if (event.getEventType().getName().equals(name)) {
+				result.add(event);
+			}
+		}
+		return result;
+	}
+
+	private static Map<String, RecordedEvent> lastEventsByName(final List<RecordedEvent> events) {
+		final Map<String, RecordedEvent> map = new HashMap<String, RecordedEvent>();
+		for (final RecordedEvent event : events) {
+			map.put(event.getEventType().getName(), event);
+		}
+		return map;
+	}
+
+	/**
+	 * Temporary folder to dump a recording. Created files in this folder are guaranteed to be deleted when the test
+	 * method finishes (whether it passes or fails).
+	 */
+	@Rule
+	public final TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void end_withoutEvent() {
+		FlightRecorderEvents.endDataBuild(null, Data.EMPTY);
+		FlightRecorderEvents.endDataRead(null, Data.EMPTY);
+		FlightRecorderEvents.endDataSwap(null, Data.EMPTY, Data.EMPTY);
+		FlightRecorderEvents.endParse(null, FIREFOX, "BROWSER", 0L);
+		FlightRecorderEvents.endUpdateCheck(null, "", "", false);
+	}
+
+	@Test
+	public void begin_withoutRecording() {
+		assertThat(FlightRecorderEvents.beginParse()).isNull();
+		assertThat(FlightRecorderEvents.beginDataRead()).isNull();
+	}
+
+	private Recording startDataReadRecording() {
+		final Recording recording = new Recording();
+		recording.enable("net.sf.uadetector.DataRead");
+		recording.start();
+		return recording;
+	}
+
+	private List<RecordedEvent> stopRecording(final Recording recording) throws IOException {
+		final File file = folder.newFile();
+		try {
+			recording.stop();
+			recording.dump(file.toPath());
+		} finally {
+			recording.close();
+		}
+		return RecordingFile.readAllEvents(file.toPath());
+	}
+
+	@Test
+	public void begin_onlyEnabledEvents() {
+		Assume.assumeTrue(FlightRecorderEvents.isAvailable());
+
+		final Recording recording = new Recording();
+		try {
+			recording.disable("net.sf.uadetector.Parse");
+			recording.enable("net.sf.uadetector.DataRead");
+			recording.start();
+			assertThat(FlightRecorderEvents.beginParse()).isNull();
+			final Object event = FlightRecorderEvents.beginDataRead();
+			assertThat(event).isNotNull();
+			FlightRecorderEvents.endDataRead(event, Data.EMPTY);
+			recording.stop();
+		} finally {
+			recording.close();
+		}
+	}
+
+	@Test
+	public void recordsDataRead_binaryDataReader() throws IOException {
+		Assume.assumeTrue(FlightRecorderEvents.isAvailable());
+
+		final File snapshot = folder.newFile("uas.bin");
+		final InputStream in = TestXmlDataStore.DATA_URL_NEWER.openStream();
+		final long checksum;
+		try {
+			checksum = BinaryDataFormat.checksum(in);
+		} finally {
+			in.close();
+		}
+		final OutputStream out = new FileOutputStream(snapshot);
+		try {
+			BinaryDataWriter.write(new StreamingXmlDataReader().read(TestXmlDataStore.DATA_URL_NEWER, CHARSET), checksum, out);
+		} finally {
+			out.close();
+		}
+
+		final Recording recording = startDataReadRecording();
+		final BinaryDataReader reader = new BinaryDataReader();
+		reader.read(snapshot.toURI().toURL(), CHARSET);
+		reader.read(snapshot.toURI().toURL(), checksum);
+		final List<RecordedEvent> reads = eventsByName(stopRecording(recording), "net.sf.uadetector.DataRead");
+
+		assertThat(reads).hasSize(2);
+		for (final RecordedEvent read : reads) {
+			assertThat(read.getString("version")).isEqualTo(TestXmlDataStore.VERSION_NEWER);
+			assertThat(read.getBoolean("failed")).isFalse();
+			assertThat(read.getInt("patterns") > 0).isTrue();
+		}
+	}
+
+	@Test
+	public void recordsDataRead_streamingXmlDataReader() throws IOException {
+		Assume.assumeTrue(FlightRecorderEvents.isAvailable());
+
+		final Recording recording = startDataReadRecording();
+		new StreamingXmlDataReader().read(TestXmlDataStore.DATA_URL_NEWER, CHARSET);
+		final List<RecordedEvent> reads = eventsByName(stopRecording(recording), "net.sf.uadetector.DataRead");
+
+		assertThat(reads).hasSize(1);
+		assertThat(reads.get(0).getString("version")).isEqualTo(TestXmlDataStore.VERSION_NEWER);
+		assertThat(reads.get(0).getBoolean("failed")).isFalse();
+		assertThat(reads.get(0).getInt("patterns") > 0).isTrue();
+	}
+
+	@Test
+	public void recordsEvents() throws IOException {
+		Assume.assumeTrue(FlightRecorderEvents.isAvailable());
+
+		final TestXmlDataStore store = new TestXmlDataStore();
+		final UserAgentStringParserImpl<DataStore> parser = new UserAgentStringParserImpl<DataStore>(store);
+		final Recording recording = new Recording();
+		final File file = folder.newFile("uadetector.jfr");
+		try {
+			recording.enable("net.sf.uadetector.Parse").withThreshold(Duration.ZERO);
+			recording.enable("net.sf.uadetector.DataRead");
+			recording.enable("net.sf.uadetector.DataBuild");
+			recording.enable("net.sf.uadetector.UpdateCheck");
+			recording.enable("net.sf.uadetector.DataSwap");
+			recording.start();
+			parser.parse(FIREFOX);
+			store.getUpdateOperation().call();
+			recording.stop();
+			recording.dump(file.toPath());
+		} finally {
+			recording.close();
+		}
+
+		final Map<String, RecordedEvent> events = lastEventsByName(RecordingFile.readAllEvents(file.toPath()));
+		final RecordedEvent parse = events.get("net.sf.uadetector.Parse");
+		assertThat(parse.getString("userAgent")).isEqualTo(FIREFOX);
+		assertThat(parse.getLong("patternsEvaluated") > 0).isTrue();
+		assertThat(parse.getString("stage")).isNotNull();
+
+		final RecordedEvent check = events.get("net.sf.uadetector.UpdateCheck");
+		assertThat(check.getString("currentVersion")).isEqualTo(TestXmlDataStore.VERSION_OLDER);
+		assertThat(check.getString("remoteVersion")).isEqualTo(TestXmlDataStore.VERSION_NEWER);
+		assertThat(check.getBoolean("updateAvailable")).isTrue();
+
+		final RecordedEvent read = events.get("net.sf.uadetector.DataRead");
+		assertThat(read.getString("version")).isEqualTo(TestXmlDataStore.VERSION_NEWER);
+		assertThat(read.getBoolean("failed")).isFalse();
+		assertThat(read.getInt("patterns") > 0).isTrue();
+
+		final RecordedEvent build = events.get("net.sf.uadetector.DataBuild");
+		assertThat(build.getString("version")).isEqualTo(TestXmlDataStore.VERSION_NEWER);
+
+		final RecordedEvent swap = events.get("net.sf.uadetector.DataSwap");
+		assertThat(swap.getString("previousVersion")).isEqualTo(TestXmlDataStore.VERSION_OLDER);
+		assertThat(swap.getString("version")).isEqualTo(TestXmlDataStore.VERSION_NEWER);
+	}
+
+}
@@ -0,0 +1,153 @@
+/*******************************************************************************
+ * Copyright 2014 André Rouél
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package net.sf.uadetector.internal.matcher;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import net.sf.qualitycheck.exception.IllegalNullArgumentException;
+
+import org.junit.Test;
+
+public class LiteralExtractorTest {
+
+	private static void assertLiterals(final String regex, final String... literals) {
+		assertLiterals(Pattern.compile(regex), literals);
+	}
+
+	private static void assertLiterals(final Pattern pattern, final String... literals) {
+		final List<List<String>> expected = new ArrayList<List<String>>();
+		if (literals.length > 0) {
+			expected.add(Arrays.asList(literals));
+		}
+		assertThat(LiteralExtractor.extract(pattern)).isEqualTo(expected);
+	}
+
+	@Test
+	public void extract_alreadyExtracted() {
+		final Pattern pattern = Pattern.compile("Mozilla/5.0 .*Firefox");
+		assertThat(LiteralExtractor.extract(pattern)).isSameAs(LiteralExtractor.extract(pattern));
+	}
+
+	@Test
+	public void extract_alternation() {
+		final List<List<String>> expected = new ArrayList<List<String>>();
+		expected.add(Arrays.asList("android 2.0"));
+		expected.add(Arrays.asList("android 2.1"));
+		assertThat(LiteralExtractor.extract(Pattern.compile("Android 2\\.0|Android 2\\.1"))).isEqualTo(expected);
+	}
+
+	@Test
+	public void extract_alternationInGroups() {
+		final List<List<String>> expected = new ArrayList<List<String>>();
+		expected.add(Arrays.asList("mozilla", "windows mobile", "iemobile"));
+		expected.add(Arrays.asList("mozilla", "windows phone", "iemobile"));
+		assertThat(LiteralExtractor.extract(Pattern.compile("^Mozilla.*((Windows Mobile)|(Windows Phone)).*IEMobile"))).isEqualTo(
+				expected);
+		assertLiterals("abc(def|gh)*", "abc");
+		assertLiterals("abc(def|gh)?", "abc");
+	}
+
+	@Test
+	public void extract_alternationTooManyAlternatives() {
+		assertThat(LiteralExtractor.extract(Pattern.compile("(ab|cd|ef|gh)(ij|kl|mn|op)(qr|st)")).size()).isEqualTo(
+				LiteralExtractor.MAX_ALTERNATIVES);
+	}
+
+	@Test
+	public void extract_alternationWithoutLiterals() {
+		assertLiterals("Android 2.0|.*");
+		assertLiterals("abc|(d)");
+		assertLiterals("abc|");
+	}
+
+	@Test
+	public void extract_characterClass() {
+		assertLiterals("abc[0-9\\]]+def[[a-z]&&[^b]]ghi", "abc", "def", "ghi");
+		assertLiterals("abc[]x]def", "abc", "def");
+	}
+
+	@Test
+	public void extract_escapedCharacters() {
+		assertLiterals("Firefox\\/([0-9a-z\\+\\-\\.]+)", "firefox/");
+		assertLiterals("Maxthon \\(([0-9\\.]+)", "maxthon (");
+		assertLiterals("abc\\d+def\\p{Alpha}ghi\\pLjkl", "abc", "def", "ghi", "jkl");
+	}
+
+	@Test
+	public void extract_groups() {
+		assertLiterals("^Mozilla.*Version\\/([0-9\\.]+)(abc)?.*Safari", "mozilla", "version/", "safari");
+		assertLiterals("abc(?:d(e)f)ghi", "abc", "ghi");
+		assertLiterals("abc(?:def(gh))ijk", "abc", "def", "gh", "ijk");
+		assertLiterals("abc(?=def)ghi", "abc", "ghi");
+		assertLiterals("abc(?<name>def)ghi", "abc", "ghi");
+		assertLiterals("(abc){2}", "abc");
+	}
+
+	@Test
+	public void extract_lowerCase() {
+		assertLiterals("^Mozilla.*Android", "mozilla", "android");
+	}
+
+	@Test
+	public void extract_nonAsciiCharacters() {
+		assertLiterals("abäcd", "ab", "cd");
+	}
+
+	@Test(expected = IllegalNullArgumentException.class)
+	public void extract_null() {
+		LiteralExtractor.extract(null);
+	}
+
+	@Test
+	public void extract_quantifiers() {
+		assertLiterals("abc?d", "ab");
+		assertLiterals("abc*d", "ab");
+		assertLiterals("abc+d", "abc");
+		assertLiterals("abc{0,2}de", "ab", "de");
+		assertLiterals("abc{2}de", "abc", "de");
+		assertLiterals("abc??de", "ab", "de");
+		assertLiterals("abc++de", "abc", "de");
+	}
+
+	@Test
+	public void extract_shortLiterals() {
+		assertLiterals("a.b.cd", "cd");
+		assertLiterals("^.*$");
+	}
+
+	@Test
+	public void extract_unsupportedConstructs() {
+		assertLiterals("abc\\Qdef\\E");
+		assertLiterals("abc\\x41def");
+		assertLiterals("(a)bc\\1");
+		assertLiterals("(?i)abc");
+		assertLiterals("abc(?x: d e f)");
+	}
+
+	@Test
+	public void extract_unsupportedFlags() {
+		assertLiterals(Pattern.compile("abc", Pattern.COMMENTS));
+		assertLiterals(Pattern.compile("abc", Pattern.LITERAL));
+		assertLiterals(Pattern.compile("abc", Pattern.UNICODE_CASE | Pattern.CASE_INSENSITIVE));
+		assertLiterals(Pattern.compile("abc", Pattern.CASE_INSENSITIVE | Pattern.DOTALL), "abc");
+	}
+
+}
@@ -0,0 +1,92 @@
+/*******************************************************************************
+ * Copyright 2014 André Rouél
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package net.sf.uadetector.internal.matcher;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+
+import net.sf.qualitycheck.exception.IllegalNullArgumentException;
+
+import org.junit.Test;
+
+public class LiteralScannerTest {
+
+	@Test(expected = IllegalNullArgumentException.class)
+	public void construct_null() {
+		new LiteralScanner(null);
+	}
+
+	@Test
+	public void scan_empty() {
+		final LiteralScanner scanner = new LiteralScanner(new ArrayList<String>());
+		assertThat(scanner.getLiteralCount()).isEqualTo(0);
+		assertThat(scanner.scan("Mozilla/5.0").isEmpty()).isTrue();
+	}
+
+	@Test
+	public void scan_ignoresCase() {
+		final LiteralScanner scanner = new LiteralScanner(Arrays.asList("firefox/", "mozilla"));
+		final BitSet found = scanner.scan("MOZILLA/5.0 Gecko FireFox/31.0");
+		assertThat(found.get(0)).isTrue();
+		assertThat(found.get(1)).isTrue();
+	}
+
+	@Test
+	public void scan_nonAsciiCharacters() {
+		final LiteralScanner scanner = new LiteralScanner(Arrays.asList("ab", "cd"));
+		final BitSet found = scanner.scan("aäb cäd ab");
+		assertThat(found.get(0)).isTrue();
+		assertThat(found.get(1)).isFalse();
+	}
+
+	@Test
+	public void scan_overlappingLiterals() {
+		final LiteralScanner scanner = new LiteralScanner(Arrays.asList("he", "she", "his", "hers", "mobile safari", "safari"));
+		assertThat(scanner.getLiteralCount()).isEqualTo(6);
+
+		final BitSet found = scanner.scan("ushers");
+		assertThat(found.get(0)).isTrue();
+		assertThat(found.get(1)).isTrue();
+		assertThat(found.get(2)).isFalse();
+		assertThat(found.get(3)).isTrue();
+
+		final BitSet found2 = scanner.scan("Version/4.0 Mobile Safari/534.30");
+		assertThat(found2.get(4)).isTrue();
+		assertThat(found2.get(5)).isTrue();
+		assertThat(found2.cardinality()).isEqualTo(2);
+	}
+
+	@Test
+	public void writeTo_readFrom() throws IOException {
+		final LiteralScanner scanner = new LiteralScanner(Arrays.asList("he", "she", "his", "hers", "mobile safari", "safari"));
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		scanner.writeTo(new DataOutputStream(bytes));
+
+		final LiteralScanner restored = LiteralScanner.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+		assertThat(restored.getLiteralCount()).isEqualTo(6);
+		assertThat(restored.scan("ushers")).isEqualTo(scanner.scan("ushers"));
+		assertThat(restored.scan("Version/4.0 Mobile Safari/534.30")).isEqualTo(scanner.scan("Version/4.0 Mobile Safari/534.30"));
+	}
+
+}
@@ -0,0 +1,158 @@
+/*******************************************************************************
+ * Copyright 2014 André Rouél
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package net.sf.uadetector.internal.matcher;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+import net.sf.qualitycheck.exception.IllegalNullArgumentException;
+import net.sf.uadetector.internal.data.domain.BrowserPattern;
+
+import org.junit.Test;
+
+public class PrefilteredPatternMatcherTest {
+
+	private static final String[] USER_AGENTS = { "", "Mozilla/5.0 (Windows NT 6.1; rv:31.0) Gecko/20100101 Firefox/31.0",
+			"Mozilla/5.0 (Linux; U; Android 4.0.3; de-de; Galaxy S II Build/GRJ22) AppleWebKit/534.30 (KHTML, like Gecko) Version/4.0 Mobile Safari/534.30",
+			"Opera/9.80 (Windows NT 6.1) Presto/2.12.388 Version/12.16", "Googlebot/2.1 (+http://www.google.com/bot.html)", "unknown" };
+
+	private static SortedMap<BrowserPattern, String> createPatterns() {
+		final SortedMap<BrowserPattern, String> map = new TreeMap<BrowserPattern, String>();
+		final int flags = Pattern.CASE_INSENSITIVE | Pattern.DOTALL;
+		map.put(new BrowserPattern(1, Pattern.compile("^Mozilla.*Android.*AppleWebKit.*Version\\/([0-9\\.]+).*Mobile Safari", flags), 1),
+				"android-webkit");
+		map.put(new BrowserPattern(2, Pattern.compile("mozilla.*rv:[0-9\\.]+.*gecko\\/[0-9]+.*firefox\\/([0-9a-z\\+\\-\\.]+)", flags), 2),
+				"firefox");
+		map.put(new BrowserPattern(3, Pattern.compile("Opera.*Version\\/([0-9\\.]+)", flags), 3), "opera");
+		map.put(new BrowserPattern(4, Pattern.compile("^Mozilla", flags), 4), "mozilla");
+		map.put(new BrowserPattern(5, Pattern.compile("bot|spider", flags), 5), "bot");
+		map.put(new BrowserPattern(6, Pattern.compile("^.+$", flags), 6), "any");
+		return map;
+	}
+
+	@Test(expected = IllegalNullArgumentException.class)
+	public void construct_null() {
+		new PrefilteredPatternMatcher<BrowserPattern, String>(null);
+	}
+
+	@Test
+	public void find_countsEvaluatedPatterns() {
+		final SortedMap<BrowserPattern, String> patterns = createPatterns();
+		final PatternMatcher<BrowserPattern, String> sequential = new SequentialPatternMatcher<BrowserPattern, String>(patterns);
+		final PatternMatcher<BrowserPattern, String> prefiltered = new PrefilteredPatternMatcher<BrowserPattern, String>(patterns);
+		for (final String userAgent : USER_AGENTS) {
+			final LongAdder all = new LongAdder();
+			final LongAdder candidates = new LongAdder();
+			sequential.find(userAgent, all);
+			prefiltered.find(userAgent, candidates);
+			assertThat(candidates.sum() > 0 || prefiltered.find(userAgent) == null).isTrue();
+			assertThat(candidates.sum() <= all.sum()).isTrue();
+		}
+		final LongAdder evaluated = new LongAdder();
+		assertThat(prefiltered.find("", evaluated)).isNull();
+		assertThat(evaluated.sum() < patterns.size()).isTrue();
+	}
+
+	@Test
+	public void find_empty() {
+		final PrefilteredPatternMatcher<BrowserPattern, String> matcher = new PrefilteredPatternMatcher<BrowserPattern, String>(
+				new TreeMap<BrowserPattern, String>());
+		assertThat(matcher.size()).isEqualTo(0);
+		assertThat(matcher.find("Mozilla/5.0")).isNull();
+	}
+
+	@Test
+	public void find_firstPatternInOrder() {
+		final PrefilteredPatternMatcher<BrowserPattern, String> matcher = new PrefilteredPatternMatcher<BrowserPattern, String>(
+				createPatterns());
+		assertThat(matcher.size()).isEqualTo(6);
+
+		final PatternMatch<BrowserPattern, String> match = matcher.find(USER_AGENTS[2]);
+		assertThat(match.getValue()).isEqualTo("android-webkit");
+		assertThat(match.getPattern().getId()).isEqualTo(1);
+		assertThat(match.getMatchResult().group(1)).isEqualTo("4.0");
+
+		assertThat(matcher.find(USER_AGENTS[1]).getValue()).isEqualTo("firefox");
+		assertThat(matcher.find(USER_AGENTS[1]).getMatchResult().group(1)).isEqualTo("31.0");
+		assertThat(matcher.find("MOZILLA").getValue()).isEqualTo("mozilla");
+		assertThat(matcher.find(USER_AGENTS[4]).getValue()).isEqualTo("bot");
+		assertThat(matcher.find(USER_AGENTS[5]).getValue()).isEqualTo("any");
+		assertThat(matcher.find("")).isNull();
+	}
+
+	@Test(expected = IllegalNullArgumentException.class)
+	public void find_null() {
+		new PrefilteredPatternMatcher<BrowserPattern, String>(createPatterns()).find(null);
+	}
+
+	@Test
+	public void find_sameResultAsSequentialPatternMatcher() {
+		final SortedMap<BrowserPattern, String> patterns = createPatterns();
+		final PatternMatcher<BrowserPattern, String> sequential = new SequentialPatternMatcher<BrowserPattern, String>(patterns);
+		final PatternMatcher<BrowserPattern, String> prefiltered = new PrefilteredPatternMatcher<BrowserPattern, String>(patterns);
+		for (final String userAgent : USER_AGENTS) {
+			final PatternMatch<BrowserPattern, String> expected = sequential.find(userAgent);
+			final PatternMatch<BrowserPattern, String> actual = prefiltered.find(userAgent);
+			if (expected == null) {
+				assertThat(actual).isNull();
+			} else {
+				assertThat(actual.getPattern()).isSameAs(expected.getPattern());
+				assertThat(actual.getValue()).isSameAs(expected.getValue());
+				assertThat(actual.getMatchResult().start()).isEqualTo(expected.getMatchResult().start());
+				assertThat(actual.getMatchResult().end()).isEqualTo(expected.getMatchResult().end());
+			}
+		}
+	}
+
+	@Test
+	public void writeIndexTo_readIndexFrom() throws IOException {
+		final SortedMap<BrowserPattern, String> patterns = createPatterns();
+		final PrefilteredPatternMatcher<BrowserPattern, String> matcher = new PrefilteredPatternMatcher<BrowserPattern, String>(patterns);
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		matcher.writeIndexTo(new DataOutputStream(bytes));
+
+		final PrefilteredPatternMatcher<BrowserPattern, String> restored = PrefilteredPatternMatcher.readIndexFrom(new DataInputStream(
+				new ByteArrayInputStream(bytes.toByteArray())), patterns);
+		assertThat(restored.size()).isEqualTo(matcher.size());
+		for (final String userAgent : USER_AGENTS) {
+			final PatternMatch<BrowserPattern, String> expected = matcher.find(userAgent);
+			final PatternMatch<BrowserPattern, String> actual = restored.find(userAgent);
+			if (expected == null) {
+				assertThat(actual).isNull();
+			} else {
+				assertThat(actual.getPattern()).isSameAs(expected.getPattern());
+			}
+		}
+	}
+
+	@Test(expected = IOException.class)
+	public void readIndexFrom_otherPatterns() throws IOException {
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		new PrefilteredPatternMatcher<BrowserPattern, String>(createPatterns()).writeIndexTo(new DataOutputStream(bytes));
+		PrefilteredPatternMatcher.readIndexFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())),
+				new TreeMap<BrowserPattern, String>());
+	}
+
+}
@@ -0,0 +1,73 @@
+/*******************************************************************************
+ * Copyright 2014 André Rouél
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package net.sf.uadetector.internal.matcher;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+import net.sf.qualitycheck.exception.IllegalNullArgumentException;
+import net.sf.uadetector.internal.data.domain.DevicePattern;
+
+import org.junit.Test;
+
+public class SequentialPatternMatcherTest {
+
+	@Test(expected = IllegalNullArgumentException.class)
+	public void construct_null() {
+		new SequentialPatternMatcher<DevicePattern, String>(null);
+	}
+
+	@Test
+	public void find() {
+		final SortedMap<DevicePattern, String> map = new TreeMap<DevicePattern, String>();
+		map.put(new DevicePattern(2, Pattern.compile("iPad"), 2), "tablet");
+		map.put(new DevicePattern(1, Pattern.compile("iPhone|iPod"), 1), "smartphone");
+		map.put(new DevicePattern(3, Pattern.compile("(Mobile)"), 3), "mobile");
+		final SequentialPatternMatcher<DevicePattern, String> matcher = new SequentialPatternMatcher<DevicePattern, String>(map);
+
+		assertThat(matcher.size()).isEqualTo(3);
+		assertThat(matcher.find("Mozilla/5.0 (iPad; iPod) Mobile").getValue()).isEqualTo("smartphone");
+		assertThat(matcher.find("Mozilla/5.0 (iPad) Mobile").getValue()).isEqualTo("tablet");
+		assertThat(matcher.find("Mozilla/5.0 Mobile").getMatchResult().group(1)).isEqualTo("Mobile");
+		assertThat(matcher.find("Mozilla/5.0")).isNull();
+	}
+
+	@Test
+	public void find_countsEvaluatedPatterns() {
+		final SortedMap<DevicePattern, String> map = new TreeMap<DevicePattern, String>();
+		map.put(new DevicePattern(1, Pattern.compile("iPhone"), 1), "smartphone");
+		map.put(new DevicePattern(2, Pattern.compile("iPad"), 2), "tablet");
+		final SequentialPatternMatcher<DevicePattern, String> matcher = new SequentialPatternMatcher<DevicePattern, String>(map);
+
+		final LongAdder evaluated = new LongAdder();
+		assertThat(matcher.find("Mozilla/5.0 (iPad)", evaluated).getValue()).isEqualTo("tablet");
+		assertThat(evaluated.sum()).isEqualTo(2);
+		assertThat(matcher.find("Mozilla/5.0 (iPhone)", evaluated).getValue()).isEqualTo("smartphone");
+		assertThat(evaluated.sum()).isEqualTo(3);
+		assertThat(matcher.find("Mozilla/5.0", evaluated)).isNull();
+		assertThat(evaluated.sum()).isEqualTo(5);
+	}
+
+	@Test(expected = IllegalNullArgumentException.class)
+	public void find_null() {
+		new SequentialPatternMatcher<DevicePattern, String>(new TreeMap<DevicePattern, String>()).find(null);
+	}
+
+}
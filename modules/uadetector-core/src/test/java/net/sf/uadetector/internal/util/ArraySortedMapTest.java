@@ -0,0 +1,126 @@
+/*******************************************************************************
+ * Copyright 2014 André Rouél
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package net.sf.uadetector.internal.util;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import net.sf.qualitycheck.exception.IllegalNullArgumentException;
+
+import org.junit.Test;
+
+public class ArraySortedMapTest {
+
+	private static ArraySortedMap<Integer, String> create(final Integer... keys) {
+		final Map<Integer, String> map = new HashMap<Integer, String>();
+		for (final Integer key : keys) {
+			map.put(key, "v" + key);
+		}
+		return ArraySortedMap.copyOf(map);
+	}
+
+	@Test
+	public void copyOf_alreadyCompact() {
+		final ArraySortedMap<Integer, String> map = create(1, 2);
+		assertThat(ArraySortedMap.copyOf(map)).isSameAs(map);
+	}
+
+	@Test
+	public void copyOf_equalsTreeMap() {
+		final TreeMap<Integer, String> tree = new TreeMap<Integer, String>();
+		tree.put(5, "five");
+		tree.put(1, "one");
+		tree.put(3, "three");
+		final ArraySortedMap<Integer, String> map = ArraySortedMap.copyOf(tree);
+		assertThat(map).isEqualTo(tree);
+		assertThat(tree).isEqualTo(map);
+		assertThat(map.hashCode()).isEqualTo(tree.hashCode());
+		assertThat(map.toString()).isEqualTo(tree.toString());
+	}
+
+	@Test(expected = IllegalNullArgumentException.class)
+	public void copyOf_null() {
+		ArraySortedMap.copyOf(null);
+	}
+
+	@Test
+	public void firstAndLastKey() {
+		final ArraySortedMap<Integer, String> map = create(8, 2, 4);
+		assertThat(map.firstKey()).isEqualTo(2);
+		assertThat(map.lastKey()).isEqualTo(8);
+	}
+
+	@Test(expected = NoSuchElementException.class)
+	public void firstKey_empty() {
+		create().firstKey();
+	}
+
+	@Test
+	public void get() {
+		final ArraySortedMap<Integer, String> map = create(3, 1, 2);
+		assertThat(map.get(2)).isEqualTo("v2");
+		assertThat(map.get(4)).isNull();
+		assertThat(map.get(null)).isNull();
+		assertThat(map.get("2")).isNull();
+		assertThat(map.containsKey(1)).isTrue();
+		assertThat(map.containsKey(0)).isFalse();
+	}
+
+	@Test
+	public void keysAndValues_sorted() {
+		final ArraySortedMap<Integer, String> map = create(4, 2, 3, 1);
+		assertThat(new ArrayList<Integer>(map.keySet())).isEqualTo(Arrays.asList(1, 2, 3, 4));
+		assertThat(new ArrayList<String>(map.values())).isEqualTo(Arrays.asList("v1", "v2", "v3", "v4"));
+		assertThat(map.entrySet().iterator().next().getKey()).isEqualTo(1);
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void put() {
+		create(1).put(2, "v2");
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void entrySet_setValue() {
+		create(1).entrySet().iterator().next().setValue("changed");
+	}
+
+	@Test
+	public void subMaps() {
+		final ArraySortedMap<Integer, String> map = create(1, 3, 5, 7, 9);
+		assertThat(new ArrayList<Integer>(map.headMap(5).keySet())).isEqualTo(Arrays.asList(1, 3));
+		assertThat(new ArrayList<Integer>(map.tailMap(4).keySet())).isEqualTo(Arrays.asList(5, 7, 9));
+		final SortedMap<Integer, String> sub = map.subMap(2, 8);
+		assertThat(new ArrayList<String>(sub.values())).isEqualTo(Arrays.asList("v3", "v5", "v7"));
+		assertThat(sub.get(1)).isNull();
+		assertThat(sub.get(9)).isNull();
+		assertThat(sub.firstKey()).isEqualTo(3);
+		assertThat(sub.lastKey()).isEqualTo(7);
+		assertThat(sub.size()).isEqualTo(3);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void subMap_fromGreaterThanTo() {
+		create(1, 2, 3).subMap(3, 1);
+	}
+
+}
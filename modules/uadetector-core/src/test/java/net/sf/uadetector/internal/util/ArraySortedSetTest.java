@@ -0,0 +1,118 @@
+/*******************************************************************************
+ * Copyright 2014 André Rouél
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package net.sf.uadetector.internal.util;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import net.sf.qualitycheck.exception.IllegalNullArgumentException;
+
+import org.junit.Test;
+
+public class ArraySortedSetTest {
+
+	private static ArraySortedSet<Integer> create(final Integer... elements) {
+		return ArraySortedSet.copyOf(new HashSet<Integer>(Arrays.asList(elements)));
+	}
+
+	@Test
+	public void contains() {
+		final ArraySortedSet<Integer> set = create(3, 1, 2);
+		assertThat(set.contains(1)).isTrue();
+		assertThat(set.contains(3)).isTrue();
+		assertThat(set.contains(4)).isFalse();
+		assertThat(set.contains(null)).isFalse();
+		assertThat(set.contains("1")).isFalse();
+	}
+
+	@Test
+	public void copyOf_alreadyCompact() {
+		final ArraySortedSet<Integer> set = create(1, 2);
+		assertThat(ArraySortedSet.copyOf(set)).isSameAs(set);
+	}
+
+	@Test
+	public void copyOf_equalsTreeSet() {
+		final TreeSet<Integer> tree = new TreeSet<Integer>(Arrays.asList(5, 3, 9, 1));
+		final ArraySortedSet<Integer> set = ArraySortedSet.copyOf(tree);
+		assertThat(set).isEqualTo(tree);
+		assertThat(tree).isEqualTo(set);
+		assertThat(set.hashCode()).isEqualTo(tree.hashCode());
+		assertThat(set.toString()).isEqualTo(tree.toString());
+	}
+
+	@Test(expected = IllegalNullArgumentException.class)
+	public void copyOf_null() {
+		ArraySortedSet.copyOf(null);
+	}
+
+	@Test
+	public void firstAndLast() {
+		final ArraySortedSet<Integer> set = create(7, 3, 5);
+		assertThat(set.first()).isEqualTo(3);
+		assertThat(set.last()).isEqualTo(7);
+	}
+
+	@Test(expected = NoSuchElementException.class)
+	public void first_empty() {
+		create().first();
+	}
+
+	@Test
+	public void iterator_sorted() {
+		assertThat(new ArrayList<Integer>(create(4, 2, 3, 1))).isEqualTo(Arrays.asList(1, 2, 3, 4));
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void iterator_remove() {
+		final Iterator<Integer> iterator = create(1).iterator();
+		iterator.next();
+		iterator.remove();
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void add() {
+		create(1).add(2);
+	}
+
+	@Test
+	public void subSets() {
+		final ArraySortedSet<Integer> set = create(1, 3, 5, 7, 9);
+		assertThat(new ArrayList<Integer>(set.headSet(5))).isEqualTo(Arrays.asList(1, 3));
+		assertThat(new ArrayList<Integer>(set.tailSet(4))).isEqualTo(Arrays.asList(5, 7, 9));
+		final SortedSet<Integer> sub = set.subSet(2, 8);
+		assertThat(new ArrayList<Integer>(sub)).isEqualTo(Arrays.asList(3, 5, 7));
+		assertThat(sub.contains(1)).isFalse();
+		assertThat(sub.contains(9)).isFalse();
+		assertThat(sub.first()).isEqualTo(3);
+		assertThat(sub.last()).isEqualTo(7);
+		assertThat(new ArrayList<Integer>(sub.headSet(6))).isEqualTo(Arrays.asList(3, 5));
+		assertThat(set.subSet(4, 4).isEmpty()).isTrue();
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void subSet_fromGreaterThanTo() {
+		create(1, 2, 3).subSet(3, 1);
+	}
+
+}
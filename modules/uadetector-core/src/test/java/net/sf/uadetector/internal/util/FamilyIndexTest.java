@@ -0,0 +1,100 @@
+/*******************************************************************************
+ * Copyright 2014 André Rouél
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package net.sf.uadetector.internal.util;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.util.regex.Pattern;
+
+import net.sf.qualitycheck.exception.IllegalNullArgumentException;
+import net.sf.qualitycheck.exception.IllegalStateOfArgumentException;
+
+import org.junit.Test;
+
+public class FamilyIndexTest {
+
+	private enum Family {
+		UNKNOWN, FIREFOX, FIREFOX_DUPLICATE, OPERA, BACK_REFERENCE
+	}
+
+	private static FamilyIndex<Family> createIndex(final boolean ignoreCase, final Pattern... patterns) {
+		final String[] names = { "unknown", "Firefox", "Firefox", "Opera", "Reference" };
+		return new FamilyIndex<Family>(Family.values(), names, patterns, ignoreCase, Family.UNKNOWN);
+	}
+
+	private static FamilyIndex<Family> createIndex(final boolean ignoreCase) {
+		return createIndex(ignoreCase, Pattern.compile("^$"), Pattern.compile("Firefox(/\\d+)?"), Pattern.compile("Firefox.*"),
+				Pattern.compile("Opera(/(\\d+))?", Pattern.CASE_INSENSITIVE), Pattern.compile("(a)\\1"));
+	}
+
+	@Test(expected = IllegalStateOfArgumentException.class)
+	public void construct_differentLengths() {
+		new FamilyIndex<Family>(Family.values(), new String[] { "unknown" }, new Pattern[] { Pattern.compile("^$") }, false,
+				Family.UNKNOWN);
+	}
+
+	@Test(expected = IllegalNullArgumentException.class)
+	public void construct_null() {
+		new FamilyIndex<Family>(null, new String[0], new Pattern[0], false, Family.UNKNOWN);
+	}
+
+	@Test
+	public void evaluate() {
+		final FamilyIndex<Family> index = createIndex(false);
+		assertThat(index.evaluate("Firefox")).isEqualTo(Family.FIREFOX);
+		assertThat(index.evaluate("Firefox")).isEqualTo(Family.FIREFOX);
+		assertThat(index.evaluate("Firefox/31")).isEqualTo(Family.FIREFOX);
+		assertThat(index.evaluate("Firefox Beta")).isEqualTo(Family.FIREFOX_DUPLICATE);
+		assertThat(index.evaluate("xyz")).isEqualTo(Family.UNKNOWN);
+	}
+
+	@Test(expected = IllegalNullArgumentException.class)
+	public void evaluate_null() {
+		createIndex(false).evaluate(null);
+	}
+
+	@Test
+	public void evaluateByName() {
+		assertThat(createIndex(false).evaluateByName("Firefox")).isEqualTo(Family.FIREFOX);
+		assertThat(createIndex(false).evaluateByName("firefox")).isEqualTo(Family.UNKNOWN);
+		assertThat(createIndex(true).evaluateByName("firefox")).isEqualTo(Family.FIREFOX);
+		assertThat(createIndex(true).evaluateByName("OPERA")).isEqualTo(Family.OPERA);
+		assertThat(createIndex(true).evaluateByName("Firefox/31")).isEqualTo(Family.UNKNOWN);
+	}
+
+	@Test
+	public void evaluateByPattern() {
+		final FamilyIndex<Family> index = createIndex(false);
+		assertThat(index.evaluateByPattern("")).isEqualTo(Family.UNKNOWN);
+		assertThat(index.evaluateByPattern("Firefox/31")).isEqualTo(Family.FIREFOX);
+		assertThat(index.evaluateByPattern("Firefox/beta")).isEqualTo(Family.FIREFOX_DUPLICATE);
+		assertThat(index.evaluateByPattern("OPERA/12")).isEqualTo(Family.OPERA);
+		assertThat(index.evaluateByPattern("aa")).isEqualTo(Family.BACK_REFERENCE);
+		assertThat(index.evaluateByPattern("Opera/12 ")).isEqualTo(Family.UNKNOWN);
+	}
+
+	@Test
+	public void evaluateByPattern_withoutBackReference() {
+		final FamilyIndex<Family> index = createIndex(false, Pattern.compile("^$"), Pattern.compile("(Fire)(fox)"),
+				Pattern.compile("Fire(f)ox.*"), Pattern.compile("Opera", Pattern.CASE_INSENSITIVE), Pattern.compile("(a)(b)"));
+		assertThat(index.evaluateByPattern("Firefox")).isEqualTo(Family.FIREFOX);
+		assertThat(index.evaluateByPattern("Firefox Beta")).isEqualTo(Family.FIREFOX_DUPLICATE);
+		assertThat(index.evaluateByPattern("opera")).isEqualTo(Family.OPERA);
+		assertThat(index.evaluateByPattern("ab")).isEqualTo(Family.BACK_REFERENCE);
+		assertThat(index.evaluateByPattern("abc")).isEqualTo(Family.UNKNOWN);
+	}
+
+}
@@ -0,0 +1,98 @@
+/*******************************************************************************
+ * Copyright 2014 André Rouél
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package net.sf.uadetector.internal.util;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.lang.reflect.Constructor;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import net.sf.qualitycheck.exception.IllegalNullArgumentException;
+import net.sf.uadetector.datareader.XmlDataReader;
+import net.sf.uadetector.datastore.DataStore;
+import net.sf.uadetector.datastore.TestXmlDataStore;
+import net.sf.uadetector.internal.data.Data;
+import net.sf.uadetector.internal.data.domain.BrowserPattern;
+
+import org.junit.Test;
+
+public class PatternPoolTest {
+
+	@Test
+	public void compile() {
+		final Pattern pattern = PatternPool.compile("PatternPoolTest/\\d+", Pattern.CASE_INSENSITIVE);
+		assertThat(pattern.pattern()).isEqualTo("PatternPoolTest/\\d+");
+		assertThat(pattern.flags()).isEqualTo(Pattern.CASE_INSENSITIVE);
+		assertThat(PatternPool.size() > 0).isTrue();
+	}
+
+	@Test
+	public void compile_differentFlags() {
+		final Pattern a = PatternPool.compile("PatternPoolTest flags", 0);
+		final Pattern b = PatternPool.compile("PatternPoolTest flags", Pattern.CASE_INSENSITIVE);
+		assertThat(a).isNotSameAs(b);
+	}
+
+	@Test(expected = PatternSyntaxException.class)
+	public void compile_invalidRegex() {
+		PatternPool.compile("PatternPoolTest(", 0);
+	}
+
+	@Test(expected = IllegalNullArgumentException.class)
+	public void compile_regex_null() {
+		PatternPool.compile(null, 0);
+	}
+
+	@Test
+	public void compile_sameRegexAndFlags() {
+		final Pattern a = PatternPool.compile(new String("PatternPoolTest same"), Pattern.DOTALL);
+		final Pattern b = PatternPool.compile(new String("PatternPoolTest same"), Pattern.DOTALL);
+		assertThat(a).isSameAs(b);
+	}
+
+	@Test
+	public void giveMeCoverageForMyPrivateConstructor() throws Exception {
+		// reduces only some noise in coverage report
+		final Constructor<PatternPool> constructor = PatternPool.class.getDeclaredConstructor();
+		constructor.setAccessible(true);
+		constructor.newInstance();
+	}
+
+	@Test
+	public void sharedAcrossDataVersions() {
+		final XmlDataReader reader = new XmlDataReader();
+		final Data older = reader.read(TestXmlDataStore.DATA_URL, DataStore.DEFAULT_CHARSET);
+		final Data newer = reader.read(TestXmlDataStore.DATA_URL_NEWER, DataStore.DEFAULT_CHARSET);
+
+		final Map<String, Pattern> olderPatterns = new HashMap<String, Pattern>();
+		for (final BrowserPattern pattern : older.getPatternToBrowserMap().keySet()) {
+			olderPatterns.put(RegularExpressionConverter.convertPatternToPerlRegex(pattern.getPattern()), pattern.getPattern());
+		}
+		int shared = 0;
+		for (final BrowserPattern pattern : newer.getPatternToBrowserMap().keySet()) {
+			final Pattern olderPattern = olderPatterns.get(RegularExpressionConverter.convertPatternToPerlRegex(pattern.getPattern()));
+			if (olderPattern != null) {
+				assertThat(pattern.getPattern()).isSameAs(olderPattern);
+				shared++;
+			}
+		}
+		assertThat(shared > 0).isTrue();
+	}
+
+}
@@ -0,0 +1,115 @@
+/*******************************************************************************
+ * Copyright 2014 André Rouél
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package net.sf.uadetector.internal.util;
+
+import static org.fest.assertions.Assertions.assertThat;
+import net.sf.qualitycheck.exception.IllegalNegativeArgumentException;
+import net.sf.qualitycheck.exception.IllegalNullArgumentException;
+
+import org.junit.Test;
+
+public class SegmentedLruCacheTest {
+
+	@Test(expected = IllegalNegativeArgumentException.class)
+	public void construct_negativeMaximumSize() {
+		new SegmentedLruCache<String, String>(-1);
+	}
+
+	@Test
+	public void clear() {
+		final SegmentedLruCache<String, String> cache = new SegmentedLruCache<String, String>(10);
+		cache.put("a", "1");
+		cache.put("b", "2");
+		cache.get("a");
+		cache.clear();
+		assertThat(cache.size()).isEqualTo(0);
+		assertThat(cache.get("a")).isNull();
+	}
+
+	@Test
+	public void evict_leastRecentlyUsed() {
+		final SegmentedLruCache<String, String> cache = new SegmentedLruCache<String, String>(3);
+		cache.put("a", "1");
+		cache.put("b", "2");
+		cache.put("c", "3");
+		cache.put("d", "4");
+		assertThat(cache.size()).isEqualTo(3);
+		assertThat(cache.get("a")).isNull();
+		assertThat(cache.get("d")).isEqualTo("4");
+	}
+
+	@Test
+	public void evict_protectsFrequentlyUsedEntries() {
+		final SegmentedLruCache<String, String> cache = new SegmentedLruCache<String, String>(10);
+		cache.put("frequent", "1");
+		assertThat(cache.get("frequent")).isEqualTo("1");
+
+		// a scan of entries which are requested only once must not evict the frequently used entry
+		for (int i = 0; i < 100; i++) {
+			cache.put("once" + i, "x");
+		}
+		assertThat(cache.get("frequent")).isEqualTo("1");
+		assertThat(cache.size()).isEqualTo(10);
+	}
+
+	@Test(expected = IllegalNullArgumentException.class)
+	public void get_null() {
+		new SegmentedLruCache<String, String>(10).get(null);
+	}
+
+	@Test
+	public void maximumSize() {
+		final SegmentedLruCache<Integer, Integer> cache = new SegmentedLruCache<Integer, Integer>(1000);
+		assertThat(cache.getMaximumSize()).isEqualTo(1000);
+		for (int i = 0; i < 10000; i++) {
+			cache.put(i, i);
+			if (i % 3 == 0) {
+				cache.get(i);
+			}
+		}
+		assertThat(cache.size()).isEqualTo(1000);
+	}
+
+	@Test
+	public void maximumSize_zero() {
+		final SegmentedLruCache<String, String> cache = new SegmentedLruCache<String, String>(0);
+		cache.put("a", "1");
+		assertThat(cache.size()).isEqualTo(0);
+		assertThat(cache.get("a")).isNull();
+	}
+
+	@Test(expected = IllegalNullArgumentException.class)
+	public void put_nullKey() {
+		new SegmentedLruCache<String, String>(10).put(null, "1");
+	}
+
+	@Test(expected = IllegalNullArgumentException.class)
+	public void put_nullValue() {
+		new SegmentedLruCache<String, String>(10).put("a", null);
+	}
+
+	@Test
+	public void put_replacesValue() {
+		final SegmentedLruCache<String, String> cache = new SegmentedLruCache<String, String>(10);
+		cache.put("a", "1");
+		cache.put("a", "2");
+		assertThat(cache.get("a")).isEqualTo("2");
+		cache.put("a", "3");
+		assertThat(cache.get("a")).isEqualTo("3");
+		assertThat(cache.size()).isEqualTo(1);
+	}
+
+}
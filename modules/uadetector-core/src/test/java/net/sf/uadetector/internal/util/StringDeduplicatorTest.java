@@ -0,0 +1,49 @@
+/*******************************************************************************
+ * Copyright 2014 André Rouél
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package net.sf.uadetector.internal.util;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import org.junit.Test;
+
+public class StringDeduplicatorTest {
+
+	@Test
+	public void deduplicate() {
+		final StringDeduplicator strings = new StringDeduplicator();
+		final String first = new String("http://www.example.com/");
+		final String second = new String("http://www.example.com/");
+		assertThat(strings.deduplicate(first)).isSameAs(first);
+		assertThat(strings.deduplicate(second)).isSameAs(first);
+		assertThat(strings.size()).isEqualTo(1);
+	}
+
+	@Test
+	public void deduplicate_differentStrings() {
+		final StringDeduplicator strings = new StringDeduplicator();
+		assertThat(strings.deduplicate("a")).isEqualTo("a");
+		assertThat(strings.deduplicate("b")).isEqualTo("b");
+		assertThat(strings.size()).isEqualTo(2);
+	}
+
+	@Test
+	public void deduplicate_null() {
+		final StringDeduplicator strings = new StringDeduplicator();
+		assertThat(strings.deduplicate(null)).isNull();
+		assertThat(strings.size()).isEqualTo(0);
+	}
+
+}
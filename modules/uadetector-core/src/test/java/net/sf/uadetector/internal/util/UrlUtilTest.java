@@ -15,12 +15,16 @@
  ******************************************************************************/
 package net.sf.uadetector.internal.util;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.lang.reflect.Constructor;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.nio.charset.Charset;
+import java.util.Arrays;
 
 import net.sf.qualitycheck.exception.IllegalNullArgumentException;
 import net.sf.qualitycheck.exception.IllegalStateOfArgumentException;
@@ -47,6 +51,24 @@ public class UrlUtilTest {
 		UrlUtil.build(null);
 	}
 
+	@Test
+	public void copy_inputStream() throws IOException {
+		final ByteArrayInputStream inputStream = new ByteArrayInputStream(new byte[] { 1, 2, 3 });
+		final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		assertThat(UrlUtil.copy(inputStream, outputStream)).isEqualTo(3);
+		assertThat(Arrays.equals(outputStream.toByteArray(), new byte[] { 1, 2, 3 })).isTrue();
+	}
+
+	@Test(expected = IllegalNullArgumentException.class)
+	public void copy_inputStream_null() throws IOException {
+		UrlUtil.copy((InputStream) null, new ByteArrayOutputStream());
+	}
+
+	@Test(expected = IllegalNullArgumentException.class)
+	public void copy_outputStream_null() throws IOException {
+		UrlUtil.copy(new ByteArrayInputStream(new byte[0]), null);
+	}
+
 	@Test
 	public void giveMeCoverageForMyPrivateConstructor() throws Exception {
 		// reduces only some noise in coverage report
@@ -0,0 +1,158 @@
+/*******************************************************************************
+ * Copyright 2014 André Rouél
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package net.sf.uadetector.parser;
+
+import static org.fest.assertions.Assertions.assertThat;
+import net.sf.qualitycheck.exception.IllegalNegativeArgumentException;
+import net.sf.qualitycheck.exception.IllegalNullArgumentException;
+import net.sf.uadetector.ReadableUserAgent;
+import net.sf.uadetector.UserAgent;
+import net.sf.uadetector.UserAgentStringParser;
+
+import org.junit.Test;
+
+public class CachingUserAgentStringParserTest {
+
+	/**
+	 * Parser which counts the number of parsed user agent strings and whose data version can be changed
+	 */
+	private static final class CountingParser implements UserAgentStringParser {
+
+		private int parsed;
+
+		private boolean shutdown;
+
+		private String version = "20140101-01";
+
+		@Override
+		public String getDataVersion() {
+			return version;
+		}
+
+		@Override
+		public ReadableUserAgent parse(final String userAgent) {
+			parsed++;
+			return new UserAgent.Builder(userAgent).build();
+		}
+
+		@Override
+		public void shutdown() {
+			shutdown = true;
+		}
+
+	}
+
+	@Test(expected = IllegalNegativeArgumentException.class)
+	public void construct_negativeMaximumSize() {
+		new CachingUserAgentStringParser(new CountingParser(), -1);
+	}
+
+	@Test(expected = IllegalNullArgumentException.class)
+	public void construct_nullParser() {
+		new CachingUserAgentStringParser(null);
+	}
+
+	@Test
+	public void construct_successful() {
+		final CountingParser delegate = new CountingParser();
+		final CachingUserAgentStringParser parser = new CachingUserAgentStringParser(delegate);
+		assertThat(parser.getMaximumSize()).isEqualTo(CachingUserAgentStringParser.DEFAULT_MAXIMUM_SIZE);
+		assertThat(parser.getParser()).isSameAs(delegate);
+		assertThat(parser.getDataVersion()).isEqualTo("20140101-01");
+		assertThat(parser.getCacheSize()).isEqualTo(0);
+	}
+
+	@Test
+	public void parse_cached() {
+		final CountingParser delegate = new CountingParser();
+		final CachingUserAgentStringParser parser = new CachingUserAgentStringParser(delegate, 100);
+		final ReadableUserAgent first = parser.parse("Mozilla/5.0");
+		assertThat(parser.parse("Mozilla/5.0")).isSameAs(first);
+		assertThat(delegate.parsed).isEqualTo(1);
+		assertThat(parser.getCacheSize()).isEqualTo(1);
+	}
+
+	@Test
+	public void parse_builder_cached() {
+		final CountingParser delegate = new CountingParser();
+		final CachingUserAgentStringParser parser = new CachingUserAgentStringParser(delegate, 100);
+		final UserAgent.Builder builder = new UserAgent.Builder();
+		assertThat(parser.parse("Mozilla/5.0", builder)).isSameAs(builder);
+		assertThat(builder.getUserAgentString()).isEqualTo("Mozilla/5.0");
+		assertThat(parser.getCacheSize()).isEqualTo(1);
+
+		final UserAgent.Builder other = new UserAgent.Builder();
+		parser.parse("Mozilla/5.0", other);
+		assertThat(other.build()).isEqualTo(builder.build());
+		assertThat(parser.parse("Mozilla/5.0")).isEqualTo(builder.build());
+		assertThat(delegate.parsed).isEqualTo(1);
+	}
+
+	@Test(expected = IllegalNullArgumentException.class)
+	public void parse_builder_null() {
+		new CachingUserAgentStringParser(new CountingParser()).parse("Mozilla/5.0", null);
+	}
+
+	@Test
+	public void parse_disabledCache() {
+		final CountingParser delegate = new CountingParser();
+		final CachingUserAgentStringParser parser = new CachingUserAgentStringParser(delegate, 0);
+		parser.parse("Mozilla/5.0");
+		parser.parse("Mozilla/5.0");
+		assertThat(delegate.parsed).isEqualTo(2);
+		assertThat(parser.getCacheSize()).isEqualTo(0);
+	}
+
+	@Test
+	public void parse_invalidatedByNewDataVersion() {
+		final CountingParser delegate = new CountingParser();
+		final CachingUserAgentStringParser parser = new CachingUserAgentStringParser(delegate, 100);
+		final ReadableUserAgent first = parser.parse("Mozilla/5.0");
+		parser.parse("Opera/9.80");
+		assertThat(parser.getCacheSize()).isEqualTo(2);
+
+		delegate.version = "20140101-02";
+		final ReadableUserAgent second = parser.parse("Mozilla/5.0");
+		assertThat(second).isNotSameAs(first);
+		assertThat(delegate.parsed).isEqualTo(3);
+		assertThat(parser.getCacheSize()).isEqualTo(1);
+		assertThat(parser.getDataVersion()).isEqualTo("20140101-02");
+	}
+
+	@Test
+	public void parse_maximumSize() {
+		final CountingParser delegate = new CountingParser();
+		final CachingUserAgentStringParser parser = new CachingUserAgentStringParser(delegate, 10);
+		for (int i = 0; i < 100; i++) {
+			parser.parse("agent " + i);
+		}
+		assertThat(parser.getCacheSize()).isEqualTo(10);
+	}
+
+	@Test(expected = IllegalNullArgumentException.class)
+	public void parse_null() {
+		// the decorated parser decides how to handle null
+		new CachingUserAgentStringParser(new CountingParser()).parse(null);
+	}
+
+	@Test
+	public void shutdown() {
+		final CountingParser delegate = new CountingParser();
+		new CachingUserAgentStringParser(delegate).shutdown();
+		assertThat(delegate.shutdown).isTrue();
+	}
+
+}
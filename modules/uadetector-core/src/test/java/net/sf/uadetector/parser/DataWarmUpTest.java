@@ -0,0 +1,117 @@
+/*******************************************************************************
+ * Copyright 2014 André Rouél
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package net.sf.uadetector.parser;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+
+import net.sf.qualitycheck.exception.IllegalNullArgumentException;
+import net.sf.uadetector.ReadableUserAgent;
+import net.sf.uadetector.datastore.DataStore;
+import net.sf.uadetector.datastore.TestXmlDataStore;
+import net.sf.uadetector.internal.data.Data;
+import net.sf.uadetector.internal.data.DataBlueprint;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.base.Charsets;
+import com.google.common.io.Files;
+
+public class DataWarmUpTest {
+
+	private static final String FIREFOX = "Mozilla/5.0 (Windows NT 6.1; WOW64; rv:23.0) Gecko/20100101 Firefox/23.0";
+
+	private static final String GOOGLEBOT = "Mozilla/5.0 (compatible; Googlebot/2.1; +http://www.google.com/bot.html)";
+
+	/**
+	 * Temporary folder to store a corpus in a file. Created files in this folder are guaranteed to be deleted when the
+	 * test method finishes (whether it passes or fails).
+	 */
+	@Rule
+	public final TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void beforeUpdate_warmsUpNextData() {
+		final TestXmlDataStore store = new TestXmlDataStore();
+		store.addUpdateListener(new DataWarmUp(Arrays.asList(FIREFOX, GOOGLEBOT, "")));
+		store.refresh();
+		assertThat(store.getData().getVersion()).isEqualTo(TestXmlDataStore.VERSION_NEWER);
+	}
+
+	@Test(expected = IllegalNullArgumentException.class)
+	public void construct_userAgents_null() {
+		new DataWarmUp(null);
+	}
+
+	@Test
+	public void construct_userAgents_withNullElements() {
+		final DataWarmUp warmUp = new DataWarmUp(Arrays.asList(FIREFOX, null, GOOGLEBOT));
+		assertThat(warmUp.getUserAgents()).isEqualTo(Arrays.asList(FIREFOX, GOOGLEBOT));
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void getUserAgents_unmodifiable() {
+		new DataWarmUp(Collections.singletonList(FIREFOX)).getUserAgents().add(GOOGLEBOT);
+	}
+
+	@Test
+	public void none() {
+		assertThat(DataWarmUp.NONE.getUserAgents()).isEmpty();
+		DataWarmUp.NONE.warmUp(new DataBlueprint().build());
+	}
+
+	@Test
+	public void read() throws IOException {
+		final File corpus = folder.newFile("corpus.txt");
+		Files.write("# hot user agents\n" + FIREFOX + "\r\n\n  " + GOOGLEBOT + "  \n", corpus, Charsets.UTF_8);
+		final DataWarmUp warmUp = DataWarmUp.read(corpus.toURI().toURL(), Charsets.UTF_8);
+		assertThat(warmUp.getUserAgents()).isEqualTo(Arrays.asList(FIREFOX, GOOGLEBOT));
+	}
+
+	@Test(expected = IllegalNullArgumentException.class)
+	public void read_charset_null() throws IOException {
+		DataWarmUp.read(folder.newFile("corpus.txt").toURI().toURL(), null);
+	}
+
+	@Test(expected = IllegalNullArgumentException.class)
+	public void read_url_null() throws IOException {
+		DataWarmUp.read(null, Charsets.UTF_8);
+	}
+
+	@Test
+	public void warmUp_doesNotChangeResults() {
+		final DataStore store = new TestXmlDataStore();
+		final UserAgentStringParserImpl<DataStore> parser = new UserAgentStringParserImpl<DataStore>(store);
+		final ReadableUserAgent before = parser.parse(FIREFOX);
+
+		final Data data = store.getData();
+		new DataWarmUp(Arrays.asList(FIREFOX, GOOGLEBOT)).warmUp(data);
+		assertThat(store.getData()).isSameAs(data);
+		assertThat(parser.parse(FIREFOX)).isEqualTo(before);
+	}
+
+	@Test(expected = IllegalNullArgumentException.class)
+	public void warmUp_null() {
+		DataWarmUp.NONE.warmUp(null);
+	}
+
+}
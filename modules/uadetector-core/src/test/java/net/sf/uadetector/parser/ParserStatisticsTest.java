@@ -0,0 +1,169 @@
+/*******************************************************************************
+ * Copyright 2014 André Rouél
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package net.sf.uadetector.parser;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.lang.management.ManagementFactory;
+import java.util.EnumSet;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.TabularData;
+
+import net.sf.qualitycheck.exception.IllegalNullArgumentException;
+import net.sf.uadetector.DetectionField;
+import net.sf.uadetector.ReadableUserAgent;
+import net.sf.uadetector.UserAgent;
+import net.sf.uadetector.datastore.DataStore;
+import net.sf.uadetector.datastore.TestXmlDataStore;
+
+import org.junit.Test;
+
+public class ParserStatisticsTest {
+
+	private static final String FIREFOX = "Mozilla/5.0 (Windows NT 6.1; WOW64; rv:23.0) Gecko/20100101 Firefox/23.0";
+
+	private static final String GOOGLEBOT = "Mozilla/5.0 (compatible; Googlebot/2.1; +http://www.google.com/bot.html)";
+
+	private static UserAgentStringParserImpl<DataStore> createParser() {
+		return new UserAgentStringParserImpl<DataStore>(new TestXmlDataStore());
+	}
+
+	@Test
+	public void disabledByDefault() {
+		final UserAgentStringParserImpl<DataStore> parser = createParser();
+		assertThat(parser.getStatistics()).isNull();
+	}
+
+	@Test
+	public void disableStatistics() {
+		final UserAgentStringParserImpl<DataStore> parser = createParser();
+		final ParserStatistics statistics = parser.enableStatistics();
+		parser.parse(FIREFOX);
+		parser.disableStatistics();
+		parser.parse(FIREFOX);
+		assertThat(parser.getStatistics()).isNull();
+		assertThat(statistics.getParses()).isEqualTo(1);
+	}
+
+	@Test
+	public void enableStatistics_returnsSameInstance() {
+		final UserAgentStringParserImpl<DataStore> parser = createParser();
+		final ParserStatistics statistics = parser.enableStatistics();
+		assertThat(parser.enableStatistics()).isSameAs(statistics);
+		assertThat(parser.getStatistics()).isSameAs(statistics);
+	}
+
+	@Test(expected = IllegalNullArgumentException.class)
+	public void construct_dataStore_null() {
+		new ParserStatistics(null);
+	}
+
+	@Test
+	public void parse_browser() {
+		final UserAgentStringParserImpl<DataStore> parser = createParser();
+		final ReadableUserAgent expected = parser.parse(FIREFOX);
+		final ParserStatistics statistics = parser.enableStatistics();
+		assertThat(parser.parse(FIREFOX)).isEqualTo(expected);
+
+		assertThat(statistics.getParses()).isEqualTo(1);
+		assertThat(statistics.getStageCalls().get("ROBOT")).isEqualTo(1);
+		assertThat(statistics.getStageCalls().get("BROWSER")).isEqualTo(1);
+		assertThat(statistics.getStageCalls().get("OPERATING_SYSTEM")).isEqualTo(1);
+		assertThat(statistics.getStageCalls().get("DEVICE")).isEqualTo(1);
+		assertThat(statistics.getStagePatternsEvaluated().get("BROWSER") > 0).isTrue();
+		assertThat(statistics.getStageNanos().get("BROWSER") > 0).isTrue();
+		assertThat(statistics.getBrowserPatternHits().size()).isEqualTo(1);
+		assertThat(statistics.getBrowserPatternHits().values().iterator().next()).isEqualTo(1);
+	}
+
+	@Test
+	public void parseOnly_device() {
+		final UserAgentStringParserImpl<DataStore> parser = createParser();
+		final ReadableUserAgent expected = parser.parse(FIREFOX);
+		final ParserStatistics statistics = parser.enableStatistics();
+		final ReadableUserAgent agent = parser.parseOnly(FIREFOX, EnumSet.of(DetectionField.DEVICE));
+		assertThat(agent.getDeviceCategory()).isEqualTo(expected.getDeviceCategory());
+
+		assertThat(statistics.getStageCalls().get("BROWSER")).isEqualTo(0);
+		assertThat(statistics.getStageCalls().get("DEVICE")).isEqualTo(1);
+		assertThat(statistics.getStagePatternsEvaluated().get("BROWSER")).isEqualTo(0);
+		assertThat(statistics.getStagePatternsEvaluated().get("DEVICE") > 0).isTrue();
+		assertThat(statistics.getBrowserPatternHits().isEmpty()).isTrue();
+		assertThat(statistics.getDevicePatternHits().size()).isEqualTo(1);
+	}
+
+	@Test
+	public void parse_robot() {
+		final UserAgentStringParserImpl<DataStore> parser = createParser();
+		final ReadableUserAgent expected = parser.parse(GOOGLEBOT);
+		final ParserStatistics statistics = parser.enableStatistics();
+		assertThat(parser.parse(GOOGLEBOT)).isEqualTo(expected);
+		assertThat(parser.parse(GOOGLEBOT, new UserAgent.Builder()).build()).isEqualTo(expected);
+
+		assertThat(statistics.getParses()).isEqualTo(2);
+		assertThat(statistics.getStageCalls().get("ROBOT")).isEqualTo(2);
+		assertThat(statistics.getStageCalls().get("BROWSER")).isEqualTo(0);
+		assertThat(statistics.getStagePatternsEvaluated().get("BROWSER")).isEqualTo(0);
+		assertThat(statistics.getBrowserPatternHits().isEmpty()).isTrue();
+	}
+
+	@Test
+	public void register() throws Exception {
+		final UserAgentStringParserImpl<DataStore> parser = createParser();
+		final ParserStatistics statistics = parser.enableStatistics();
+		parser.parse(FIREFOX);
+
+		final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		final ObjectName name = statistics.register(server, "test");
+		try {
+			assertThat(name.getDomain()).isEqualTo(ParserStatistics.DOMAIN);
+			assertThat(server.getAttribute(name, "Parses")).isEqualTo(1L);
+			assertThat(server.getAttribute(name, "DataVersion")).isEqualTo(parser.getDataVersion());
+			assertThat(server.getAttribute(name, "BrowserPatternHits")).isInstanceOf(TabularData.class);
+			server.invoke(name, "reset", new Object[0], new String[0]);
+			assertThat(statistics.getParses()).isEqualTo(0);
+		} finally {
+			server.unregisterMBean(name);
+		}
+	}
+
+	@Test(expected = IllegalNullArgumentException.class)
+	public void register_name_null() throws Exception {
+		new ParserStatistics(new TestXmlDataStore()).register(ManagementFactory.getPlatformMBeanServer(), null);
+	}
+
+	@Test
+	public void reset() {
+		final UserAgentStringParserImpl<DataStore> parser = createParser();
+		final ParserStatistics statistics = parser.enableStatistics();
+		parser.parse(FIREFOX);
+		statistics.reset();
+		assertThat(statistics.getParses()).isEqualTo(0);
+		assertThat(statistics.getStageCalls().get("BROWSER")).isEqualTo(0);
+		assertThat(statistics.getStageNanos().get("BROWSER")).isEqualTo(0);
+		assertThat(statistics.getBrowserPatternHits().isEmpty()).isTrue();
+	}
+
+	@Test
+	public void getLastUpdateCheck() {
+		final TestXmlDataStore store = new TestXmlDataStore();
+		final ParserStatistics statistics = new ParserStatistics(store);
+		assertThat(statistics.getLastUpdateCheck()).isEqualTo(store.getUpdateOperation().getLastUpdateCheck());
+	}
+
+}
@@ -16,11 +16,23 @@
 package net.sf.uadetector.parser;
 
 import static org.fest.assertions.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
 import net.sf.qualitycheck.exception.IllegalNullArgumentException;
+import net.sf.uadetector.DetectionField;
 import net.sf.uadetector.DeviceCategory;
 import net.sf.uadetector.OperatingSystem;
 import net.sf.uadetector.OperatingSystemFamily;
 import net.sf.uadetector.ReadableDeviceCategory.Category;
+import net.sf.uadetector.ReadableUserAgent;
 import net.sf.uadetector.UserAgent;
 import net.sf.uadetector.UserAgentFamily;
 import net.sf.uadetector.UserAgentType;
@@ -60,6 +72,139 @@ public class UserAgentStringParserTest {
 		assertThat(PARSER.getDataStore().getData()).isNotNull();
 	}
 
+	@Test
+	public void parseAll_iterable() {
+		final List<String> userAgents = Arrays.asList("Mozilla/5.0 (compatible; Googlebot/2.1; +http://www.google.com/bot.html)",
+				"Opera/9.80 (Windows NT 5.1; U; cs) Presto/2.2.15 Version/10.00", "", "Java/1.6.0_31",
+				"Mozilla/5.0 (compatible; Googlebot/2.1; +http://www.google.com/bot.html)");
+		final List<ReadableUserAgent> agents = PARSER.parseAll(userAgents);
+		assertThat(agents).hasSize(userAgents.size());
+		for (int i = 0; i < userAgents.size(); i++) {
+			assertThat(agents.get(i)).isEqualTo(PARSER.parse(userAgents.get(i)));
+		}
+		assertThat(agents.get(0)).isSameAs(agents.get(4));
+	}
+
+	@Test(expected = IllegalNullArgumentException.class)
+	public void parseAll_iterable_null() {
+		PARSER.parseAll((Iterable<String>) null);
+	}
+
+	@Test
+	public void parseAll_stream() {
+		final ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			final List<String> userAgents = new ArrayList<String>();
+			for (int i = 0; i < 500; i++) {
+				userAgents.add("Mozilla/5.0 (Windows NT 6.1; rv:" + i % 50 + ".0) Gecko/20100101 Firefox/" + i % 50 + ".0");
+			}
+			final List<ReadableUserAgent> agents = PARSER.parseAll(userAgents.stream(), executor);
+			assertThat(agents).hasSize(userAgents.size());
+			for (int i = 0; i < userAgents.size(); i++) {
+				assertThat(agents.get(i)).isEqualTo(PARSER.parse(userAgents.get(i)));
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test(expected = IllegalNullArgumentException.class)
+	public void parseAll_stream_null() {
+		PARSER.parseAll((Stream<String>) null);
+	}
+
+	private static void assertRequestedFields(final ReadableUserAgent expected, final ReadableUserAgent actual,
+			final Set<DetectionField> fields) {
+		if (fields.contains(DetectionField.BROWSER)) {
+			assertThat(actual.getFamily()).isEqualTo(expected.getFamily());
+			assertThat(actual.getIcon()).isEqualTo(expected.getIcon());
+			assertThat(actual.getName()).isEqualTo(expected.getName());
+			assertThat(actual.getProducer()).isEqualTo(expected.getProducer());
+			assertThat(actual.getProducerUrl()).isEqualTo(expected.getProducerUrl());
+			assertThat(actual.getTypeName()).isEqualTo(expected.getTypeName());
+			assertThat(actual.getUrl()).isEqualTo(expected.getUrl());
+		}
+		if (fields.contains(DetectionField.BROWSER) || fields.contains(DetectionField.ROBOT)) {
+			assertThat(actual.getType() == UserAgentType.ROBOT).isEqualTo(expected.getType() == UserAgentType.ROBOT);
+		}
+		if (fields.contains(DetectionField.BROWSER_VERSION)) {
+			assertThat(actual.getVersionNumber()).isEqualTo(expected.getVersionNumber());
+		}
+		if (fields.contains(DetectionField.DEVICE)) {
+			assertThat(actual.getDeviceCategory()).isEqualTo(expected.getDeviceCategory());
+		}
+		if (fields.contains(DetectionField.OS_VERSION)) {
+			assertThat(actual.getOperatingSystem()).isEqualTo(expected.getOperatingSystem());
+		} else if (fields.contains(DetectionField.OS)) {
+			assertThat(actual.getOperatingSystem().getFamily()).isEqualTo(expected.getOperatingSystem().getFamily());
+			assertThat(actual.getOperatingSystem().getName()).isEqualTo(expected.getOperatingSystem().getName());
+			assertThat(actual.getOperatingSystem().getVersionNumber()).isEqualTo(VersionNumber.UNKNOWN);
+		}
+	}
+
+	@Test
+	public void parseOnly_allCombinations() {
+		final List<String> userAgents = Arrays.asList("Mozilla/5.0 (compatible; Googlebot/2.1; +http://www.google.com/bot.html)",
+				"Opera/9.80 (Windows NT 5.1; U; cs) Presto/2.2.15 Version/10.00", "", "Java/1.6.0_31", "http://Anonymouse.org/ (Unix)",
+				"Mozilla/5.0 (iPad; U; CPU OS 3_2 like Mac OS X; en-us) AppleWebKit/531.21.10 (KHTML, like Gecko) Version/4.0.4 Mobile/7B334b Safari/531.21.10",
+				"Mozilla/5.0 (Windows NT 6.1; rv:12.0) Gecko/20100101 Firefox/12.0", "qwertzuiopasdfghjklyxcvbnm");
+		final DetectionField[] values = DetectionField.values();
+		final UserAgent.Builder builder = new UserAgent.Builder();
+		for (int combination = 0; combination < 1 << values.length; combination++) {
+			final Set<DetectionField> fields = EnumSet.noneOf(DetectionField.class);
+			for (int i = 0; i < values.length; i++) {
+				if ((combination & 1 << i) != 0) {
+					fields.add(values[i]);
+				}
+			}
+			for (final String userAgent : userAgents) {
+				final UserAgent expected = PARSER.parse(userAgent);
+				assertRequestedFields(expected, PARSER.parseOnly(userAgent, fields), fields);
+				assertRequestedFields(expected, PARSER.parseOnly(userAgent, fields, builder), fields);
+			}
+		}
+	}
+
+	@Test
+	public void parseOnly_allFields() {
+		final String userAgent = "Mozilla/5.0 (Windows NT 6.1; rv:12.0) Gecko/20100101 Firefox/12.0";
+		assertThat(PARSER.parseOnly(userAgent, EnumSet.allOf(DetectionField.class))).isEqualTo(PARSER.parse(userAgent));
+	}
+
+	@Test
+	public void parseOnly_deviceOnly() {
+		final UserAgent agent = PARSER.parseOnly("Mozilla/5.0 (Windows NT 6.1; rv:12.0) Gecko/20100101 Firefox/12.0",
+				EnumSet.of(DetectionField.DEVICE));
+		assertThat(agent.getDeviceCategory().getCategory()).isEqualTo(Category.PERSONAL_COMPUTER);
+		assertThat(agent.getName()).isEqualTo(UserAgent.EMPTY.getName());
+		assertThat(agent.getType()).isEqualTo(UserAgentType.UNKNOWN);
+		assertThat(agent.getOperatingSystem()).isEqualTo(OperatingSystem.EMPTY);
+	}
+
+	@Test(expected = IllegalNullArgumentException.class)
+	public void parseOnly_fields_null() {
+		PARSER.parseOnly("Java/1.6.0_31", null);
+	}
+
+	@Test
+	public void parseOnly_operatingSystemWithoutVersion() {
+		final UserAgent agent = PARSER.parseOnly("Mozilla/5.0 (Windows NT 6.1; rv:12.0) Gecko/20100101 Firefox/12.0",
+				EnumSet.of(DetectionField.OS));
+		assertThat(agent.getOperatingSystem().getFamily()).isEqualTo(OperatingSystemFamily.WINDOWS);
+		assertThat(agent.getOperatingSystem().getVersionNumber()).isEqualTo(VersionNumber.UNKNOWN);
+		assertThat(agent.getVersionNumber()).isEqualTo(VersionNumber.UNKNOWN);
+		assertThat(agent.getDeviceCategory()).isEqualTo(DeviceCategory.EMPTY);
+	}
+
+	@Test
+	public void parseOnly_robot() {
+		final UserAgent agent = PARSER.parseOnly("Mozilla/5.0 (compatible; Googlebot/2.1; +http://www.google.com/bot.html)",
+				EnumSet.of(DetectionField.ROBOT), new UserAgent.Builder()).build();
+		assertThat(agent.getType()).isEqualTo(UserAgentType.ROBOT);
+		assertThat(agent.getName()).isEqualTo(UserAgent.EMPTY.getName());
+		assertThat(agent.getVersionNumber()).isEqualTo(VersionNumber.UNKNOWN);
+	}
+
 	@Test
 	public void parse_anonymizer_ANONYMOUSE() throws Exception {
 		final String userAgent = "http://Anonymouse.org/ (Unix)";
@@ -925,6 +1070,25 @@ public class UserAgentStringParserTest {
 		assertThat(agent.getDeviceCategory()).isEqualTo(DeviceCategory.EMPTY);
 	}
 
+	@Test
+	public void parse_reusedBuilder() {
+		final String[] userAgents = { "Mozilla/5.0 (compatible; Googlebot/2.1; +http://www.google.com/bot.html)",
+				"Mozilla/5.0 (iPad; CPU OS 5_0 like Mac OS X) AppleWebKit/534.46 (KHTML, like Gecko) Version/5.1 Mobile/9A334 Safari/7534.48.3",
+				"", "Opera/9.80 (Windows NT 5.1; U; cs) Presto/2.2.15 Version/10.00", "qwertzuiopasdfghjklyxcvbnm", "Java/1.6.0_31",
+				"Mozilla/5.0 (compatible; Googlebot/2.1; +http://www.google.com/bot.html)" };
+		final UserAgent.Builder builder = new UserAgent.Builder();
+		for (final String userAgent : userAgents) {
+			assertThat(PARSER.parse(userAgent, builder)).isSameAs(builder);
+			assertThat(builder.getUserAgentString()).isEqualTo(userAgent);
+			assertThat(builder.build()).isEqualTo(PARSER.parse(userAgent));
+		}
+	}
+
+	@Test(expected = IllegalNullArgumentException.class)
+	public void parse_reusedBuilder_null() {
+		PARSER.parse("Java/1.6.0_31", null);
+	}
+
 	@Test
 	public void parse_robot_GOOGLEBOT() throws Exception {
 		final String userAgent = "Mozilla/5.0 (compatible; Googlebot/2.1; +http://www.google.com/bot.html)";
@@ -949,6 +1113,14 @@ public class UserAgentStringParserTest {
 		assertThat(category.getInfoUrl()).isEqualTo("/list-of-ua/device-detail?device=Other");
 	}
 
+	@Test
+	public void parse_robot_prebuilt() {
+		final String userAgent = "Mozilla/5.0 (compatible; Googlebot/2.1; +http://www.google.com/bot.html)";
+		final UserAgent agent = PARSER.parse(userAgent);
+		assertThat(agent).isSameAs(PARSER.parse(userAgent));
+		assertThat(agent).isEqualTo(PARSER.parse(userAgent, new UserAgent.Builder()).build());
+	}
+
 	@Test
 	public void parse_robot_SETOOZ() throws Exception {
 		final String userAgent = "OOZBOT/0.20 ( Setooz výrazný ako say-th-uuz, znamená mosty.  ; http://www.setooz.com/oozbot.html ; agentname at setooz dot_com )";
@@ -0,0 +1,72 @@
+/*******************************************************************************
+ * Copyright 2014 André Rouél
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package net.sf.uadetector.writer;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+
+import net.sf.qualitycheck.exception.IllegalNullArgumentException;
+import net.sf.uadetector.internal.data.BinaryDataFormat;
+import net.sf.uadetector.internal.data.Data;
+
+import org.junit.Test;
+
+public class BinaryDataWriterTest {
+
+	@Test
+	public void giveMeCoverageForMyPrivateConstructor() throws Exception {
+		// reduces only some noise in coverage report
+		final Constructor<BinaryDataWriter> constructor = BinaryDataWriter.class.getDeclaredConstructor();
+		constructor.setAccessible(true);
+		constructor.newInstance();
+	}
+
+	@Test
+	public void write() throws IOException {
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		BinaryDataWriter.write(Data.EMPTY, bytes);
+		final DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+		assertThat(in.readInt()).isEqualTo(BinaryDataFormat.MAGIC);
+		assertThat(in.readInt()).isEqualTo(BinaryDataFormat.VERSION);
+		assertThat(in.readLong()).isEqualTo(BinaryDataFormat.UNKNOWN_SOURCE);
+	}
+
+	@Test
+	public void write_sourceChecksum() throws IOException {
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		BinaryDataWriter.write(Data.EMPTY, 42L, bytes);
+		final DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+		assertThat(in.readInt()).isEqualTo(BinaryDataFormat.MAGIC);
+		assertThat(in.readInt()).isEqualTo(BinaryDataFormat.VERSION);
+		assertThat(in.readLong()).isEqualTo(42L);
+	}
+
+	@Test(expected = IllegalNullArgumentException.class)
+	public void write_data_null() throws IOException {
+		BinaryDataWriter.write(null, new ByteArrayOutputStream());
+	}
+
+	@Test(expected = IllegalNullArgumentException.class)
+	public void write_outputStream_null() throws IOException {
+		BinaryDataWriter.write(Data.EMPTY, null);
+	}
+
+}
@@ -0,0 +1,97 @@
+/*******************************************************************************
+ * Copyright 2014 André Rouél
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package net.sf.uadetector.service;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+
+import javax.annotation.Nonnull;
+
+import net.sf.qualitycheck.Check;
+import net.sf.uadetector.datareader.XmlDataReader;
+import net.sf.uadetector.datastore.DataStore;
+import net.sf.uadetector.internal.data.BinaryDataFormat;
+import net.sf.uadetector.internal.data.Data;
+import net.sf.uadetector.internal.util.Closeables;
+import net.sf.uadetector.internal.util.UrlUtil;
+import net.sf.uadetector.writer.BinaryDataWriter;
+
+/**
+ * Generates the binary snapshot of the <em>UAS data</em> delivered in this module during the build, so that the
+ * snapshot always belongs to the delivered XML data.
+ * 
+ * @author André Rouél
+ */
+final class SnapshotGenerator {
+
+	/**
+	 * Calculates the checksum of the XML data behind the given URL.
+	 * 
+	 * @param url
+	 *            URL to <em>UAS data</em> in XML format
+	 * @return checksum of the XML data
+	 * @throws IOException
+	 *             if the XML data can not be read
+	 */
+	static long checksum(@Nonnull final URL url) throws IOException {
+		final InputStream inputStream = UrlUtil.open(url);
+		boolean threw = true;
+		try {
+			final long checksum = BinaryDataFormat.checksum(inputStream);
+			threw = false;
+			return checksum;
+		} finally {
+			Closeables.close(inputStream, threw);
+		}
+	}
+
+	/**
+	 * Reads the given XML data and writes its binary snapshot.
+	 * 
+	 * @param args
+	 *            path of the <em>UAS data</em> in XML format and path of the snapshot to write
+	 * @throws IOException
+	 *             if the XML data can not be read or the snapshot can not be written
+	 */
+	public static void main(final String[] args) throws IOException {
+		Check.stateIsTrue(args.length == 2, "Expected arguments: <path of uas.xml> <path of uas.bin>");
+		final URL dataUrl = UrlUtil.toUrl(new File(args[0]));
+		final Data data = new XmlDataReader().read(dataUrl, DataStore.DEFAULT_CHARSET);
+		Check.stateIsTrue(!Data.EMPTY.equals(data), "The UAS data in '%s' could not be read.", args[0]);
+
+		final OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(args[1]));
+		boolean threw = true;
+		try {
+			BinaryDataWriter.write(data, checksum(dataUrl), outputStream);
+			threw = false;
+		} finally {
+			Closeables.close(outputStream, threw);
+		}
+	}
+
+	/**
+	 * <strong>Attention:</strong> This class is not intended to create objects from it.
+	 */
+	private SnapshotGenerator() {
+		// This class is not intended to create objects from it.
+	}
+
+}
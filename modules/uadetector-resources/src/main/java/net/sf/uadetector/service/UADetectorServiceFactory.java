@@ -15,15 +15,24 @@
  ******************************************************************************/
 package net.sf.uadetector.service;
 
+import java.io.IOException;
 import java.net.URL;
 
+import javax.annotation.Nonnull;
+
+import net.sf.qualitycheck.Check;
 import net.sf.uadetector.UserAgentStringParser;
+import net.sf.uadetector.datareader.BinaryDataReader;
 import net.sf.uadetector.datareader.DataReader;
+import net.sf.uadetector.datareader.StreamingXmlDataReader;
 import net.sf.uadetector.datareader.XmlDataReader;
 import net.sf.uadetector.datastore.AbstractDataStore;
 import net.sf.uadetector.datastore.CachingXmlDataStore;
 import net.sf.uadetector.datastore.DataStore;
 import net.sf.uadetector.datastore.OnlineXmlDataStore;
+import net.sf.uadetector.datastore.RefreshableDataStore;
+import net.sf.uadetector.internal.data.Data;
+import net.sf.uadetector.parser.DataWarmUp;
 import net.sf.uadetector.parser.UpdatingUserAgentStringParserImpl;
 import net.sf.uadetector.parser.UserAgentStringParserImpl;
 
@@ -40,10 +49,11 @@ public final class UADetectorServiceFactory {
 	private static final class CachingAndUpdatingParserHolder {
 		private static UserAgentStringParser parser = null;
 
-		public static UserAgentStringParser getParser(final URL dataUrl, final URL verionUrl, final DataStore fallback) {
+		public static UserAgentStringParser getParser(final URL dataUrl, final URL verionUrl, final DataStore fallback,
+				final DataWarmUp warmUp) {
 			if (parser == null)
-				parser = new UpdatingUserAgentStringParserImpl(
-						CachingXmlDataStore.createCachingXmlDataStore(dataUrl, verionUrl, fallback));
+				parser = new UpdatingUserAgentStringParserImpl(warmUp(
+						CachingXmlDataStore.createCachingXmlDataStore(dataUrl, verionUrl, fallback), warmUp));
 			return parser;
 		}
 	}
@@ -54,9 +64,10 @@ public final class UADetectorServiceFactory {
 	private static final class OnlineUpdatingParserHolder {
 		private static UserAgentStringParser parser = null;
 
-		public static UserAgentStringParser getParser(final URL dataUrl, final URL versionUrl, final DataStore fallback) {
+		public static UserAgentStringParser getParser(final URL dataUrl, final URL versionUrl, final DataStore fallback,
+				final DataWarmUp warmUp) {
 			if (parser == null)
-				parser = new UpdatingUserAgentStringParserImpl(new OnlineXmlDataStore(dataUrl, versionUrl, fallback));
+				parser = new UpdatingUserAgentStringParserImpl(warmUp(new OnlineXmlDataStore(dataUrl, versionUrl, fallback), warmUp));
 			return parser;
 		}
 
@@ -71,31 +82,66 @@ public final class UADetectorServiceFactory {
 	public static final class ResourceModuleXmlDataStore extends AbstractDataStore {
 
 		/**
-		 * The default data reader to read in <em>UAS data</em> in XML format
+		 * The default data reader to read in <em>UAS data</em> in XML format, which skips the validation because the
+		 * data delivered in this module has been already validated
 		 */
-		private static final DataReader DEFAULT_DATA_READER = new XmlDataReader();
+		private static final DataReader DEFAULT_DATA_READER = new StreamingXmlDataReader();
 
 		/**
 		 * Path where the UAS data file is stored for the {@code ClassLoader}
 		 */
 		private static final String PATH = "net/sf/uadetector/resources";
 
+		/**
+		 * The data reader to read in the binary snapshot of the delivered <em>UAS data</em>
+		 */
+		private static final BinaryDataReader SNAPSHOT_READER = new BinaryDataReader();
+
 		/**
 		 * {@link URL} to the UAS data delivered in this module
 		 */
 		public static final URL UAS_DATA = ResourceModuleXmlDataStore.class.getClassLoader().getResource(PATH + "/uas.xml");
 
+		/**
+		 * {@link URL} to a binary snapshot of the UAS data delivered in this module, which can be read in much faster than
+		 * the XML data, or {@code null} if no snapshot is available. The snapshot will be generated during the build by
+		 * {@link SnapshotGenerator}.
+		 */
+		public static final URL UAS_SNAPSHOT = ResourceModuleXmlDataStore.class.getClassLoader().getResource(PATH + "/uas.bin");
+
 		/**
 		 * {@link URL} to the version information of the delivered UAS data in this module
 		 */
 		public static final URL UAS_VERSION = ResourceModuleXmlDataStore.class.getClassLoader().getResource(PATH + "/uas.version");
 
 		/**
-		 * Constructs an {@code ResourceModuleXmlDataStore} by reading <em>UAS data</em> from the specified URL
-		 * {@link #UAS_DATA} (in XML format).
+		 * Reads the binary snapshot {@link #UAS_SNAPSHOT}, if it is available and has been created from the XML data
+		 * {@link #UAS_DATA}, otherwise the XML data.
+		 * 
+		 * @return read in <em>UAS data</em>
+		 */
+		@Nonnull
+		private static Data readDeliveredData() {
+			if (UAS_SNAPSHOT != null) {
+				try {
+					final Data snapshot = SNAPSHOT_READER.read(UAS_SNAPSHOT, SnapshotGenerator.checksum(UAS_DATA));
+					if (!Data.EMPTY.equals(snapshot)) {
+						return snapshot;
+					}
+				} catch (final IOException e) {
+					// the XML data will be read instead
+				}
+			}
+			return readData(DEFAULT_DATA_READER, UAS_DATA, DEFAULT_CHARSET);
+		}
+
+		/**
+		 * Constructs an {@code ResourceModuleXmlDataStore} by reading <em>UAS data</em> from the binary snapshot
+		 * {@link #UAS_SNAPSHOT} or, if it is not available or outdated, from the specified URL {@link #UAS_DATA} (in XML
+		 * format).
 		 */
 		public ResourceModuleXmlDataStore() {
-			super(DEFAULT_DATA_READER, UAS_DATA, UAS_VERSION, DEFAULT_CHARSET);
+			super(readDeliveredData(), DEFAULT_DATA_READER, UAS_DATA, UAS_VERSION, DEFAULT_CHARSET);
 		}
 
 	}
@@ -168,7 +214,26 @@ public final class UADetectorServiceFactory {
 	 * @return an user agent string parser with updating service
 	 */
 	public static UserAgentStringParser getCachingAndUpdatingParser(final URL dataUrl, final URL versionUrl) {
-		return CachingAndUpdatingParserHolder.getParser(dataUrl, versionUrl, RESOURCE_MODULE);
+		return getCachingAndUpdatingParser(dataUrl, versionUrl, DataWarmUp.NONE);
+	}
+
+	/**
+	 * Returns the same implementation of {@link UserAgentStringParser} as
+	 * {@link #getCachingAndUpdatingParser(URL, URL)}, but the <em>UAS data</em> will be warmed up with the given corpus
+	 * of user agent strings. This happens at initialization time and before any newer data will be used.
+	 * 
+	 * <p>
+	 * The warm-up takes only effect if the parser will be initialized by this call.
+	 * 
+	 * @param dataUrl
+	 * @param versionUrl
+	 * @param warmUp
+	 *            warm-up for loaded <em>UAS data</em>
+	 * @return an user agent string parser with updating service
+	 */
+	public static UserAgentStringParser getCachingAndUpdatingParser(final URL dataUrl, final URL versionUrl, final DataWarmUp warmUp) {
+		Check.notNull(warmUp, "warmUp");
+		return CachingAndUpdatingParserHolder.getParser(dataUrl, versionUrl, RESOURCE_MODULE, warmUp);
 	}
 
 	/**
@@ -204,7 +269,8 @@ public final class UADetectorServiceFactory {
 	 * @return an user agent string parser with updating service
 	 */
 	public static UserAgentStringParser getCachingAndUpdatingParser(final URL dataUrl, final URL versionUrl, final URL fallbackDataURL, final URL fallbackVersionURL) {
-		return CachingAndUpdatingParserHolder.getParser(dataUrl, versionUrl, getCustomFallbackXmlDataStore(fallbackDataURL, fallbackVersionURL));
+		return CachingAndUpdatingParserHolder.getParser(dataUrl, versionUrl, getCustomFallbackXmlDataStore(fallbackDataURL, fallbackVersionURL),
+				DataWarmUp.NONE);
 	}
 
 	/**
@@ -251,7 +317,26 @@ public final class UADetectorServiceFactory {
 	 * @return an user agent string parser with updating service
 	 */
 	public static UserAgentStringParser getOnlineUpdatingParser(final URL dataUrl, final URL versionUrl) {
-		return OnlineUpdatingParserHolder.getParser(dataUrl, versionUrl, RESOURCE_MODULE);
+		return getOnlineUpdatingParser(dataUrl, versionUrl, DataWarmUp.NONE);
+	}
+
+	/**
+	 * Returns the same implementation of {@link UserAgentStringParser} as {@link #getOnlineUpdatingParser(URL, URL)},
+	 * but the <em>UAS data</em> will be warmed up with the given corpus of user agent strings. This happens at
+	 * initialization time and before any newer data will be used.
+	 * 
+	 * <p>
+	 * The warm-up takes only effect if the parser will be initialized by this call.
+	 * 
+	 * @param dataUrl
+	 * @param versionUrl
+	 * @param warmUp
+	 *            warm-up for loaded <em>UAS data</em>
+	 * @return an user agent string parser with updating service
+	 */
+	public static UserAgentStringParser getOnlineUpdatingParser(final URL dataUrl, final URL versionUrl, final DataWarmUp warmUp) {
+		Check.notNull(warmUp, "warmUp");
+		return OnlineUpdatingParserHolder.getParser(dataUrl, versionUrl, RESOURCE_MODULE, warmUp);
 	}
 
 	/**
@@ -286,7 +371,8 @@ public final class UADetectorServiceFactory {
 	 * @return an user agent string parser with updating service
 	 */
 	public static UserAgentStringParser getOnlineUpdatingParser(final URL dataUrl, final URL versionUrl, final URL fallbackDataUrl, final URL fallbackVersionUrl) {
-		return OnlineUpdatingParserHolder.getParser(dataUrl, versionUrl, getCustomFallbackXmlDataStore(fallbackDataUrl, fallbackVersionUrl));
+		return OnlineUpdatingParserHolder.getParser(dataUrl, versionUrl, getCustomFallbackXmlDataStore(fallbackDataUrl, fallbackVersionUrl),
+				DataWarmUp.NONE);
 	}
 
 	/**
@@ -313,12 +399,35 @@ public final class UADetectorServiceFactory {
 		return RESOURCE_MODULE_PARSER;
 	}
 
+	/**
+	 * Returns the same implementation of {@link UserAgentStringParser} as {@link #getResourceModuleParser()}, but
+	 * before the <em>UAS data</em> of this module will be warmed up with the given corpus of user agent strings.
+	 * 
+	 * @param warmUp
+	 *            warm-up for the <em>UAS data</em> of this module
+	 * @return an user agent string parser without updating service
+	 */
+	public static UserAgentStringParser getResourceModuleParser(final DataWarmUp warmUp) {
+		Check.notNull(warmUp, "warmUp");
+		warmUp.warmUp(RESOURCE_MODULE.getData());
+		return RESOURCE_MODULE_PARSER;
+	}
+
 	private static CustomFallbackXmlDataStore getCustomFallbackXmlDataStore(final URL fallbackDataUrl, final URL fallbackVersionUrl) {
 		if (customFallbackXmlDataStore == null)
 			customFallbackXmlDataStore = new CustomFallbackXmlDataStore(fallbackDataUrl, fallbackVersionUrl);
 		return customFallbackXmlDataStore;
 	}
 
+	/**
+	 * Warms up the current <em>UAS data</em> of the given store and every newer one before it will be used.
+	 */
+	private static <T extends RefreshableDataStore> T warmUp(final T store, final DataWarmUp warmUp) {
+		warmUp.warmUp(store.getData());
+		store.addUpdateListener(warmUp);
+		return store;
+	}
+
 	private UADetectorServiceFactory() {
 		// This class is not intended to create objects from it.
 	}
@@ -15,7 +15,18 @@
  ******************************************************************************/
 package net.sf.uadetector;
 
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.io.InputStream;
+
+import net.sf.uadetector.datareader.BinaryDataReader;
+import net.sf.uadetector.datareader.XmlDataReader;
+import net.sf.uadetector.datastore.DataStore;
+import net.sf.uadetector.internal.data.BinaryDataFormat;
+import net.sf.uadetector.internal.data.Data;
+import net.sf.uadetector.internal.util.UrlUtil;
 import net.sf.uadetector.service.UADetectorServiceFactory;
+import net.sf.uadetector.service.UADetectorServiceFactory.ResourceModuleXmlDataStore;
 
 import org.junit.Test;
 
@@ -26,4 +37,21 @@ public class ResourceModuleXmlDataStoreTest {
 		new UADetectorServiceFactory.ResourceModuleXmlDataStore();
 	}
 
+	@Test
+	public void snapshot_sameAsXmlData() throws Exception {
+		// the snapshot is generated during the build from the delivered XML data
+		final Data xml = new XmlDataReader().read(ResourceModuleXmlDataStore.UAS_DATA, DataStore.DEFAULT_CHARSET);
+		final InputStream inputStream = ResourceModuleXmlDataStore.UAS_DATA.openStream();
+		final long checksum;
+		try {
+			checksum = BinaryDataFormat.checksum(inputStream);
+		} finally {
+			inputStream.close();
+		}
+		final Data snapshot = new BinaryDataReader().read(ResourceModuleXmlDataStore.UAS_SNAPSHOT, checksum);
+		assertThat(snapshot).isEqualTo(xml);
+		assertThat(snapshot.getVersion()).isEqualTo(UrlUtil.read(ResourceModuleXmlDataStore.UAS_VERSION, DataStore.DEFAULT_CHARSET).trim());
+		assertThat(new ResourceModuleXmlDataStore().getData()).isEqualTo(xml);
+	}
+
 }
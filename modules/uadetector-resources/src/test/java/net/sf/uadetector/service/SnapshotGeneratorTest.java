@@ -0,0 +1,71 @@
+/*******************************************************************************
+ * Copyright 2014 André Rouél
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package net.sf.uadetector.service;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+
+import net.sf.qualitycheck.exception.IllegalStateOfArgumentException;
+import net.sf.uadetector.datareader.BinaryDataReader;
+import net.sf.uadetector.datareader.XmlDataReader;
+import net.sf.uadetector.datastore.DataStore;
+import net.sf.uadetector.internal.data.Data;
+import net.sf.uadetector.internal.util.UrlUtil;
+import net.sf.uadetector.service.UADetectorServiceFactory.ResourceModuleXmlDataStore;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class SnapshotGeneratorTest {
+
+	@Rule
+	public final TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void main() throws IOException {
+		final File xml = new File(folder.getRoot(), "uas.xml");
+		final InputStream inputStream = ResourceModuleXmlDataStore.UAS_DATA.openStream();
+		try {
+			Files.copy(inputStream, xml.toPath());
+		} finally {
+			inputStream.close();
+		}
+		final File snapshot = new File(folder.getRoot(), "uas.bin");
+
+		SnapshotGenerator.main(new String[] { xml.getPath(), snapshot.getPath() });
+
+		final Data data = new XmlDataReader().read(UrlUtil.toUrl(xml), DataStore.DEFAULT_CHARSET);
+		final long checksum = SnapshotGenerator.checksum(UrlUtil.toUrl(xml));
+		assertThat(new BinaryDataReader().read(UrlUtil.toUrl(snapshot), checksum)).isEqualTo(data);
+	}
+
+	@Test(expected = IllegalStateOfArgumentException.class)
+	public void main_missingArguments() throws IOException {
+		SnapshotGenerator.main(new String[0]);
+	}
+
+	@Test(expected = IllegalStateOfArgumentException.class)
+	public void main_unreadableData() throws IOException {
+		final File xml = folder.newFile("uas.xml");
+		SnapshotGenerator.main(new String[] { xml.getPath(), new File(folder.getRoot(), "uas.bin").getPath() });
+	}
+
+}